@@ -3,58 +3,224 @@ package br.com.wallet.finance.api;
 
 import br.com.wallet.finance.api.dto.WalletBalanceApi;
 import br.com.wallet.finance.api.dto.WalletCashFlowApi;
+import br.com.wallet.finance.api.dto.request.BatchBalanceRequest;
 import br.com.wallet.finance.api.dto.request.DepositRequest;
 import br.com.wallet.finance.api.dto.request.WithdrawRequest;
+import br.com.wallet.finance.api.dto.response.BalancePointResponse;
 import br.com.wallet.finance.api.dto.response.BalanceResponse;
+import br.com.wallet.finance.api.dto.response.BatchBalanceResponse;
+import br.com.wallet.finance.api.dto.response.CashFlowBucketResponse;
+import br.com.wallet.finance.api.dto.response.CashFlowResponse;
 import br.com.wallet.finance.application.usecase.*;
+import br.com.wallet.finance.domain.enums.CashFlowGranularity;
+import br.com.wallet.finance.domain.model.BalancePoint;
+import br.com.wallet.finance.domain.model.WalletBalance;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 @RestController
 public class WalletBalanceController implements WalletBalanceApi, WalletCashFlowApi {
 
+    static final String WALLET_VERSION_HEADER = "X-Wallet-Version";
+
     private final GetBalanceUseCase getBalanceUseCase;
     private final GetHistoricalBalanceUseCase getHistoricalBalanceUseCase;
+    private final GetBalanceAsyncUseCase getBalanceAsyncUseCase;
     private final DepositUseCase depositUseCase;
     private final WithdrawUseCase withdrawUseCase;
+    private final GetCashFlowReportUseCase getCashFlowReportUseCase;
+    private final GetBalanceSeriesUseCase getBalanceSeriesUseCase;
+    private final GetBalancesUseCase getBalancesUseCase;
+    private final ObjectMapper objectMapper;
 
     public WalletBalanceController(
             GetBalanceUseCase getBalanceUseCase,
             GetHistoricalBalanceUseCase getHistoricalBalanceUseCase,
+            GetBalanceAsyncUseCase getBalanceAsyncUseCase,
             DepositUseCase depositUseCase,
-            WithdrawUseCase withdrawUseCase
+            WithdrawUseCase withdrawUseCase,
+            GetCashFlowReportUseCase getCashFlowReportUseCase,
+            GetBalanceSeriesUseCase getBalanceSeriesUseCase,
+            GetBalancesUseCase getBalancesUseCase,
+            ObjectMapper objectMapper
     ) {
         this.getBalanceUseCase = getBalanceUseCase;
         this.getHistoricalBalanceUseCase = getHistoricalBalanceUseCase;
+        this.getBalanceAsyncUseCase = getBalanceAsyncUseCase;
         this.depositUseCase = depositUseCase;
         this.withdrawUseCase = withdrawUseCase;
+        this.getCashFlowReportUseCase = getCashFlowReportUseCase;
+        this.getBalanceSeriesUseCase = getBalanceSeriesUseCase;
+        this.getBalancesUseCase = getBalancesUseCase;
+        this.objectMapper = objectMapper;
     }
 
     @Override
-    public BalanceResponse getBalance(UUID walletId, Instant at) {
+    public BalanceResponse getBalance(UUID walletId, Instant at, Long minVersion) {
         BigDecimal balance = (at == null)
-                ? getBalanceUseCase.execute(walletId)
-                : getHistoricalBalanceUseCase.execute(walletId, at);
+                ? getBalanceUseCase.execute(walletId, minVersion)
+                : getHistoricalBalanceUseCase.execute(walletId, at, minVersion);
 
         return new BalanceResponse(walletId, balance);
     }
 
+    @Override
+    public CompletableFuture<BalanceResponse> getBalanceAsync(UUID walletId, Instant at, Long minVersion) {
+        return getBalanceAsyncUseCase.execute(walletId, at, minVersion)
+                .thenApply(balance -> new BalanceResponse(walletId, balance));
+    }
+
+    @Override
+    public BatchBalanceResponse getBalances(@Valid @RequestBody BatchBalanceRequest request) {
+        List<WalletBalance> found = getBalancesUseCase.execute(request.walletIds(), request.at());
+
+        Set<UUID> notFound = new LinkedHashSet<>(request.walletIds());
+        List<BalanceResponse> balances = new ArrayList<>(found.size());
+        for (WalletBalance b : found) {
+            notFound.remove(b.walletId());
+            balances.add(new BalanceResponse(b.walletId(), b.balance()));
+        }
+
+        return new BatchBalanceResponse(balances, List.copyOf(notFound));
+    }
+
+    @Override
+    public void getBalanceSeries(UUID walletId,
+                                 Instant from,
+                                 Instant to,
+                                 String step,
+                                 HttpServletResponse response) throws IOException {
+
+        Duration resolvedStep = parseStep(step);
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream());
+        BalanceSeriesJsonWriter writer = new BalanceSeriesJsonWriter(generator, walletId, resolvedStep);
+
+        try {
+            getBalanceSeriesUseCase.execute(walletId, from, to, resolvedStep, writer);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.finish();
+    }
+
     @Override
     @ResponseStatus(HttpStatus.CREATED)
-    public void deposit(UUID walletId, @Valid @RequestBody DepositRequest request) {
-        depositUseCase.execute(walletId, request.amount(), request.description());
+    public void deposit(UUID walletId,
+                        String idempotencyKey,
+                        @Valid @RequestBody DepositRequest request,
+                        HttpServletResponse response) {
+        Long version = depositUseCase.execute(idempotencyKey, walletId, request.amount(), request.description());
+        writeWalletVersion(response, version);
     }
 
     @Override
     @ResponseStatus(HttpStatus.CREATED)
-    public void withdraw(UUID walletId, @Valid @RequestBody WithdrawRequest request) {
-        withdrawUseCase.execute(walletId, request.amount(), request.description());
+    public void withdraw(UUID walletId,
+                        String idempotencyKey,
+                        @Valid @RequestBody WithdrawRequest request,
+                        HttpServletResponse response) {
+        Long version = withdrawUseCase.execute(idempotencyKey, walletId, request.amount(), request.description());
+        writeWalletVersion(response, version);
+    }
+
+    @Override
+    public CashFlowResponse getCashFlow(UUID walletId, LocalDate from, LocalDate to, String granularity) {
+        CashFlowGranularity resolved = CashFlowGranularity.from(granularity);
+
+        List<CashFlowBucketResponse> buckets = getCashFlowReportUseCase.execute(walletId, from, to, resolved)
+                .stream()
+                .map(b -> new CashFlowBucketResponse(
+                        b.periodStart(),
+                        b.totalCredits(),
+                        b.totalDebits(),
+                        b.closingBalance()
+                ))
+                .toList();
+
+        return new CashFlowResponse(walletId, resolved.name(), buckets);
+    }
+
+    private void writeWalletVersion(HttpServletResponse response, Long version) {
+        // repetição de chave gravada antes de idempotency_keys.wallet_version: não há versão para devolver
+        if (version != null) {
+            response.setHeader(WALLET_VERSION_HEADER, version.toString());
+        }
+    }
+
+    private Duration parseStep(String step) {
+        try {
+            return Duration.parse(step);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid step: " + step);
+        }
+    }
+
+    /**
+     * Escreve a série à medida que os pontos são calculados. O envelope só é aberto
+     * no primeiro ponto, para que erros de validação ainda virem respostas de erro normais.
+     */
+    private static final class BalanceSeriesJsonWriter implements Consumer<BalancePoint> {
+
+        private final JsonGenerator generator;
+        private final UUID walletId;
+        private final Duration step;
+        private boolean started;
+
+        private BalanceSeriesJsonWriter(JsonGenerator generator, UUID walletId, Duration step) {
+            this.generator = generator;
+            this.walletId = walletId;
+            this.step = step;
+        }
+
+        @Override
+        public void accept(BalancePoint point) {
+            try {
+                startIfNeeded();
+                generator.writeObject(new BalancePointResponse(point.at(), point.balance()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private void finish() throws IOException {
+            startIfNeeded();
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.flush();
+        }
+
+        private void startIfNeeded() throws IOException {
+            if (started) {
+                return;
+            }
+            started = true;
+            generator.writeStartObject();
+            generator.writeStringField("walletId", walletId.toString());
+            generator.writeStringField("step", step.toString());
+            generator.writeArrayFieldStart("points");
+        }
     }
 }
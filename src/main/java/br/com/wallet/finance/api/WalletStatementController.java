@@ -0,0 +1,129 @@
+package br.com.wallet.finance.api;
+
+import br.com.wallet.finance.api.dto.WalletStatementApi;
+import br.com.wallet.finance.api.dto.response.StatementEntryResponse;
+import br.com.wallet.finance.api.export.StatementExportFormat;
+import br.com.wallet.finance.api.export.StatementExportWriter;
+import br.com.wallet.finance.application.usecase.ExportStatementUseCase;
+import br.com.wallet.finance.application.usecase.GetStatementUseCase;
+import br.com.wallet.finance.domain.model.StatementCursor;
+import br.com.wallet.finance.domain.model.StatementEntry;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@RestController
+public class WalletStatementController implements WalletStatementApi {
+
+    private final GetStatementUseCase getStatementUseCase;
+    private final ExportStatementUseCase exportStatementUseCase;
+    private final ObjectMapper objectMapper;
+
+    public WalletStatementController(GetStatementUseCase getStatementUseCase,
+                                     ExportStatementUseCase exportStatementUseCase,
+                                     ObjectMapper objectMapper) {
+        this.getStatementUseCase = getStatementUseCase;
+        this.exportStatementUseCase = exportStatementUseCase;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void getStatement(UUID walletId,
+                             Instant from,
+                             Instant to,
+                             String cursor,
+                             int limit,
+                             HttpServletResponse response) throws IOException {
+
+        StatementCursor after = (cursor == null || cursor.isBlank()) ? null : StatementCursor.decode(cursor);
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream());
+        StatementJsonWriter writer = new StatementJsonWriter(generator, walletId);
+
+        StatementCursor next;
+        try {
+            next = getStatementUseCase.execute(walletId, from, to, after, limit, writer);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.finish(next);
+    }
+
+    @Override
+    public void exportStatement(UUID walletId,
+                                Instant from,
+                                Instant to,
+                                String format,
+                                boolean gzip,
+                                HttpServletResponse response) throws IOException {
+
+        StatementExportWriter writer = new StatementExportWriter(
+                response,
+                StatementExportFormat.from(format),
+                gzip,
+                "statement-" + walletId,
+                objectMapper
+        );
+
+        try {
+            exportStatementUseCase.execute(walletId, from, to, writer);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.finish();
+    }
+
+    /**
+     * Escreve o envelope JSON de forma preguiçosa: nada é escrito até o primeiro
+     * lançamento (ou o fim da página), para que erros de validação do caso de uso
+     * ainda possam ser tratados pelo GlobalExceptionHandler.
+     */
+    private static final class StatementJsonWriter implements Consumer<StatementEntry> {
+
+        private final JsonGenerator generator;
+        private final UUID walletId;
+        private boolean started;
+
+        private StatementJsonWriter(JsonGenerator generator, UUID walletId) {
+            this.generator = generator;
+            this.walletId = walletId;
+        }
+
+        @Override
+        public void accept(StatementEntry entry) {
+            try {
+                startIfNeeded();
+                generator.writeObject(StatementEntryResponse.of(entry));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private void finish(StatementCursor next) throws IOException {
+            startIfNeeded();
+            generator.writeEndArray();
+            generator.writeStringField("nextCursor", next != null ? next.encode() : null);
+            generator.writeEndObject();
+            generator.flush();
+        }
+
+        private void startIfNeeded() throws IOException {
+            if (started) {
+                return;
+            }
+            started = true;
+            generator.writeStartObject();
+            generator.writeStringField("walletId", walletId.toString());
+            generator.writeArrayFieldStart("entries");
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package br.com.wallet.finance.api.dto;
 
+import br.com.wallet.finance.api.dto.request.BatchBalanceRequest;
 import br.com.wallet.finance.api.dto.response.BalanceResponse;
+import br.com.wallet.finance.api.dto.response.BalanceSeriesResponse;
+import br.com.wallet.finance.api.dto.response.BatchBalanceResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -8,11 +11,16 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Tag(
         name = "Wallet Balance",
@@ -80,6 +88,195 @@ public interface WalletBalanceApi {
             )
             @RequestParam(name = "at", required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
-            Instant at
+            Instant at,
+
+            @Parameter(
+                    name = "X-Min-Wallet-Version",
+                    in = ParameterIn.HEADER,
+                    required = false,
+                    description = """
+                            Versão mínima da carteira aceita na leitura (valor de `X-Wallet-Version`
+                            devolvido por depósito ou saque). Se a réplica ainda não a tiver, a
+                            consulta é refeita no banco primário.
+                            """,
+                    example = "42"
+            )
+            @RequestHeader(value = "X-Min-Wallet-Version", required = false) Long minVersion
+    );
+
+    @Operation(
+            summary = "Consulta saldo da carteira sem prender a thread da requisição",
+            description = """
+                    Mesmo contrato de GET /wallets/{walletId}/balance (saldo atual, `at` e
+                    `X-Min-Wallet-Version`), para clientes que fazem polling em massa.
+
+                    A requisição fica em espera sem ocupar thread do servidor enquanto um pool
+                    pequeno de leitura consulta o banco; polls simultâneos da mesma carteira com os
+                    mesmos parâmetros compartilham uma única consulta.
+
+                    Fila de leitura cheia ou consulta acima do timeout respondem 503 com Retry-After.
+                    """,
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Saldo retornado com sucesso",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = BalanceResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Carteira não encontrada",
+                            content = @Content(mediaType = "application/json")
+                    ),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "Fila de leitura cheia ou timeout, tente de novo",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping("/{walletId}/balance/async")
+    CompletableFuture<BalanceResponse> getBalanceAsync(
+            @Parameter(
+                    name = "walletId",
+                    in = ParameterIn.PATH,
+                    required = true,
+                    description = "ID da carteira que será consultada",
+                    example = "6f7c29d1-8c2d-4a17-8f2a-f22c943f7b9c"
+            )
+            @PathVariable UUID walletId,
+
+            @Parameter(
+                    name = "at",
+                    in = ParameterIn.QUERY,
+                    required = false,
+                    description = "Momento no tempo (UTC, ISO-8601) para saldo histórico",
+                    example = "2025-10-09T15:00:00Z"
+            )
+            @RequestParam(name = "at", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            Instant at,
+
+            @Parameter(
+                    name = "X-Min-Wallet-Version",
+                    in = ParameterIn.HEADER,
+                    required = false,
+                    description = "Versão mínima da carteira aceita na leitura",
+                    example = "42"
+            )
+            @RequestHeader(value = "X-Min-Wallet-Version", required = false) Long minVersion
+    );
+
+    @Operation(
+            summary = "Série temporal de saldos da carteira",
+            description = """
+                    Retorna o saldo da carteira em cada instante from, from + step, ... até `to`.
+                    O saldo em cada ponto considera os lançamentos com occurredAt <= ponto,
+                    igual ao parâmetro `at` do endpoint de saldo.
+
+                    O cálculo lê o ledger uma única vez (saldo de abertura + leitura ordenada
+                    do intervalo) e os pontos são escritos em streaming.
+
+                    Exemplo (um ponto por hora num dia):
+                      GET /wallets/{walletId}/balance/series?from=2025-10-09T00:00:00Z&to=2025-10-10T00:00:00Z&step=PT1H
+                    """,
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Série retornada com sucesso",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = BalanceSeriesResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Intervalo ou step inválidos (máximo de 1000 pontos)",
+                            content = @Content(mediaType = "application/json")
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Carteira não encontrada",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping(value = "/{walletId}/balance/series", produces = MediaType.APPLICATION_JSON_VALUE)
+    void getBalanceSeries(
+            @Parameter(
+                    name = "walletId",
+                    in = ParameterIn.PATH,
+                    required = true,
+                    description = "ID da carteira que será consultada",
+                    example = "6f7c29d1-8c2d-4a17-8f2a-f22c943f7b9c"
+            )
+            @PathVariable UUID walletId,
+
+            @Parameter(
+                    name = "from",
+                    in = ParameterIn.QUERY,
+                    required = true,
+                    description = "Primeiro ponto da série (UTC, ISO-8601)",
+                    example = "2025-10-09T00:00:00Z"
+            )
+            @RequestParam(name = "from")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            Instant from,
+
+            @Parameter(
+                    name = "to",
+                    in = ParameterIn.QUERY,
+                    required = true,
+                    description = "Limite final da série (UTC, inclusivo)",
+                    example = "2025-10-10T00:00:00Z"
+            )
+            @RequestParam(name = "to")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            Instant to,
+
+            @Parameter(
+                    name = "step",
+                    in = ParameterIn.QUERY,
+                    required = true,
+                    description = "Intervalo entre pontos, em duração ISO-8601 (ex: PT15M, PT1H, P1D)",
+                    example = "PT1H"
+            )
+            @RequestParam(name = "step")
+            String step,
+
+            @Parameter(hidden = true)
+            HttpServletResponse response
+    ) throws IOException;
+
+    @Operation(
+            summary = "Consulta saldo de várias carteiras",
+            description = """
+                    Retorna o saldo atual (ou histórico, com `at`) de até 500 carteiras
+                    numa única chamada.
+
+                    Os saldos são lidos com uma única consulta `IN` por projeção, sem carregar
+                    as entidades. IDs inexistentes voltam em `notFound`.
+                    """,
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Saldos retornados com sucesso",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = BatchBalanceResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Lista vazia ou com mais de 500 carteiras",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @PostMapping("/balances")
+    BatchBalanceResponse getBalances(
+            @Valid @RequestBody BatchBalanceRequest request
     );
 }
@@ -3,16 +3,21 @@ package br.com.wallet.finance.api.dto;
 
 import br.com.wallet.finance.api.dto.request.DepositRequest;
 import br.com.wallet.finance.api.dto.request.WithdrawRequest;
+import br.com.wallet.finance.api.dto.response.CashFlowResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.UUID;
 
 @Tag(
@@ -30,6 +35,11 @@ public interface WalletCashFlowApi {
                     Regras:
                     - Gera um lançamento de CREDIT no ledger (auditoria).
                     - Atualiza o saldo atual da carteira de forma transacional.
+                    - Com o header `Idempotency-Key`, a repetição da mesma chave devolve 201
+                      sem creditar de novo e sem travar a carteira.
+                    - O header `X-Wallet-Version` da resposta traz a versão da carteira após o crédito
+                      (na repetição, a mesma da resposta original); repassada em `X-Min-Wallet-Version`
+                      na consulta de saldo, garante ler a própria escrita.
                     
                     Exemplo de uso:
                     POST /wallets/{walletId}/deposit
@@ -68,7 +78,20 @@ public interface WalletCashFlowApi {
             )
             @PathVariable UUID walletId,
 
-            @Valid @RequestBody DepositRequest request
+            @Parameter(
+                    name = "Idempotency-Key",
+                    in = ParameterIn.HEADER,
+                    required = false,
+                    description = "Chave opcional para retentativas seguras. Repetida dentro da validade, " +
+                            "a API responde 201 sem aplicar a operação de novo.",
+                    example = "8b9d2c1e-3f4a-4e5b-9c6d-7e8f9a0b1c2d"
+            )
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+
+            @Valid @RequestBody DepositRequest request,
+
+            @Parameter(hidden = true)
+            HttpServletResponse response
     );
 
 
@@ -81,6 +104,10 @@ public interface WalletCashFlowApi {
                     - Gera um lançamento de DEBIT no ledger (auditoria).
                     - Atualiza o saldo atual da carteira.
                     - Valida se há saldo suficiente.
+                    - Com o header `Idempotency-Key`, a repetição da mesma chave devolve 201
+                      sem debitar de novo e sem travar a carteira.
+                    - O header `X-Wallet-Version` da resposta traz a versão da carteira após o débito
+                      (na repetição, a mesma da resposta original).
                     
                     Exemplo de uso:
                     POST /wallets/{walletId}/withdraw
@@ -127,7 +154,96 @@ public interface WalletCashFlowApi {
             )
             @PathVariable UUID walletId,
 
-            @Valid @RequestBody WithdrawRequest request
+            @Parameter(
+                    name = "Idempotency-Key",
+                    in = ParameterIn.HEADER,
+                    required = false,
+                    description = "Chave opcional para retentativas seguras. Repetida dentro da validade, " +
+                            "a API responde 201 sem aplicar a operação de novo.",
+                    example = "8b9d2c1e-3f4a-4e5b-9c6d-7e8f9a0b1c2d"
+            )
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+
+            @Valid @RequestBody WithdrawRequest request,
+
+            @Parameter(hidden = true)
+            HttpServletResponse response
     );
-}
 
+    @Operation(
+            summary = "Relatório de fluxo de caixa da carteira",
+            description = """
+                    Retorna, por dia ou por mês (UTC), o total de créditos, o total de débitos
+                    e o saldo de fechamento da carteira.
+
+                    O relatório é servido a partir de agregados diários mantidos a cada
+                    lançamento no ledger, sem varrer ledger_entries.
+                    Períodos sem movimentação aparecem zerados, repetindo o saldo anterior.
+
+                    Exemplo:
+                      GET /wallets/{walletId}/cashflow?from=2025-01-01&to=2025-12-31&granularity=month
+                    """,
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Relatório retornado com sucesso",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = CashFlowResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Intervalo ou granularidade inválidos",
+                            content = @Content(mediaType = "application/json")
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Carteira não encontrada",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping("/{walletId}/cashflow")
+    CashFlowResponse getCashFlow(
+            @Parameter(
+                    name = "walletId",
+                    in = ParameterIn.PATH,
+                    required = true,
+                    description = "ID da carteira consultada",
+                    example = "6f7c29d1-8c2d-4a17-8f2a-f22c943f7b9c"
+            )
+            @PathVariable UUID walletId,
+
+            @Parameter(
+                    name = "from",
+                    in = ParameterIn.QUERY,
+                    required = true,
+                    description = "Primeiro dia do relatório (inclusivo, ISO-8601)",
+                    example = "2025-10-01"
+            )
+            @RequestParam(name = "from")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+
+            @Parameter(
+                    name = "to",
+                    in = ParameterIn.QUERY,
+                    required = true,
+                    description = "Último dia do relatório (inclusivo, ISO-8601)",
+                    example = "2025-10-31"
+            )
+            @RequestParam(name = "to")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to,
+
+            @Parameter(
+                    name = "granularity",
+                    in = ParameterIn.QUERY,
+                    description = "Tamanho do período: day ou month",
+                    example = "day"
+            )
+            @RequestParam(name = "granularity", defaultValue = "day")
+            String granularity
+    );
+}
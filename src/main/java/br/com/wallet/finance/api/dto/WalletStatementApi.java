@@ -0,0 +1,204 @@
+package br.com.wallet.finance.api.dto;
+
+import br.com.wallet.finance.api.dto.response.StatementPageResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
+
+@Tag(
+        name = "Wallet Statement",
+        description = "Extrato paginado dos lançamentos do ledger da carteira"
+)
+@RequestMapping("/wallets")
+public interface WalletStatementApi {
+
+    @Operation(
+            summary = "Consulta o extrato da carteira",
+            description = """
+                    Lista os lançamentos do ledger da carteira no intervalo [from, to),
+                    ordenados por occurredAt e id.
+
+                    • Paginação por keyset: a resposta traz `nextCursor`, que deve ser
+                      enviado no parâmetro `cursor` para obter a página seguinte.
+                      O custo de cada página não cresce com a profundidade.
+
+                    • A resposta é escrita em streaming, à medida que as linhas são lidas
+                      do banco.
+
+                    Exemplo:
+                      GET /wallets/{walletId}/statement?from=2025-10-01T00:00:00Z&to=2025-11-01T00:00:00Z&limit=100
+                    """,
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Página do extrato retornada com sucesso",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = StatementPageResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Parâmetros inválidos (intervalo, limit ou cursor)",
+                            content = @Content(mediaType = "application/json")
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Carteira não encontrada",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping(value = "/{walletId}/statement", produces = MediaType.APPLICATION_JSON_VALUE)
+    void getStatement(
+            @Parameter(
+                    name = "walletId",
+                    in = ParameterIn.PATH,
+                    required = true,
+                    description = "ID da carteira que será consultada",
+                    example = "6f7c29d1-8c2d-4a17-8f2a-f22c943f7b9c"
+            )
+            @PathVariable UUID walletId,
+
+            @Parameter(
+                    name = "from",
+                    in = ParameterIn.QUERY,
+                    description = "Início do intervalo (UTC, inclusivo). Padrão: sem limite inferior.",
+                    example = "2025-10-01T00:00:00Z"
+            )
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            Instant from,
+
+            @Parameter(
+                    name = "to",
+                    in = ParameterIn.QUERY,
+                    description = "Fim do intervalo (UTC, exclusivo). Padrão: agora.",
+                    example = "2025-11-01T00:00:00Z"
+            )
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            Instant to,
+
+            @Parameter(
+                    name = "cursor",
+                    in = ParameterIn.QUERY,
+                    description = "Valor de `nextCursor` devolvido pela página anterior"
+            )
+            @RequestParam(name = "cursor", required = false)
+            String cursor,
+
+            @Parameter(
+                    name = "limit",
+                    in = ParameterIn.QUERY,
+                    description = "Quantidade máxima de lançamentos por página (1 a 1000)",
+                    example = "100"
+            )
+            @RequestParam(name = "limit", defaultValue = "100")
+            int limit,
+
+            @Parameter(hidden = true)
+            HttpServletResponse response
+    ) throws IOException;
+
+    @Operation(
+            summary = "Exporta o extrato completo da carteira (CSV ou NDJSON)",
+            description = """
+                    Exporta todos os lançamentos do ledger da carteira no intervalo [from, to),
+                    ordenados por occurredAt e id, em CSV ou NDJSON (uma linha JSON por lançamento).
+
+                    • O arquivo é escrito em streaming direto do cursor do banco, em blocos;
+                      o resultado nunca é carregado inteiro em memória.
+
+                    • Com `gzip=true` o arquivo é comprimido durante a escrita (.gz).
+
+                    Exemplo:
+                      GET /wallets/{walletId}/statement/export?from=2025-01-01T00:00:00Z&to=2026-01-01T00:00:00Z&format=ndjson&gzip=true
+                    """,
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Arquivo do extrato",
+                            content = {
+                                    @Content(mediaType = "text/csv"),
+                                    @Content(mediaType = "application/x-ndjson"),
+                                    @Content(mediaType = "application/gzip")
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Parâmetros inválidos (intervalo ou formato)",
+                            content = @Content(mediaType = "application/json")
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Carteira não encontrada",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    @GetMapping("/{walletId}/statement/export")
+    void exportStatement(
+            @Parameter(
+                    name = "walletId",
+                    in = ParameterIn.PATH,
+                    required = true,
+                    description = "ID da carteira que será exportada",
+                    example = "6f7c29d1-8c2d-4a17-8f2a-f22c943f7b9c"
+            )
+            @PathVariable UUID walletId,
+
+            @Parameter(
+                    name = "from",
+                    in = ParameterIn.QUERY,
+                    description = "Início do intervalo (UTC, inclusivo). Padrão: sem limite inferior.",
+                    example = "2025-01-01T00:00:00Z"
+            )
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            Instant from,
+
+            @Parameter(
+                    name = "to",
+                    in = ParameterIn.QUERY,
+                    description = "Fim do intervalo (UTC, exclusivo). Padrão: agora.",
+                    example = "2026-01-01T00:00:00Z"
+            )
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            Instant to,
+
+            @Parameter(
+                    name = "format",
+                    in = ParameterIn.QUERY,
+                    description = "Formato do arquivo: csv ou ndjson",
+                    example = "csv"
+            )
+            @RequestParam(name = "format", defaultValue = "csv")
+            String format,
+
+            @Parameter(
+                    name = "gzip",
+                    in = ParameterIn.QUERY,
+                    description = "Comprime o arquivo com gzip durante a escrita",
+                    example = "false"
+            )
+            @RequestParam(name = "gzip", defaultValue = "false")
+            boolean gzip,
+
+            @Parameter(hidden = true)
+            HttpServletResponse response
+    ) throws IOException;
+}
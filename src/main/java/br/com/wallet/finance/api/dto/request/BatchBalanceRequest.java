@@ -0,0 +1,28 @@
+package br.com.wallet.finance.api.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Schema(name = "BatchBalanceRequest", description = "Consulta de saldo de várias carteiras de uma vez")
+public record BatchBalanceRequest(
+
+        @Schema(
+                description = "IDs das carteiras (máximo 500)",
+                example = "[\"6f7c29d1-8c2d-4a17-8f2a-f22c943f7b9c\", \"3e4a2cb2-47b8-40bd-9a85-984d6b71a7c0\"]",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        @NotEmpty @Size(max = 500)
+        List<@NotNull UUID> walletIds,
+
+        @Schema(
+                description = "Momento (UTC) para saldo histórico. Se omitido, retorna o saldo atual.",
+                example = "2025-10-09T15:00:00Z"
+        )
+        Instant at
+) {}
@@ -0,0 +1,12 @@
+package br.com.wallet.finance.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Schema(name = "BalancePointResponse", description = "Saldo da carteira em um instante da série")
+public record BalancePointResponse(
+        @Schema(description = "Instante do ponto (UTC)", example = "2025-10-09T15:00:00Z") Instant at,
+        @Schema(description = "Saldo considerando os lançamentos com occurredAt <= at", example = "250.00") BigDecimal balance
+) {}
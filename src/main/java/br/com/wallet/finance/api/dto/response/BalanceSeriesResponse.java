@@ -0,0 +1,13 @@
+package br.com.wallet.finance.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(name = "BalanceSeriesResponse", description = "Série temporal de saldos da carteira (escrita em streaming)")
+public record BalanceSeriesResponse(
+        @Schema(description = "ID da carteira consultada", example = "6f7c29d1-8c2d-4a17-8f2a-f22c943f7b9c") UUID walletId,
+        @Schema(description = "Intervalo entre pontos (ISO-8601)", example = "PT1H") String step,
+        @Schema(description = "Pontos da série, em ordem cronológica") List<BalancePointResponse> points
+) {}
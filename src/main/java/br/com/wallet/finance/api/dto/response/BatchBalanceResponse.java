@@ -0,0 +1,12 @@
+package br.com.wallet.finance.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(name = "BatchBalanceResponse", description = "Saldos de várias carteiras")
+public record BatchBalanceResponse(
+        @Schema(description = "Saldos encontrados, na ordem dos IDs enviados") List<BalanceResponse> balances,
+        @Schema(description = "IDs enviados que não correspondem a nenhuma carteira") List<UUID> notFound
+) {}
@@ -0,0 +1,14 @@
+package br.com.wallet.finance.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Schema(name = "CashFlowBucketResponse", description = "Totais de um período (dia ou mês) do fluxo de caixa")
+public record CashFlowBucketResponse(
+        @Schema(description = "Primeiro dia do período (UTC)", example = "2025-10-01") LocalDate periodStart,
+        @Schema(description = "Total de créditos no período", example = "1500.00") BigDecimal totalCredits,
+        @Schema(description = "Total de débitos no período", example = "320.50") BigDecimal totalDebits,
+        @Schema(description = "Saldo ao final do período", example = "2179.50") BigDecimal closingBalance
+) {}
@@ -0,0 +1,13 @@
+package br.com.wallet.finance.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(name = "CashFlowResponse", description = "Relatório de fluxo de caixa da carteira")
+public record CashFlowResponse(
+        @Schema(description = "ID da carteira consultada", example = "6f7c29d1-8c2d-4a17-8f2a-f22c943f7b9c") UUID walletId,
+        @Schema(description = "Granularidade dos períodos (DAY ou MONTH)", example = "DAY") String granularity,
+        @Schema(description = "Períodos do relatório, em ordem cronológica") List<CashFlowBucketResponse> buckets
+) {}
@@ -0,0 +1,29 @@
+package br.com.wallet.finance.api.dto.response;
+
+import br.com.wallet.finance.domain.model.StatementEntry;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(name = "StatementEntryResponse", description = "Lançamento do extrato da carteira")
+public record StatementEntryResponse(
+        @Schema(description = "Identificador do lançamento no ledger", example = "0b7c1f0e-2c59-4c6f-9f0e-7d0f0d5b8a11") UUID id,
+        @Schema(description = "Tipo do lançamento (CREDIT ou DEBIT)", example = "CREDIT") String type,
+        @Schema(description = "Valor do lançamento", example = "150.00") BigDecimal amount,
+        @Schema(description = "endToEndId do Pix, quando houver", example = "8c2d3f28-39f0-499b-9b7f-2c4be609a5a1") String endToEndId,
+        @Schema(description = "Descrição do lançamento", example = "PIX IN CONFIRMED") String description,
+        @Schema(description = "Momento do lançamento (UTC)", example = "2025-11-02T18:00:00Z") Instant occurredAt
+) {
+    public static StatementEntryResponse of(StatementEntry entry) {
+        return new StatementEntryResponse(
+                entry.id(),
+                entry.type().name(),
+                entry.amount(),
+                entry.endToEndId(),
+                entry.description(),
+                entry.occurredAt()
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.wallet.finance.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(name = "StatementPageResponse", description = "Página do extrato da carteira (escrita em streaming)")
+public record StatementPageResponse(
+        @Schema(description = "ID da carteira consultada", example = "6f7c29d1-8c2d-4a17-8f2a-f22c943f7b9c") UUID walletId,
+        @Schema(description = "Lançamentos da página, ordenados por occurredAt e id") List<StatementEntryResponse> entries,
+        @Schema(description = "Cursor para a próxima página (null quando não há mais lançamentos)", example = "MjAyNS0xMS0wMlQxODowMDowMFp8MGI3YzFmMGU") String nextCursor
+) {}
@@ -0,0 +1,93 @@
+package br.com.wallet.finance.api.export;
+
+import br.com.wallet.finance.api.dto.response.StatementEntryResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+public enum StatementExportFormat {
+
+    CSV("text/csv", "csv") {
+        @Override
+        void writeHeader(Writer out) throws IOException {
+            out.write("id,occurred_at,type,amount,end_to_end_id,description\n");
+        }
+
+        @Override
+        void writeRow(Writer out, StatementEntryResponse row, ObjectMapper objectMapper) throws IOException {
+            out.write(row.id().toString());
+            out.write(',');
+            out.write(row.occurredAt().toString());
+            out.write(',');
+            out.write(row.type());
+            out.write(',');
+            out.write(row.amount().toPlainString());
+            out.write(',');
+            writeCsvField(out, row.endToEndId());
+            out.write(',');
+            writeCsvField(out, row.description());
+            out.write('\n');
+        }
+    },
+
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        void writeHeader(Writer out) {
+            // NDJSON não tem cabeçalho
+        }
+
+        @Override
+        void writeRow(Writer out, StatementEntryResponse row, ObjectMapper objectMapper) throws IOException {
+            out.write(objectMapper.writeValueAsString(row));
+            out.write('\n');
+        }
+    };
+
+    private final String contentType;
+    private final String extension;
+
+    StatementExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    abstract void writeHeader(Writer out) throws IOException;
+
+    abstract void writeRow(Writer out, StatementEntryResponse row, ObjectMapper objectMapper) throws IOException;
+
+    public static StatementExportFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return CSV;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+
+    private static void writeCsvField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
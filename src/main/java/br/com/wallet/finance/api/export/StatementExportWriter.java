@@ -0,0 +1,85 @@
+package br.com.wallet.finance.api.export;
+
+import br.com.wallet.finance.api.dto.response.StatementEntryResponse;
+import br.com.wallet.finance.domain.model.StatementEntry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Escreve o extrato exportado diretamente no corpo da resposta HTTP, linha a linha.
+ * As escritas são bloqueantes: se o cliente lê devagar, o cursor do banco também avança devagar.
+ * Cabeçalhos e stream só são abertos na primeira escrita, para que erros de validação
+ * ainda sejam tratados pelo GlobalExceptionHandler.
+ */
+public final class StatementExportWriter implements Consumer<StatementEntry> {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final HttpServletResponse response;
+    private final StatementExportFormat format;
+    private final boolean gzip;
+    private final String baseFileName;
+    private final ObjectMapper objectMapper;
+
+    private GZIPOutputStream gzipStream;
+    private Writer out;
+
+    public StatementExportWriter(HttpServletResponse response,
+                                 StatementExportFormat format,
+                                 boolean gzip,
+                                 String baseFileName,
+                                 ObjectMapper objectMapper) {
+        this.response = response;
+        this.format = format;
+        this.gzip = gzip;
+        this.baseFileName = baseFileName;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void accept(StatementEntry entry) {
+        try {
+            openIfNeeded();
+            format.writeRow(out, StatementEntryResponse.of(entry), objectMapper);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public void finish() throws IOException {
+        openIfNeeded();
+        out.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+        response.flushBuffer();
+    }
+
+    private void openIfNeeded() throws IOException {
+        if (out != null) {
+            return;
+        }
+        String fileName = baseFileName + "." + format.extension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : format.contentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+
+        OutputStream target = response.getOutputStream();
+        if (gzip) {
+            gzipStream = new GZIPOutputStream(target, BUFFER_SIZE);
+            target = gzipStream;
+        }
+        out = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+        format.writeHeader(out);
+    }
+}
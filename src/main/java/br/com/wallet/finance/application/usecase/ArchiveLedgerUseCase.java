@@ -0,0 +1,12 @@
+package br.com.wallet.finance.application.usecase;
+
+import br.com.wallet.finance.domain.model.LedgerArchiveResult;
+
+public interface ArchiveLedgerUseCase {
+
+    /**
+     * Move para segmentos em disco, do dia mais antigo em diante, os lançamentos anteriores
+     * ao horizonte de retenção.
+     */
+    LedgerArchiveResult execute();
+}
@@ -4,5 +4,10 @@ import java.math.BigDecimal;
 import java.util.UUID;
 
 public interface DepositUseCase {
-    void execute(UUID walletId, BigDecimal amount, String description);
+    /**
+     * @param idempotencyKey opcional; com ela, uma repetição dentro da validade não é aplicada de novo
+     * @return versão da carteira depois do crédito; numa repetição, a gravada com a chave (null se a chave
+     *         é anterior à gravação da versão)
+     */
+    Long execute(String idempotencyKey, UUID walletId, BigDecimal amount, String description);
 }
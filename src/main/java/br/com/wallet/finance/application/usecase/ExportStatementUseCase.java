@@ -0,0 +1,17 @@
+package br.com.wallet.finance.application.usecase;
+
+import br.com.wallet.finance.domain.model.StatementEntry;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface ExportStatementUseCase {
+
+    /**
+     * Entrega ao {@code sink}, em ordem (occurredAt, id), todos os lançamentos do intervalo.
+     *
+     * @return quantidade de lançamentos exportados
+     */
+    long execute(UUID walletId, Instant from, Instant to, Consumer<StatementEntry> sink);
+}
@@ -0,0 +1,14 @@
+package br.com.wallet.finance.application.usecase;
+
+import br.com.wallet.finance.domain.model.BalanceSnapshotResult;
+
+import java.time.LocalDate;
+
+public interface GenerateBalanceSnapshotUseCase {
+
+    /**
+     * Gera o saldo de fechamento (fim do dia UTC) de todas as carteiras para a data informada.
+     * Pode ser executado novamente para a mesma data: partições já concluídas são reaproveitadas.
+     */
+    BalanceSnapshotResult execute(LocalDate snapshotDate);
+}
@@ -0,0 +1,16 @@
+package br.com.wallet.finance.application.usecase;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public interface GetBalanceAsyncUseCase {
+    /**
+     * Mesmo resultado de {@link GetBalanceUseCase} (sem {@code atInstant}) ou de
+     * {@link GetHistoricalBalanceUseCase}, sem ocupar a thread de quem chama.
+     *
+     * @param atInstant opcional; saldo histórico nesse instante
+     */
+    CompletableFuture<BigDecimal> execute(UUID walletId, Instant atInstant, Long minVersion);
+}
@@ -0,0 +1,19 @@
+package br.com.wallet.finance.application.usecase;
+
+import br.com.wallet.finance.domain.model.BalancePoint;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface GetBalanceSeriesUseCase {
+
+    int MAX_POINTS = 1000;
+
+    /**
+     * Entrega ao {@code sink} o saldo em cada instante from, from + step, ... até {@code to} (inclusivo).
+     * O saldo em t considera todos os lançamentos com occurredAt <= t.
+     */
+    void execute(UUID walletId, Instant from, Instant to, Duration step, Consumer<BalancePoint> sink);
+}
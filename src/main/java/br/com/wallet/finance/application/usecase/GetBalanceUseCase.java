@@ -4,5 +4,9 @@ import java.math.BigDecimal;
 import java.util.UUID;
 
 public interface GetBalanceUseCase {
-    BigDecimal execute(UUID walletId);
+    /**
+     * @param minVersion opcional; versão da carteira devolvida pela última escrita do cliente. Se a leitura
+     *                   (normalmente numa réplica) vier com versão menor, ela é refeita no primário
+     */
+    BigDecimal execute(UUID walletId, Long minVersion);
 }
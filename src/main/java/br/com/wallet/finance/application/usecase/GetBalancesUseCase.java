@@ -0,0 +1,19 @@
+package br.com.wallet.finance.application.usecase;
+
+import br.com.wallet.finance.domain.model.WalletBalance;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface GetBalancesUseCase {
+
+    int MAX_WALLETS = 500;
+
+    /**
+     * Saldos atuais ({@code atInstant == null}) ou históricos de várias carteiras.
+     * Carteiras inexistentes são omitidas; a ordem segue a dos ids informados.
+     */
+    List<WalletBalance> execute(Collection<UUID> walletIds, Instant atInstant);
+}
@@ -0,0 +1,15 @@
+package br.com.wallet.finance.application.usecase;
+
+import br.com.wallet.finance.domain.enums.CashFlowGranularity;
+import br.com.wallet.finance.domain.model.CashFlowBucket;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface GetCashFlowReportUseCase {
+
+    int MAX_BUCKETS = 400;
+
+    List<CashFlowBucket> execute(UUID walletId, LocalDate from, LocalDate to, CashFlowGranularity granularity);
+}
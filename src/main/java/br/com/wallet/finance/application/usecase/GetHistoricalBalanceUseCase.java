@@ -5,5 +5,8 @@ import java.time.Instant;
 import java.util.UUID;
 
 public interface GetHistoricalBalanceUseCase {
-    BigDecimal execute(UUID walletId, Instant atInstant);
+    /**
+     * @param minVersion opcional; mesma regra de {@link GetBalanceUseCase#execute}
+     */
+    BigDecimal execute(UUID walletId, Instant atInstant, Long minVersion);
 }
@@ -0,0 +1,28 @@
+package br.com.wallet.finance.application.usecase;
+
+import br.com.wallet.finance.domain.model.StatementCursor;
+import br.com.wallet.finance.domain.model.StatementEntry;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface GetStatementUseCase {
+
+    int DEFAULT_LIMIT = 100;
+    int MAX_LIMIT = 1000;
+
+    /**
+     * Entrega ao {@code sink}, em ordem (occurredAt, id), os lançamentos da página solicitada.
+     *
+     * @return cursor da próxima página, ou {@code null} se esta for a última
+     */
+    StatementCursor execute(
+            UUID walletId,
+            Instant from,
+            Instant to,
+            StatementCursor after,
+            int limit,
+            Consumer<StatementEntry> sink
+    );
+}
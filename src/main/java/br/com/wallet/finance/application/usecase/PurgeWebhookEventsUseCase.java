@@ -0,0 +1,11 @@
+package br.com.wallet.finance.application.usecase;
+
+import br.com.wallet.finance.domain.model.WebhookEventPurgeResult;
+
+public interface PurgeWebhookEventsUseCase {
+
+    /**
+     * Apaga, em lotes pequenos, os eventos de webhook que saíram da janela de deduplicação.
+     */
+    WebhookEventPurgeResult execute();
+}
@@ -0,0 +1,15 @@
+package br.com.wallet.finance.application.usecase;
+
+import br.com.wallet.finance.domain.model.ReconciliationResult;
+
+public interface ReconcileBalancesUseCase {
+
+    /**
+     * Confere o saldo gravado de cada carteira contra a soma do seu ledger.
+     * Sem execução anterior (ou com {@code fullPass}) verifica todas as carteiras; senão apenas
+     * as que tiveram lançamentos desde a última marca d'água.
+     *
+     * @param repair quando verdadeiro, reconstrói saldo e agregados diários das carteiras divergentes
+     */
+    ReconciliationResult execute(boolean fullPass, boolean repair);
+}
@@ -0,0 +1,12 @@
+package br.com.wallet.finance.application.usecase;
+
+import br.com.wallet.finance.domain.model.PixTransferRetirementResult;
+
+public interface RetireSettledTransfersUseCase {
+
+    /**
+     * Move para pix_transfers_history, em lotes pequenos, as transferências liquidadas que
+     * passaram do prazo de retenção.
+     */
+    PixTransferRetirementResult execute();
+}
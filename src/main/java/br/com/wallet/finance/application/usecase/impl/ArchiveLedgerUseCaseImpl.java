@@ -0,0 +1,163 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.application.usecase.ArchiveLedgerUseCase;
+import br.com.wallet.finance.domain.model.LedgerArchiveResult;
+import br.com.wallet.finance.domain.model.LedgerArchiveSegment;
+import br.com.wallet.finance.domain.model.LedgerRow;
+import br.com.wallet.finance.infrastructure.archive.LedgerArchive;
+import br.com.wallet.finance.infrastructure.archive.LedgerSegmentWriter;
+import br.com.wallet.finance.infrastructure.archive.LedgerSegmentWriter.SegmentStats;
+import br.com.wallet.finance.infrastructure.repository.LedgerArchiveSegmentRepository;
+import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletArchivedBalanceRepository;
+import br.com.wallet.finance.infrastructure.sharding.ShardContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Arquivamento do ledger frio, um dia (UTC) por vez, sempre do mais antigo para o mais novo.
+ *
+ * Para cada dia: grava o segmento num arquivo temporário a partir de um cursor ordenado por
+ * carteira e o move para o nome final; depois, numa única transação, confere a contagem, soma o
+ * movimento do dia no acumulado arquivado de cada carteira, apaga as linhas e registra o catálogo.
+ * Se algo falhar antes do commit o dia continua inteiro no banco e o arquivo é regravado na próxima vez.
+ */
+@Service
+public class ArchiveLedgerUseCaseImpl implements ArchiveLedgerUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveLedgerUseCaseImpl.class);
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerArchiveSegmentRepository segmentRepository;
+    private final WalletArchivedBalanceRepository archivedBalanceRepository;
+    private final LedgerArchive ledgerArchive;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readOnlyTx;
+    private final int retainDays;
+    private final int maxDaysPerRun;
+
+    public ArchiveLedgerUseCaseImpl(
+            LedgerEntryRepository ledgerEntryRepository,
+            LedgerArchiveSegmentRepository segmentRepository,
+            WalletArchivedBalanceRepository archivedBalanceRepository,
+            LedgerArchive ledgerArchive,
+            PlatformTransactionManager transactionManager,
+            @Value("${wallet.ledger.archive.retain-days:400}") int retainDays,
+            @Value("${wallet.ledger.archive.max-days-per-run:31}") int maxDaysPerRun
+    ) {
+        if (retainDays < 1) {
+            throw new IllegalArgumentException("wallet.ledger.archive.retain-days must be positive");
+        }
+        if (maxDaysPerRun < 1) {
+            throw new IllegalArgumentException("wallet.ledger.archive.max-days-per-run must be positive");
+        }
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.segmentRepository = segmentRepository;
+        this.archivedBalanceRepository = archivedBalanceRepository;
+        this.ledgerArchive = ledgerArchive;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.retainDays = retainDays;
+        this.maxDaysPerRun = maxDaysPerRun;
+    }
+
+    @Override
+    public LedgerArchiveResult execute() {
+        LocalDate keepFrom = LocalDate.now(ZoneOffset.UTC).minusDays(retainDays);
+        int days = 0;
+        long rows = 0;
+
+        while (days < maxDaysPerRun) {
+            Optional<Instant> oldest = readOnlyTx.execute(status -> ledgerEntryRepository.findOldestOccurredAt());
+            if (oldest == null || oldest.isEmpty()) {
+                break;
+            }
+            LocalDate day = LocalDate.ofInstant(oldest.get(), ZoneOffset.UTC);
+            if (!day.isBefore(keepFrom)) {
+                break;
+            }
+            rows += archiveDay(day);
+            days++;
+        }
+
+        Instant horizon = readOnlyTx.execute(status -> ledgerArchive.horizon());
+        log.info("ledger_archive_finished days={} rows={} horizon={}", days, rows, horizon);
+        return new LedgerArchiveResult(days, rows, horizon);
+    }
+
+    private long archiveDay(LocalDate day) {
+        Instant from = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant to = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        Path target = ledgerArchive.directory().resolve(String.format("%04d-%02d", day.getYear(), day.getMonthValue()))
+                .resolve("ledger-" + day + ShardContext.fileSuffix() + ".seg");
+        String relativeName = ledgerArchive.directory().relativize(target).toString();
+
+        SegmentStats stats = writeSegment(from, to, target);
+
+        tx.executeWithoutResult(status -> {
+            long current = ledgerEntryRepository.countByOccurredAtGreaterThanEqualAndOccurredAtLessThan(from, to);
+            if (current != stats.rows()) {
+                throw new IllegalStateException("Ledger rows changed while archiving " + day
+                        + " (segment=" + stats.rows() + ", table=" + current + ")");
+            }
+            archivedBalanceRepository.accumulateRange(from, to);
+            archivedBalanceRepository.insertRange(from, to);
+            ledgerEntryRepository.deleteRange(from, to);
+            segmentRepository.save(LedgerArchiveSegment.builder()
+                    .businessDate(day)
+                    .fileName(relativeName)
+                    .rowCount(stats.rows())
+                    .walletCount(stats.wallets())
+                    .sizeBytes(stats.sizeBytes())
+                    .archivedAt(Instant.now())
+                    .build());
+        });
+
+        log.info("ledger_day_archived day={} rows={} wallets={} bytes={}", day, stats.rows(), stats.wallets(), stats.sizeBytes());
+        return stats.rows();
+    }
+
+    private SegmentStats writeSegment(Instant from, Instant to, Path target) {
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), "ledger-", ".tmp");
+            try {
+                SegmentStats stats = readOnlyTx.execute(status -> {
+                    try (Stream<LedgerRow> rows = ledgerEntryRepository.streamForArchive(from, to)) {
+                        return LedgerSegmentWriter.write(temp, rows.iterator());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    // o segmento precisa estar em disco antes de as linhas saírem do banco
+                    channel.force(true);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return stats;
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
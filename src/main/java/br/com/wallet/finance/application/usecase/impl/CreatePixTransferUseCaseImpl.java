@@ -1,17 +1,26 @@
 package br.com.wallet.finance.application.usecase.impl;
 
 import br.com.wallet.finance.application.usecase.CreatePixTransferUseCase;
+import br.com.wallet.finance.domain.enums.IdempotencyScope;
 import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.enums.LedgerReason;
 import br.com.wallet.finance.domain.enums.PixTransferStatus;
 import br.com.wallet.finance.domain.exception.BusinessException;
+import br.com.wallet.finance.domain.model.IdempotentResponse;
 import br.com.wallet.finance.domain.model.LedgerEntry;
-import br.com.wallet.finance.domain.model.PixKey;
 import br.com.wallet.finance.domain.model.PixTransfer;
+import br.com.wallet.finance.domain.model.PixTransferHistory;
 import br.com.wallet.finance.domain.model.Wallet;
+import br.com.wallet.finance.infrastructure.id.EndToEndIdGenerator;
+import br.com.wallet.finance.infrastructure.idempotency.IdempotencyStore;
 import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
-import br.com.wallet.finance.infrastructure.repository.PixKeyRepository;
+import br.com.wallet.finance.infrastructure.repository.PixTransferHistoryRepository;
 import br.com.wallet.finance.infrastructure.repository.PixTransferRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletDailyCashFlowRepository;
 import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.PixKeyDirectory;
+import br.com.wallet.finance.infrastructure.sharding.ShardKey;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -27,31 +36,60 @@ public class CreatePixTransferUseCaseImpl implements CreatePixTransferUseCase {
     private static final Logger log = LoggerFactory.getLogger(CreatePixTransferUseCaseImpl.class);
 
     private final WalletRepository walletRepository;
-    private final PixKeyRepository pixKeyRepository;
+    private final PixKeyDirectory pixKeyDirectory;
     private final PixTransferRepository pixTransferRepository;
     private final LedgerEntryRepository ledgerEntryRepository;
+    private final WalletDailyCashFlowRepository dailyCashFlowRepository;
+    private final EndToEndIdGenerator endToEndIdGenerator;
+    private final PixTransferHistoryRepository pixTransferHistoryRepository;
+    private final IdempotencyStore idempotencyStore;
+    private final WalletShards walletShards;
 
     public CreatePixTransferUseCaseImpl(
             WalletRepository walletRepository,
-            PixKeyRepository pixKeyRepository,
+            PixKeyDirectory pixKeyDirectory,
             PixTransferRepository pixTransferRepository,
-            LedgerEntryRepository ledgerEntryRepository
+            LedgerEntryRepository ledgerEntryRepository,
+            WalletDailyCashFlowRepository dailyCashFlowRepository,
+            EndToEndIdGenerator endToEndIdGenerator,
+            PixTransferHistoryRepository pixTransferHistoryRepository,
+            IdempotencyStore idempotencyStore,
+            WalletShards walletShards
     ) {
         this.walletRepository = walletRepository;
-        this.pixKeyRepository = pixKeyRepository;
+        this.pixKeyDirectory = pixKeyDirectory;
         this.pixTransferRepository = pixTransferRepository;
         this.ledgerEntryRepository = ledgerEntryRepository;
+        this.dailyCashFlowRepository = dailyCashFlowRepository;
+        this.endToEndIdGenerator = endToEndIdGenerator;
+        this.pixTransferHistoryRepository = pixTransferHistoryRepository;
+        this.idempotencyStore = idempotencyStore;
+        this.walletShards = walletShards;
     }
 
     @Override
     @Transactional
     public PixTransfer execute(String idempotencyKey,
-                               UUID fromWalletId,
+                               @ShardKey UUID fromWalletId,
                                String toPixKeyValue,
                                BigDecimal amount) {
 
         validateInput(idempotencyKey, amount);
 
+        // replay dentro da validade: o store dá o id, sem busca por (carteira, chave) nem lock
+        IdempotentResponse replayed = idempotencyStore
+                .find(IdempotencyScope.PIX_TRANSFER, fromWalletId, idempotencyKey)
+                .orElse(null);
+        if (replayed != null) {
+            log.info(
+                    "pix_transfer_idempotent_replayed endToEndId={} fromWalletId={} idempotencyKey={}",
+                    replayed.reference(),
+                    fromWalletId,
+                    idempotencyKey
+            );
+            return replayedTransfer(replayed, fromWalletId, idempotencyKey);
+        }
+
         PixTransfer alreadyProcessed = findExistingTransfer(fromWalletId, idempotencyKey);
         if (alreadyProcessed != null) {
             log.info(
@@ -72,11 +110,13 @@ public class CreatePixTransferUseCaseImpl implements CreatePixTransferUseCase {
         validateWallets(fromWallet, toWallet);
         validateFunds(fromWallet, amount);
 
-        String endToEndId = generateEndToEndId();
+        String endToEndId = endToEndIdGenerator.next();
 
         PixTransfer transfer = savePendingTransfer(
                 fromWallet, toWallet, toPixKeyValue, amount, endToEndId, idempotencyKey
         );
+        // o webhook chega só com o endToEndId: o diretório diz em que shard procurar
+        walletShards.registerTransfer(endToEndId);
 
         log.info(
                 "pix_transfer_created endToEndId={} fromWalletId={} toWalletId={} amount={} idempotencyKey={} status={}",
@@ -89,6 +129,12 @@ public class CreatePixTransferUseCaseImpl implements CreatePixTransferUseCase {
         );
 
         registerDebitAndUpdateBalance(fromWallet, amount, endToEndId);
+        idempotencyStore.remember(
+                IdempotencyScope.PIX_TRANSFER,
+                fromWalletId,
+                idempotencyKey,
+                new IdempotentResponse(transfer.getId(), endToEndId)
+        );
 
         log.info(
                 "pix_transfer_debited endToEndId={} fromWalletId={} debitAmount={} newBalance={}",
@@ -110,9 +156,35 @@ public class CreatePixTransferUseCaseImpl implements CreatePixTransferUseCase {
         }
     }
 
+    /**
+     * Replay devolve sempre o status atual da transferência, como depois da validade da chave:
+     * leitura por chave primária na tabela quente ou no histórico. Só se ela não estiver neste
+     * shard (carteira movida pelo rebalanceamento depois da criação) a resposta sai do store, com o
+     * status da criação.
+     */
+    private PixTransfer replayedTransfer(IdempotentResponse response, UUID fromWalletId, String idempotencyKey) {
+        return pixTransferRepository.findById(response.resourceId())
+                .or(() -> pixTransferHistoryRepository.findById(response.resourceId()).map(PixTransferHistory::toTransfer))
+                .orElseGet(() -> originalResponse(response, fromWalletId, idempotencyKey));
+    }
+
+    private PixTransfer originalResponse(IdempotentResponse response, UUID fromWalletId, String idempotencyKey) {
+        return PixTransfer.builder()
+                .id(response.resourceId())
+                .fromWallet(Wallet.builder().id(fromWalletId).build())
+                .endToEndId(response.reference())
+                .idempotencyKey(idempotencyKey)
+                .status(PixTransferStatus.PENDING)
+                .build();
+    }
+
     private PixTransfer findExistingTransfer(UUID fromWalletId, String idempotencyKey) {
+        // histórico só na falta: transferências liquidadas e antigas saem da tabela quente
         return pixTransferRepository
                 .findByFromWallet_IdAndIdempotencyKey(fromWalletId, idempotencyKey)
+                .or(() -> pixTransferHistoryRepository
+                        .findByFromWalletIdAndIdempotencyKey(fromWalletId, idempotencyKey)
+                        .map(PixTransferHistory::toTransfer))
                 .orElse(null);
     }
 
@@ -122,9 +194,11 @@ public class CreatePixTransferUseCaseImpl implements CreatePixTransferUseCase {
     }
 
     private Wallet resolveDestinationWallet(String toPixKeyValue) {
-        PixKey toPixKey = pixKeyRepository.findByKeyValue(toPixKeyValue)
+        UUID toWalletId = pixKeyDirectory.findWalletId(toPixKeyValue)
                 .orElseThrow(() -> new IllegalArgumentException("Destination Pix key not found"));
-        return toPixKey.getWallet();
+        // com sharding, a carteira de destino pode estar em outro shard: basta a referência, o crédito vai pela saga
+        return walletRepository.findById(toWalletId)
+                .orElseGet(() -> walletRepository.getReferenceById(toWalletId));
     }
 
     private void validateWallets(Wallet fromWallet, Wallet toWallet) {
@@ -139,10 +213,6 @@ public class CreatePixTransferUseCaseImpl implements CreatePixTransferUseCase {
         }
     }
 
-    private String generateEndToEndId() {
-        return UUID.randomUUID().toString();
-    }
-
     private PixTransfer savePendingTransfer(Wallet fromWallet,
                                             Wallet toWallet,
                                             String toPixKeyValue,
@@ -175,7 +245,7 @@ public class CreatePixTransferUseCaseImpl implements CreatePixTransferUseCase {
                 .type(LedgerEntryType.DEBIT)
                 .amount(amount)
                 .endToEndId(endToEndId)
-                .description("PIX OUT PENDING")
+                .reason(LedgerReason.PIX_OUT_PENDING)
                 .occurredAt(Instant.now())
                 .build();
 
@@ -183,5 +253,9 @@ public class CreatePixTransferUseCaseImpl implements CreatePixTransferUseCase {
 
         fromWallet.setCurrentBalance(fromWallet.getCurrentBalance().subtract(amount));
         walletRepository.save(fromWallet);
+
+        dailyCashFlowRepository.record(
+                fromWallet.getId(), debitEntry.getType(), amount, fromWallet.getCurrentBalance(), debitEntry.getOccurredAt()
+        );
     }
 }
\ No newline at end of file
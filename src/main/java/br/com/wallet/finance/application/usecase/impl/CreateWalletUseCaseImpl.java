@@ -3,34 +3,42 @@ package br.com.wallet.finance.application.usecase.impl;
 import br.com.wallet.finance.application.usecase.CreateWalletUseCase;
 import br.com.wallet.finance.domain.model.Wallet;
 import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.UUID;
 
 @Service
 public class CreateWalletUseCaseImpl implements CreateWalletUseCase {
 
     private final WalletRepository walletRepository;
+    private final WalletShards walletShards;
 
-    public CreateWalletUseCaseImpl(WalletRepository walletRepository) {
+    public CreateWalletUseCaseImpl(WalletRepository walletRepository, WalletShards walletShards) {
         this.walletRepository = walletRepository;
+        this.walletShards = walletShards;
     }
 
+    /**
+     * O id é gerado aqui, e não pelo Hibernate, porque é ele que decide o shard da carteira. O save
+     * do repositório abre a própria transação, já no shard certo.
+     */
     @Override
-    @Transactional
     public Wallet execute(String ownerName) {
         if (ownerName == null || ownerName.isBlank()) {
             throw new IllegalArgumentException("Owner name must not be null or blank");
         }
+        UUID walletId = UUID.randomUUID();
+        // version nula: com id atribuído é o que indica ao Spring Data que a carteira é nova (persist, sem select)
         Wallet wallet = Wallet.builder()
+                .id(walletId)
                 .ownerName(ownerName)
                 .currentBalance(BigDecimal.ZERO)
                 .createdAt(Instant.now())
-                .version(0L)
                 .build();
 
-        return walletRepository.save(wallet);
+        return walletShards.onWallet(walletId, () -> walletRepository.save(wallet));
     }
 }
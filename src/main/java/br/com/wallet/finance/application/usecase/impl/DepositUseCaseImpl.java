@@ -1,42 +1,74 @@
 package br.com.wallet.finance.application.usecase.impl;
 
 import br.com.wallet.finance.application.usecase.DepositUseCase;
+import br.com.wallet.finance.domain.enums.IdempotencyScope;
 import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.enums.LedgerReason;
 import br.com.wallet.finance.domain.exception.WalletNotFoundException;
+import br.com.wallet.finance.domain.model.IdempotentResponse;
 import br.com.wallet.finance.domain.model.LedgerEntry;
 import br.com.wallet.finance.domain.model.Wallet;
+import br.com.wallet.finance.infrastructure.idempotency.IdempotencyStore;
 import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletDailyCashFlowRepository;
 import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.ShardKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class DepositUseCaseImpl implements DepositUseCase {
 
+    private static final Logger log = LoggerFactory.getLogger(DepositUseCaseImpl.class);
+
     private final WalletRepository walletRepository;
     private final LedgerEntryRepository ledgerEntryRepository;
+    private final WalletDailyCashFlowRepository dailyCashFlowRepository;
+    private final IdempotencyStore idempotencyStore;
 
     public DepositUseCaseImpl(
             WalletRepository walletRepository,
-            LedgerEntryRepository ledgerEntryRepository
+            LedgerEntryRepository ledgerEntryRepository,
+            WalletDailyCashFlowRepository dailyCashFlowRepository,
+            IdempotencyStore idempotencyStore
     ) {
         this.walletRepository = walletRepository;
         this.ledgerEntryRepository = ledgerEntryRepository;
+        this.dailyCashFlowRepository = dailyCashFlowRepository;
+        this.idempotencyStore = idempotencyStore;
     }
 
     @Override
     @Transactional
-    public void execute(UUID walletId, BigDecimal amount, String description) {
+    public Long execute(String idempotencyKey, @ShardKey UUID walletId, BigDecimal amount, String description) {
         validateAmount(amount);
+        validateIdempotencyKey(idempotencyKey);
+
+        // repetição já atendida: responde sem travar a carteira
+        Optional<IdempotentResponse> replay = findReplay(idempotencyKey, walletId);
+        if (replay.isPresent()) {
+            return replay.get().walletVersion();
+        }
 
         Wallet wallet = getWalletLocked(walletId);
+        // outra requisição com a mesma chave pode ter terminado enquanto esperávamos o lock
+        replay = findReplay(idempotencyKey, walletId);
+        if (replay.isPresent()) {
+            return replay.get().walletVersion();
+        }
 
-        createLedgerEntry(wallet, amount, description);
-        updateWalletBalance(wallet, amount);
+        LedgerEntry entry = createLedgerEntry(wallet, amount, description);
+        Long version = updateWalletBalance(wallet, amount);
+        recordDailyCashFlow(wallet, entry);
+        rememberIdempotencyKey(idempotencyKey, walletId, entry, version);
+        return version;
     }
 
     private void validateAmount(BigDecimal amount) {
@@ -45,29 +77,64 @@ public class DepositUseCaseImpl implements DepositUseCase {
         }
     }
 
+    private void validateIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey != null && idempotencyKey.isBlank()) {
+            throw new IllegalArgumentException("Idempotency-Key must not be blank");
+        }
+    }
+
+    private Optional<IdempotentResponse> findReplay(String idempotencyKey, UUID walletId) {
+        if (idempotencyKey == null) {
+            return Optional.empty();
+        }
+        return idempotencyStore.find(IdempotencyScope.DEPOSIT, walletId, idempotencyKey)
+                .map(response -> {
+                    log.info("wallet_deposit_idempotent_replayed walletId={} entryId={} version={} idempotencyKey={}",
+                            walletId, response.resourceId(), response.walletVersion(), idempotencyKey);
+                    return response;
+                });
+    }
+
+    private void rememberIdempotencyKey(String idempotencyKey, UUID walletId, LedgerEntry entry, Long version) {
+        if (idempotencyKey != null) {
+            idempotencyStore.remember(IdempotencyScope.DEPOSIT, walletId, idempotencyKey,
+                    new IdempotentResponse(entry.getId(), null, version));
+        }
+    }
+
     private Wallet getWalletLocked(UUID walletId) {
         return walletRepository.findByIdForUpdate(walletId)
                 .orElseThrow(() -> new WalletNotFoundException("Wallet not found"));
     }
 
-    private void createLedgerEntry(Wallet wallet, BigDecimal amount, String description) {
+    private LedgerEntry createLedgerEntry(Wallet wallet, BigDecimal amount, String description) {
         LedgerEntry entry = LedgerEntry.builder()
                 .wallet(wallet)
                 .type(LedgerEntryType.CREDIT)
                 .amount(amount)
-                .description(getDescriptionOrDefault(description))
+                .reason(LedgerReason.DEPOSIT)
+                .description(userDescription(description))
                 .occurredAt(Instant.now())
                 .build();
 
         ledgerEntryRepository.save(entry);
+        return entry;
     }
 
-    private void updateWalletBalance(Wallet wallet, BigDecimal amount) {
+    private Long updateWalletBalance(Wallet wallet, BigDecimal amount) {
         wallet.setCurrentBalance(wallet.getCurrentBalance().add(amount));
-        walletRepository.save(wallet);
+        // flush agora para devolver a versão já incrementada (leitura consistente em réplica)
+        walletRepository.saveAndFlush(wallet);
+        return wallet.getVersion();
+    }
+
+    private void recordDailyCashFlow(Wallet wallet, LedgerEntry entry) {
+        dailyCashFlowRepository.record(
+                wallet.getId(), entry.getType(), entry.getAmount(), wallet.getCurrentBalance(), entry.getOccurredAt()
+        );
     }
 
-    private String getDescriptionOrDefault(String description) {
-        return (description == null || description.isBlank()) ? "DEPOSIT" : description;
+    private String userDescription(String description) {
+        return (description == null || description.isBlank()) ? null : description;
     }
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.application.usecase.ExportStatementUseCase;
+import br.com.wallet.finance.domain.exception.WalletNotFoundException;
+import br.com.wallet.finance.domain.model.StatementCursor;
+import br.com.wallet.finance.domain.model.StatementEntry;
+import br.com.wallet.finance.infrastructure.archive.LedgerArchive;
+import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.ShardKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Exporta o extrato completo em blocos (chunks) paginados por keyset.
+ * Cada bloco é lido para a memória dentro de uma transação curta e somente-leitura e só é escrito
+ * depois que ela fecha: a conexão volta ao pool enquanto o cliente consome a resposta.
+ */
+@Service
+public class ExportStatementUseCaseImpl implements ExportStatementUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportStatementUseCaseImpl.class);
+
+    private final WalletRepository walletRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerArchive ledgerArchive;
+    private final TransactionTemplate readOnlyTx;
+    private final int chunkSize;
+
+    public ExportStatementUseCaseImpl(
+            WalletRepository walletRepository,
+            LedgerEntryRepository ledgerEntryRepository,
+            LedgerArchive ledgerArchive,
+            PlatformTransactionManager transactionManager,
+            @Value("${wallet.export.chunk-size:5000}") int chunkSize
+    ) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("wallet.export.chunk-size must be positive");
+        }
+        this.walletRepository = walletRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerArchive = ledgerArchive;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public long execute(@ShardKey UUID walletId, Instant from, Instant to, Consumer<StatementEntry> sink) {
+        Instant rangeFrom = from != null ? from : Instant.EPOCH;
+        // fixa o fim do intervalo uma única vez: lançamentos novos não entram no meio da exportação
+        Instant rangeTo = to != null ? to : Instant.now();
+        if (!rangeFrom.isBefore(rangeTo)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+
+        Boolean exists = readOnlyTx.execute(status -> walletRepository.existsById(walletId));
+        if (!Boolean.TRUE.equals(exists)) {
+            throw new WalletNotFoundException("Wallet not found");
+        }
+
+        long exported = 0;
+        StatementCursor after = null;
+
+        while (true) {
+            List<StatementEntry> chunk = readChunk(walletId, rangeFrom, rangeTo, after);
+            // escrita fora da transação: cliente lento não segura conexão nem snapshot
+            chunk.forEach(sink);
+            exported += chunk.size();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            after = StatementCursor.of(chunk.get(chunk.size() - 1));
+        }
+
+        log.info("statement_export_finished walletId={} from={} to={} rows={}", walletId, rangeFrom, rangeTo, exported);
+        return exported;
+    }
+
+    /**
+     * Próximo bloco depois do cursor: primeiro o que estiver no arquivo (sempre anterior ao que
+     * continua no banco), depois o banco. Se o arquivamento avançar durante a leitura, o bloco é
+     * relido; como nada foi escrito ainda, as linhas movidas são encontradas no arquivo.
+     */
+    private List<StatementEntry> readChunk(UUID walletId, Instant from, Instant to, StatementCursor after) {
+        while (true) {
+            List<StatementEntry> chunk = readOnlyTx.execute(status -> {
+                Instant horizon = ledgerArchive.horizon();
+                List<StatementEntry> rows = new ArrayList<>(chunkSize);
+                if (horizon != null && (after == null || after.occurredAt().isBefore(horizon))) {
+                    Instant archiveFrom = after == null ? from : after.occurredAt();
+                    ledgerArchive.forEach(walletId, archiveFrom, to.minusNanos(1), after, chunkSize, rows::add);
+                }
+                if (rows.size() < chunkSize) {
+                    StatementCursor dbAfter = rows.isEmpty() ? after : StatementCursor.of(rows.get(rows.size() - 1));
+                    try (Stream<StatementEntry> stream = openStream(walletId, from, to, dbAfter, chunkSize - rows.size())) {
+                        stream.forEach(rows::add);
+                    }
+                }
+                return Objects.equals(horizon, ledgerArchive.horizon()) ? rows : null;
+            });
+            if (chunk != null) {
+                return chunk;
+            }
+            log.info("statement_export_chunk_retried walletId={} reason=archived_during_read", walletId);
+        }
+    }
+
+    private Stream<StatementEntry> openStream(UUID walletId,
+                                              Instant from,
+                                              Instant to,
+                                              StatementCursor after,
+                                              int rows) {
+        Limit limit = Limit.of(rows);
+        if (after == null) {
+            return ledgerEntryRepository.streamStatement(walletId, from, to, limit);
+        }
+        return ledgerEntryRepository.streamStatementAfter(
+                walletId, from, to, after.occurredAt(), after.id(), limit
+        );
+    }
+}
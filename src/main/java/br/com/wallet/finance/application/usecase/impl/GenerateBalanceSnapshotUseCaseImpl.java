@@ -0,0 +1,195 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.application.usecase.GenerateBalanceSnapshotUseCase;
+import br.com.wallet.finance.domain.model.BalanceSnapshotCheckpoint;
+import br.com.wallet.finance.domain.model.BalanceSnapshotResult;
+import br.com.wallet.finance.domain.model.UuidRange;
+import br.com.wallet.finance.domain.model.WalletBalance;
+import br.com.wallet.finance.infrastructure.archive.LedgerArchive;
+import br.com.wallet.finance.infrastructure.repository.BalanceSnapshotCheckpointRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletBalanceSnapshotRepository;
+import br.com.wallet.finance.infrastructure.sharding.ShardContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Snapshot de fim de dia de todas as carteiras.
+ *
+ * O espaço de ids é dividido em faixas; cada faixa é calculada e gravada no banco com uma única
+ * instrução INSERT ... SELECT, dentro de uma transação que também grava o checkpoint da faixa.
+ * As faixas rodam num ForkJoinPool dedicado com paralelismo pequeno, para não disputar o pool de
+ * conexões com o tráfego online. O corte é o início do dia seguinte (UTC), então o resultado não
+ * depende de quando o job roda nem das partições que já tinham sido concluídas numa execução anterior.
+ */
+@Service
+public class GenerateBalanceSnapshotUseCaseImpl implements GenerateBalanceSnapshotUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(GenerateBalanceSnapshotUseCaseImpl.class);
+
+    private final WalletBalanceSnapshotRepository snapshotRepository;
+    private final BalanceSnapshotCheckpointRepository checkpointRepository;
+    private final LedgerArchive ledgerArchive;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readOnlyTx;
+    private final int partitions;
+    private final int parallelism;
+    private final long pauseMillis;
+    private final Path outputDir;
+
+    public GenerateBalanceSnapshotUseCaseImpl(
+            WalletBalanceSnapshotRepository snapshotRepository,
+            BalanceSnapshotCheckpointRepository checkpointRepository,
+            LedgerArchive ledgerArchive,
+            PlatformTransactionManager transactionManager,
+            @Value("${wallet.snapshot.partitions:64}") int partitions,
+            @Value("${wallet.snapshot.parallelism:2}") int parallelism,
+            @Value("${wallet.snapshot.pause-between-partitions-ms:0}") long pauseMillis,
+            @Value("${wallet.snapshot.output-dir:snapshots}") String outputDir
+    ) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("wallet.snapshot.parallelism must be positive");
+        }
+        // valida cedo o número de partições
+        UuidRange.split(partitions);
+        this.snapshotRepository = snapshotRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.ledgerArchive = ledgerArchive;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.partitions = partitions;
+        this.parallelism = parallelism;
+        this.pauseMillis = Math.max(0, pauseMillis);
+        this.outputDir = Path.of(outputDir);
+    }
+
+    @Override
+    public BalanceSnapshotResult execute(LocalDate snapshotDate) {
+        if (snapshotDate == null) {
+            throw new IllegalArgumentException("Snapshot date is required");
+        }
+        Instant endExclusive = snapshotDate.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        if (endExclusive.isAfter(Instant.now())) {
+            throw new IllegalArgumentException("Snapshot date must be a closed day");
+        }
+        Instant horizon = readOnlyTx.execute(status -> ledgerArchive.horizon());
+        if (horizon != null && horizon.isAfter(endExclusive)) {
+            throw new IllegalArgumentException("Snapshot date is already archived");
+        }
+
+        Set<Integer> completed = loadCompletedPartitions(snapshotDate);
+        List<UuidRange> pending = UuidRange.split(partitions).stream()
+                .filter(range -> !completed.contains(range.index()))
+                .toList();
+
+        log.info("balance_snapshot_started date={} partitions={} resumed={} parallelism={}",
+                snapshotDate, partitions, completed.size(), parallelism);
+
+        RangePartitions.forEach(pending, parallelism, range -> processPartition(snapshotDate, endExclusive, range));
+
+        FileResult file = writeFile(snapshotDate);
+
+        log.info("balance_snapshot_finished date={} wallets={} file={}", snapshotDate, file.rows(), file.path());
+        return new BalanceSnapshotResult(snapshotDate, partitions, completed.size(), file.rows(), file.path());
+    }
+
+    private Set<Integer> loadCompletedPartitions(LocalDate snapshotDate) {
+        List<BalanceSnapshotCheckpoint> checkpoints = checkpointRepository.findBySnapshotDate(snapshotDate);
+        boolean sameLayout = checkpoints.stream()
+                .allMatch(checkpoint -> checkpoint.getPartitionCount() == partitions);
+        if (!sameLayout) {
+            // faixas mudaram desde a última execução: os checkpoints antigos não valem mais
+            log.warn("balance_snapshot_layout_changed date={} partitions={}", snapshotDate, partitions);
+            tx.executeWithoutResult(status -> checkpointRepository.deleteBySnapshotDate(snapshotDate));
+            return Set.of();
+        }
+        return checkpoints.stream()
+                .map(BalanceSnapshotCheckpoint::getPartitionIndex)
+                .collect(Collectors.toSet());
+    }
+
+    private void processPartition(LocalDate snapshotDate, Instant endExclusive, UuidRange range) {
+        int wallets = tx.execute(status -> {
+            Instant now = Instant.now();
+            // limpa restos de uma execução interrompida antes de regravar a faixa
+            snapshotRepository.deleteRange(snapshotDate, range.lower(), range.upper());
+            int rows = snapshotRepository.insertRange(snapshotDate, endExclusive, range.lower(), range.upper(), now);
+            checkpointRepository.save(BalanceSnapshotCheckpoint.builder()
+                    .snapshotDate(snapshotDate)
+                    .partitionIndex(range.index())
+                    .partitionCount(partitions)
+                    .walletCount(rows)
+                    .completedAt(now)
+                    .build());
+            return rows;
+        });
+
+        log.debug("balance_snapshot_partition_done date={} partition={} wallets={}", snapshotDate, range.index(), wallets);
+
+        if (pauseMillis > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Balance snapshot interrupted", e);
+            }
+        }
+    }
+
+    private FileResult writeFile(LocalDate snapshotDate) {
+        Path target = outputDir.resolve("wallet-balances-" + snapshotDate + ShardContext.fileSuffix() + ".csv");
+        try {
+            Files.createDirectories(outputDir);
+            Path temp = Files.createTempFile(outputDir, "wallet-balances-", ".tmp");
+            long rows;
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write("wallet_id,balance\n");
+                rows = readOnlyTx.execute(status -> {
+                    try (Stream<WalletBalance> balances = snapshotRepository.streamBySnapshotDate(snapshotDate)) {
+                        long count = 0;
+                        for (WalletBalance balance : (Iterable<WalletBalance>) balances::iterator) {
+                            writer.write(balance.walletId().toString());
+                            writer.write(',');
+                            writer.write(balance.balance().toPlainString());
+                            writer.write('\n');
+                            count++;
+                        }
+                        return count;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (RuntimeException | IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            // o arquivo final só aparece completo
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new FileResult(target, rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record FileResult(Path path, long rows) {}
+}
@@ -0,0 +1,163 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.application.usecase.GetBalanceAsyncUseCase;
+import br.com.wallet.finance.application.usecase.GetBalanceUseCase;
+import br.com.wallet.finance.application.usecase.GetHistoricalBalanceUseCase;
+import br.com.wallet.finance.infrastructure.bulkhead.TrafficClass;
+import br.com.wallet.finance.infrastructure.bulkhead.TrafficClassContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consulta de saldo para quem faz polling em massa: a requisição espera numa fila (um objeto, não
+ * uma thread) e poucas threads, no máximo tantas quanto as conexões que a leitura deve usar, fazem
+ * as consultas de verdade pelos casos de uso síncronos (mesmas regras de réplica, shard e versão).
+ *
+ * Polls simultâneos da mesma carteira com os mesmos parâmetros compartilham uma única consulta em
+ * andamento. Fila cheia falha na hora com {@link RejectedExecutionException} (503).
+ *
+ * As threads de leitura rodam como {@link TrafficClass#READ}: dividem a cota de conexões do bulkhead
+ * read com as leituras síncronas, e a conta de conexões da subida continua valendo.
+ *
+ * O timeout de cada poll só completa a cópia dele; a leitura compartilhada guarda o prazo do último
+ * poll que se juntou a ela e, se a thread só a alcança depois disso, é descartada sem ir ao banco.
+ * Senão uma fila que anda mais devagar que o timeout consultaria só para quem já desistiu.
+ *
+ * O limitador adaptativo não segura este endpoint: ele devolve a vaga assim que o processamento
+ * assíncrono começa. Os tetos são wallet.balance.async.max-pending (503 na hora) e, antes dele,
+ * server.tomcat.max-connections: cada poll em espera ocupa uma conexão HTTP.
+ */
+@Service
+public class GetBalanceAsyncUseCaseImpl implements GetBalanceAsyncUseCase, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(GetBalanceAsyncUseCaseImpl.class);
+
+    private record ReadKey(UUID walletId, Instant atInstant, Long minVersion) {}
+
+    /**
+     * Leitura enfileirada; deadline (System.nanoTime) é o do último poll que se juntou a ela.
+     */
+    private static final class PendingRead {
+
+        private final CompletableFuture<BigDecimal> result = new CompletableFuture<>();
+        private final AtomicLong deadline;
+
+        PendingRead(long deadline) {
+            this.deadline = new AtomicLong(deadline);
+        }
+
+        void extendTo(long newDeadline) {
+            deadline.accumulateAndGet(newDeadline, (current, candidate) -> candidate - current > 0 ? candidate : current);
+        }
+
+        boolean expired(long now) {
+            return now - deadline.get() > 0;
+        }
+    }
+
+    private final GetBalanceUseCase getBalanceUseCase;
+    private final GetHistoricalBalanceUseCase getHistoricalBalanceUseCase;
+    private final Duration timeout;
+    private final ThreadPoolExecutor readers;
+    private final Map<ReadKey, PendingRead> inFlight = new ConcurrentHashMap<>();
+
+    public GetBalanceAsyncUseCaseImpl(
+            GetBalanceUseCase getBalanceUseCase,
+            GetHistoricalBalanceUseCase getHistoricalBalanceUseCase,
+            @Value("${wallet.balance.async.threads:3}") int threads,
+            @Value("${wallet.balance.async.max-pending:10000}") int maxPending,
+            @Value("${wallet.balance.async.timeout:PT5S}") Duration timeout
+    ) {
+        if (threads < 1 || maxPending < 1) {
+            throw new IllegalArgumentException("wallet.balance.async.threads and max-pending must be positive");
+        }
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("wallet.balance.async.timeout must be positive");
+        }
+        this.getBalanceUseCase = getBalanceUseCase;
+        this.getHistoricalBalanceUseCase = getHistoricalBalanceUseCase;
+        this.timeout = timeout;
+
+        AtomicInteger count = new AtomicInteger();
+        this.readers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxPending), runnable -> {
+                    Thread thread = new Thread(runnable, "balance-reader-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.readers.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public CompletableFuture<BigDecimal> execute(UUID walletId, Instant atInstant, Long minVersion) {
+        ReadKey key = new ReadKey(walletId, atInstant, minVersion);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        PendingRead pending = inFlight.get(key);
+        if (pending == null) {
+            PendingRead read = new PendingRead(deadline);
+            pending = inFlight.putIfAbsent(key, read);
+            if (pending == null) {
+                submit(key, read);
+                pending = read;
+            }
+        }
+        pending.extendTo(deadline);
+        // cópia por chamador: o timeout de um não completa a leitura compartilhada dos outros
+        return pending.result.copy().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // sai do mapa antes de completar: quem chegar depois dispara uma leitura nova
+    private void submit(ReadKey key, PendingRead read) {
+        try {
+            readers.execute(() -> {
+                if (read.expired(System.nanoTime())) {
+                    inFlight.remove(key, read);
+                    log.warn("wallet_balance_async_expired walletId={} pending={}", key.walletId(), readers.getQueue().size());
+                    read.result.completeExceptionally(new TimeoutException("Balance read expired in queue"));
+                    return;
+                }
+                try {
+                    BigDecimal balance = TrafficClassContext.on(TrafficClass.READ, () -> read(key));
+                    inFlight.remove(key, read);
+                    read.result.complete(balance);
+                } catch (RuntimeException e) {
+                    inFlight.remove(key, read);
+                    read.result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, read);
+            log.warn("wallet_balance_async_rejected walletId={} pending={}", key.walletId(), readers.getQueue().size());
+            read.result.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        readers.shutdown();
+    }
+
+    private BigDecimal read(ReadKey key) {
+        return key.atInstant() == null
+                ? getBalanceUseCase.execute(key.walletId(), key.minVersion())
+                : getHistoricalBalanceUseCase.execute(key.walletId(), key.atInstant(), key.minVersion());
+    }
+}
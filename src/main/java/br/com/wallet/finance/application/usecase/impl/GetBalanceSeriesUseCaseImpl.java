@@ -0,0 +1,120 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.application.usecase.GetBalanceSeriesUseCase;
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.exception.WalletNotFoundException;
+import br.com.wallet.finance.domain.model.BalancePoint;
+import br.com.wallet.finance.domain.model.StatementEntry;
+import br.com.wallet.finance.infrastructure.archive.LedgerArchive;
+import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.ShardKey;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Série de saldos calculada numa única passada: saldo de abertura somado no banco
+ * e uma leitura ordenada dos lançamentos do intervalo, em vez de N consultas históricas.
+ */
+@Service
+public class GetBalanceSeriesUseCaseImpl implements GetBalanceSeriesUseCase {
+
+    private final WalletRepository walletRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerArchive ledgerArchive;
+
+    public GetBalanceSeriesUseCaseImpl(
+            WalletRepository walletRepository,
+            LedgerEntryRepository ledgerEntryRepository,
+            LedgerArchive ledgerArchive
+    ) {
+        this.walletRepository = walletRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerArchive = ledgerArchive;
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void execute(@ShardKey UUID walletId, Instant from, Instant to, Duration step, Consumer<BalancePoint> sink) {
+        validate(from, to, step);
+
+        if (!walletRepository.existsById(walletId)) {
+            throw new WalletNotFoundException("Wallet not found");
+        }
+
+        // arquivo e banco têm lançamentos disjuntos, e tudo que está arquivado é mais antigo
+        BigDecimal opening = ledgerArchive.sum(walletId, null, from)
+                .add(ledgerEntryRepository.sumBalanceUpTo(walletId, from));
+        sink.accept(new BalancePoint(from, opening));
+
+        SeriesBuilder series = new SeriesBuilder(opening, from.plus(step), step, sink);
+        ledgerArchive.forEach(walletId, from.plusNanos(1), to, null, 0, series);
+
+        try (Stream<StatementEntry> movements = ledgerEntryRepository.streamMovements(walletId, from, to)) {
+            movements.forEach(series);
+        }
+
+        series.finish(to);
+    }
+
+    /**
+     * Aplica os lançamentos em ordem e emite um ponto a cada passo já ultrapassado.
+     */
+    private static final class SeriesBuilder implements Consumer<StatementEntry> {
+
+        private final Duration step;
+        private final Consumer<BalancePoint> sink;
+        private BigDecimal balance;
+        private Instant next;
+
+        SeriesBuilder(BigDecimal opening, Instant next, Duration step, Consumer<BalancePoint> sink) {
+            this.balance = opening;
+            this.next = next;
+            this.step = step;
+            this.sink = sink;
+        }
+
+        @Override
+        public void accept(StatementEntry entry) {
+            while (entry.occurredAt().isAfter(next)) {
+                sink.accept(new BalancePoint(next, balance));
+                next = next.plus(step);
+            }
+            balance = apply(balance, entry);
+        }
+
+        void finish(Instant to) {
+            while (!next.isAfter(to)) {
+                sink.accept(new BalancePoint(next, balance));
+                next = next.plus(step);
+            }
+        }
+    }
+
+    private static BigDecimal apply(BigDecimal balance, StatementEntry entry) {
+        return entry.type() == LedgerEntryType.CREDIT
+                ? balance.add(entry.amount())
+                : balance.subtract(entry.amount());
+    }
+
+    private void validate(Instant from, Instant to, Duration step) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (step == null || step.isNegative() || step.isZero()) {
+            throw new IllegalArgumentException("Step must be positive");
+        }
+        long points = Duration.between(from, to).dividedBy(step) + 1;
+        if (points > MAX_POINTS) {
+            throw new IllegalArgumentException("Too many points: at most " + MAX_POINTS + " per request");
+        }
+    }
+}
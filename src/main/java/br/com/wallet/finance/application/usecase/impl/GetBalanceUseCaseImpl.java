@@ -2,28 +2,50 @@ package br.com.wallet.finance.application.usecase.impl;
 
 import br.com.wallet.finance.application.usecase.GetBalanceUseCase;
 import br.com.wallet.finance.domain.model.Wallet;
+import br.com.wallet.finance.infrastructure.datasource.ReplicaRoutingDataSource;
 import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.ShardKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Saldo atual numa transação somente leitura, servida por uma réplica quando elas estão configuradas.
+ * Com minVersion, uma réplica atrasada em relação à escrita do próprio cliente (inclusive sem a
+ * carteira) é descartada e a leitura é refeita no primário.
+ */
 @Service
 public class GetBalanceUseCaseImpl implements GetBalanceUseCase {
 
+    private static final Logger log = LoggerFactory.getLogger(GetBalanceUseCaseImpl.class);
+
     private final WalletRepository walletRepository;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public GetBalanceUseCaseImpl(WalletRepository walletRepository) {
+    public GetBalanceUseCaseImpl(WalletRepository walletRepository, PlatformTransactionManager transactionManager) {
         this.walletRepository = walletRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public BigDecimal execute(UUID walletId) {
-        Wallet wallet = walletRepository.findById(walletId)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+    public BigDecimal execute(@ShardKey UUID walletId, Long minVersion) {
+        Optional<Wallet> read = readOnlyTransaction.execute(status -> walletRepository.findById(walletId));
+
+        if (minVersion != null && (read.isEmpty() || read.get().getVersion() < minVersion)) {
+            // réplica atrasada, ou que ainda nem recebeu a carteira recém-criada pelo cliente
+            log.info("wallet_balance_stale_read walletId={} version={} minVersion={}",
+                    walletId, read.map(Wallet::getVersion).orElse(null), minVersion);
+            read = ReplicaRoutingDataSource.onPrimary(
+                    () -> readOnlyTransaction.execute(status -> walletRepository.findById(walletId)));
+        }
 
-        return wallet.getCurrentBalance();
+        return read.orElseThrow(() -> new IllegalArgumentException("Wallet not found")).getCurrentBalance();
     }
 }
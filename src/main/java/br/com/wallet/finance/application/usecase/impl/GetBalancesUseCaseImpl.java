@@ -0,0 +1,115 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.application.usecase.GetBalancesUseCase;
+import br.com.wallet.finance.domain.model.WalletBalance;
+import br.com.wallet.finance.infrastructure.archive.LedgerArchive;
+import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+public class GetBalancesUseCaseImpl implements GetBalancesUseCase {
+
+    private final WalletRepository walletRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerArchive ledgerArchive;
+    private final WalletShards walletShards;
+    private final TransactionTemplate readTransaction;
+
+    public GetBalancesUseCaseImpl(
+            WalletRepository walletRepository,
+            LedgerEntryRepository ledgerEntryRepository,
+            LedgerArchive ledgerArchive,
+            WalletShards walletShards,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.walletRepository = walletRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerArchive = ledgerArchive;
+        this.walletShards = walletShards;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Uma consulta (e uma transação) por shard. Com sharding, carteiras não encontradas podem ter
+     * sido movidas pelo rebalanceamento: o diretório é relido e só essas são consultadas de novo.
+     */
+    @Override
+    public List<WalletBalance> execute(Collection<UUID> walletIds, Instant atInstant) {
+        Set<UUID> ids = validate(walletIds);
+
+        Map<UUID, BigDecimal> balances = new HashMap<>(ids.size() * 2);
+        walletShards.partition(ids).forEach((shard, group) -> balances.putAll(onShard(shard, group, atInstant)));
+
+        if (walletShards.isSharded() && balances.size() < ids.size()) {
+            List<UUID> notFound = ids.stream().filter(id -> !balances.containsKey(id)).toList();
+            Set<UUID> moved = walletShards.reloadOverrides(notFound);
+            walletShards.partition(moved).forEach((shard, group) -> balances.putAll(onShard(shard, group, atInstant)));
+        }
+
+        List<WalletBalance> result = new ArrayList<>(balances.size());
+        for (UUID id : ids) {
+            BigDecimal balance = balances.get(id);
+            if (balance != null) {
+                result.add(new WalletBalance(id, balance));
+            }
+        }
+        return result;
+    }
+
+    private Map<UUID, BigDecimal> onShard(String shard, Collection<UUID> ids, Instant atInstant) {
+        return walletShards.onShard(shard, () -> readTransaction.execute(status -> balancesOf(ids, atInstant)));
+    }
+
+    private Map<UUID, BigDecimal> balancesOf(Collection<UUID> ids, Instant atInstant) {
+        // a consulta de saldo atual também serve para saber quais carteiras existem
+        Map<UUID, BigDecimal> balances = toMap(walletRepository.findCurrentBalances(ids));
+
+        if (atInstant != null && !balances.isEmpty()) {
+            Map<UUID, BigDecimal> historical = toMap(ledgerEntryRepository.sumBalancesUpTo(balances.keySet(), atInstant));
+            Map<UUID, BigDecimal> archived = ledgerArchive.sumUpTo(balances.keySet(), atInstant);
+            balances.replaceAll((id, current) -> historical.getOrDefault(id, BigDecimal.ZERO)
+                    .add(archived.getOrDefault(id, BigDecimal.ZERO)));
+        }
+        return balances;
+    }
+
+    private Set<UUID> validate(Collection<UUID> walletIds) {
+        if (walletIds == null || walletIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one walletId is required");
+        }
+        Set<UUID> ids = new LinkedHashSet<>(walletIds);
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("walletIds must not contain null");
+        }
+        if (ids.size() > MAX_WALLETS) {
+            throw new IllegalArgumentException("At most " + MAX_WALLETS + " wallets per request");
+        }
+        return ids;
+    }
+
+    private Map<UUID, BigDecimal> toMap(List<WalletBalance> rows) {
+        Map<UUID, BigDecimal> map = new HashMap<>(rows.size() * 2);
+        for (WalletBalance row : rows) {
+            map.put(row.walletId(), row.balance());
+        }
+        return map;
+    }
+}
@@ -0,0 +1,103 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.application.usecase.GetCashFlowReportUseCase;
+import br.com.wallet.finance.domain.enums.CashFlowGranularity;
+import br.com.wallet.finance.domain.exception.WalletNotFoundException;
+import br.com.wallet.finance.domain.model.CashFlowBucket;
+import br.com.wallet.finance.domain.model.WalletDailyCashFlow;
+import br.com.wallet.finance.infrastructure.repository.WalletDailyCashFlowRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.ShardKey;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Relatório de fluxo de caixa servido a partir de wallet_daily_cashflow,
+ * sem varrer ledger_entries. Períodos sem movimentação aparecem zerados e
+ * repetem o saldo de fechamento anterior.
+ */
+@Service
+public class GetCashFlowReportUseCaseImpl implements GetCashFlowReportUseCase {
+
+    private final WalletRepository walletRepository;
+    private final WalletDailyCashFlowRepository dailyCashFlowRepository;
+
+    public GetCashFlowReportUseCaseImpl(WalletRepository walletRepository,
+                                        WalletDailyCashFlowRepository dailyCashFlowRepository) {
+        this.walletRepository = walletRepository;
+        this.dailyCashFlowRepository = dailyCashFlowRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CashFlowBucket> execute(@ShardKey UUID walletId,
+                                        LocalDate from,
+                                        LocalDate to,
+                                        CashFlowGranularity granularity) {
+
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+
+        LocalDate start = bucketStart(from, granularity);
+        LocalDate end = granularity == CashFlowGranularity.MONTH
+                ? to.with(TemporalAdjusters.lastDayOfMonth())
+                : to;
+        validateBucketCount(start, end, granularity);
+
+        if (!walletRepository.existsById(walletId)) {
+            throw new WalletNotFoundException("Wallet not found");
+        }
+
+        BigDecimal closing = dailyCashFlowRepository
+                .findFirstByWalletIdAndBusinessDateLessThanOrderByBusinessDateDesc(walletId, start)
+                .map(WalletDailyCashFlow::getClosingBalance)
+                .orElse(BigDecimal.ZERO);
+
+        List<WalletDailyCashFlow> days =
+                dailyCashFlowRepository.findByWalletIdAndBusinessDateBetweenOrderByBusinessDate(walletId, start, end);
+
+        List<CashFlowBucket> buckets = new ArrayList<>();
+        int idx = 0;
+
+        for (LocalDate period = start; !period.isAfter(end); period = nextBucket(period, granularity)) {
+            LocalDate next = nextBucket(period, granularity);
+            BigDecimal credits = BigDecimal.ZERO;
+            BigDecimal debits = BigDecimal.ZERO;
+
+            while (idx < days.size() && days.get(idx).getBusinessDate().isBefore(next)) {
+                WalletDailyCashFlow day = days.get(idx++);
+                credits = credits.add(day.getTotalCredits());
+                debits = debits.add(day.getTotalDebits());
+                closing = day.getClosingBalance();
+            }
+
+            buckets.add(new CashFlowBucket(period, credits, debits, closing));
+        }
+
+        return buckets;
+    }
+
+    private LocalDate bucketStart(LocalDate date, CashFlowGranularity granularity) {
+        return granularity == CashFlowGranularity.MONTH ? date.withDayOfMonth(1) : date;
+    }
+
+    private LocalDate nextBucket(LocalDate period, CashFlowGranularity granularity) {
+        return granularity == CashFlowGranularity.MONTH ? period.plusMonths(1) : period.plusDays(1);
+    }
+
+    private void validateBucketCount(LocalDate start, LocalDate end, CashFlowGranularity granularity) {
+        ChronoUnit unit = granularity == CashFlowGranularity.MONTH ? ChronoUnit.MONTHS : ChronoUnit.DAYS;
+        if (unit.between(start, end) + 1 > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Range too large: at most " + MAX_BUCKETS + " periods per request");
+        }
+    }
+}
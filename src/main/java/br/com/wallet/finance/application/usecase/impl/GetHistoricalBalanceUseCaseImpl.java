@@ -1,52 +1,99 @@
 package br.com.wallet.finance.application.usecase.impl;
 
 import br.com.wallet.finance.application.usecase.GetHistoricalBalanceUseCase;
-import br.com.wallet.finance.domain.enums.LedgerEntryType;
-import br.com.wallet.finance.domain.model.LedgerEntry;
+import br.com.wallet.finance.domain.model.Wallet;
+import br.com.wallet.finance.domain.model.WalletBalanceSnapshot;
+import br.com.wallet.finance.infrastructure.archive.LedgerArchive;
+import br.com.wallet.finance.infrastructure.datasource.ReplicaRoutingDataSource;
 import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletBalanceSnapshotRepository;
 import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.ShardKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.List;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class GetHistoricalBalanceUseCaseImpl implements GetHistoricalBalanceUseCase {
 
+    private static final Logger log = LoggerFactory.getLogger(GetHistoricalBalanceUseCaseImpl.class);
+
     private final WalletRepository walletRepository;
     private final LedgerEntryRepository ledgerEntryRepository;
+    private final WalletBalanceSnapshotRepository snapshotRepository;
+    private final LedgerArchive ledgerArchive;
+    private final TransactionTemplate readOnlyTransaction;
 
     public GetHistoricalBalanceUseCaseImpl(
             WalletRepository walletRepository,
-            LedgerEntryRepository ledgerEntryRepository
+            LedgerEntryRepository ledgerEntryRepository,
+            WalletBalanceSnapshotRepository snapshotRepository,
+            LedgerArchive ledgerArchive,
+            PlatformTransactionManager transactionManager
     ) {
         this.walletRepository = walletRepository;
         this.ledgerEntryRepository = ledgerEntryRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.ledgerArchive = ledgerArchive;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public BigDecimal execute(UUID walletId, Instant atInstant) {
-        // garante que a wallet existe (se não existir -> 404)
-        walletRepository.findById(walletId)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+    public BigDecimal execute(@ShardKey UUID walletId, Instant atInstant, Long minVersion) {
+        BigDecimal balance = readOnlyTransaction.execute(status -> compute(walletId, atInstant, minVersion));
+        if (balance != null) {
+            return balance;
+        }
+
+        // a réplica ainda não tem a escrita do cliente: refaz tudo no primário
+        return ReplicaRoutingDataSource.onPrimary(
+                () -> readOnlyTransaction.execute(status -> compute(walletId, atInstant, null)));
+    }
 
-        List<LedgerEntry> entries =
-                ledgerEntryRepository.findByWallet_IdAndOccurredAtLessThanEqual(walletId, atInstant);
+    /**
+     * @return null quando a carteira lida está numa versão anterior a minVersion ou, com minVersion, ausente
+     */
+    private BigDecimal compute(UUID walletId, Instant atInstant, Long minVersion) {
+        Optional<Wallet> wallet = walletRepository.findById(walletId);
+
+        // réplica sem a escrita do cliente, inclusive a criação da carteira: o primário decide
+        if (minVersion != null && (wallet.isEmpty() || wallet.get().getVersion() < minVersion)) {
+            log.info("wallet_historical_balance_stale_read walletId={} version={} minVersion={}",
+                    walletId, wallet.map(Wallet::getVersion).orElse(null), minVersion);
+            return null;
+        }
+        // garante que a wallet existe (se não existir -> 404)
+        if (wallet.isEmpty()) {
+            throw new IllegalArgumentException("Wallet not found");
+        }
 
-        BigDecimal balance = BigDecimal.ZERO;
+        // parte do último fechamento diário anterior ao dia consultado e soma só o que veio depois,
+        // o que limita a leitura do ledger às partições mais recentes
+        LocalDate day = LocalDate.ofInstant(atInstant, ZoneOffset.UTC);
+        Optional<WalletBalanceSnapshot> anchor =
+                snapshotRepository.findFirstByWalletIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(walletId, day);
 
-        for (LedgerEntry e : entries) {
-            if (e.getType() == LedgerEntryType.CREDIT) {
-                balance = balance.add(e.getAmount());
-            } else if (e.getType() == LedgerEntryType.DEBIT) {
-                balance = balance.subtract(e.getAmount());
-            }
+        // lançamentos arquivados e os que seguem no banco são conjuntos disjuntos: o saldo é a soma dos dois
+        if (anchor.isEmpty()) {
+            return ledgerArchive.sum(walletId, null, atInstant)
+                    .add(ledgerEntryRepository.sumBalanceUpTo(walletId, atInstant));
         }
 
-        return balance;
+        Instant from = anchor.get().getSnapshotDate().plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        return anchor.get().getBalance()
+                .add(ledgerArchive.sum(walletId, from, atInstant))
+                .add(ledgerEntryRepository.sumBalanceBetween(walletId, from, atInstant));
     }
 }
@@ -0,0 +1,135 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.application.usecase.GetStatementUseCase;
+import br.com.wallet.finance.domain.exception.WalletNotFoundException;
+import br.com.wallet.finance.domain.model.StatementCursor;
+import br.com.wallet.finance.domain.model.StatementEntry;
+import br.com.wallet.finance.infrastructure.archive.LedgerArchive;
+import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.ShardKey;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class GetStatementUseCaseImpl implements GetStatementUseCase {
+
+    private final WalletRepository walletRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerArchive ledgerArchive;
+
+    public GetStatementUseCaseImpl(
+            WalletRepository walletRepository,
+            LedgerEntryRepository ledgerEntryRepository,
+            LedgerArchive ledgerArchive
+    ) {
+        this.walletRepository = walletRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerArchive = ledgerArchive;
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public StatementCursor execute(@ShardKey UUID walletId,
+                                   Instant from,
+                                   Instant to,
+                                   StatementCursor after,
+                                   int limit,
+                                   Consumer<StatementEntry> sink) {
+
+        validateLimit(limit);
+        Instant rangeFrom = from != null ? from : Instant.EPOCH;
+        Instant rangeTo = to != null ? to : Instant.now();
+        validateRange(rangeFrom, rangeTo);
+
+        if (!walletRepository.existsById(walletId)) {
+            throw new WalletNotFoundException("Wallet not found");
+        }
+
+        // lê limit + 1 linhas: a linha extra só indica se existe próxima página
+        PageSink page = new PageSink(limit, sink);
+
+        // o que está arquivado é sempre anterior ao que ficou no banco, então vem primeiro
+        int archived = ledgerArchive.forEach(walletId, rangeFrom, rangeTo.minusNanos(1), after, limit + 1, page);
+        if (page.isFull()) {
+            return page.nextCursor();
+        }
+
+        try (Stream<StatementEntry> rows = openStream(walletId, rangeFrom, rangeTo, after, Limit.of(limit + 1 - archived))) {
+            Iterator<StatementEntry> it = rows.iterator();
+            while (it.hasNext() && !page.isFull()) {
+                page.accept(it.next());
+            }
+            return page.isFull() ? page.nextCursor() : null;
+        }
+    }
+
+    private Stream<StatementEntry> openStream(UUID walletId,
+                                              Instant from,
+                                              Instant to,
+                                              StatementCursor after,
+                                              Limit fetch) {
+        if (after == null) {
+            return ledgerEntryRepository.streamStatement(walletId, from, to, fetch);
+        }
+        return ledgerEntryRepository.streamStatementAfter(
+                walletId, from, to, after.occurredAt(), after.id(), fetch
+        );
+    }
+
+    /**
+     * Repassa até {@code limit} lançamentos; a chegada de mais um indica que existe próxima página.
+     */
+    private static final class PageSink implements Consumer<StatementEntry> {
+
+        private final int limit;
+        private final Consumer<StatementEntry> delegate;
+        private StatementEntry last;
+        private int emitted;
+        private boolean full;
+
+        PageSink(int limit, Consumer<StatementEntry> delegate) {
+            this.limit = limit;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void accept(StatementEntry entry) {
+            if (emitted == limit) {
+                full = true;
+                return;
+            }
+            delegate.accept(entry);
+            last = entry;
+            emitted++;
+        }
+
+        boolean isFull() {
+            return full;
+        }
+
+        StatementCursor nextCursor() {
+            return StatementCursor.of(last);
+        }
+    }
+
+    private void validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+
+    private void validateRange(Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+    }
+}
@@ -2,22 +2,41 @@ package br.com.wallet.finance.application.usecase.impl;
 
 import br.com.wallet.finance.application.usecase.ProcessWebhookUseCase;
 import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.enums.LedgerReason;
 import br.com.wallet.finance.domain.enums.PixTransferStatus;
 import br.com.wallet.finance.domain.exception.PixTransferNotFoundException;
 import br.com.wallet.finance.domain.exception.WalletNotFoundException;
 import br.com.wallet.finance.domain.model.LedgerEntry;
 import br.com.wallet.finance.domain.model.PixTransfer;
+import br.com.wallet.finance.domain.model.PixTransferHistory;
 import br.com.wallet.finance.domain.model.Wallet;
 import br.com.wallet.finance.domain.model.WebhookEvent;
 import br.com.wallet.finance.infrastructure.repository.*;
+import br.com.wallet.finance.infrastructure.saga.PixTransferSagaCoordinator;
+import br.com.wallet.finance.infrastructure.sharding.ShardKey;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Processa os eventos do PSP sobre a máquina de estados da transferência.
+ *
+ * webhook_events só guarda os eventos da janela de deduplicação (wallet.webhook.dedupe-window);
+ * depois disso o expurgo os apaga. Um replay mais velho que a janela é barrado pelo próprio status
+ * da transferência: liquidada, o evento é ignorado e nem volta para a tabela.
+ *
+ * Com sharding, o CONFIRMED de uma transferência cuja carteira de destino está em outro shard não
+ * credita aqui: abre a saga ({@link PixTransferSagaCoordinator}) e a transferência fica PENDING até
+ * ela terminar. Eventos que chegam nesse meio tempo são ignorados.
+ */
 @Service
 public class ProcessWebhookUseCaseImpl implements ProcessWebhookUseCase {
 
@@ -27,17 +46,32 @@ public class ProcessWebhookUseCaseImpl implements ProcessWebhookUseCase {
     private final PixTransferRepository pixTransferRepository;
     private final WalletRepository walletRepository;
     private final LedgerEntryRepository ledgerEntryRepository;
-
-    public ProcessWebhookUseCaseImpl(WebhookEventRepository webhookEventRepository, PixTransferRepository pixTransferRepository, WalletRepository walletRepository, LedgerEntryRepository ledgerEntryRepository) {
+    private final WalletDailyCashFlowRepository dailyCashFlowRepository;
+    private final PixTransferHistoryRepository pixTransferHistoryRepository;
+    private final WalletShards walletShards;
+    private final PixTransferSagaCoordinator sagaCoordinator;
+    private final Duration dedupeWindow;
+
+    public ProcessWebhookUseCaseImpl(WebhookEventRepository webhookEventRepository, PixTransferRepository pixTransferRepository, WalletRepository walletRepository, LedgerEntryRepository ledgerEntryRepository, WalletDailyCashFlowRepository dailyCashFlowRepository, PixTransferHistoryRepository pixTransferHistoryRepository,
+                                     WalletShards walletShards, PixTransferSagaCoordinator sagaCoordinator,
+                                     @Value("${wallet.webhook.dedupe-window:P7D}") Duration dedupeWindow) {
+        if (dedupeWindow.isNegative() || dedupeWindow.isZero()) {
+            throw new IllegalArgumentException("wallet.webhook.dedupe-window must be positive");
+        }
         this.webhookEventRepository = webhookEventRepository;
         this.pixTransferRepository = pixTransferRepository;
         this.walletRepository = walletRepository;
         this.ledgerEntryRepository = ledgerEntryRepository;
+        this.dailyCashFlowRepository = dailyCashFlowRepository;
+        this.pixTransferHistoryRepository = pixTransferHistoryRepository;
+        this.walletShards = walletShards;
+        this.sagaCoordinator = sagaCoordinator;
+        this.dedupeWindow = dedupeWindow;
     }
 
     @Override
     @Transactional
-    public void execute(String eventId, String endToEndId, String eventType, Instant occurredAt) {
+    public void execute(String eventId, @ShardKey(ShardKey.Kind.END_TO_END_ID) String endToEndId, String eventType, Instant occurredAt) {
 
         if (isDuplicateEvent(eventId)) {
             log.info("pix_webhook_duplicate_ignored eventId={} endToEndId={} eventType={}", eventId, endToEndId, eventType);
@@ -45,10 +79,21 @@ public class ProcessWebhookUseCaseImpl implements ProcessWebhookUseCase {
         }
 
         PixTransfer transfer = loadTransfer(endToEndId);
+
+        if (isStale(occurredAt) && isSettled(transfer)) {
+            log.info("pix_webhook_stale_replay_ignored eventId={} endToEndId={} eventType={} occurredAt={} finalStatus={}", eventId, endToEndId, eventType, occurredAt, transfer.getStatus());
+            return;
+        }
+
         persistWebhookEvent(eventId, endToEndId, eventType, occurredAt);
 
         log.info("pix_webhook_received eventId={} endToEndId={} eventType={} currentStatus={}", eventId, endToEndId, eventType, transfer.getStatus());
 
+        if (isSagaInProgress(transfer)) {
+            log.info("pix_webhook_saga_in_progress_ignored eventId={} endToEndId={} eventType={}", eventId, endToEndId, eventType);
+            return;
+        }
+
         if (isConfirmed(eventType)) {
             handleConfirmed(transfer, eventId, endToEndId, eventType);
             return;
@@ -68,8 +113,17 @@ public class ProcessWebhookUseCaseImpl implements ProcessWebhookUseCase {
             return;
         }
 
-        Wallet toWallet = lockWalletForUpdate(transfer.getToWallet().getId());
-        creditWallet(toWallet, transfer.getAmount(), transfer.getEndToEndId(), "PIX IN CONFIRMED");
+        UUID toWalletId = transfer.getToWallet().getId();
+        Optional<Wallet> localWallet = walletShards.isLocal(toWalletId) ? walletRepository.findByIdForUpdate(toWalletId) : Optional.empty();
+        if (localWallet.isEmpty() && walletShards.isSharded()) {
+            // destino em outro shard (ou movido depois da criação): débito e crédito não cabem numa transação
+            sagaCoordinator.start(transfer);
+            log.info("pix_webhook_confirm_saga_started eventId={} endToEndId={} toWalletId={} amount={}", eventId, endToEndId, toWalletId, transfer.getAmount());
+            return;
+        }
+
+        Wallet toWallet = localWallet.orElseThrow(() -> new WalletNotFoundException("Wallet not found"));
+        creditWallet(toWallet, transfer.getAmount(), transfer.getEndToEndId(), LedgerReason.PIX_IN_CONFIRMED);
         markTransferStatus(transfer, PixTransferStatus.CONFIRMED);
 
         log.info("pix_webhook_confirm_applied eventId={} endToEndId={} creditedWalletId={} amount={} newStatus={}", eventId, endToEndId, toWallet.getId(), transfer.getAmount(), transfer.getStatus());
@@ -83,11 +137,25 @@ public class ProcessWebhookUseCaseImpl implements ProcessWebhookUseCase {
         }
 
         Wallet fromWallet = lockWalletForUpdate(transfer.getFromWallet().getId());
-        creditWallet(fromWallet, transfer.getAmount(), transfer.getEndToEndId(), "PIX REFUND REJECTED");
+        creditWallet(fromWallet, transfer.getAmount(), transfer.getEndToEndId(), LedgerReason.PIX_REFUND_REJECTED);
         markTransferStatus(transfer, PixTransferStatus.REJECTED);
 
         log.info("pix_webhook_reject_applied eventId={} endToEndId={} refundedWalletId={} amount={} newStatus={}", eventId, endToEndId, fromWallet.getId(), transfer.getAmount(), transfer.getStatus());
     }
+    // fora da janela o eventId pode já ter sido expurgado: quem decide é o status
+    private boolean isStale(Instant occurredAt) {
+        return occurredAt != null && occurredAt.isBefore(Instant.now().minus(dedupeWindow));
+    }
+
+    private boolean isSettled(PixTransfer transfer) {
+        PixTransferStatus status = transfer.getStatus();
+        return status == PixTransferStatus.CONFIRMED || status == PixTransferStatus.REJECTED;
+    }
+
+    private boolean isSagaInProgress(PixTransfer transfer) {
+        return walletShards.isSharded() && transfer.getStatus() == PixTransferStatus.PENDING && sagaCoordinator.exists(transfer.getEndToEndId());
+    }
+
     private boolean shouldIgnoreConfirmed(PixTransfer transfer) {
         PixTransferStatus status = transfer.getStatus();
         return status == PixTransferStatus.REJECTED || status == PixTransferStatus.CONFIRMED;
@@ -104,13 +172,15 @@ public class ProcessWebhookUseCaseImpl implements ProcessWebhookUseCase {
         pixTransferRepository.save(transfer);
     }
 
-    private void creditWallet(Wallet wallet, java.math.BigDecimal amount, String endToEndId, String description) {
+    private void creditWallet(Wallet wallet, java.math.BigDecimal amount, String endToEndId, LedgerReason reason) {
 
-        LedgerEntry entry = LedgerEntry.builder().wallet(wallet).type(LedgerEntryType.CREDIT).amount(amount).endToEndId(endToEndId).description(description).occurredAt(Instant.now()).build();
+        LedgerEntry entry = LedgerEntry.builder().wallet(wallet).type(LedgerEntryType.CREDIT).amount(amount).endToEndId(endToEndId).reason(reason).occurredAt(Instant.now()).build();
         ledgerEntryRepository.save(entry);
 
         wallet.setCurrentBalance(wallet.getCurrentBalance().add(amount));
         walletRepository.save(wallet);
+
+        dailyCashFlowRepository.record(wallet.getId(), entry.getType(), amount, wallet.getCurrentBalance(), entry.getOccurredAt());
     }
 
     private boolean isDuplicateEvent(String eventId) {
@@ -118,7 +188,10 @@ public class ProcessWebhookUseCaseImpl implements ProcessWebhookUseCase {
     }
 
     private PixTransfer loadTransfer(String endToEndId) {
-        return pixTransferRepository.findByEndToEndId(endToEndId).orElseThrow(() -> new PixTransferNotFoundException("Pix transfer not found"));
+        // no histórico só há transferências liquidadas: o evento cai nos ramos de "ignorado" e nada é salvo
+        return pixTransferRepository.findByEndToEndId(endToEndId)
+                .or(() -> pixTransferHistoryRepository.findByEndToEndId(endToEndId).map(PixTransferHistory::toTransfer))
+                .orElseThrow(() -> new PixTransferNotFoundException("Pix transfer not found"));
     }
 
     private void persistWebhookEvent(String eventId, String endToEndId, String eventType, Instant occurredAt) {
@@ -0,0 +1,107 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.application.usecase.PurgeWebhookEventsUseCase;
+import br.com.wallet.finance.domain.model.WebhookEventPurgeResult;
+import br.com.wallet.finance.infrastructure.repository.WebhookEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Expurgo de webhook_events, um lote por transação curta, para que a tabela e o índice único de
+ * event_id fiquem do tamanho da janela de deduplicação. Cada lote trava só as linhas que apaga;
+ * os webhooks em andamento inserem eventos novos, que nunca estão no intervalo expurgado.
+ */
+@Service
+public class PurgeWebhookEventsUseCaseImpl implements PurgeWebhookEventsUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(PurgeWebhookEventsUseCaseImpl.class);
+
+    private final WebhookEventRepository webhookEventRepository;
+    private final TransactionTemplate tx;
+    private final Duration dedupeWindow;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long pauseBetweenBatchesMs;
+
+    public PurgeWebhookEventsUseCaseImpl(
+            WebhookEventRepository webhookEventRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${wallet.webhook.dedupe-window:P7D}") Duration dedupeWindow,
+            @Value("${wallet.webhook.purge.batch-size:1000}") int batchSize,
+            @Value("${wallet.webhook.purge.max-batches-per-run:100}") int maxBatchesPerRun,
+            @Value("${wallet.webhook.purge.pause-between-batches-ms:20}") long pauseBetweenBatchesMs
+    ) {
+        if (dedupeWindow.isNegative() || dedupeWindow.isZero()) {
+            throw new IllegalArgumentException("wallet.webhook.dedupe-window must be positive");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("wallet.webhook.purge.batch-size must be positive");
+        }
+        if (maxBatchesPerRun < 1) {
+            throw new IllegalArgumentException("wallet.webhook.purge.max-batches-per-run must be positive");
+        }
+        if (pauseBetweenBatchesMs < 0) {
+            throw new IllegalArgumentException("wallet.webhook.purge.pause-between-batches-ms must not be negative");
+        }
+        this.webhookEventRepository = webhookEventRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.dedupeWindow = dedupeWindow;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseBetweenBatchesMs = pauseBetweenBatchesMs;
+    }
+
+    @Override
+    public WebhookEventPurgeResult execute() {
+        Instant cutoff = Instant.now().minus(dedupeWindow);
+        int batches = 0;
+        long deleted = 0;
+
+        while (batches < maxBatchesPerRun) {
+            Integer count = tx.execute(status -> purgeBatch(cutoff));
+            int purged = count != null ? count : 0;
+            if (purged == 0) {
+                break;
+            }
+            batches++;
+            deleted += purged;
+            if (purged < batchSize) {
+                break;
+            }
+            pause();
+        }
+
+        log.info("webhook_event_purge_finished batches={} deleted={} cutoff={}", batches, deleted, cutoff);
+        return new WebhookEventPurgeResult(batches, deleted, cutoff);
+    }
+
+    private int purgeBatch(Instant cutoff) {
+        List<UUID> ids = webhookEventRepository.findExpiredIds(cutoff, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return webhookEventRepository.deleteByIds(ids);
+    }
+
+    private void pause() {
+        if (pauseBetweenBatchesMs == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseBetweenBatchesMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while purging webhook events", e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.domain.model.UuidRange;
+import br.com.wallet.finance.infrastructure.bulkhead.TrafficClass;
+import br.com.wallet.finance.infrastructure.bulkhead.TrafficClassContext;
+import br.com.wallet.finance.infrastructure.sharding.ShardContext;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Executa uma ação por faixa de carteiras num ForkJoinPool dedicado. O paralelismo do pool limita
+ * quantas faixas rodam ao mesmo tempo e, portanto, quantas conexões o job ocupa.
+ * A primeira falha é propagada para quem chamou; faixas já concluídas não são desfeitas.
+ *
+ * As threads do pool não herdam o {@link ShardContext} nem o {@link TrafficClassContext} de quem
+ * chamou: os dois são capturados aqui e redefinidos em volta de cada faixa, senão as conexões iriam
+ * para o shard padrão e fora da cota de conexões do job.
+ */
+final class RangePartitions {
+
+    private RangePartitions() {
+    }
+
+    static void forEach(List<UuidRange> ranges, int parallelism, Consumer<UuidRange> action) {
+        if (ranges.isEmpty()) {
+            return;
+        }
+        String shard = ShardContext.current();
+        TrafficClass trafficClass = TrafficClassContext.current();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new RangeTask(ranges, shard, trafficClass, action));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static class RangeTask extends RecursiveAction {
+
+        private final List<UuidRange> ranges;
+        private final String shard;
+        private final TrafficClass trafficClass;
+        private final Consumer<UuidRange> action;
+
+        RangeTask(List<UuidRange> ranges, String shard, TrafficClass trafficClass, Consumer<UuidRange> action) {
+            this.ranges = ranges;
+            this.shard = shard;
+            this.trafficClass = trafficClass;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (ranges.size() == 1) {
+                TrafficClassContext.on(trafficClass, () -> ShardContext.on(shard, () -> {
+                    action.accept(ranges.get(0));
+                    return null;
+                }));
+                return;
+            }
+            int middle = ranges.size() / 2;
+            invokeAll(
+                    new RangeTask(ranges.subList(0, middle), shard, trafficClass, action),
+                    new RangeTask(ranges.subList(middle, ranges.size()), shard, trafficClass, action)
+            );
+        }
+    }
+}
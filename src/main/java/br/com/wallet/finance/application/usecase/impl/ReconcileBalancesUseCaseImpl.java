@@ -0,0 +1,207 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.application.usecase.ReconcileBalancesUseCase;
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.model.BalanceDrift;
+import br.com.wallet.finance.domain.model.ReconciliationResult;
+import br.com.wallet.finance.domain.model.ReconciliationRun;
+import br.com.wallet.finance.domain.model.StatementEntry;
+import br.com.wallet.finance.domain.model.UuidRange;
+import br.com.wallet.finance.domain.model.Wallet;
+import br.com.wallet.finance.domain.model.WalletArchivedBalance;
+import br.com.wallet.finance.domain.model.WalletDailyCashFlow;
+import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.ReconciliationRunRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletArchivedBalanceRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletDailyCashFlowRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+/**
+ * Reconciliação de wallets.current_balance contra o ledger.
+ *
+ * Cada faixa de ids é conferida por uma única consulta agregada que devolve só as carteiras
+ * divergentes; as faixas rodam em paralelo (paralelismo limitado). Saldo e ledger são gravados
+ * na mesma transação pelos casos de uso de escrita, então uma consulta sempre enxerga os dois
+ * consistentes e qualquer diferença é divergência real.
+ *
+ * A marca d'água recua {@code watermark-lag} em relação ao início da execução: occurredAt é
+ * definido antes do commit, e o recuo cobre transações que ainda estavam abertas nesse momento.
+ */
+@Service
+public class ReconcileBalancesUseCaseImpl implements ReconcileBalancesUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconcileBalancesUseCaseImpl.class);
+
+    private final WalletRepository walletRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final WalletDailyCashFlowRepository dailyCashFlowRepository;
+    private final ReconciliationRunRepository runRepository;
+    private final WalletArchivedBalanceRepository archivedBalanceRepository;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readOnlyTx;
+    private final int partitions;
+    private final int parallelism;
+    private final Duration watermarkLag;
+
+    public ReconcileBalancesUseCaseImpl(
+            WalletRepository walletRepository,
+            LedgerEntryRepository ledgerEntryRepository,
+            WalletDailyCashFlowRepository dailyCashFlowRepository,
+            ReconciliationRunRepository runRepository,
+            WalletArchivedBalanceRepository archivedBalanceRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${wallet.reconciliation.partitions:64}") int partitions,
+            @Value("${wallet.reconciliation.parallelism:2}") int parallelism,
+            @Value("${wallet.reconciliation.watermark-lag:PT5M}") Duration watermarkLag
+    ) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("wallet.reconciliation.parallelism must be positive");
+        }
+        UuidRange.split(partitions);
+        this.walletRepository = walletRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.dailyCashFlowRepository = dailyCashFlowRepository;
+        this.runRepository = runRepository;
+        this.archivedBalanceRepository = archivedBalanceRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.partitions = partitions;
+        this.parallelism = parallelism;
+        this.watermarkLag = watermarkLag;
+    }
+
+    @Override
+    public ReconciliationResult execute(boolean fullPass, boolean repair) {
+        Instant startedAt = Instant.now();
+        Instant watermark = startedAt.minus(watermarkLag);
+
+        Instant since = fullPass
+                ? null
+                : readOnlyTx.execute(status -> runRepository.findFirstByOrderByWatermarkDesc())
+                        .map(ReconciliationRun::getWatermark)
+                        .orElse(null);
+        boolean full = since == null;
+
+        Queue<BalanceDrift> found = new ConcurrentLinkedQueue<>();
+        RangePartitions.forEach(UuidRange.split(partitions), parallelism, range ->
+                found.addAll(readOnlyTx.execute(status -> full
+                        ? walletRepository.findDriftInRange(range.lower(), range.upper())
+                        : walletRepository.findDriftInRangeSince(range.lower(), range.upper(), since)))
+        );
+
+        List<BalanceDrift> drifts = new ArrayList<>(found);
+        drifts.sort(Comparator.comparing(BalanceDrift::walletId));
+        for (BalanceDrift drift : drifts) {
+            log.warn("balance_drift_detected walletId={} stored={} ledger={}",
+                    drift.walletId(), drift.storedBalance(), drift.ledgerBalance());
+        }
+
+        int repaired = 0;
+        if (repair) {
+            for (BalanceDrift drift : drifts) {
+                if (rebuildProjections(drift.walletId())) {
+                    repaired++;
+                }
+            }
+        }
+
+        int repairedCount = repaired;
+        tx.executeWithoutResult(status -> runRepository.save(ReconciliationRun.builder()
+                .fullPass(full)
+                .since(since)
+                .watermark(watermark)
+                .driftCount(drifts.size())
+                .repairedCount(repairedCount)
+                .startedAt(startedAt)
+                .finishedAt(Instant.now())
+                .build()));
+
+        log.info("balance_reconciliation_finished full={} since={} watermark={} drifts={} repaired={}",
+                full, since, watermark, drifts.size(), repaired);
+        return new ReconciliationResult(full, since, watermark, List.copyOf(drifts), repaired);
+    }
+
+    /**
+     * Recalcula saldo e agregados diários a partir do ledger, com a carteira travada
+     * (o mesmo lock usado pelas escritas), numa única leitura ordenada dos lançamentos.
+     * O que já foi para o ledger frio entra pelo acumulado arquivado; os agregados dos dias
+     * arquivados são mantidos.
+     */
+    private boolean rebuildProjections(UUID walletId) {
+        Boolean changed = tx.execute(status -> {
+            Optional<Wallet> locked = walletRepository.findByIdForUpdate(walletId);
+            if (locked.isEmpty()) {
+                return false;
+            }
+            Wallet wallet = locked.get();
+
+            Optional<WalletArchivedBalance> archived = archivedBalanceRepository.findById(walletId);
+            LocalDate rebuildFrom = archived
+                    .map(a -> LocalDate.ofInstant(a.getArchivedUntil(), ZoneOffset.UTC))
+                    .orElse(LocalDate.EPOCH);
+
+            Map<LocalDate, WalletDailyCashFlow> days = new LinkedHashMap<>();
+            BigDecimal balance = archived.map(WalletArchivedBalance::getAmount).orElse(BigDecimal.ZERO);
+            Instant now = Instant.now();
+
+            try (Stream<StatementEntry> movements = ledgerEntryRepository.streamAllMovements(walletId)) {
+                for (StatementEntry entry : (Iterable<StatementEntry>) movements::iterator) {
+                    boolean credit = entry.type() == LedgerEntryType.CREDIT;
+                    balance = credit ? balance.add(entry.amount()) : balance.subtract(entry.amount());
+
+                    WalletDailyCashFlow day = days.computeIfAbsent(
+                            LocalDate.ofInstant(entry.occurredAt(), ZoneOffset.UTC),
+                            date -> WalletDailyCashFlow.builder()
+                                    .walletId(walletId)
+                                    .businessDate(date)
+                                    .totalCredits(BigDecimal.ZERO)
+                                    .totalDebits(BigDecimal.ZERO)
+                                    .updatedAt(now)
+                                    .build());
+                    if (credit) {
+                        day.setTotalCredits(day.getTotalCredits().add(entry.amount()));
+                    } else {
+                        day.setTotalDebits(day.getTotalDebits().add(entry.amount()));
+                    }
+                    day.setClosingBalance(balance);
+                }
+            }
+
+            dailyCashFlowRepository.deleteFromDate(walletId, rebuildFrom);
+            dailyCashFlowRepository.saveAll(days.values());
+
+            BigDecimal previous = wallet.getCurrentBalance();
+            if (previous.compareTo(balance) == 0) {
+                return false;
+            }
+            wallet.setCurrentBalance(balance);
+            walletRepository.save(wallet);
+            log.warn("balance_drift_repaired walletId={} previous={} rebuilt={}", walletId, previous, balance);
+            return true;
+        });
+        return Boolean.TRUE.equals(changed);
+    }
+}
@@ -7,6 +7,8 @@ import br.com.wallet.finance.domain.model.PixKey;
 import br.com.wallet.finance.domain.model.Wallet;
 import br.com.wallet.finance.infrastructure.repository.PixKeyRepository;
 import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.PixKeyDirectory;
+import br.com.wallet.finance.infrastructure.sharding.ShardKey;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,20 +20,24 @@ public class RegisterPixKeyUseCaseImpl implements RegisterPixKeyUseCase {
 
     private final WalletRepository walletRepository;
     private final PixKeyRepository pixKeyRepository;
+    private final PixKeyDirectory pixKeyDirectory;
 
     public RegisterPixKeyUseCaseImpl(WalletRepository walletRepository,
-                                     PixKeyRepository pixKeyRepository) {
+                                     PixKeyRepository pixKeyRepository,
+                                     PixKeyDirectory pixKeyDirectory) {
         this.walletRepository = walletRepository;
         this.pixKeyRepository = pixKeyRepository;
+        this.pixKeyDirectory = pixKeyDirectory;
     }
 
     @Override
     @Transactional
-    public PixKey execute(UUID walletId, String keyType, String keyValue) {
+    public PixKey execute(@ShardKey UUID walletId, String keyType, String keyValue) {
         Wallet wallet = walletRepository.findById(walletId)
                 .orElseThrow(() -> new WalletNotFoundException("Wallet not found"));
 
-        if (pixKeyRepository.existsByKeyValue(keyValue)) {
+        // unicidade global da chave: o diretório vale para todos os shards
+        if (!pixKeyDirectory.register(keyValue, walletId)) {
             throw new PixKeyAlreadyExistsException("Pix key already registered");
         }
 
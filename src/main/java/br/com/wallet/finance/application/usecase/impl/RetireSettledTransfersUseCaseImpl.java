@@ -0,0 +1,120 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.application.usecase.RetireSettledTransfersUseCase;
+import br.com.wallet.finance.domain.model.PixTransferRetirementResult;
+import br.com.wallet.finance.infrastructure.repository.PixTransferHistoryRepository;
+import br.com.wallet.finance.infrastructure.repository.PixTransferRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Aposentadoria das transferências Pix liquidadas, um lote por transação.
+ *
+ * Cada lote copia as linhas para o histórico e as apaga da tabela quente na mesma transação; as
+ * duas operações filtram pelo status liquidado, então uma linha que mudou no meio do caminho não
+ * sai de pix_transfers. Como cópia e exclusão ficam visíveis juntas no commit, quem busca primeiro
+ * na tabela quente e depois no histórico sempre encontra a transferência em um dos dois.
+ */
+@Service
+public class RetireSettledTransfersUseCaseImpl implements RetireSettledTransfersUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(RetireSettledTransfersUseCaseImpl.class);
+
+    private final PixTransferRepository pixTransferRepository;
+    private final PixTransferHistoryRepository historyRepository;
+    private final TransactionTemplate tx;
+    private final int retainDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long pauseBetweenBatchesMs;
+
+    public RetireSettledTransfersUseCaseImpl(
+            PixTransferRepository pixTransferRepository,
+            PixTransferHistoryRepository historyRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${wallet.pix.retirement.retain-days:30}") int retainDays,
+            @Value("${wallet.pix.retirement.batch-size:500}") int batchSize,
+            @Value("${wallet.pix.retirement.max-batches-per-run:200}") int maxBatchesPerRun,
+            @Value("${wallet.pix.retirement.pause-between-batches-ms:50}") long pauseBetweenBatchesMs
+    ) {
+        if (retainDays < 1) {
+            throw new IllegalArgumentException("wallet.pix.retirement.retain-days must be positive");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("wallet.pix.retirement.batch-size must be positive");
+        }
+        if (maxBatchesPerRun < 1) {
+            throw new IllegalArgumentException("wallet.pix.retirement.max-batches-per-run must be positive");
+        }
+        if (pauseBetweenBatchesMs < 0) {
+            throw new IllegalArgumentException("wallet.pix.retirement.pause-between-batches-ms must not be negative");
+        }
+        this.pixTransferRepository = pixTransferRepository;
+        this.historyRepository = historyRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.retainDays = retainDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseBetweenBatchesMs = pauseBetweenBatchesMs;
+    }
+
+    @Override
+    public PixTransferRetirementResult execute() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(retainDays));
+        int batches = 0;
+        long moved = 0;
+
+        while (batches < maxBatchesPerRun) {
+            Integer count = tx.execute(status -> retireBatch(cutoff));
+            int retired = count != null ? count : 0;
+            if (retired == 0) {
+                break;
+            }
+            batches++;
+            moved += retired;
+            if (retired < batchSize) {
+                break;
+            }
+            pause();
+        }
+
+        log.info("pix_transfer_retirement_finished batches={} moved={} cutoff={}", batches, moved, cutoff);
+        return new PixTransferRetirementResult(batches, moved, cutoff);
+    }
+
+    private int retireBatch(Instant cutoff) {
+        List<UUID> ids = pixTransferRepository.findSettledIdsBefore(cutoff, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int copied = historyRepository.copySettled(ids, Instant.now());
+        int deleted = pixTransferRepository.deleteSettled(ids);
+        if (copied != deleted) {
+            throw new IllegalStateException("Pix transfers changed while retiring batch (copied="
+                    + copied + ", deleted=" + deleted + ")");
+        }
+        return deleted;
+    }
+
+    private void pause() {
+        if (pauseBetweenBatchesMs == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseBetweenBatchesMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retiring Pix transfers", e);
+        }
+    }
+}
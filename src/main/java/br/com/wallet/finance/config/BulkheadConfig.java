@@ -0,0 +1,141 @@
+package br.com.wallet.finance.config;
+
+import br.com.wallet.finance.infrastructure.bulkhead.Bulkhead;
+import br.com.wallet.finance.infrastructure.bulkhead.BulkheadDataSource;
+import br.com.wallet.finance.infrastructure.bulkhead.Bulkheads;
+import br.com.wallet.finance.infrastructure.bulkhead.TrafficBulkheadFilter;
+import br.com.wallet.finance.infrastructure.bulkhead.TrafficClass;
+import br.com.wallet.finance.infrastructure.bulkhead.TrafficClassContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.task.SimpleAsyncTaskSchedulerCustomizer;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Bulkheads por classe de tráfego (wallet.bulkhead): settlement (/pix/webhook), money-movement
+ * (/pix/transfers, depósito, saque), read (consultas) e other (o resto: criação de carteira, chaves
+ * Pix, sagas, jobs agendados). Cada classe tem um teto de requisições simultâneas sobre as threads
+ * do Tomcat e uma cota de conexões do pool, obrigatória para todas menos o settlement.
+ *
+ * O settlement tem prioridade por construção: os tetos das outras classes precisam deixar threads
+ * (server.tomcat.threads.max) e conexões (spring.datasource.hikari.maximum-pool-size) livres para
+ * ele, então um pico de leituras, de Pix ou de jobs não impede a liquidação. Jobs agendados entram
+ * em other pelo decorador do scheduler; sagas e workers de faixas definem a classe por conta própria.
+ */
+@Configuration
+@ConditionalOnProperty(name = "wallet.bulkhead.enabled", havingValue = "true")
+public class BulkheadConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public Bulkheads bulkheads(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+        Map<String, ClassLimits> limits = binder
+                .bind("wallet.bulkhead.classes", Bindable.mapOf(String.class, ClassLimits.class))
+                .orElse(Map.of());
+        int tomcatThreads = binder.bind("server.tomcat.threads.max", Integer.class).orElse(200);
+        int poolSize = binder.bind("spring.datasource.hikari.maximum-pool-size", Integer.class).orElse(10);
+
+        Map<TrafficClass, Bulkhead> requests = new EnumMap<>(TrafficClass.class);
+        Map<TrafficClass, Bulkhead> connections = new EnumMap<>(TrafficClass.class);
+        for (TrafficClass trafficClass : TrafficClass.values()) {
+            ClassLimits classLimits = limits.get(trafficClass.key());
+            if (trafficClass != TrafficClass.SETTLEMENT && (classLimits == null || classLimits.maxConnections() <= 0)) {
+                // sem cota a classe usaria o pool inteiro e a conta abaixo não garantiria nada ao settlement
+                throw new IllegalArgumentException("wallet.bulkhead.classes." + trafficClass.key() + ".max-connections must be positive");
+            }
+            if (classLimits == null) {
+                continue;
+            }
+            if (classLimits.maxConcurrent() < 0 || classLimits.maxConnections() < 0) {
+                throw new IllegalArgumentException("wallet.bulkhead.classes." + trafficClass.key() + " limits must not be negative");
+            }
+            Duration maxWait = classLimits.maxWait() != null ? classLimits.maxWait() : Duration.ZERO;
+            if (classLimits.maxConcurrent() > 0) {
+                requests.put(trafficClass, new Bulkhead(trafficClass, Bulkheads.REQUESTS, classLimits.maxConcurrent(), maxWait));
+            }
+            if (classLimits.maxConnections() > 0) {
+                connections.put(trafficClass, new Bulkhead(trafficClass, Bulkheads.CONNECTIONS, classLimits.maxConnections(), maxWait));
+            }
+        }
+
+        if (unreserved(requests) >= tomcatThreads) {
+            throw new IllegalArgumentException("wallet.bulkhead money-movement + read + other max-concurrent must stay below server.tomcat.threads.max");
+        }
+        if (unreserved(connections) >= poolSize) {
+            throw new IllegalArgumentException("wallet.bulkhead money-movement + read + other max-connections must stay below spring.datasource.hikari.maximum-pool-size");
+        }
+
+        Bulkheads bulkheads = new Bulkheads(requests, connections);
+        meterRegistry.ifAvailable(bulkheads::bindTo);
+        return bulkheads;
+    }
+
+    @Bean
+    public FilterRegistrationBean<TrafficBulkheadFilter> trafficBulkheadFilter(Bulkheads bulkheads, ObjectMapper objectMapper) {
+        FilterRegistrationBean<TrafficBulkheadFilter> registration =
+                new FilterRegistrationBean<>(new TrafficBulkheadFilter(bulkheads, objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * Jobs agendados usam a cota de other; o scheduler é um ou outro conforme as virtual threads.
+     */
+    @Bean
+    public ThreadPoolTaskSchedulerCustomizer otherTrafficTaskSchedulerCustomizer() {
+        return scheduler -> scheduler.setTaskDecorator(task -> TrafficClassContext.wrap(TrafficClass.OTHER, task));
+    }
+
+    @Bean
+    public SimpleAsyncTaskSchedulerCustomizer otherTrafficVirtualTaskSchedulerCustomizer() {
+        return scheduler -> scheduler.setTaskDecorator(task -> TrafficClassContext.wrap(TrafficClass.OTHER, task));
+    }
+
+    /**
+     * Envolve o DataSource principal (o do Spring Boot, o das réplicas ou o dos shards) com as cotas
+     * de conexão.
+     */
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(ObjectProvider<Bulkheads> bulkheads) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new BulkheadDataSource(dataSource, bulkheads.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    // a soma das classes que não são settlement é o que sobra garantido para ele
+    private static int unreserved(Map<TrafficClass, Bulkhead> bulkheads) {
+        int total = 0;
+        for (Map.Entry<TrafficClass, Bulkhead> entry : bulkheads.entrySet()) {
+            if (entry.getKey() != TrafficClass.SETTLEMENT) {
+                total += entry.getValue().limit();
+            }
+        }
+        return total;
+    }
+
+    record ClassLimits(int maxConcurrent, Duration maxWait, int maxConnections) {
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.wallet.finance.config;
+
+import br.com.wallet.finance.infrastructure.limiter.AdaptiveConcurrencyLimit;
+import br.com.wallet.finance.infrastructure.limiter.ConcurrencyLimitInterceptor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Limite adaptativo de concorrência por endpoint na frente dos controllers (wallet.limiter).
+ * Complementa os bulkheads: eles são tetos fixos por classe de tráfego, este acompanha a latência
+ * e corta antes quando o banco fica lento.
+ */
+@Configuration
+@ConditionalOnProperty(name = "wallet.limiter.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitInterceptor interceptor;
+
+    public ConcurrencyLimitConfig(
+            ObjectMapper objectMapper,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${wallet.limiter.initial-limit:20}") int initialLimit,
+            @Value("${wallet.limiter.min-limit:4}") int minLimit,
+            @Value("${wallet.limiter.max-limit:200}") int maxLimit,
+            @Value("${wallet.limiter.smoothing:1.0}") double smoothing,
+            @Value("${wallet.limiter.probe-multiplier:30}") int probeMultiplier,
+            @Value("${wallet.limiter.retry-after:PT1S}") Duration retryAfter
+    ) {
+        if (retryAfter.isNegative() || retryAfter.isZero()) {
+            throw new IllegalArgumentException("wallet.limiter.retry-after must be positive");
+        }
+        // valida os parâmetros na subida, não na primeira requisição
+        new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, smoothing, probeMultiplier);
+
+        long retryAfterSeconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        this.interceptor = new ConcurrencyLimitInterceptor(
+                () -> new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, smoothing, probeMultiplier),
+                objectMapper, meterRegistry.getIfAvailable(), retryAfterSeconds);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor);
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.wallet.finance.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+/**
+ * Pools extras (réplicas, shards) com o mesmo driver, credenciais e spring.datasource.hikari do
+ * primário; quem chama troca URL, nome do pool e o que mais for diferente.
+ */
+final class DataSourcePools {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    private DataSourcePools() {
+    }
+
+    static HikariDataSource like(DataSourceProperties properties, Environment environment, String poolName) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(pool));
+        pool.setPoolName(poolName);
+        return pool;
+    }
+}
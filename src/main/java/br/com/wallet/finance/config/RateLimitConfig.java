@@ -0,0 +1,68 @@
+package br.com.wallet.finance.config;
+
+import br.com.wallet.finance.infrastructure.ratelimit.MoneyMovementRateLimitFilter;
+import br.com.wallet.finance.infrastructure.ratelimit.TokenBucketLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Rate limit por carteira e por cliente nas rotas de money-movement (wallet.ratelimit). O filtro
+ * roda antes do bulkhead: requisição recusada aqui não ocupa vaga da classe.
+ */
+@Configuration
+@ConditionalOnProperty(name = "wallet.ratelimit.enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<MoneyMovementRateLimitFilter> moneyMovementRateLimitFilter(
+            @Value("${wallet.ratelimit.wallet.capacity:10}") int walletCapacity,
+            @Value("${wallet.ratelimit.wallet.refill-per-second:2}") double walletRefill,
+            @Value("${wallet.ratelimit.client.capacity:100}") int clientCapacity,
+            @Value("${wallet.ratelimit.client.refill-per-second:50}") double clientRefill,
+            @Value("${wallet.ratelimit.max-keys:100000}") int maxKeys,
+            @Value("${wallet.ratelimit.client-header:X-Client-Id}") String clientHeader,
+            @Value("${wallet.ratelimit.trusted-proxies:}") List<String> trustedProxies,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            ObjectMapper objectMapper
+    ) {
+        if (walletCapacity < 1 || walletRefill <= 0) {
+            throw new IllegalArgumentException("wallet.ratelimit.wallet capacity and refill-per-second must be positive");
+        }
+        if (clientCapacity < 1 || clientRefill <= 0) {
+            throw new IllegalArgumentException("wallet.ratelimit.client capacity and refill-per-second must be positive");
+        }
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("wallet.ratelimit.max-keys must be positive");
+        }
+
+        TokenBucketLimiter walletLimits = new TokenBucketLimiter("wallet", walletCapacity, walletRefill, maxKeys);
+        TokenBucketLimiter clientLimits = new TokenBucketLimiter("client", clientCapacity, clientRefill, maxKeys);
+        meterRegistry.ifAvailable(registry -> {
+            walletLimits.bindTo(registry);
+            clientLimits.bindTo(registry);
+        });
+
+        FilterRegistrationBean<MoneyMovementRateLimitFilter> registration = new FilterRegistrationBean<>(
+                new MoneyMovementRateLimitFilter(walletLimits, clientLimits, clientHeader, proxies(trustedProxies), objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
+    private static Set<String> proxies(List<String> configured) {
+        return configured.stream()
+                .map(String::trim)
+                .filter(address -> !address.isEmpty())
+                .collect(Collectors.toSet());
+    }
+}
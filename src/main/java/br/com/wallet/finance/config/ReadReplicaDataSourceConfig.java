@@ -0,0 +1,69 @@
+package br.com.wallet.finance.config;
+
+import br.com.wallet.finance.infrastructure.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Substitui o DataSource do Spring Boot quando há réplicas de leitura: o pool do primário continua
+ * vindo de spring.datasource (inclusive spring.datasource.hikari), e cada URL de
+ * wallet.datasource.replica.urls ganha um pool com as mesmas configurações, marcado read-only.
+ */
+@Configuration
+@ConditionalOnProperty(name = "wallet.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            @Value("${wallet.datasource.replica.urls}") List<String> urls,
+            @Value("${wallet.datasource.replica.username:}") String username,
+            @Value("${wallet.datasource.replica.password:}") String password,
+            @Value("${wallet.datasource.replica.maximum-pool-size:0}") int maximumPoolSize,
+            @Value("${wallet.datasource.replica.health-check-interval:PT5S}") Duration healthCheckInterval
+    ) {
+        if (urls.isEmpty() || urls.stream().anyMatch(String::isBlank)) {
+            throw new IllegalArgumentException("wallet.datasource.replica.urls must list at least one JDBC url");
+        }
+        if (healthCheckInterval.isNegative()) {
+            throw new IllegalArgumentException("wallet.datasource.replica.health-check-interval must not be negative");
+        }
+
+        HikariDataSource primary = DataSourcePools.like(properties, environment, "primary");
+
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = DataSourcePools.like(properties, environment, "replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setReadOnly(true);
+            if (!username.isBlank()) {
+                replica.setUsername(username);
+                replica.setPassword(password);
+            }
+            if (maximumPoolSize > 0) {
+                replica.setMaximumPoolSize(maximumPoolSize);
+            }
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, healthCheckInterval);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.wallet.finance.config;
+
+import br.com.wallet.finance.infrastructure.schema.SchemaMigrator;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternUtils;
+
+import java.util.List;
+
+/**
+ * O esquema é das migrações versionadas (db/migration), não do Hibernate: o EntityManagerFactory
+ * só sobe depois delas.
+ */
+@Configuration
+@ConditionalOnProperty(name = "wallet.schema.migrate", havingValue = "true", matchIfMissing = true)
+public class SchemaMigrationConfig {
+
+    @Bean
+    public SchemaMigrator schemaMigrator(
+            WalletShards walletShards,
+            ResourceLoader resourceLoader,
+            @Value("${wallet.schema.locations:classpath:db/migration/common,classpath:db/migration/{vendor}}")
+            List<String> locations,
+            @Value("${wallet.schema.baseline-on-migrate:false}") boolean baselineOnMigrate
+    ) {
+        // um banco só, ou todos os shards de carteiras
+        return new SchemaMigrator(
+                walletShards.dataSources().values(),
+                ResourcePatternUtils.getResourcePatternResolver(resourceLoader),
+                locations,
+                baselineOnMigrate
+        );
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class SchemaMigratorEntityManagerFactoryDependsOn extends EntityManagerFactoryDependsOnPostProcessor {
+
+        SchemaMigratorEntityManagerFactoryDependsOn() {
+            super("schemaMigrator");
+        }
+    }
+}
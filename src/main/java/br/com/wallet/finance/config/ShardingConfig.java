@@ -0,0 +1,104 @@
+package br.com.wallet.finance.config;
+
+import br.com.wallet.finance.infrastructure.sharding.ConsistentHashRing;
+import br.com.wallet.finance.infrastructure.sharding.ShardRoutingDataSource;
+import br.com.wallet.finance.infrastructure.sharding.WalletResharder;
+import br.com.wallet.finance.infrastructure.sharding.WalletShardAspect;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carteiras distribuídas em vários bancos (wallet.sharding.enabled). Cada item de
+ * wallet.sharding.shards vira um pool com as configurações de spring.datasource; o primeiro
+ * também guarda as tabelas globais (diretório de chaves Pix e overrides de shard).
+ *
+ * Sem sharding, {@link WalletShards} representa o banco único e nada muda no acesso a dados.
+ */
+@Configuration
+public class ShardingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "wallet.sharding.enabled", havingValue = "false", matchIfMissing = true)
+    public WalletShards walletShards(DataSource dataSource) {
+        return WalletShards.single(dataSource);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "wallet.sharding.enabled", havingValue = "true")
+    static class Sharded {
+
+        @Bean(destroyMethod = "close")
+        public WalletShards walletShards(
+                DataSourceProperties properties,
+                Environment environment,
+                @Value("${wallet.sharding.ring:}") List<String> ring,
+                @Value("${wallet.sharding.virtual-nodes:128}") int virtualNodes,
+                @Value("${wallet.datasource.replica.enabled:false}") boolean replicas
+        ) {
+            if (replicas) {
+                throw new IllegalStateException("wallet.sharding and wallet.datasource.replica cannot be enabled together");
+            }
+            List<ShardDefinition> definitions = Binder.get(environment)
+                    .bind("wallet.sharding.shards", Bindable.listOf(ShardDefinition.class))
+                    .orElse(List.of());
+            if (definitions.isEmpty()) {
+                throw new IllegalArgumentException("wallet.sharding.shards must list at least one shard");
+            }
+
+            Map<String, DataSource> pools = new LinkedHashMap<>();
+            for (ShardDefinition definition : definitions) {
+                if (definition.name() == null || definition.name().isBlank() || definition.url() == null) {
+                    throw new IllegalArgumentException("wallet.sharding.shards entries need name and url");
+                }
+                HikariDataSource pool = DataSourcePools.like(properties, environment, "shard-" + definition.name());
+                pool.setJdbcUrl(definition.url());
+                if (definition.username() != null) {
+                    pool.setUsername(definition.username());
+                    pool.setPassword(definition.password());
+                }
+                if (pools.put(definition.name(), pool) != null) {
+                    throw new IllegalArgumentException("Duplicate shard name: " + definition.name());
+                }
+            }
+
+            // o anel pode cobrir só parte dos shards: um shard novo entra vazio e recebe carteiras pelo rebalanceamento
+            List<String> ringShards = ring.isEmpty() ? List.copyOf(pools.keySet()) : ring;
+            return new WalletShards(pools, new ConsistentHashRing(ringShards, virtualNodes));
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(WalletShards walletShards) {
+            return new LazyConnectionDataSourceProxy(
+                    new ShardRoutingDataSource(walletShards.dataSources(), walletShards.directoryShard()));
+        }
+
+        @Bean
+        public WalletShardAspect walletShardAspect(WalletShards walletShards) {
+            return new WalletShardAspect(walletShards);
+        }
+
+        @Bean
+        public WalletResharder walletResharder(WalletShards walletShards) {
+            return new WalletResharder(walletShards);
+        }
+    }
+
+    record ShardDefinition(String name, String url, String username, String password) {
+    }
+}
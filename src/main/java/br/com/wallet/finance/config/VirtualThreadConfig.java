@@ -0,0 +1,91 @@
+package br.com.wallet.finance.config;
+
+import br.com.wallet.finance.infrastructure.bulkhead.Bulkhead;
+import br.com.wallet.finance.infrastructure.bulkhead.BulkheadDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Modo com virtual threads (spring.threads.virtual.enabled, Java 21+): o Spring Boot passa a
+ * atender requisições, @Scheduled e @Async em virtual threads, e o número de requisições
+ * simultâneas deixa de ser limitado por server.tomcat.threads.max.
+ *
+ * Sem esse teto, milhares de requisições chegariam juntas ao Hikari e venceriam o
+ * connection-timeout na fila dele. Aqui um semáforo do tamanho dos pools ({@code jdbc-permits})
+ * fica na frente de todas as conexões: quem não tem vaga estaciona a virtual thread no semáforo,
+ * sem ocupar thread carregadora, e a espera continua limitada pelo connection-timeout.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+    private static final String JDBC = "jdbc";
+
+    @Bean
+    public Bulkhead jdbcPermits(
+            Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${wallet.virtual-threads.jdbc-permits:0}") int jdbcPermits
+    ) {
+        if (jdbcPermits < 0) {
+            throw new IllegalArgumentException("wallet.virtual-threads.jdbc-permits must not be negative");
+        }
+        if (Runtime.version().feature() < 21) {
+            log.warn("virtual_threads_unavailable javaVersion={} reason=requires_java_21", Runtime.version().feature());
+        }
+
+        Binder binder = Binder.get(environment);
+        int permits = jdbcPermits > 0 ? jdbcPermits : totalPoolSize(binder);
+        Duration maxWait = Duration.ofMillis(binder.bind("spring.datasource.hikari.connection-timeout", Long.class).orElse(30_000L));
+
+        Bulkhead bulkhead = new Bulkhead("all", JDBC, permits, maxWait);
+        meterRegistry.ifAvailable(bulkhead::bindTo);
+        log.info("virtual_threads_jdbc_permits permits={} maxWaitMs={}", permits, maxWait.toMillis());
+        return bulkhead;
+    }
+
+    @Bean
+    public static BeanPostProcessor jdbcPermitsDataSourcePostProcessor(ObjectProvider<Bulkhead> jdbcPermits) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new BulkheadDataSource(dataSource, jdbcPermits.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    // soma dos pools que o DataSource principal alcança: shards, ou primário + réplicas
+    private static int totalPoolSize(Binder binder) {
+        int poolSize = binder.bind("spring.datasource.hikari.maximum-pool-size", Integer.class).orElse(10);
+        if (binder.bind("wallet.sharding.enabled", Boolean.class).orElse(false)) {
+            int shards = binder.bind("wallet.sharding.shards", Bindable.listOf(ShardingConfig.ShardDefinition.class)).map(List::size).orElse(1);
+            return poolSize * Math.max(1, shards);
+        }
+        if (binder.bind("wallet.datasource.replica.enabled", Boolean.class).orElse(false)) {
+            int replicas = binder.bind("wallet.datasource.replica.urls", Bindable.listOf(String.class)).map(List::size).orElse(0);
+            int replicaPoolSize = binder.bind("wallet.datasource.replica.maximum-pool-size", Integer.class).orElse(0);
+            return poolSize + replicas * (replicaPoolSize > 0 ? replicaPoolSize : poolSize);
+        }
+        return poolSize;
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.wallet.finance.domain.enums;
+
+import java.util.Locale;
+
+public enum CashFlowGranularity {
+    DAY,
+    MONTH;
+
+    public static CashFlowGranularity from(String value) {
+        if (value == null || value.isBlank()) {
+            return DAY;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unsupported granularity: " + value);
+        }
+    }
+}
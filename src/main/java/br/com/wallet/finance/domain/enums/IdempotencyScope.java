@@ -0,0 +1,30 @@
+package br.com.wallet.finance.domain.enums;
+
+/**
+ * Operação a que pertence uma chave de idempotência (idempotency_keys.scope). A mesma chave pode
+ * ser reutilizada pelo cliente em operações diferentes sem colidir.
+ */
+public enum IdempotencyScope {
+    PIX_TRANSFER((short) 1),
+    DEPOSIT((short) 2),
+    WITHDRAW((short) 3);
+
+    private final short code;
+
+    IdempotencyScope(short code) {
+        this.code = code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public static IdempotencyScope fromCode(short code) {
+        for (IdempotencyScope scope : values()) {
+            if (scope.code == code) {
+                return scope;
+            }
+        }
+        throw new IllegalArgumentException("Unknown idempotency scope code: " + code);
+    }
+}
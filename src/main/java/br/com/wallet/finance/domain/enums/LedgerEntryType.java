@@ -1,6 +1,26 @@
 package br.com.wallet.finance.domain.enums;
 
 public enum LedgerEntryType {
-    DEBIT,
-    CREDIT
+    DEBIT((short) 2),
+    CREDIT((short) 1);
+
+    // gravado em ledger_entries.entry_type (smallint); mesmos códigos dos segmentos arquivados
+    private final short code;
+
+    LedgerEntryType(short code) {
+        this.code = code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public static LedgerEntryType fromCode(short code) {
+        for (LedgerEntryType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown ledger entry type code: " + code);
+    }
 }
@@ -0,0 +1,43 @@
+package br.com.wallet.finance.domain.enums;
+
+/**
+ * Motivo de sistema do lançamento (ledger_entries.reason_code). O texto padrão do motivo não é
+ * gravado em cada linha: description só guarda o que o usuário informou.
+ */
+public enum LedgerReason {
+    DEPOSIT((short) 1, "DEPOSIT"),
+    WITHDRAW((short) 2, "WITHDRAW"),
+    PIX_OUT_PENDING((short) 3, "PIX OUT PENDING"),
+    PIX_IN_CONFIRMED((short) 4, "PIX IN CONFIRMED"),
+    PIX_REFUND_REJECTED((short) 5, "PIX REFUND REJECTED");
+
+    private final short code;
+    private final String label;
+
+    LedgerReason(short code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /** Descrição exibida no extrato: o texto do usuário ou, sem ele, o do motivo. */
+    public String describe(String description) {
+        return description != null ? description : label;
+    }
+
+    public static LedgerReason fromCode(short code) {
+        for (LedgerReason reason : values()) {
+            if (reason.code == code) {
+                return reason;
+            }
+        }
+        throw new IllegalArgumentException("Unknown ledger reason code: " + code);
+    }
+}
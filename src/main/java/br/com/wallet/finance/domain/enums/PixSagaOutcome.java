@@ -0,0 +1,9 @@
+package br.com.wallet.finance.domain.enums;
+
+/**
+ * Resultado gravado no shard de destino para uma saga: o primeiro a gravar vence.
+ */
+public enum PixSagaOutcome {
+    CREDITED,
+    VOIDED
+}
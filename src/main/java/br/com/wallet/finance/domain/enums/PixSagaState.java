@@ -0,0 +1,14 @@
+package br.com.wallet.finance.domain.enums;
+
+/**
+ * Estado da saga de um Pix entre shards.
+ *
+ * CREDITING: débito feito na origem, crédito no destino pendente (com retentativas).
+ * COMPENSATING: o crédito não vai acontecer; falta estornar a origem.
+ */
+public enum PixSagaState {
+    CREDITING,
+    COMPENSATING,
+    COMPLETED,
+    COMPENSATED
+}
@@ -0,0 +1,9 @@
+package br.com.wallet.finance.domain.model;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Carteira cujo saldo desnormalizado (wallets.current_balance) diverge da soma do ledger.
+ */
+public record BalanceDrift(UUID walletId, BigDecimal storedBalance, BigDecimal ledgerBalance) {}
@@ -0,0 +1,6 @@
+package br.com.wallet.finance.domain.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record BalancePoint(Instant at, BigDecimal balance) {}
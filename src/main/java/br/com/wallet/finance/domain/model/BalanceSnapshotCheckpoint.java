@@ -0,0 +1,51 @@
+package br.com.wallet.finance.domain.model;
+
+import br.com.wallet.finance.infrastructure.id.UuidV7;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Partição já concluída do snapshot de um dia. Gravada na mesma transação
+ * dos saldos da partição, o que permite retomar o job de onde parou.
+ */
+@Entity
+@Table(
+        name = "balance_snapshot_checkpoints",
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_snapshot_checkpoint_partition",
+                        columnNames = {"snapshot_date", "partition_index"}
+                )
+        }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSnapshotCheckpoint {
+
+    @Id
+    @UuidV7
+    @Column(name = "checkpoint_id", columnDefinition = "uuid")
+    private UUID id;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "partition_index", nullable = false)
+    private Integer partitionIndex;
+
+    @Column(name = "partition_count", nullable = false)
+    private Integer partitionCount;
+
+    @Column(name = "wallet_count", nullable = false)
+    private Integer walletCount;
+
+    @Column(name = "completed_at", nullable = false)
+    private Instant completedAt;
+}
@@ -0,0 +1,12 @@
+package br.com.wallet.finance.domain.model;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+public record BalanceSnapshotResult(
+        LocalDate snapshotDate,
+        int partitions,
+        int resumedPartitions,
+        long wallets,
+        Path file
+) {}
@@ -0,0 +1,11 @@
+package br.com.wallet.finance.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record CashFlowBucket(
+        LocalDate periodStart,
+        BigDecimal totalCredits,
+        BigDecimal totalDebits,
+        BigDecimal closingBalance
+) {}
@@ -0,0 +1,53 @@
+package br.com.wallet.finance.domain.model;
+
+import br.com.wallet.finance.domain.enums.IdempotencyScope;
+import br.com.wallet.finance.infrastructure.persistence.IdempotencyScopeConverter;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Chave de idempotência já atendida, válida até expires_at.
+ *
+ * A chave do cliente não é gravada: key_hash guarda os primeiros 128 bits do SHA-256 de
+ * (escopo, carteira, chave) numa coluna uuid, o que deixa o índice primário com largura fixa
+ * de 16 bytes, qualquer que seja o tamanho da chave recebida.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "key_hash", columnDefinition = "uuid")
+    private UUID keyHash;
+
+    @Convert(converter = IdempotencyScopeConverter.class)
+    @Column(name = "scope", nullable = false)
+    private IdempotencyScope scope;
+
+    // só para mover a chave junto com a carteira entre shards; a busca é sempre pelo hash
+    @Column(name = "wallet_id", columnDefinition = "uuid")
+    private UUID walletId;
+
+    @Column(name = "resource_id", nullable = false, columnDefinition = "uuid")
+    private UUID resourceId;
+
+    @Column(name = "reference", length = 64)
+    private String reference;
+
+    @Column(name = "wallet_version")
+    private Long walletVersion;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
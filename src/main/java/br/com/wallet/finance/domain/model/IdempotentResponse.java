@@ -0,0 +1,17 @@
+package br.com.wallet.finance.domain.model;
+
+import java.util.UUID;
+
+/**
+ * O que a requisição original devolveu, o suficiente para responder um replay sem reler o recurso.
+ *
+ * @param resourceId    id do recurso criado (ex.: pix_transfer_id)
+ * @param reference     identificador exposto ao cliente, quando houver (ex.: endToEndId)
+ * @param walletVersion versão da carteira depois da escrita, quando houver (depósito e saque)
+ */
+public record IdempotentResponse(UUID resourceId, String reference, Long walletVersion) {
+
+    public IdempotentResponse(UUID resourceId, String reference) {
+        this(resourceId, reference, null);
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.wallet.finance.domain.model;
+
+import java.time.Instant;
+
+/**
+ * @param horizon início do primeiro dia que continua no banco depois da execução
+ */
+public record LedgerArchiveResult(int days, long rows, Instant horizon) {}
@@ -0,0 +1,52 @@
+package br.com.wallet.finance.domain.model;
+
+import br.com.wallet.finance.infrastructure.id.UuidV7;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Catálogo dos arquivos de segmento do ledger frio: um arquivo por dia (UTC) arquivado.
+ * Os lançamentos do dia saem do banco na mesma transação que grava esta linha.
+ */
+@Entity
+@Table(
+        name = "ledger_archive_segments",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_archive_segment_date", columnNames = {"business_date"})
+        }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerArchiveSegment {
+
+    @Id
+    @UuidV7
+    @Column(name = "segment_id", columnDefinition = "uuid")
+    private UUID id;
+
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+
+    // relativo a wallet.ledger.archive.dir
+    @Column(name = "file_name", nullable = false, length = 200)
+    private String fileName;
+
+    @Column(name = "row_count", nullable = false)
+    private Long rowCount;
+
+    @Column(name = "wallet_count", nullable = false)
+    private Integer walletCount;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+}
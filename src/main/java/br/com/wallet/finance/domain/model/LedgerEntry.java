@@ -1,6 +1,11 @@
 package br.com.wallet.finance.domain.model;
 
 import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.enums.LedgerReason;
+import br.com.wallet.finance.infrastructure.id.UuidV7;
+import br.com.wallet.finance.infrastructure.persistence.EndToEndIdConverter;
+import br.com.wallet.finance.infrastructure.persistence.LedgerEntryTypeConverter;
+import br.com.wallet.finance.infrastructure.persistence.LedgerReasonConverter;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -11,7 +16,8 @@ import java.util.UUID;
 @Entity
 @Table(name = "ledger_entries", indexes = {
         @Index(name = "idx_ledger_wallet_time", columnList = "wallet_id, occurred_at"),
-        @Index(name = "idx_ledger_endtoend", columnList = "end_to_end_id")
+        @Index(name = "idx_ledger_endtoend", columnList = "end_to_end_id"),
+        @Index(name = "idx_ledger_occurred_at", columnList = "occurred_at")
 })
 @Getter
 @Setter
@@ -21,7 +27,7 @@ import java.util.UUID;
 public class LedgerEntry {
 
     @Id
-    @GeneratedValue
+    @UuidV7
     @Column(name = "ledger_entry_id", columnDefinition = "uuid")
     private UUID id;
 
@@ -29,16 +35,23 @@ public class LedgerEntry {
     @JoinColumn(name = "wallet_id", nullable = false)
     private Wallet wallet;
 
-    @Enumerated(EnumType.STRING)
-    @Column(name = "entry_type", nullable = false, length = 20)
-    private LedgerEntryType type; // DEBIT ou CREDIT
+    @Convert(converter = LedgerEntryTypeConverter.class)
+    @Column(name = "entry_type", nullable = false)
+    private LedgerEntryType type; // DEBIT ou CREDIT (smallint)
 
     @Column(name = "amount", nullable = false, precision = 19, scale = 2)
     private BigDecimal amount;
 
-    @Column(name = "end_to_end_id", length = 64)
+    // binário compacto (UUID ou layout BACEN em 17 bytes)
+    @Convert(converter = EndToEndIdConverter.class)
+    @Column(name = "end_to_end_id", length = 65)
     private String endToEndId;
 
+    @Convert(converter = LedgerReasonConverter.class)
+    @Column(name = "reason_code", nullable = false)
+    private LedgerReason reason;
+
+    // só o texto informado pelo usuário; sem ele o extrato usa o do motivo
     @Column(name = "description", length = 120)
     private String description;
 
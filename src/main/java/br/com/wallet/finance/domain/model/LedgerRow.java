@@ -0,0 +1,40 @@
+package br.com.wallet.finance.domain.model;
+
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.enums.LedgerReason;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Lançamento com a carteira, lido sem hidratar entidades (arquivamento do ledger).
+ */
+public record LedgerRow(
+        UUID walletId,
+        UUID id,
+        LedgerEntryType type,
+        BigDecimal amount,
+        String endToEndId,
+        String description,
+        Instant occurredAt
+) {
+
+    /** Projeção JPQL: descrição resolvida pelo motivo, como no extrato. */
+    public LedgerRow(
+            UUID walletId,
+            UUID id,
+            LedgerEntryType type,
+            BigDecimal amount,
+            String endToEndId,
+            LedgerReason reason,
+            String description,
+            Instant occurredAt
+    ) {
+        this(walletId, id, type, amount, endToEndId, reason.describe(description), occurredAt);
+    }
+
+    public StatementEntry toStatementEntry() {
+        return new StatementEntry(id, type, amount, endToEndId, description, occurredAt);
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.wallet.finance.domain.model;
 
+import br.com.wallet.finance.infrastructure.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -21,7 +22,7 @@ import java.util.UUID;
 public class PixKey {
 
     @Id
-    @GeneratedValue
+    @UuidV7
     @Column(name = "pix_key_id", columnDefinition = "uuid")
     private UUID id;
 
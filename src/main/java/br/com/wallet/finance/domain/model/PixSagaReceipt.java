@@ -0,0 +1,38 @@
+package br.com.wallet.finance.domain.model;
+
+import br.com.wallet.finance.domain.enums.PixSagaOutcome;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(
+        name = "pix_saga_receipts",
+        indexes = {
+                // a carteira leva os recibos quando muda de shard
+                @Index(name = "idx_saga_receipt_wallet", columnList = "wallet_id")
+        }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PixSagaReceipt {
+
+    @Id
+    @Column(name = "end_to_end_id", length = 64)
+    private String endToEndId;
+
+    @Column(name = "wallet_id", nullable = false, columnDefinition = "uuid")
+    private UUID walletId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "outcome", nullable = false, length = 20)
+    private PixSagaOutcome outcome;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
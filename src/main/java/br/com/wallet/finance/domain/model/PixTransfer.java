@@ -1,6 +1,7 @@
 package br.com.wallet.finance.domain.model;
 
 import br.com.wallet.finance.domain.enums.PixTransferStatus;
+import br.com.wallet.finance.infrastructure.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -32,7 +33,7 @@ import java.util.UUID;
 public class PixTransfer {
 
     @Id
-    @GeneratedValue
+    @UuidV7
     @Column(name = "pix_transfer_id", columnDefinition = "uuid")
     private UUID id;
 
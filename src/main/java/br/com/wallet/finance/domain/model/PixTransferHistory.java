@@ -0,0 +1,96 @@
+package br.com.wallet.finance.domain.model;
+
+import br.com.wallet.finance.domain.enums.PixTransferStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Transferências liquidadas (CONFIRMED/REJECTED) retiradas de pix_transfers depois do prazo de
+ * retenção. Mantém o mesmo id e as mesmas chaves de idempotência; só é consultada quando a busca
+ * na tabela quente não encontra nada.
+ */
+@Entity
+@Table(
+        name = "pix_transfers_history",
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_transfer_history_fromwallet_idem",
+                        columnNames = {"from_wallet_id", "idempotency_key"}
+                ),
+                @UniqueConstraint(
+                        name = "uk_transfer_history_endtoend",
+                        columnNames = {"end_to_end_id"}
+                )
+        }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PixTransferHistory {
+
+    // copiado de pix_transfers, não é gerado aqui
+    @Id
+    @Column(name = "pix_transfer_id", columnDefinition = "uuid")
+    private UUID id;
+
+    // sem FK: o histórico não trava nem segura a exclusão de carteiras
+    @Column(name = "from_wallet_id", nullable = false, columnDefinition = "uuid")
+    private UUID fromWalletId;
+
+    @Column(name = "to_wallet_id", columnDefinition = "uuid")
+    private UUID toWalletId;
+
+    @Column(name = "to_pix_key", nullable = false, length = 140)
+    private String toPixKey;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "end_to_end_id", nullable = false, length = 64)
+    private String endToEndId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 64)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private PixTransferStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "retired_at", nullable = false)
+    private Instant retiredAt;
+
+    /**
+     * Cópia desanexada para os fluxos que trabalham com {@link PixTransfer}. As carteiras vêm só
+     * com o id; a transferência já está liquidada e não deve ser salva de volta.
+     */
+    public PixTransfer toTransfer() {
+        return PixTransfer.builder()
+                .id(id)
+                .fromWallet(Wallet.builder().id(fromWalletId).build())
+                .toWallet(toWalletId != null ? Wallet.builder().id(toWalletId).build() : null)
+                .toPixKey(toPixKey)
+                .amount(amount)
+                .endToEndId(endToEndId)
+                .idempotencyKey(idempotencyKey)
+                .status(status)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.wallet.finance.domain.model;
+
+import java.time.Instant;
+
+/**
+ * @param cutoff transferências liquidadas com updated_at anterior a este instante foram para o histórico
+ */
+public record PixTransferRetirementResult(int batches, long moved, Instant cutoff) {}
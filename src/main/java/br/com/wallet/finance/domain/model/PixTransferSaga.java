@@ -0,0 +1,63 @@
+package br.com.wallet.finance.domain.model;
+
+import br.com.wallet.finance.domain.enums.PixSagaState;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(
+        name = "pix_transfer_sagas",
+        indexes = {
+                // varredura de recuperação
+                @Index(name = "idx_saga_state_next_attempt", columnList = "state, next_attempt_at")
+        }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PixTransferSaga {
+
+    // a saga é da transferência: mesmo endToEndId
+    @Id
+    @Column(name = "end_to_end_id", length = 64)
+    private String endToEndId;
+
+    @Column(name = "from_wallet_id", nullable = false, columnDefinition = "uuid")
+    private UUID fromWalletId;
+
+    @Column(name = "to_wallet_id", nullable = false, columnDefinition = "uuid")
+    private UUID toWalletId;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false, length = 20)
+    private PixSagaState state;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 200)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // nula até o primeiro save: id atribuído, é ela que indica saga nova ao Spring Data
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
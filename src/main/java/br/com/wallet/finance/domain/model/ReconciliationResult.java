@@ -0,0 +1,16 @@
+package br.com.wallet.finance.domain.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * @param since     marca d'água da execução anterior (nula numa varredura completa)
+ * @param watermark marca d'água gravada por esta execução
+ */
+public record ReconciliationResult(
+        boolean fullPass,
+        Instant since,
+        Instant watermark,
+        List<BalanceDrift> drifts,
+        int repaired
+) {}
@@ -0,0 +1,50 @@
+package br.com.wallet.finance.domain.model;
+
+import br.com.wallet.finance.infrastructure.id.UuidV7;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Execução concluída da reconciliação de saldos. A marca d'água da última execução define
+ * quais carteiras a próxima execução incremental precisa verificar.
+ */
+@Entity
+@Table(name = "reconciliation_runs", indexes = {
+        @Index(name = "idx_reconciliation_watermark", columnList = "watermark")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationRun {
+
+    @Id
+    @UuidV7
+    @Column(name = "run_id", columnDefinition = "uuid")
+    private UUID id;
+
+    @Column(name = "full_pass", nullable = false)
+    private Boolean fullPass;
+
+    @Column(name = "since")
+    private Instant since;
+
+    @Column(name = "watermark", nullable = false)
+    private Instant watermark;
+
+    @Column(name = "drift_count", nullable = false)
+    private Integer driftCount;
+
+    @Column(name = "repaired_count", nullable = false)
+    private Integer repairedCount;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at", nullable = false)
+    private Instant finishedAt;
+}
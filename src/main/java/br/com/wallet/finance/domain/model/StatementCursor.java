@@ -0,0 +1,41 @@
+package br.com.wallet.finance.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posição de paginação por keyset (occurredAt, id) no extrato de uma carteira.
+ * Serializada como token opaco (base64url) para o cliente.
+ */
+public record StatementCursor(Instant occurredAt, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static StatementCursor of(StatementEntry entry) {
+        return new StatementCursor(entry.occurredAt(), entry.id());
+    }
+
+    public String encode() {
+        String raw = occurredAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static StatementCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int idx = raw.indexOf(SEPARATOR);
+            if (idx < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new StatementCursor(
+                    Instant.parse(raw.substring(0, idx)),
+                    UUID.fromString(raw.substring(idx + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
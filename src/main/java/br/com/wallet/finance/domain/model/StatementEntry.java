@@ -0,0 +1,36 @@
+package br.com.wallet.finance.domain.model;
+
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.enums.LedgerReason;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Projeção somente-leitura de um lançamento do ledger usada no extrato.
+ * Não é uma entidade gerenciada: cada linha lida do cursor pode ser descartada
+ * logo após ser escrita na resposta.
+ */
+public record StatementEntry(
+        UUID id,
+        LedgerEntryType type,
+        BigDecimal amount,
+        String endToEndId,
+        String description,
+        Instant occurredAt
+) {
+
+    /** Projeção JPQL: resolve a descrição a partir do motivo quando o usuário não informou texto. */
+    public StatementEntry(
+            UUID id,
+            LedgerEntryType type,
+            BigDecimal amount,
+            String endToEndId,
+            LedgerReason reason,
+            String description,
+            Instant occurredAt
+    ) {
+        this(id, type, amount, endToEndId, reason.describe(description), occurredAt);
+    }
+}
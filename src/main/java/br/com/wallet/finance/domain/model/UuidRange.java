@@ -0,0 +1,31 @@
+package br.com.wallet.finance.domain.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Faixa fechada [lower, upper] do espaço de UUIDs, na ordem do banco
+ * (comparação byte a byte, sem sinal). Usada para dividir jobs em lote por carteira.
+ */
+public record UuidRange(int index, UUID lower, UUID upper) {
+
+    public static List<UuidRange> split(int partitions) {
+        if (partitions < 1 || partitions > 65536) {
+            throw new IllegalArgumentException("Partitions must be between 1 and 65536");
+        }
+        // divide pelos 16 bits mais significativos, o suficiente para qualquer quantidade razoável de partições
+        long space = 1L << 16;
+        List<UuidRange> ranges = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            long from = space * i / partitions;
+            long to = space * (i + 1) / partitions - 1;
+            ranges.add(new UuidRange(
+                    i,
+                    new UUID(from << 48, 0L),
+                    new UUID((to << 48) | 0x0000_FFFF_FFFF_FFFFL, -1L)
+            ));
+        }
+        return ranges;
+    }
+}
@@ -15,8 +15,10 @@ import java.util.UUID;
 @AllArgsConstructor
 public class Wallet {
 
+    // UUID aleatório (v4), não v7: snapshot e reconciliação dividem as carteiras em faixas pelos
+    // bits mais altos do id (UuidRange), que num UUIDv7 são o timestamp e concentrariam tudo numa faixa.
+    // Atribuído pela aplicação na criação: com sharding, o id decide o banco antes do insert
     @Id
-    @GeneratedValue
     @Column(name = "wallet_id", columnDefinition = "uuid")
     private UUID id;
 
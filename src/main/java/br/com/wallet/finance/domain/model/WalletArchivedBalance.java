@@ -0,0 +1,33 @@
+package br.com.wallet.finance.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Movimento líquido de tudo que já foi arquivado de uma carteira. Permite que somas sobre o
+ * ledger (snapshot, reconciliação, saldo histórico recente) continuem em SQL sem ler os arquivos.
+ */
+@Entity
+@Table(name = "wallet_archived_balances")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletArchivedBalance {
+
+    @Id
+    @Column(name = "wallet_id", columnDefinition = "uuid")
+    private UUID walletId;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    // fim (exclusivo) do último dia arquivado com lançamentos desta carteira
+    @Column(name = "archived_until", nullable = false)
+    private Instant archivedUntil;
+}
@@ -0,0 +1,9 @@
+package br.com.wallet.finance.domain.model;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Projeção somente-leitura (id da carteira, saldo), sem hidratar a entidade.
+ */
+public record WalletBalance(UUID walletId, BigDecimal balance) {}
@@ -0,0 +1,51 @@
+package br.com.wallet.finance.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Saldo de fechamento (fim do dia UTC) de uma carteira, gerado pelo job de snapshot.
+ * Chave natural (data, carteira) para permitir a carga em lote via INSERT ... SELECT.
+ */
+@Entity
+@Table(name = "wallet_balance_snapshots", indexes = {
+        @Index(name = "idx_snapshot_wallet_date", columnList = "wallet_id, snapshot_date")
+})
+@IdClass(WalletBalanceSnapshot.Key.class)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletBalanceSnapshot {
+
+    @Id
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Id
+    @Column(name = "wallet_id", nullable = false, columnDefinition = "uuid")
+    private UUID walletId;
+
+    @Column(name = "balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private LocalDate snapshotDate;
+        private UUID walletId;
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.wallet.finance.domain.model;
+
+import br.com.wallet.finance.infrastructure.id.UuidV7;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Agregado diário (UTC) das movimentações de uma carteira.
+ * Mantido incrementalmente a cada lançamento no ledger, sob o mesmo lock da carteira.
+ */
+@Entity
+@Table(
+        name = "wallet_daily_cashflow",
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_cashflow_wallet_date",
+                        columnNames = {"wallet_id", "business_date"}
+                )
+        }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletDailyCashFlow {
+
+    @Id
+    @UuidV7
+    @Column(name = "cashflow_id", columnDefinition = "uuid")
+    private UUID id;
+
+    @Column(name = "wallet_id", nullable = false, columnDefinition = "uuid")
+    private UUID walletId;
+
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+
+    @Column(name = "total_credits", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalCredits;
+
+    @Column(name = "total_debits", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalDebits;
+
+    @Column(name = "closing_balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal closingBalance;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -1,5 +1,6 @@
 package br.com.wallet.finance.domain.model;
 
+import br.com.wallet.finance.infrastructure.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -16,7 +17,8 @@ import java.util.UUID;
                 )
         },
         indexes = {
-                @Index(name = "idx_webhook_endtoend", columnList = "end_to_end_id")
+                // expurgo da janela de deduplicação
+                @Index(name = "idx_webhook_processed", columnList = "processed_at")
         }
 )
 @Getter
@@ -27,7 +29,7 @@ import java.util.UUID;
 public class WebhookEvent {
 
     @Id
-    @GeneratedValue
+    @UuidV7
     @Column(name = "webhook_event_pk", columnDefinition = "uuid")
     private UUID id;
 
@@ -0,0 +1,8 @@
+package br.com.wallet.finance.domain.model;
+
+import java.time.Instant;
+
+/**
+ * @param cutoff eventos processados antes deste instante saíram de webhook_events
+ */
+public record WebhookEventPurgeResult(int batches, long deleted, Instant cutoff) {}
@@ -0,0 +1,201 @@
+package br.com.wallet.finance.infrastructure.archive;
+
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.model.LedgerArchiveSegment;
+import br.com.wallet.finance.domain.model.StatementCursor;
+import br.com.wallet.finance.domain.model.StatementEntry;
+import br.com.wallet.finance.domain.model.WalletArchivedBalance;
+import br.com.wallet.finance.infrastructure.repository.LedgerArchiveSegmentRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletArchivedBalanceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Leitura do ledger frio (segmentos diários em disco).
+ *
+ * Todo lançamento está ou no banco ou num segmento, nunca nos dois: o arquivamento de um dia grava
+ * o catálogo e apaga as linhas na mesma transação, e sempre do dia mais antigo para o mais novo.
+ * Por isso quem lê soma "arquivo + banco" para qualquer intervalo, e num extrato entrega primeiro
+ * o que veio do arquivo (tudo nele é anterior ao que ficou no banco).
+ *
+ * O catálogo é consultado na transação de quem chama; com REPEATABLE READ a visão do catálogo
+ * e a das linhas do banco são a mesma, mesmo com o job de arquivamento rodando.
+ */
+@Component
+public class LedgerArchive {
+
+    private static final LocalDate FIRST_DAY = LocalDate.EPOCH;
+
+    private final LedgerArchiveSegmentRepository segmentRepository;
+    private final WalletArchivedBalanceRepository archivedBalanceRepository;
+    private final Path directory;
+    // por arquivo, não por dia: com sharding cada shard tem o seu segmento do mesmo dia
+    private final Map<String, LedgerSegment> openSegments = new ConcurrentHashMap<>();
+
+    public LedgerArchive(
+            LedgerArchiveSegmentRepository segmentRepository,
+            WalletArchivedBalanceRepository archivedBalanceRepository,
+            @Value("${wallet.ledger.archive.dir:ledger-archive}") String directory
+    ) {
+        this.segmentRepository = segmentRepository;
+        this.archivedBalanceRepository = archivedBalanceRepository;
+        this.directory = Path.of(directory);
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * Início do primeiro dia ainda no banco; {@code null} se nada foi arquivado.
+     */
+    public Instant horizon() {
+        return segmentRepository.findFirstByOrderByBusinessDateDesc()
+                .map(segment -> startOf(segment.getBusinessDate().plusDays(1)))
+                .orElse(null);
+    }
+
+    /**
+     * Movimento líquido arquivado da carteira em [from, upTo]; {@code from} nulo = desde o início.
+     */
+    public BigDecimal sum(UUID walletId, Instant from, Instant upTo) {
+        Instant horizon = horizon();
+        if (horizon == null || (from != null && !from.isBefore(horizon))) {
+            return BigDecimal.ZERO;
+        }
+        if (from == null && !upTo.isBefore(horizon)) {
+            // tudo que foi arquivado entra: basta o acumulado
+            return archivedBalanceRepository.findById(walletId)
+                    .map(WalletArchivedBalance::getAmount)
+                    .orElse(BigDecimal.ZERO);
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (LedgerArchiveSegment catalog : segments(from, upTo, horizon)) {
+            LedgerSegment segment = open(catalog);
+            LedgerSegment.Block block = segment.find(walletId);
+            if (block == null) {
+                continue;
+            }
+            boolean wholeBlock = (from == null || !block.minOccurredAt().isBefore(from))
+                    && !block.maxOccurredAt().isAfter(upTo);
+            if (wholeBlock) {
+                total = total.add(block.net());
+                continue;
+            }
+            for (StatementEntry entry : segment.read(block)) {
+                if (within(entry, from, upTo)) {
+                    total = entry.type() == LedgerEntryType.CREDIT
+                            ? total.add(entry.amount())
+                            : total.subtract(entry.amount());
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Movimento líquido arquivado de várias carteiras até {@code upTo} (inclusive).
+     */
+    public Map<UUID, BigDecimal> sumUpTo(Collection<UUID> walletIds, Instant upTo) {
+        Instant horizon = horizon();
+        Map<UUID, BigDecimal> result = new HashMap<>();
+        if (horizon == null) {
+            return result;
+        }
+        if (!upTo.isBefore(horizon)) {
+            for (WalletArchivedBalance archived : archivedBalanceRepository.findAllById(walletIds)) {
+                result.put(archived.getWalletId(), archived.getAmount());
+            }
+            return result;
+        }
+        for (UUID walletId : walletIds) {
+            result.put(walletId, sum(walletId, null, upTo));
+        }
+        return result;
+    }
+
+    /**
+     * Entrega em ordem (occurredAt, id) os lançamentos arquivados em [from, upTo] posteriores
+     * ao cursor, até {@code limit} itens (0 = sem limite).
+     *
+     * @return quantidade entregue
+     */
+    public int forEach(UUID walletId,
+                       Instant from,
+                       Instant upTo,
+                       StatementCursor after,
+                       int limit,
+                       Consumer<StatementEntry> sink) {
+
+        Instant horizon = horizon();
+        if (horizon == null || !from.isBefore(horizon)) {
+            return 0;
+        }
+        int max = limit > 0 ? limit : Integer.MAX_VALUE;
+        int emitted = 0;
+
+        for (LedgerArchiveSegment catalog : segments(from, upTo, horizon)) {
+            LedgerSegment segment = open(catalog);
+            LedgerSegment.Block block = segment.find(walletId);
+            if (block == null || block.maxOccurredAt().isBefore(from) || block.minOccurredAt().isAfter(upTo)) {
+                continue;
+            }
+            for (StatementEntry entry : segment.read(block)) {
+                if (!within(entry, from, upTo) || (after != null && !isAfter(entry, after))) {
+                    continue;
+                }
+                sink.accept(entry);
+                if (++emitted == max) {
+                    return emitted;
+                }
+            }
+        }
+        return emitted;
+    }
+
+    private List<LedgerArchiveSegment> segments(Instant from, Instant upTo, Instant horizon) {
+        LocalDate first = from != null ? LocalDate.ofInstant(from, ZoneOffset.UTC) : FIRST_DAY;
+        Instant last = upTo.isBefore(horizon) ? upTo : horizon.minusNanos(1);
+        return segmentRepository.findByBusinessDateBetweenOrderByBusinessDate(
+                first, LocalDate.ofInstant(last, ZoneOffset.UTC));
+    }
+
+    private LedgerSegment open(LedgerArchiveSegment catalog) {
+        // abre fora do computeIfAbsent: o mapa trava o bin durante a função e a leitura do arquivo
+        // prenderia a thread carregadora de uma virtual thread (e as outras chaves do mesmo bin)
+        LedgerSegment segment = openSegments.get(catalog.getFileName());
+        if (segment != null) {
+            return segment;
+        }
+        LedgerSegment opened = LedgerSegment.open(directory.resolve(catalog.getFileName()));
+        LedgerSegment raced = openSegments.putIfAbsent(catalog.getFileName(), opened);
+        return raced != null ? raced : opened;
+    }
+
+    private static boolean within(StatementEntry entry, Instant from, Instant upTo) {
+        return (from == null || !entry.occurredAt().isBefore(from)) && !entry.occurredAt().isAfter(upTo);
+    }
+
+    private static boolean isAfter(StatementEntry entry, StatementCursor cursor) {
+        int byTime = entry.occurredAt().compareTo(cursor.occurredAt());
+        return byTime > 0 || (byTime == 0 && LedgerSegmentFormat.compare(entry.id(), cursor.id()) > 0);
+    }
+
+    private static Instant startOf(LocalDate date) {
+        return date.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
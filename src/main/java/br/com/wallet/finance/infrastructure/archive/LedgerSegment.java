@@ -0,0 +1,170 @@
+package br.com.wallet.finance.infrastructure.archive;
+
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.model.StatementEntry;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Segmento do ledger frio mapeado em memória (somente leitura). Seguro para uso concorrente:
+ * cada leitura trabalha sobre uma visão própria do buffer.
+ */
+final class LedgerSegment {
+
+    record Block(int rows, long offset, int length, Instant minOccurredAt, Instant maxOccurredAt, BigDecimal net) {}
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int footerOffset;
+    private final int entries;
+
+    private LedgerSegment(Path path, MappedByteBuffer buffer, int footerOffset, int entries) {
+        this.path = path;
+        this.buffer = buffer;
+        this.footerOffset = footerOffset;
+        this.entries = entries;
+    }
+
+    static LedgerSegment open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE || size < LedgerSegmentFormat.HEADER_BYTES + LedgerSegmentFormat.TRAILER_BYTES) {
+                throw new IllegalStateException("Invalid ledger segment size: " + path);
+            }
+            // o mapeamento continua válido depois de fechar o canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            int trailer = (int) size - LedgerSegmentFormat.TRAILER_BYTES;
+            if (buffer.getInt(0) != LedgerSegmentFormat.MAGIC
+                    || buffer.getInt(4) != LedgerSegmentFormat.VERSION
+                    || buffer.getInt(trailer + 12) != LedgerSegmentFormat.MAGIC) {
+                throw new IllegalStateException("Not a ledger segment: " + path);
+            }
+            long footerOffset = buffer.getLong(trailer);
+            int entries = buffer.getInt(trailer + 8);
+            if (footerOffset + (long) entries * LedgerSegmentFormat.FOOTER_ENTRY_BYTES != trailer) {
+                throw new IllegalStateException("Corrupted ledger segment footer: " + path);
+            }
+            return new LedgerSegment(path, buffer, (int) footerOffset, entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Busca binária no footer; {@code null} quando a carteira não tem lançamentos no segmento.
+     */
+    Block find(UUID walletId) {
+        long msb = walletId.getMostSignificantBits();
+        long lsb = walletId.getLeastSignificantBits();
+        int low = 0;
+        int high = entries - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int at = footerOffset + mid * LedgerSegmentFormat.FOOTER_ENTRY_BYTES;
+            int cmp = LedgerSegmentFormat.compare(buffer.getLong(at), buffer.getLong(at + 8), msb, lsb);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return new Block(
+                        buffer.getInt(at + 28),
+                        buffer.getLong(at + 16),
+                        buffer.getInt(at + 24),
+                        LedgerSegmentFormat.fromMicros(buffer.getLong(at + 32)),
+                        LedgerSegmentFormat.fromMicros(buffer.getLong(at + 40)),
+                        LedgerSegmentFormat.fromCents(buffer.getLong(at + 48))
+                );
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Descomprime o bloco e devolve os lançamentos em ordem (occurredAt, id).
+     */
+    List<StatementEntry> read(Block block) {
+        ByteBuffer slice = buffer.slice((int) block.offset(), block.length());
+        Inflater inflater = new Inflater();
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteBufferInputStream(slice), inflater))) {
+            int n = block.rows();
+            UUID[] ids = new UUID[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = new UUID(in.readLong(), in.readLong());
+            }
+            LedgerEntryType[] types = new LedgerEntryType[n];
+            for (int i = 0; i < n; i++) {
+                types[i] = LedgerSegmentFormat.typeOf(in.readByte());
+            }
+            BigDecimal[] amounts = new BigDecimal[n];
+            for (int i = 0; i < n; i++) {
+                amounts[i] = LedgerSegmentFormat.fromCents(in.readLong());
+            }
+            long[] micros = new long[n];
+            micros[0] = in.readLong();
+            for (int i = 1; i < n; i++) {
+                micros[i] = micros[i - 1] + LedgerSegmentFormat.readVarLong(in);
+            }
+            String[] endToEndIds = new String[n];
+            for (int i = 0; i < n; i++) {
+                endToEndIds[i] = LedgerSegmentFormat.readNullableString(in);
+            }
+            List<StatementEntry> result = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                result.add(new StatementEntry(
+                        ids[i],
+                        types[i],
+                        amounts[i],
+                        endToEndIds[i],
+                        LedgerSegmentFormat.readNullableString(in),
+                        LedgerSegmentFormat.fromMicros(micros[i])
+                ));
+            }
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read ledger segment " + path, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer source;
+
+        ByteBufferInputStream(ByteBuffer source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read() {
+            return source.hasRemaining() ? source.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!source.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, source.remaining());
+            source.get(b, off, n);
+            return n;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.wallet.finance.infrastructure.archive;
+
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Formato dos segmentos do ledger frio (um arquivo por dia arquivado).
+ *
+ * <pre>
+ * header : magic(int) version(int)
+ * blocos : um bloco por carteira, comprimido com Deflate, colunas em sequência:
+ *          ids (msb,lsb)[n] | tipo(byte)[n] | valor em centavos(long)[n]
+ *          | occurredAt em micros (primeiro long + deltas varlong) | endToEndId[n] | description[n]
+ * footer : entradas de tamanho fixo ordenadas por carteira (ordem do banco, sem sinal):
+ *          wallet msb, wallet lsb, offset, tamanho, linhas, min/max occurredAt, movimento líquido
+ * trailer: offset do footer(long) entradas(int) magic(int)
+ * </pre>
+ *
+ * O footer de tamanho fixo permite busca binária direto no arquivo mapeado em memória, e o
+ * movimento líquido por carteira evita descomprimir o bloco quando o dia inteiro entra na soma.
+ */
+final class LedgerSegmentFormat {
+
+    static final int MAGIC = 0x574C5347; // "WLSG"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int FOOTER_ENTRY_BYTES = 8 + 8 + 8 + 4 + 4 + 8 + 8 + 8;
+    static final int TRAILER_BYTES = 8 + 4 + 4;
+    static final int AMOUNT_SCALE = 2;
+
+    private static final byte CREDIT = 1;
+    private static final byte DEBIT = 2;
+
+    private LedgerSegmentFormat() {
+    }
+
+    static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    static Instant fromMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount.setScale(AMOUNT_SCALE).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, AMOUNT_SCALE);
+    }
+
+    static byte typeCode(LedgerEntryType type) {
+        return type == LedgerEntryType.CREDIT ? CREDIT : DEBIT;
+    }
+
+    static LedgerEntryType typeOf(byte code) {
+        return switch (code) {
+            case CREDIT -> LedgerEntryType.CREDIT;
+            case DEBIT -> LedgerEntryType.DEBIT;
+            default -> throw new IllegalStateException("Unknown ledger entry type code " + code);
+        };
+    }
+
+    // mesma ordem de uuid do PostgreSQL: bytes sem sinal
+    static int compare(long msbA, long lsbA, long msbB, long lsbB) {
+        int byMsb = Long.compareUnsigned(msbA, msbB);
+        return byMsb != 0 ? byMsb : Long.compareUnsigned(lsbA, lsbB);
+    }
+
+    static int compare(UUID a, UUID b) {
+        return compare(a.getMostSignificantBits(), a.getLeastSignificantBits(),
+                b.getMostSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varlong in ledger segment");
+    }
+
+    // comprimento + 1, para distinguir nulo (0) de vazio (1)
+    static void writeNullableString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    static String readNullableString(DataInput in) throws IOException {
+        int length = (int) readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,169 @@
+package br.com.wallet.finance.infrastructure.archive;
+
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.model.LedgerRow;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Grava um segmento a partir de lançamentos já ordenados por (carteira, occurredAt, id).
+ * Só um bloco de carteira fica em memória por vez.
+ */
+public final class LedgerSegmentWriter {
+
+    private LedgerSegmentWriter() {
+    }
+
+    public record SegmentStats(long rows, int wallets, long sizeBytes) {}
+
+    public static SegmentStats write(Path target, Iterator<LedgerRow> rows) throws IOException {
+        List<FooterEntry> footer = new ArrayList<>();
+        long rowCount = 0;
+
+        try (CountingOutputStream counting = new CountingOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(target), 64 * 1024));
+             DataOutputStream out = new DataOutputStream(counting)) {
+
+            out.writeInt(LedgerSegmentFormat.MAGIC);
+            out.writeInt(LedgerSegmentFormat.VERSION);
+
+            List<LedgerRow> block = new ArrayList<>();
+            while (rows.hasNext()) {
+                LedgerRow row = rows.next();
+                if (!block.isEmpty() && !block.get(0).walletId().equals(row.walletId())) {
+                    footer.add(writeBlock(out, counting, block));
+                    block.clear();
+                }
+                block.add(row);
+                rowCount++;
+            }
+            if (!block.isEmpty()) {
+                footer.add(writeBlock(out, counting, block));
+            }
+
+            // a ordem do footer precisa ser a da busca binária, independente da ordem do banco
+            footer.sort(Comparator.comparing(FooterEntry::walletId, LedgerSegmentFormat::compare));
+
+            long footerOffset = counting.count();
+            for (FooterEntry entry : footer) {
+                out.writeLong(entry.walletId().getMostSignificantBits());
+                out.writeLong(entry.walletId().getLeastSignificantBits());
+                out.writeLong(entry.offset());
+                out.writeInt(entry.length());
+                out.writeInt(entry.rows());
+                out.writeLong(entry.minMicros());
+                out.writeLong(entry.maxMicros());
+                out.writeLong(entry.netCents());
+            }
+            out.writeLong(footerOffset);
+            out.writeInt(footer.size());
+            out.writeInt(LedgerSegmentFormat.MAGIC);
+            out.flush();
+
+            return new SegmentStats(rowCount, footer.size(), counting.count());
+        }
+    }
+
+    private static FooterEntry writeBlock(DataOutputStream out,
+                                          CountingOutputStream counting,
+                                          List<LedgerRow> rows) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(rows.size() * 48);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        long net = 0;
+        try (DataOutputStream block = new DataOutputStream(new DeflaterOutputStream(buffer, deflater))) {
+            for (LedgerRow row : rows) {
+                block.writeLong(row.id().getMostSignificantBits());
+                block.writeLong(row.id().getLeastSignificantBits());
+            }
+            for (LedgerRow row : rows) {
+                block.writeByte(LedgerSegmentFormat.typeCode(row.type()));
+            }
+            for (LedgerRow row : rows) {
+                long cents = LedgerSegmentFormat.toCents(row.amount());
+                block.writeLong(cents);
+                net = Math.addExact(net, row.type() == LedgerEntryType.CREDIT ? cents : -cents);
+            }
+            long previous = LedgerSegmentFormat.toMicros(rows.get(0).occurredAt());
+            block.writeLong(previous);
+            for (int i = 1; i < rows.size(); i++) {
+                long micros = LedgerSegmentFormat.toMicros(rows.get(i).occurredAt());
+                LedgerSegmentFormat.writeVarLong(block, micros - previous);
+                previous = micros;
+            }
+            for (LedgerRow row : rows) {
+                LedgerSegmentFormat.writeNullableString(block, row.endToEndId());
+            }
+            for (LedgerRow row : rows) {
+                LedgerSegmentFormat.writeNullableString(block, row.description());
+            }
+        } finally {
+            deflater.end();
+        }
+
+        // DataOutputStream não tem buffer próprio: o contador já reflete tudo que foi escrito
+        long offset = counting.count();
+        buffer.writeTo(out);
+
+        return new FooterEntry(
+                rows.get(0).walletId(),
+                offset,
+                buffer.size(),
+                rows.size(),
+                LedgerSegmentFormat.toMicros(rows.get(0).occurredAt()),
+                LedgerSegmentFormat.toMicros(rows.get(rows.size() - 1).occurredAt()),
+                net
+        );
+    }
+
+    private record FooterEntry(UUID walletId, long offset, int length, int rows,
+                               long minMicros, long maxMicros, long netCents) {}
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final OutputStream delegate;
+        private long count;
+
+        CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        long count() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
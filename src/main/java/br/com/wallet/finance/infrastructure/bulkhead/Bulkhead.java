@@ -0,0 +1,125 @@
+package br.com.wallet.finance.infrastructure.bulkhead;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limite de concorrência de uma classe de tráfego (ou de todo o tráfego) sobre um recurso
+ * (threads de requisição ou conexões). Quem não consegue vaga em {@code maxWait} é recusado na hora, sem ocupar o recurso.
+ *
+ * A vaga é da thread: pedidos aninhados na mesma thread (uma segunda conexão enquanto a primeira
+ * está aberta) não consomem outra, para a classe não travar em si mesma com o limite cheio.
+ */
+public final class Bulkhead {
+
+    private final String name;
+    private final String resource;
+    private final int limit;
+    private final Duration maxWait;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final ThreadLocal<int[]> holds = ThreadLocal.withInitial(() -> new int[1]);
+
+    public Bulkhead(TrafficClass trafficClass, String resource, int limit, Duration maxWait) {
+        this(trafficClass.key(), resource, limit, maxWait);
+    }
+
+    /**
+     * @param name classe de tráfego, ou outro nome para um limite que vale para todas
+     */
+    public Bulkhead(String name, String resource, int limit, Duration maxWait) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Bulkhead limit must be positive");
+        }
+        if (maxWait.isNegative()) {
+            throw new IllegalArgumentException("Bulkhead max wait must not be negative");
+        }
+        this.name = name;
+        this.resource = resource;
+        this.limit = limit;
+        this.maxWait = maxWait;
+        // justo: quem espera há mais tempo entra primeiro
+        this.permits = new Semaphore(limit, true);
+    }
+
+    /**
+     * @return true se conseguiu vaga (liberar com {@link #release()}); false se recusado
+     */
+    public boolean tryAcquire() {
+        int[] held = holds.get();
+        if (held[0] > 0) {
+            held[0]++;
+            return true;
+        }
+        waiting.incrementAndGet();
+        try {
+            if (permits.tryAcquire() || permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                held[0] = 1;
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiting.decrementAndGet();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void release() {
+        int[] held = holds.get();
+        if (held[0] == 0) {
+            return;
+        }
+        if (--held[0] == 0) {
+            holds.remove();
+            permits.release();
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String resource() {
+        return resource;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int active() {
+        return limit - permits.availablePermits();
+    }
+
+    public int waiting() {
+        return waiting.get();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * wallet.bulkhead.{active,limit,waiting,saturation,rejected} com tags traffic_class e resource.
+     */
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of("traffic_class", name, "resource", resource);
+        Gauge.builder("wallet.bulkhead.active", this, Bulkhead::active).tags(tags).register(registry);
+        Gauge.builder("wallet.bulkhead.limit", this, Bulkhead::limit).tags(tags).register(registry);
+        Gauge.builder("wallet.bulkhead.waiting", this, Bulkhead::waiting).tags(tags).register(registry);
+        Gauge.builder("wallet.bulkhead.saturation", this, bulkhead -> (double) bulkhead.active() / bulkhead.limit)
+                .tags(tags).register(registry);
+        FunctionCounter.builder("wallet.bulkhead.rejected", this, Bulkhead::rejected).tags(tags).register(registry);
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.wallet.finance.infrastructure.bulkhead;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Reparte o pool entre as classes de tráfego: cada conexão pedida por uma requisição classificada
+ * ocupa uma vaga da cota da classe até ser fechada (devolvida ao pool). Cota cheia falha rápido
+ * com {@link SQLTransientConnectionException}, sem entrar na fila do Hikari.
+ *
+ * Com um único {@link Bulkhead}, limita todas as conexões pedidas, de qualquer thread (o semáforo
+ * de JDBC do modo com virtual threads).
+ *
+ * Envolve o DataSource principal, qualquer que seja (pool único, réplicas ou shards): com shards,
+ * a cota vale por instância, somando os shards.
+ */
+public class BulkheadDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Supplier<Bulkhead> currentBulkhead;
+
+    public BulkheadDataSource(DataSource target, Bulkheads bulkheads) {
+        super(target);
+        this.currentBulkhead = () -> {
+            TrafficClass trafficClass = TrafficClassContext.current();
+            return trafficClass == null ? null : bulkheads.connections(trafficClass);
+        };
+    }
+
+    public BulkheadDataSource(DataSource target, Bulkhead bulkhead) {
+        super(target);
+        this.currentBulkhead = () -> bulkhead;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Bulkhead bulkhead = currentBulkhead();
+        if (bulkhead == null) {
+            return super.getConnection();
+        }
+        acquire(bulkhead);
+        try {
+            return guarded(super.getConnection(), bulkhead);
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Bulkhead bulkhead = currentBulkhead();
+        if (bulkhead == null) {
+            return super.getConnection(username, password);
+        }
+        acquire(bulkhead);
+        try {
+            return guarded(super.getConnection(username, password), bulkhead);
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Fecha o pool envolvido quando ele é o bean do Spring Boot (o destroy do bean passa a ser este).
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Bulkhead currentBulkhead() {
+        return currentBulkhead.get();
+    }
+
+    private static void acquire(Bulkhead bulkhead) throws SQLTransientConnectionException {
+        if (!bulkhead.tryAcquire()) {
+            throw new SQLTransientConnectionException("Connection bulkhead " + bulkhead.name()
+                    + " is full (" + bulkhead.limit() + " connections)");
+        }
+    }
+
+    // close() devolve a vaga uma única vez, mesmo se chamado de novo
+    private static Connection guarded(Connection connection, Bulkhead bulkhead) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (closed.compareAndSet(false, true)) {
+                                bulkhead.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
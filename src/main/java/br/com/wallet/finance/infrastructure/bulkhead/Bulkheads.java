@@ -0,0 +1,52 @@
+package br.com.wallet.finance.infrastructure.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulkheads configurados por classe de tráfego. Classe sem bulkhead de conexões usa o pool
+ * livremente (é assim que o settlement fica com a sobra garantida pelos limites das outras).
+ */
+public final class Bulkheads {
+
+    public static final String REQUESTS = "requests";
+    public static final String CONNECTIONS = "connections";
+
+    private final Map<TrafficClass, Bulkhead> requests;
+    private final Map<TrafficClass, Bulkhead> connections;
+
+    public Bulkheads(Map<TrafficClass, Bulkhead> requests, Map<TrafficClass, Bulkhead> connections) {
+        this.requests = new EnumMap<>(TrafficClass.class);
+        this.requests.putAll(requests);
+        this.connections = new EnumMap<>(TrafficClass.class);
+        this.connections.putAll(connections);
+    }
+
+    /**
+     * @return bulkhead de requisições da classe, ou null se ela não tem limite
+     */
+    public Bulkhead requests(TrafficClass trafficClass) {
+        return requests.get(trafficClass);
+    }
+
+    /**
+     * @return bulkhead de conexões da classe, ou null se ela não tem cota
+     */
+    public Bulkhead connections(TrafficClass trafficClass) {
+        return connections.get(trafficClass);
+    }
+
+    public List<Bulkhead> all() {
+        List<Bulkhead> all = new ArrayList<>(requests.values());
+        all.addAll(connections.values());
+        return all;
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        all().forEach(bulkhead -> bulkhead.bindTo(registry));
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.wallet.finance.infrastructure.bulkhead;
+
+import br.com.wallet.finance.api.error.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Classifica a requisição e a faz passar pelo bulkhead de requisições da classe antes de chegar ao
+ * controller. Classe cheia responde 503 com Retry-After depois de no máximo {@code max-wait},
+ * liberando a thread do Tomcat em vez de deixá-la presa na fila de conexões.
+ *
+ * A classe fica em {@link TrafficClassContext} durante a requisição, para a cota de conexões.
+ * Criação de carteira, chaves Pix e demais endpoints caem em {@link TrafficClass#OTHER}; só o
+ * actuator passa direto, para o health check não disputar cota com o tráfego.
+ */
+public class TrafficBulkheadFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(TrafficBulkheadFilter.class);
+
+    private static final Pattern MONEY_MOVEMENT_PATH = Pattern.compile("/wallets/[^/]+/(deposit|withdraw)");
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final Bulkheads bulkheads;
+    private final ObjectMapper objectMapper;
+
+    public TrafficBulkheadFilter(Bulkheads bulkheads, ObjectMapper objectMapper) {
+        this.bulkheads = bulkheads;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TrafficClass trafficClass = classify(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()));
+        if (trafficClass == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Bulkhead bulkhead = bulkheads.requests(trafficClass);
+        if (bulkhead != null && !bulkhead.tryAcquire()) {
+            log.warn("bulkhead_rejected trafficClass={} resource={} limit={} path={}",
+                    trafficClass.key(), bulkhead.resource(), bulkhead.limit(), request.getRequestURI());
+            reject(response, trafficClass);
+            return;
+        }
+
+        TrafficClassContext.set(trafficClass);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TrafficClassContext.clear();
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    public static TrafficClass classify(String method, String path) {
+        boolean post = "POST".equalsIgnoreCase(method);
+        if (post && "/pix/webhook".equals(path)) {
+            return TrafficClass.SETTLEMENT;
+        }
+        if (post && ("/pix/transfers".equals(path) || MONEY_MOVEMENT_PATH.matcher(path).matches())) {
+            return TrafficClass.MONEY_MOVEMENT;
+        }
+        // POST /wallets/balances é uma leitura em lote
+        if (("GET".equalsIgnoreCase(method) && path.startsWith("/wallets/")) || (post && "/wallets/balances".equals(path))) {
+            return TrafficClass.READ;
+        }
+        if (path.startsWith("/actuator")) {
+            return null;
+        }
+        return TrafficClass.OTHER;
+    }
+
+    private void reject(HttpServletResponse response, TrafficClass trafficClass) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ErrorResponse.of("SERVICE_UNAVAILABLE", "Too many concurrent " + trafficClass.key() + " requests, retry later"));
+    }
+}
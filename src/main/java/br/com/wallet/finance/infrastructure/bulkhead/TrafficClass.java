@@ -0,0 +1,32 @@
+package br.com.wallet.finance.infrastructure.bulkhead;
+
+/**
+ * Classes de tráfego isoladas umas das outras por bulkheads de requisições e de conexões.
+ */
+public enum TrafficClass {
+
+    /** Webhooks do PSP: liquidam transferências e têm prioridade. */
+    SETTLEMENT("settlement"),
+
+    /** Pix, depósito e saque: travam carteiras. */
+    MONEY_MOVEMENT("money-movement"),
+
+    /** Saldos, extratos, séries e fluxo de caixa. */
+    READ("read"),
+
+    /** Todo o resto que usa o pool: criação de carteira, chaves Pix, sagas, jobs agendados e seus workers. */
+    OTHER("other");
+
+    private final String key;
+
+    TrafficClass(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Nome nas propriedades (wallet.bulkhead.classes.&lt;key&gt;) e na tag das métricas.
+     */
+    public String key() {
+        return key;
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.wallet.finance.infrastructure.bulkhead;
+
+import java.util.function.Supplier;
+
+/**
+ * Classe de tráfego da requisição que a thread está atendendo, definida pelo
+ * {@link TrafficBulkheadFilter} e lida pelo {@link BulkheadDataSource} quando a conexão é pedida.
+ * Threads próprias (sagas, jobs, workers) a definem com {@link #on}.
+ */
+public final class TrafficClassContext {
+
+    private static final ThreadLocal<TrafficClass> CURRENT = new ThreadLocal<>();
+
+    private TrafficClassContext() {
+    }
+
+    /**
+     * @return classe da thread, ou null fora de uma requisição ou de {@link #on} (subida, actuator)
+     */
+    public static TrafficClass current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T on(TrafficClass trafficClass, Supplier<T> action) {
+        TrafficClass previous = CURRENT.get();
+        CURRENT.set(trafficClass);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static Runnable wrap(TrafficClass trafficClass, Runnable task) {
+        return () -> on(trafficClass, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    static void set(TrafficClass trafficClass) {
+        CURRENT.set(trafficClass);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
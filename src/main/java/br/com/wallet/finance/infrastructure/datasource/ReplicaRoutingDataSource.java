@@ -0,0 +1,181 @@
+package br.com.wallet.finance.infrastructure.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Envia as conexões de transações somente leitura para as réplicas e todo o resto para o primário.
+ *
+ * A decisão usa o flag de transação read-only do Spring, então precisa ficar atrás de um
+ * LazyConnectionDataSourceProxy: a conexão física só é pedida no primeiro comando, quando o flag
+ * já está definido. As réplicas são usadas em rodízio entre as saudáveis; uma réplica que falha
+ * ao entregar conexão sai do rodízio na hora (a leitura segue no primário) e só volta quando a
+ * verificação periódica consegue validar uma conexão nela.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, Duration healthCheckInterval) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        if (healthCheckInterval.isZero()) {
+            this.healthChecker = null;
+        } else {
+            this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "replica-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = healthCheckInterval.toMillis();
+            healthChecker.scheduleWithFixedDelay(this::checkHealth, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Executa a ação com as leituras desta thread no primário, mesmo em transações read-only.
+     * A transação precisa começar dentro da ação.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            } else {
+                FORCE_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = routeToReplica() ? pickReplica() : null;
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = routeToReplica() ? pickReplica() : null;
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection(username, password);
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    int healthyReplicas() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                replica.healthy = healthy;
+                log.warn("datasource_replica_{} name={}", healthy ? "up" : "down", replica.name);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private boolean routeToReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && FORCE_PRIMARY.get() == null;
+    }
+
+    private Replica pickReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void markDown(Replica replica, SQLException cause) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("datasource_replica_down name={} error={}", replica.name, cause.getMessage());
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.wallet.finance.infrastructure.id;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gera o identificador fim a fim do Pix no layout do BACEN: {@code E} + ISPB (8 dígitos) +
+ * {@code yyyyMMddHHmm} (UTC) + 11 caracteres alfanuméricos, 32 no total.
+ *
+ * O sufixo é um contador por minuto (24 bits, CAS num AtomicLong junto com o minuto) seguido de
+ * 32 bits do ThreadLocalRandom, em base 36 maiúscula com zeros à esquerda: ids do mesmo processo
+ * ordenam lexicograficamente na ordem de geração, e o contador começa em posição aleatória a cada
+ * minuto para instâncias diferentes não colidirem. Sem lock e sem SecureRandom; fora a própria
+ * String, só um buffer de 32 bytes por id (data calculada por aritmética, sem java.time). Buffer
+ * por thread não compensa: com virtual threads cada requisição teria o seu de qualquer forma.
+ */
+@Component
+public class EndToEndIdGenerator {
+
+    public static final int LENGTH = 32;
+
+    private static final int PREFIX_LENGTH = 9;
+    private static final int SUFFIX_LENGTH = 11;
+    private static final int COUNTER_BITS = 24;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    // metade baixa: sobra folga antes do contador estourar para o minuto seguinte
+    private static final int COUNTER_SEED_BOUND = 1 << (COUNTER_BITS - 1);
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final byte[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".getBytes(StandardCharsets.US_ASCII);
+
+    private final byte[] prefix;
+    private final Clock clock;
+    // minuto (epoch) << 24 | contador
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public EndToEndIdGenerator(@Value("${wallet.pix.ispb:00000000}") String ispb) {
+        this(ispb, Clock.systemUTC());
+    }
+
+    EndToEndIdGenerator(String ispb, Clock clock) {
+        if (ispb == null || !ispb.matches("\\d{8}")) {
+            throw new IllegalArgumentException("wallet.pix.ispb must have 8 digits");
+        }
+        this.prefix = ("E" + ispb).getBytes(StandardCharsets.US_ASCII);
+        this.clock = clock;
+    }
+
+    public String next() {
+        long now = Math.floorDiv(clock.millis(), MILLIS_PER_MINUTE);
+        long next;
+        while (true) {
+            long previous = state.get();
+            // minuto novo: contador reinicia; mesmo minuto (ou relógio voltando): incrementa
+            next = (previous >>> COUNTER_BITS) < now
+                    ? (now << COUNTER_BITS) | ThreadLocalRandom.current().nextInt(COUNTER_SEED_BOUND)
+                    : previous + 1;
+            if (state.compareAndSet(previous, next)) {
+                break;
+            }
+        }
+
+        byte[] buffer = new byte[LENGTH];
+        System.arraycopy(prefix, 0, buffer, 0, PREFIX_LENGTH);
+        writeMinute(buffer, PREFIX_LENGTH, next >>> COUNTER_BITS);
+
+        // 24 + 32 bits < 36^11: cabe nos 11 caracteres
+        long suffix = ((next & COUNTER_MASK) << 32) | (ThreadLocalRandom.current().nextInt() & 0xFFFFFFFFL);
+        for (int i = LENGTH - 1; i >= LENGTH - SUFFIX_LENGTH; i--) {
+            buffer[i] = ALPHABET[(int) (suffix % 36)];
+            suffix /= 36;
+        }
+        return new String(buffer, 0, LENGTH, StandardCharsets.US_ASCII);
+    }
+
+    /** yyyyMMddHHmm do minuto epoch, em UTC, sem passar por java.time (que alocaria). */
+    static void writeMinute(byte[] buffer, int offset, long epochMinute) {
+        long epochDay = Math.floorDiv(epochMinute, 1440L);
+        int minuteOfDay = (int) Math.floorMod(epochMinute, 1440L);
+
+        // dias civis a partir do epoch (algoritmo de H. Hinnant, calendário gregoriano proléptico)
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        writeDigits(buffer, offset, year, 4);
+        writeDigits(buffer, offset + 4, month, 2);
+        writeDigits(buffer, offset + 6, day, 2);
+        writeDigits(buffer, offset + 8, minuteOfDay / 60, 2);
+        writeDigits(buffer, offset + 10, minuteOfDay % 60, 2);
+    }
+
+    private static void writeDigits(byte[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
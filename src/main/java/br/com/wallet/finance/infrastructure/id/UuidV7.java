@@ -0,0 +1,17 @@
+package br.com.wallet.finance.infrastructure.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Id UUID gerado na aplicação como UUIDv7 (ordenado por tempo), no lugar de {@code @GeneratedValue}.
+ */
+@IdGeneratorType(UuidV7IdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
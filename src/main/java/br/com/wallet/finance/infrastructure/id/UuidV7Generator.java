@@ -0,0 +1,97 @@
+package br.com.wallet.finance.infrastructure.id;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de UUIDv7 (RFC 9562): 48 bits de epoch em milissegundos, 12 bits de contador e
+ * 62 bits aleatórios.
+ *
+ * Ids gerados em sequência caem no fim do índice B-tree (inserção sempre na página mais à
+ * direita), em vez de espalhados como o UUIDv4: menos page splits, WAL e páginas frias no cache.
+ *
+ * Monotônico por JVM e sem lock: timestamp e contador ficam num único AtomicLong atualizado por
+ * CAS. No mesmo milissegundo o contador incrementa; se estoura os 12 bits, o excedente avança o
+ * timestamp (o id fica até alguns ms adiante do relógio, nunca fora de ordem). Relógio que volta
+ * no tempo também só incrementa. A parte aleatória vem de um pequeno conjunto fixo de DRBGs
+ * compartilhados (escolhido pelo id da thread): os ids continuam imprevisíveis, threads diferentes
+ * raramente disputam o mesmo gerador, e virtual threads não criam um SecureRandom cada.
+ */
+public final class UuidV7Generator {
+
+    private static final UuidV7Generator SHARED = new UuidV7Generator(Clock.systemUTC());
+
+    private static final int COUNTER_BITS = 12;
+    // contador reinicia a cada milissegundo num valor aleatório da metade baixa: sobra folga
+    private static final int COUNTER_SEED_BOUND = 1 << (COUNTER_BITS - 1);
+    private static final long VERSION = 0x7L << COUNTER_BITS;
+    private static final long VARIANT = 0x2L << 62;
+    private static final long RANDOM_MASK = (1L << 62) - 1;
+
+    private static final SecureRandom[] RANDOMS = newRandoms();
+
+    private final Clock clock;
+    // timestamp (ms) << 12 | contador
+    private final AtomicLong state = new AtomicLong();
+
+    public UuidV7Generator(Clock clock) {
+        this.clock = clock;
+    }
+
+    /** Instância da JVM: a monotonicidade vale entre todas as entidades que a usam. */
+    public static UuidV7Generator shared() {
+        return SHARED;
+    }
+
+    public UUID next() {
+        long now = clock.millis();
+        long next;
+        while (true) {
+            long previous = state.get();
+            next = (previous >>> COUNTER_BITS) < now
+                    ? (now << COUNTER_BITS) | random().nextInt(COUNTER_SEED_BOUND)
+                    : previous + 1;
+            if (state.compareAndSet(previous, next)) {
+                break;
+            }
+        }
+
+        long msb = ((next >>> COUNTER_BITS) << 16) | VERSION | (next & ((1L << COUNTER_BITS) - 1));
+        long lsb = VARIANT | (random().nextLong() & RANDOM_MASK);
+        return new UUID(msb, lsb);
+    }
+
+    /** Instante (ms) embutido num UUIDv7. */
+    public static long timestampMillis(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID");
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    private static SecureRandom random() {
+        return RANDOMS[(int) (Thread.currentThread().getId() & (RANDOMS.length - 1))];
+    }
+
+    // potência de 2 acima do número de processadores: o DRBG é thread-safe, mas sincronizado
+    private static SecureRandom[] newRandoms() {
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+        SecureRandom[] randoms = new SecureRandom[stripes];
+        for (int i = 0; i < stripes; i++) {
+            randoms[i] = newRandom();
+        }
+        return randoms;
+    }
+
+    private static SecureRandom newRandom() {
+        try {
+            // o NativePRNG padrão serializa todas as threads num lock global
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.wallet.finance.infrastructure.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.util.EnumSet;
+
+import static org.hibernate.generator.EventTypeSets.INSERT_ONLY;
+
+/**
+ * Liga o {@link UuidV7Generator} ao Hibernate (ver {@link UuidV7}).
+ */
+public class UuidV7IdentifierGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(
+            SharedSessionContractImplementor session,
+            Object owner,
+            Object currentValue,
+            EventType eventType
+    ) {
+        return UuidV7Generator.shared().next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return INSERT_ONLY;
+    }
+}
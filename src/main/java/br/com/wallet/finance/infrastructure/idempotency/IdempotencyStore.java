@@ -0,0 +1,189 @@
+package br.com.wallet.finance.infrastructure.idempotency;
+
+import br.com.wallet.finance.domain.enums.IdempotencyScope;
+import br.com.wallet.finance.domain.model.IdempotencyRecord;
+import br.com.wallet.finance.domain.model.IdempotentResponse;
+import br.com.wallet.finance.infrastructure.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Respostas já dadas para chaves de idempotência, por escopo e carteira, válidas por
+ * wallet.idempotency.ttl.
+ *
+ * A consulta passa primeiro pela {@link RecentKeyCache} e só depois por idempotency_keys; a
+ * gravação acontece na transação da operação e só entra na memória depois do commit, então uma
+ * operação desfeita nunca deixa resposta para trás. Vencida a validade, a chave deixa de existir
+ * aqui e quem decide é a restrição única da tabela do recurso.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate tx;
+    private final Duration ttl;
+    private final RecentKeyCache cache;
+    private final int purgeBatchSize;
+    private final int purgeMaxBatches;
+    private final Clock clock;
+
+    @Autowired
+    public IdempotencyStore(
+            IdempotencyRecordRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${wallet.idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${wallet.idempotency.cache.max-entries:100000}") int cacheMaxEntries,
+            @Value("${wallet.idempotency.purge.batch-size:1000}") int purgeBatchSize,
+            @Value("${wallet.idempotency.purge.max-batches-per-run:100}") int purgeMaxBatches
+    ) {
+        this(repository, transactionManager, ttl, cacheMaxEntries, purgeBatchSize, purgeMaxBatches, Clock.systemUTC());
+    }
+
+    IdempotencyStore(IdempotencyRecordRepository repository,
+                     PlatformTransactionManager transactionManager,
+                     Duration ttl,
+                     int cacheMaxEntries,
+                     int purgeBatchSize,
+                     int purgeMaxBatches,
+                     Clock clock) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("wallet.idempotency.ttl must be positive");
+        }
+        if (purgeBatchSize < 1) {
+            throw new IllegalArgumentException("wallet.idempotency.purge.batch-size must be positive");
+        }
+        if (purgeMaxBatches < 1) {
+            throw new IllegalArgumentException("wallet.idempotency.purge.max-batches-per-run must be positive");
+        }
+        this.repository = repository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.cache = new RecentKeyCache(cacheMaxEntries);
+        this.purgeBatchSize = purgeBatchSize;
+        this.purgeMaxBatches = purgeMaxBatches;
+        this.clock = clock;
+    }
+
+    public Optional<IdempotentResponse> find(IdempotencyScope scope, UUID walletId, String key) {
+        UUID hash = hash(scope, walletId, key);
+        Instant now = clock.instant();
+
+        IdempotentResponse cached = cache.get(hash, now.toEpochMilli());
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        return repository.findById(hash)
+                .filter(record -> record.getScope() == scope && record.getExpiresAt().isAfter(now))
+                .map(record -> {
+                    IdempotentResponse response = new IdempotentResponse(
+                            record.getResourceId(), record.getReference(), record.getWalletVersion());
+                    cache.put(hash, response, record.getExpiresAt().toEpochMilli());
+                    return response;
+                });
+    }
+
+    /**
+     * Grava a resposta na transação corrente. Uma linha vencida da mesma chave que o expurgo ainda
+     * não apagou é sobrescrita.
+     */
+    public void remember(IdempotencyScope scope, UUID walletId, String key, IdempotentResponse response) {
+        UUID hash = hash(scope, walletId, key);
+        Instant now = clock.instant();
+        Instant expiresAt = now.plus(ttl);
+
+        repository.save(IdempotencyRecord.builder()
+                .keyHash(hash)
+                .scope(scope)
+                .walletId(walletId)
+                .resourceId(response.resourceId())
+                .reference(response.reference())
+                .walletVersion(response.walletVersion())
+                .createdAt(now)
+                .expiresAt(expiresAt)
+                .build());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(hash, response, expiresAt.toEpochMilli());
+                }
+            });
+        } else {
+            cache.put(hash, response, expiresAt.toEpochMilli());
+        }
+    }
+
+    /**
+     * Apaga as chaves vencidas em lotes, cada um na sua transação.
+     */
+    public long purgeExpired() {
+        Instant now = clock.instant();
+        int batches = 0;
+        long deleted = 0;
+
+        while (batches < purgeMaxBatches) {
+            Integer count = tx.execute(status -> {
+                List<UUID> hashes = repository.findExpiredHashes(now, Limit.of(purgeBatchSize));
+                return hashes.isEmpty() ? 0 : repository.deleteExpired(hashes, now);
+            });
+            int purged = count != null ? count : 0;
+            if (purged == 0) {
+                break;
+            }
+            batches++;
+            deleted += purged;
+            if (purged < purgeBatchSize) {
+                break;
+            }
+        }
+
+        log.info("idempotency_purge_finished batches={} deleted={} cached={}", batches, deleted, cache.size());
+        return deleted;
+    }
+
+    /**
+     * Primeiros 128 bits do SHA-256 de (código do escopo, carteira, chave em UTF-8).
+     */
+    static UUID hash(IdempotencyScope scope, UUID walletId, String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer input = ByteBuffer.allocate(Short.BYTES + 2 * Long.BYTES + keyBytes.length)
+                .putShort(scope.code())
+                .putLong(walletId.getMostSignificantBits())
+                .putLong(walletId.getLeastSignificantBits())
+                .put(keyBytes);
+        ByteBuffer digest = ByteBuffer.wrap(sha256().digest(input.array()));
+        return new UUID(digest.getLong(), digest.getLong());
+    }
+
+    // instância por chamada: é barata, e um cache por thread vira um por requisição com virtual threads
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
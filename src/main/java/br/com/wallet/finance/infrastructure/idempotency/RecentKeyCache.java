@@ -0,0 +1,106 @@
+package br.com.wallet.finance.infrastructure.idempotency;
+
+import br.com.wallet.finance.domain.model.IdempotentResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Frente em memória do {@link IdempotencyStore}: as chaves mais recentes, limitadas em quantidade
+ * e respeitando a validade de cada uma.
+ *
+ * Dividida em segmentos (bits baixos do hash) para que threads diferentes raramente disputem o
+ * mesmo lock (ReentrantLock, não synchronized: disputa num monitor prende a thread carregadora de
+ * uma virtual thread); cada segmento descarta primeiro o que entrou primeiro. Replays costumam chegar
+ * logo depois da requisição original, então a ordem de inserção basta.
+ */
+final class RecentKeyCache {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private record Entry(IdempotentResponse response, long expiresAtMillis) {}
+
+    private final Segment[] segments;
+    private final int mask;
+
+    RecentKeyCache(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("wallet.idempotency.cache.max-entries must not be negative");
+        }
+        int count = 1;
+        while (count < MAX_SEGMENTS && count * 2 <= maxEntries) {
+            count *= 2;
+        }
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(maxEntries / count);
+        }
+        this.mask = count - 1;
+    }
+
+    IdempotentResponse get(UUID hash, long nowMillis) {
+        Segment segment = segmentFor(hash);
+        segment.lock.lock();
+        try {
+            Entry entry = segment.get(hash);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtMillis() <= nowMillis) {
+                segment.remove(hash);
+                return null;
+            }
+            return entry.response();
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    void put(UUID hash, IdempotentResponse response, long expiresAtMillis) {
+        Segment segment = segmentFor(hash);
+        if (segment.capacity == 0) {
+            return;
+        }
+        segment.lock.lock();
+        try {
+            segment.put(hash, new Entry(response, expiresAtMillis));
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentFor(UUID hash) {
+        return segments[(int) hash.getLeastSignificantBits() & mask];
+    }
+
+    private static final class Segment extends LinkedHashMap<UUID, Entry> {
+
+        private final int capacity;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private Segment(int capacity) {
+            super(16, 0.75f, false);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+            return size() > capacity;
+        }
+    }
+}
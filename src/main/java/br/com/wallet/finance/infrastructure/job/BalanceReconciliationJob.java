@@ -0,0 +1,39 @@
+package br.com.wallet.finance.infrastructure.job;
+
+import br.com.wallet.finance.application.usecase.ReconcileBalancesUseCase;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconciliação incremental em intervalo fixo e uma varredura completa diária.
+ * O agendador padrão tem uma única thread, então as duas nunca se sobrepõem.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.reconciliation.enabled", havingValue = "true")
+public class BalanceReconciliationJob {
+
+    private final ReconcileBalancesUseCase reconcileBalancesUseCase;
+    private final WalletShards walletShards;
+    private final boolean repair;
+
+    public BalanceReconciliationJob(ReconcileBalancesUseCase reconcileBalancesUseCase,
+                                    WalletShards walletShards,
+                                    @Value("${wallet.reconciliation.repair:false}") boolean repair) {
+        this.reconcileBalancesUseCase = reconcileBalancesUseCase;
+        this.walletShards = walletShards;
+        this.repair = repair;
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.reconciliation.interval:PT15M}", initialDelayString = "PT1M")
+    public void incremental() {
+        walletShards.forEachShard(() -> reconcileBalancesUseCase.execute(false, repair));
+    }
+
+    @Scheduled(cron = "${wallet.reconciliation.full-cron:0 30 3 * * *}", zone = "UTC")
+    public void full() {
+        walletShards.forEachShard(() -> reconcileBalancesUseCase.execute(true, repair));
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.wallet.finance.infrastructure.job;
+
+import br.com.wallet.finance.application.usecase.GenerateBalanceSnapshotUseCase;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Dispara o snapshot do dia anterior. Se uma execução cair no meio, a próxima
+ * (ou um novo disparo manual) continua a partir dos checkpoints gravados.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.snapshot.enabled", havingValue = "true")
+public class BalanceSnapshotJob {
+
+    private final GenerateBalanceSnapshotUseCase generateBalanceSnapshotUseCase;
+    private final WalletShards walletShards;
+
+    public BalanceSnapshotJob(GenerateBalanceSnapshotUseCase generateBalanceSnapshotUseCase, WalletShards walletShards) {
+        this.generateBalanceSnapshotUseCase = generateBalanceSnapshotUseCase;
+        this.walletShards = walletShards;
+    }
+
+    @Scheduled(cron = "${wallet.snapshot.cron:0 15 0 * * *}", zone = "UTC")
+    public void run() {
+        walletShards.forEachShard(() -> generateBalanceSnapshotUseCase.execute(LocalDate.now(ZoneOffset.UTC).minusDays(1)));
+    }
+}
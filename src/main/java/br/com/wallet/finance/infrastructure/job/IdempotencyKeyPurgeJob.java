@@ -0,0 +1,28 @@
+package br.com.wallet.finance.infrastructure.job;
+
+import br.com.wallet.finance.infrastructure.idempotency.IdempotencyStore;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remove de idempotency_keys as chaves que passaram da validade.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.idempotency.purge.enabled", havingValue = "true")
+public class IdempotencyKeyPurgeJob {
+
+    private final IdempotencyStore idempotencyStore;
+    private final WalletShards walletShards;
+
+    public IdempotencyKeyPurgeJob(IdempotencyStore idempotencyStore, WalletShards walletShards) {
+        this.idempotencyStore = idempotencyStore;
+        this.walletShards = walletShards;
+    }
+
+    @Scheduled(cron = "${wallet.idempotency.purge.cron:0 45 * * * *}", zone = "UTC")
+    public void run() {
+        walletShards.forEachShard(() -> idempotencyStore.purgeExpired());
+    }
+}
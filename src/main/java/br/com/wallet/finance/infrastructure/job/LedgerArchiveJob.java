@@ -0,0 +1,28 @@
+package br.com.wallet.finance.infrastructure.job;
+
+import br.com.wallet.finance.application.usecase.ArchiveLedgerUseCase;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Move para o ledger frio os dias que passaram do horizonte de retenção.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.ledger.archive.enabled", havingValue = "true")
+public class LedgerArchiveJob {
+
+    private final ArchiveLedgerUseCase archiveLedgerUseCase;
+    private final WalletShards walletShards;
+
+    public LedgerArchiveJob(ArchiveLedgerUseCase archiveLedgerUseCase, WalletShards walletShards) {
+        this.archiveLedgerUseCase = archiveLedgerUseCase;
+        this.walletShards = walletShards;
+    }
+
+    @Scheduled(cron = "${wallet.ledger.archive.cron:0 0 2 * * *}", zone = "UTC")
+    public void run() {
+        walletShards.forEachShard(() -> archiveLedgerUseCase.execute());
+    }
+}
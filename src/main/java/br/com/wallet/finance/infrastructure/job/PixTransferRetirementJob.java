@@ -0,0 +1,28 @@
+package br.com.wallet.finance.infrastructure.job;
+
+import br.com.wallet.finance.application.usecase.RetireSettledTransfersUseCase;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tira de pix_transfers as transferências liquidadas que passaram do prazo de retenção.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.pix.retirement.enabled", havingValue = "true")
+public class PixTransferRetirementJob {
+
+    private final RetireSettledTransfersUseCase retireSettledTransfersUseCase;
+    private final WalletShards walletShards;
+
+    public PixTransferRetirementJob(RetireSettledTransfersUseCase retireSettledTransfersUseCase, WalletShards walletShards) {
+        this.retireSettledTransfersUseCase = retireSettledTransfersUseCase;
+        this.walletShards = walletShards;
+    }
+
+    @Scheduled(cron = "${wallet.pix.retirement.cron:0 30 3 * * *}", zone = "UTC")
+    public void run() {
+        walletShards.forEachShard(() -> retireSettledTransfersUseCase.execute());
+    }
+}
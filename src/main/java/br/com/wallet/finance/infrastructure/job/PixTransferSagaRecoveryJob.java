@@ -0,0 +1,35 @@
+package br.com.wallet.finance.infrastructure.job;
+
+import br.com.wallet.finance.infrastructure.saga.PixTransferSagaCoordinator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Retoma as sagas de Pix entre shards com tentativa vencida: as que falharam, as que ficaram fora
+ * da fila de disparo e as que estavam no meio do caminho quando a instância caiu.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.pix.saga.recovery.enabled", havingValue = "true")
+public class PixTransferSagaRecoveryJob {
+
+    private final PixTransferSagaCoordinator sagaCoordinator;
+    private final int batchSize;
+
+    public PixTransferSagaRecoveryJob(
+            PixTransferSagaCoordinator sagaCoordinator,
+            @Value("${wallet.pix.saga.recovery.batch-size:100}") int batchSize
+    ) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("wallet.pix.saga.recovery.batch-size must be positive");
+        }
+        this.sagaCoordinator = sagaCoordinator;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.pix.saga.recovery.interval:PT30S}", initialDelayString = "PT30S")
+    public void run() {
+        sagaCoordinator.recoverDue(batchSize);
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.wallet.finance.infrastructure.job;
+
+import br.com.wallet.finance.infrastructure.sharding.ConsistentHashRing;
+import br.com.wallet.finance.infrastructure.sharding.WalletResharder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Leva as carteiras aos donos de um anel novo (ex.: com um shard a mais), poucas por execução.
+ * Quando não sobrar nada a mover, o anel novo vira wallet.sharding.ring e os overrides podem ser
+ * compactados.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.sharding.rebalance.enabled", havingValue = "true")
+public class ShardRebalanceJob {
+
+    private final WalletResharder walletResharder;
+    private final ConsistentHashRing targetRing;
+    private final int maxMovesPerRun;
+
+    public ShardRebalanceJob(
+            WalletResharder walletResharder,
+            @Value("${wallet.sharding.rebalance.target-ring:}") List<String> targetRing,
+            @Value("${wallet.sharding.virtual-nodes:128}") int virtualNodes,
+            @Value("${wallet.sharding.rebalance.max-moves-per-run:1000}") int maxMovesPerRun
+    ) {
+        if (targetRing.isEmpty()) {
+            throw new IllegalArgumentException("wallet.sharding.rebalance.target-ring must not be empty");
+        }
+        if (maxMovesPerRun < 1) {
+            throw new IllegalArgumentException("wallet.sharding.rebalance.max-moves-per-run must be positive");
+        }
+        this.walletResharder = walletResharder;
+        this.targetRing = new ConsistentHashRing(targetRing, virtualNodes);
+        this.maxMovesPerRun = maxMovesPerRun;
+    }
+
+    @Scheduled(cron = "${wallet.sharding.rebalance.cron:0 */10 * * * *}", zone = "UTC")
+    public void run() {
+        walletResharder.rebalance(targetRing, maxMovesPerRun);
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.wallet.finance.infrastructure.job;
+
+import br.com.wallet.finance.application.usecase.PurgeWebhookEventsUseCase;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mantém webhook_events do tamanho da janela de deduplicação.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.webhook.purge.enabled", havingValue = "true")
+public class WebhookEventPurgeJob {
+
+    private final PurgeWebhookEventsUseCase purgeWebhookEventsUseCase;
+    private final WalletShards walletShards;
+
+    public WebhookEventPurgeJob(PurgeWebhookEventsUseCase purgeWebhookEventsUseCase, WalletShards walletShards) {
+        this.purgeWebhookEventsUseCase = purgeWebhookEventsUseCase;
+        this.walletShards = walletShards;
+    }
+
+    @Scheduled(cron = "${wallet.webhook.purge.cron:0 15 * * * *}", zone = "UTC")
+    public void run() {
+        walletShards.forEachShard(() -> purgeWebhookEventsUseCase.execute());
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.wallet.finance.infrastructure.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite de requisições simultâneas de um endpoint, ajustado pela latência observada (estilo
+ * TCP Vegas): a menor latência vista é a do serviço sem fila; quanto mais a latência corrente se
+ * afasta dela, maior a fila estimada ({@code limite * (1 - rttSemFila / rtt)}). Fila pequena faz o
+ * limite crescer, fila grande ou queda (503 por falta de conexão) o faz encolher.
+ *
+ * Acima do limite a requisição é recusada na hora: com o banco lento, a latência sobe, o limite
+ * cai e o excesso sai com 503 em vez de segurar threads até o connection-timeout.
+ *
+ * A latência sem fila é renovada de tempos em tempos ({@code probeMultiplier * limite} amostras),
+ * para acompanhar uma mudança real de patamar (ex.: banco migrado, carga de dados maior).
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final int probeMultiplier;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+
+    // protegidos por lock (não synchronized: com virtual threads a disputa prenderia a carregadora)
+    private final ReentrantLock lock = new ReentrantLock();
+    private double estimatedLimit;
+    private long rttNoLoadNanos;
+    private int samplesUntilProbe;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, int probeMultiplier) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("Concurrency limit smoothing must be in (0, 1]");
+        }
+        if (probeMultiplier < 1) {
+            throw new IllegalArgumentException("Concurrency limit probe multiplier must be positive");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.probeMultiplier = probeMultiplier;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        this.samplesUntilProbe = probeMultiplier * initialLimit;
+    }
+
+    /**
+     * @return true se a requisição entrou (encerrar com {@link #release}); false se recusada
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Encerra a requisição e usa a latência dela para ajustar o limite.
+     *
+     * @param dropped a requisição falhou por sobrecarga (sem conexão, timeout)
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        lock.lock();
+        try {
+            update(rttNanos, inFlightAtCompletion, dropped);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Encerra sem amostra (ex.: resposta assíncrona cuja duração não reflete a fila).
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    private void update(long rttNanos, int inFlightAtCompletion, boolean dropped) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (--samplesUntilProbe <= 0) {
+            samplesUntilProbe = probeMultiplier * limit;
+            rttNoLoadNanos = rttNanos;
+            return;
+        }
+        if (rttNoLoadNanos == 0 || rttNanos < rttNoLoadNanos) {
+            rttNoLoadNanos = rttNanos;
+            return;
+        }
+
+        double current = estimatedLimit;
+        double step = Math.max(1, Math.floor(Math.log10(current)));
+        double next;
+        if (dropped) {
+            next = current - step;
+        } else {
+            // pouca concorrência: a latência não diz nada sobre o limite
+            if (inFlightAtCompletion * 2 < current) {
+                return;
+            }
+            double queue = Math.ceil(current * (1 - (double) rttNoLoadNanos / rttNanos));
+            if (queue <= step) {
+                next = current + 6 * step;
+            } else if (queue < 3 * step) {
+                next = current + step;
+            } else if (queue > 6 * step) {
+                next = current - step;
+            } else {
+                return;
+            }
+        }
+
+        next = Math.max(minLimit, Math.min(maxLimit, next));
+        estimatedLimit = (1 - smoothing) * current + smoothing * next;
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.wallet.finance.infrastructure.limiter;
+
+import br.com.wallet.finance.api.error.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Um {@link AdaptiveConcurrencyLimit} por endpoint (método HTTP + padrão do mapeamento), aplicado
+ * antes do controller. Acima do limite responde 503 com Retry-After sem chegar ao caso de uso.
+ *
+ * Métricas por endpoint: wallet.limiter.limit, wallet.limiter.in_flight e wallet.limiter.rejected.
+ */
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitInterceptor.class);
+
+    private static final String LIMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".limit";
+    private static final String START_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".start";
+
+    private final Supplier<AdaptiveConcurrencyLimit> limitFactory;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String retryAfterSeconds;
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+
+    /**
+     * @param meterRegistry null sem Actuator (ex.: testes de controller)
+     */
+    public ConcurrencyLimitInterceptor(Supplier<AdaptiveConcurrencyLimit> limitFactory, ObjectMapper objectMapper,
+                                       MeterRegistry meterRegistry, long retryAfterSeconds) {
+        this.limitFactory = limitFactory;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.retryAfterSeconds = Long.toString(retryAfterSeconds);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        // o redespacho de uma resposta assíncrona já passou pelo limite no despacho original
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        String endpoint = endpoint(request);
+        AdaptiveConcurrencyLimit limit = limits.computeIfAbsent(endpoint, this::newLimit);
+        if (!limit.tryAcquire()) {
+            log.warn("concurrency_limit_rejected endpoint={} limit={} inFlight={}", endpoint, limit.limit(), limit.inFlight());
+            reject(response);
+            return false;
+        }
+        request.setAttribute(LIMIT_ATTRIBUTE, limit);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        AdaptiveConcurrencyLimit limit = take(request);
+        if (limit == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - (Long) request.getAttribute(START_ATTRIBUTE);
+        // 503 aqui é falta de conexão (bulkhead ou pool): sinal de sobrecarga, não só latência
+        limit.release(elapsed, response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // streaming (exportação): a duração é a do download, não a da fila
+        AdaptiveConcurrencyLimit limit = take(request);
+        if (limit != null) {
+            limit.releaseWithoutSample();
+        }
+    }
+
+    /**
+     * Limite corrente de um endpoint ("GET /wallets/{walletId}/balance"), ou null se ainda não visto.
+     */
+    public AdaptiveConcurrencyLimit limit(String endpoint) {
+        return limits.get(endpoint);
+    }
+
+    private AdaptiveConcurrencyLimit take(HttpServletRequest request) {
+        AdaptiveConcurrencyLimit limit = (AdaptiveConcurrencyLimit) request.getAttribute(LIMIT_ATTRIBUTE);
+        request.removeAttribute(LIMIT_ATTRIBUTE);
+        return limit;
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private AdaptiveConcurrencyLimit newLimit(String endpoint) {
+        AdaptiveConcurrencyLimit limit = limitFactory.get();
+        if (meterRegistry != null) {
+            Gauge.builder("wallet.limiter.limit", limit, AdaptiveConcurrencyLimit::limit).tag("endpoint", endpoint).register(meterRegistry);
+            Gauge.builder("wallet.limiter.in_flight", limit, AdaptiveConcurrencyLimit::inFlight).tag("endpoint", endpoint).register(meterRegistry);
+            FunctionCounter.builder("wallet.limiter.rejected", limit, AdaptiveConcurrencyLimit::rejected).tag("endpoint", endpoint).register(meterRegistry);
+        }
+        return limit;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ErrorResponse.of("SERVICE_UNAVAILABLE", "Service is overloaded, retry later"));
+    }
+}
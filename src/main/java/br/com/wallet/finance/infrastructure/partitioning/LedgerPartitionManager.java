@@ -0,0 +1,157 @@
+package br.com.wallet.finance.infrastructure.partitioning;
+
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Manutenção das partições mensais de ledger_entries (PostgreSQL, particionamento declarativo
+ * por occurred_at — ver db/postgres/ledger_entries_partitioning.sql).
+ *
+ * Cria com antecedência as partições dos próximos meses e, se configurado, desanexa com
+ * DETACH ... CONCURRENTLY as partições antigas, sem bloquear a partição corrente. Partições só são
+ * desanexadas quando um snapshot diário completo cobre o período: os saldos históricos partem dele.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.ledger.partitioning.enabled", havingValue = "true")
+public class LedgerPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerPartitionManager.class);
+
+    static final String PARENT_TABLE = "ledger_entries";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("ledger_entries_p(\\d{6})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WalletShards walletShards;
+    private final int monthsAhead;
+    private final int retainMonths;
+
+    public LedgerPartitionManager(
+            JdbcTemplate jdbcTemplate,
+            WalletShards walletShards,
+            @Value("${wallet.ledger.partitioning.months-ahead:3}") int monthsAhead,
+            @Value("${wallet.ledger.partitioning.retain-months:0}") int retainMonths
+    ) {
+        if (monthsAhead < 1) {
+            throw new IllegalArgumentException("wallet.ledger.partitioning.months-ahead must be at least 1");
+        }
+        if (retainMonths < 0) {
+            throw new IllegalArgumentException("wallet.ledger.partitioning.retain-months must not be negative");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.walletShards = walletShards;
+        this.monthsAhead = monthsAhead;
+        this.retainMonths = retainMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${wallet.ledger.partitioning.cron:0 0 1 * * *}", zone = "UTC")
+    public void maintain() {
+        // cada shard tem a sua ledger_entries particionada
+        walletShards.forEachShard(this::maintainShard);
+    }
+
+    private void maintainShard() {
+        if (!isPartitioned()) {
+            log.warn("ledger_partitioning_skipped reason=table_not_partitioned table={}", PARENT_TABLE);
+            return;
+        }
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        createAhead(current);
+        if (retainMonths > 0) {
+            detachExpired(current);
+        }
+    }
+
+    void createAhead(YearMonth current) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            jdbcTemplate.execute("create table if not exists " + partitionName(month)
+                    + " partition of " + PARENT_TABLE
+                    + " for values from ('" + month.atDay(1) + "') to ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+        log.info("ledger_partitions_ensured from={} to={}", current, current.plusMonths(monthsAhead));
+    }
+
+    void detachExpired(YearMonth current) {
+        YearMonth oldestRetained = current.minusMonths(retainMonths);
+        LocalDate coveredUntil = lastCompleteSnapshotDate();
+
+        for (String partition : listPartitions()) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.parse(matcher.group(1), SUFFIX);
+            if (!month.isBefore(oldestRetained)) {
+                continue;
+            }
+            if (coveredUntil == null || coveredUntil.isBefore(month.atEndOfMonth())) {
+                log.warn("ledger_partition_detach_skipped partition={} reason=no_snapshot_coverage coveredUntil={}",
+                        partition, coveredUntil);
+                continue;
+            }
+            // CONCURRENTLY não pode rodar dentro de transação: JdbcTemplate executa em autocommit
+            jdbcTemplate.execute("alter table " + PARENT_TABLE + " detach partition " + partition + " concurrently");
+            log.info("ledger_partition_detached partition={}", partition);
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARENT_TABLE + "_p" + month.format(SUFFIX);
+    }
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject("""
+                select count(*)
+                  from pg_partitioned_table pt
+                  join pg_class c on c.oid = pt.partrelid
+                 where c.relname = ?
+                """, Integer.class, PARENT_TABLE);
+        return count != null && count > 0;
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList("""
+                select c.relname
+                  from pg_inherits i
+                  join pg_class c on c.oid = i.inhrelid
+                  join pg_class p on p.oid = i.inhparent
+                 where p.relname = ?
+                 order by c.relname
+                """, String.class, PARENT_TABLE);
+    }
+
+    // último dia com snapshot concluído em todas as partições (ver GenerateBalanceSnapshotUseCaseImpl)
+    private LocalDate lastCompleteSnapshotDate() {
+        Date date = jdbcTemplate.queryForObject("""
+                select max(snapshot_date)
+                  from (select snapshot_date
+                          from balance_snapshot_checkpoints
+                         group by snapshot_date, partition_count
+                        having count(*) = partition_count) complete
+                """, Date.class);
+        return date != null ? date.toLocalDate() : null;
+    }
+}
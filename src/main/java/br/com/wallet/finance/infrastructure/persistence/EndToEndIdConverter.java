@@ -0,0 +1,129 @@
+package br.com.wallet.finance.infrastructure.persistence;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * endToEndId em ledger_entries como binário compacto: 1 byte de tipo + conteúdo.
+ *
+ * <ul>
+ *   <li>{@code 0x01} UUID canônico (ids antigos): 16 bytes.</li>
+ *   <li>{@code 0x02} layout BACEN (E/D + ISPB + yyyyMMddHHmm + 11 alfanuméricos): 16 bytes com
+ *       ISPB e minuto em binário e o sufixo em base 62.</li>
+ *   <li>{@code 0x00} qualquer outro texto, em UTF-8.</li>
+ * </ul>
+ * A conversão é exata nos dois sentidos: o que não volta idêntico (ex.: UUID em maiúsculas)
+ * é gravado como texto.
+ */
+@Converter
+public class EndToEndIdConverter implements AttributeConverter<String, byte[]> {
+
+    static final byte RAW = 0;
+    static final byte UUID_TAG = 1;
+    static final byte PIX_TAG = 2;
+
+    private static final Pattern PIX = Pattern.compile("[ED]\\d{20}[0-9A-Za-z]{11}");
+    private static final String BASE62 = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final DateTimeFormatter MINUTE = DateTimeFormatter.ofPattern("uuuuMMddHHmm");
+    // minuto guardado em 26 bits a partir de 2000-01-01 (até 2127)
+    private static final LocalDateTime MINUTE_EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final long MINUTE_LIMIT = 1L << 26;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String endToEndId) {
+        if (endToEndId == null) {
+            return null;
+        }
+        byte[] packed = packPix(endToEndId);
+        if (packed == null) {
+            packed = packUuid(endToEndId);
+        }
+        if (packed != null) {
+            return packed;
+        }
+        byte[] text = endToEndId.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(1 + text.length).put(RAW).put(text).array();
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(value, 1, value.length - 1);
+        return switch (value[0]) {
+            case UUID_TAG -> new UUID(buffer.getLong(), buffer.getLong()).toString();
+            case PIX_TAG -> unpackPix(buffer.getLong(), buffer.getLong());
+            case RAW -> new String(value, 1, value.length - 1, StandardCharsets.UTF_8);
+            default -> throw new IllegalArgumentException("Unknown end-to-end id encoding: " + value[0]);
+        };
+    }
+
+    private static byte[] packUuid(String value) {
+        if (value.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(value);
+            if (!uuid.toString().equals(value)) {
+                return null;
+            }
+            return ByteBuffer.allocate(17).put(UUID_TAG)
+                    .putLong(uuid.getMostSignificantBits())
+                    .putLong(uuid.getLeastSignificantBits())
+                    .array();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // alto: tipo (1 bit) | ISPB (27) | minuto (26) | 1º char do sufixo (6); baixo: 10 chars em base 62 (60)
+    private static byte[] packPix(String value) {
+        if (!PIX.matcher(value).matches()) {
+            return null;
+        }
+        long minutes;
+        try {
+            LocalDateTime minute = LocalDateTime.parse(value.substring(9, 21), MINUTE);
+            minutes = ChronoUnit.MINUTES.between(MINUTE_EPOCH, minute);
+        } catch (DateTimeException e) {
+            return null;
+        }
+        if (minutes < 0 || minutes >= MINUTE_LIMIT) {
+            return null;
+        }
+
+        long kind = value.charAt(0) == 'E' ? 0 : 1;
+        long ispb = Long.parseLong(value.substring(1, 9));
+        long high = (kind << 59) | (ispb << 32) | (minutes << 6) | BASE62.indexOf(value.charAt(21));
+        long low = 0;
+        for (int i = 22; i < 32; i++) {
+            low = low * 62 + BASE62.indexOf(value.charAt(i));
+        }
+        return ByteBuffer.allocate(17).put(PIX_TAG).putLong(high).putLong(low).array();
+    }
+
+    private static String unpackPix(long high, long low) {
+        char[] suffix = new char[11];
+        suffix[0] = BASE62.charAt((int) (high & 0x3F));
+        for (int i = 10; i >= 1; i--) {
+            suffix[i] = BASE62.charAt((int) (low % 62));
+            low /= 62;
+        }
+        long minutes = (high >>> 6) & (MINUTE_LIMIT - 1);
+        long ispb = (high >>> 32) & ((1L << 27) - 1);
+        return ((high >>> 59) == 0 ? "E" : "D")
+                + String.format("%08d", ispb)
+                + MINUTE_EPOCH.plusMinutes(minutes).format(MINUTE)
+                + new String(suffix);
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.wallet.finance.infrastructure.persistence;
+
+import br.com.wallet.finance.domain.enums.IdempotencyScope;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class IdempotencyScopeConverter implements AttributeConverter<IdempotencyScope, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(IdempotencyScope scope) {
+        return scope == null ? null : scope.code();
+    }
+
+    @Override
+    public IdempotencyScope convertToEntityAttribute(Short code) {
+        return code == null ? null : IdempotencyScope.fromCode(code);
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.wallet.finance.infrastructure.persistence;
+
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class LedgerEntryTypeConverter implements AttributeConverter<LedgerEntryType, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(LedgerEntryType type) {
+        return type == null ? null : type.code();
+    }
+
+    @Override
+    public LedgerEntryType convertToEntityAttribute(Short code) {
+        return code == null ? null : LedgerEntryType.fromCode(code);
+    }
+}
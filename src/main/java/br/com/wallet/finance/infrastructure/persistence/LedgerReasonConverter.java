@@ -0,0 +1,19 @@
+package br.com.wallet.finance.infrastructure.persistence;
+
+import br.com.wallet.finance.domain.enums.LedgerReason;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class LedgerReasonConverter implements AttributeConverter<LedgerReason, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(LedgerReason reason) {
+        return reason == null ? null : reason.code();
+    }
+
+    @Override
+    public LedgerReason convertToEntityAttribute(Short code) {
+        return code == null ? null : LedgerReason.fromCode(code);
+    }
+}
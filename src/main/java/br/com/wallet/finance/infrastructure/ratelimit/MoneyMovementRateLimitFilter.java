@@ -0,0 +1,257 @@
+package br.com.wallet.finance.infrastructure.ratelimit;
+
+import br.com.wallet.finance.api.error.ErrorResponse;
+import br.com.wallet.finance.infrastructure.bulkhead.TrafficBulkheadFilter;
+import br.com.wallet.finance.infrastructure.bulkhead.TrafficClass;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Token bucket por cliente e por carteira nas rotas de money-movement (Pix, depósito e saque),
+ * antes de qualquer transação: um cliente martelando a mesma carteira recebe 429 sem disputar o
+ * lock da linha nem conexão com os demais.
+ *
+ * A carteira vem do path (depósito e saque) ou de {@code fromWalletId} no corpo do Pix, em forma
+ * canônica de UUID: a mesma carteira escrita em maiúsculas cai no mesmo balde, e um id que não é
+ * UUID não cria balde (o controller responde 400). O corpo do Pix é lido aqui e reentregue ao
+ * controller; acima de 16 KB a resposta é 413, senão espaços no JSON tirariam o Pix do limite.
+ *
+ * O cliente é o usuário autenticado, quando houver. Senão, o header {@code clientHeader} só vale se
+ * a conexão vem de um dos {@code trustedProxies} (o último valor, se for uma lista como a do
+ * X-Forwarded-For); de qualquer outro endereço o header é ignorado e o cliente é o endereço remoto,
+ * para que quem chama não ganhe um balde novo trocando o valor a cada requisição.
+ */
+public class MoneyMovementRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(MoneyMovementRateLimitFilter.class);
+
+    private static final Pattern WALLET_PATH = Pattern.compile("/wallets/([^/]+)/(deposit|withdraw)");
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final TokenBucketLimiter walletLimits;
+    private final TokenBucketLimiter clientLimits;
+    private final String clientHeader;
+    private final Set<String> trustedProxies;
+    private final ObjectMapper objectMapper;
+
+    public MoneyMovementRateLimitFilter(TokenBucketLimiter walletLimits, TokenBucketLimiter clientLimits,
+                                        String clientHeader, Set<String> trustedProxies, ObjectMapper objectMapper) {
+        this.walletLimits = walletLimits;
+        this.clientLimits = clientLimits;
+        this.clientHeader = clientHeader;
+        this.trustedProxies = Set.copyOf(trustedProxies);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (TrafficBulkheadFilter.classify(request.getMethod(), path) != TrafficClass.MONEY_MOVEMENT) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String client = clientOf(request);
+        if (rejected(clientLimits, client, path, response)) {
+            return;
+        }
+
+        HttpServletRequest forwarded = request;
+        String walletId;
+        Matcher matcher = WALLET_PATH.matcher(path);
+        if (matcher.matches()) {
+            walletId = walletKey(matcher.group(1));
+        } else {
+            CachedBodyRequest cached = CachedBodyRequest.read(request);
+            if (cached == null) {
+                log.warn("rate_limit_body_too_large client={} path={} maxBytes={}", client, path, MAX_BODY_BYTES);
+                tooLarge(response);
+                return;
+            }
+            forwarded = cached;
+            walletId = fromWalletId(cached.body);
+        }
+
+        // sem carteira legível (id ou corpo inválido) a validação do controller responde
+        if (walletId != null && rejected(walletLimits, walletId, path, response)) {
+            return;
+        }
+        chain.doFilter(forwarded, response);
+    }
+
+    private boolean rejected(TokenBucketLimiter limiter, String key, String path, HttpServletResponse response) throws IOException {
+        long waitNanos = limiter.tryAcquire(key);
+        if (waitNanos == 0) {
+            return false;
+        }
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        log.warn("rate_limit_rejected scope={} key={} path={} retryAfterSeconds={}", limiter.scope(), key, path, retryAfter);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ErrorResponse.of("TOO_MANY_REQUESTS", "Too many requests for this " + limiter.scope() + ", retry later"));
+        return true;
+    }
+
+    private void tooLarge(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ErrorResponse.of("PAYLOAD_TOO_LARGE", "Request body must not exceed " + MAX_BODY_BYTES + " bytes"));
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "user:" + principal.getName();
+        }
+        String remote = request.getRemoteAddr();
+        if (trustedProxies.contains(remote)) {
+            String header = request.getHeader(clientHeader);
+            if (header != null) {
+                String client = header.substring(header.lastIndexOf(',') + 1).trim();
+                if (!client.isEmpty()) {
+                    return client;
+                }
+            }
+        }
+        return remote;
+    }
+
+    private String fromWalletId(byte[] body) {
+        try {
+            JsonNode fromWalletId = objectMapper.readTree(body).get("fromWalletId");
+            return fromWalletId != null && fromWalletId.isTextual() ? walletKey(fromWalletId.asText()) : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // mesma conversão do controller: o que ele aceitaria como a carteira X vira a chave de X
+    private static String walletKey(String walletId) {
+        try {
+            return UUID.fromString(walletId).toString();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reentrega ao controller o corpo lido aqui.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+        private final ServletInputStream original;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body, ServletInputStream original) {
+            super(request);
+            this.body = body;
+            this.original = original;
+        }
+
+        /**
+         * @return null se o corpo passa do limite (declarado no Content-Length ou lido)
+         */
+        static CachedBodyRequest read(HttpServletRequest request) throws IOException {
+            if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+                return null;
+            }
+            ServletInputStream input = request.getInputStream();
+            byte[] body = input.readNBytes(MAX_BODY_BYTES + 1);
+            return body.length <= MAX_BODY_BYTES ? new CachedBodyRequest(request, body, input) : null;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // registra no stream original (o contêiner valida o modo assíncrono e chama nas
+                // threads dele); como ele já foi esvaziado aqui, o corpo guardado é oferecido antes
+                // do fim, senão o listener só receberia onAllDataRead
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    ServletInputStream self = this;
+                    original.setReadListener(new ReadListener() {
+                        @Override
+                        public void onDataAvailable() throws IOException {
+                            if (!self.isFinished()) {
+                                listener.onDataAvailable();
+                            }
+                        }
+
+                        @Override
+                        public void onAllDataRead() throws IOException {
+                            if (!self.isFinished()) {
+                                listener.onDataAvailable();
+                            }
+                            listener.onAllDataRead();
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            listener.onError(t);
+                        }
+                    });
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
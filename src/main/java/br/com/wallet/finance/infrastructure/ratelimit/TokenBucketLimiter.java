@@ -0,0 +1,152 @@
+package br.com.wallet.finance.infrastructure.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Um token bucket por chave (carteira ou cliente), todos com a mesma capacidade e reposição.
+ *
+ * O balde é um estado imutável trocado por CAS: o caminho quente é um get no mapa e um
+ * compareAndSet, sem lock (compute do ConcurrentHashMap sincroniza no bin e prende virtual threads).
+ *
+ * O mapa tem teto de {@code maxKeys}. Chave nova com o mapa no teto dispara uma varredura (uma
+ * thread por vez, no máximo uma a cada intervalo de reposição de um token) que remove só os baldes
+ * já cheios, iguais a um balde novo. Se ainda não houver espaço, a chave nova é recusada: um balde
+ * em uso nunca é descartado, então inundar o mapa com chaves novas não devolve a rajada a quem
+ * já estava limitado. Em corrida, o teto pode ser passado por poucas chaves.
+ */
+public class TokenBucketLimiter {
+
+    private record Bucket(double tokens, long refilledAt) {}
+
+    private final String scope;
+    private final double capacity;
+    private final double refillPerSecond;
+    private final double tokensPerNano;
+    private final int maxKeys;
+    private final long sweepIntervalNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, AtomicReference<Bucket>> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final AtomicLong lastSweepAt;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public TokenBucketLimiter(String scope, int capacity, double refillPerSecond, int maxKeys) {
+        this(scope, capacity, refillPerSecond, maxKeys, System::nanoTime);
+    }
+
+    TokenBucketLimiter(String scope, int capacity, double refillPerSecond, int maxKeys, LongSupplier nanoClock) {
+        if (capacity < 1 || refillPerSecond <= 0 || maxKeys < 1) {
+            throw new IllegalArgumentException("rate limit capacity, refill and max keys must be positive");
+        }
+        this.scope = scope;
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.maxKeys = maxKeys;
+        this.sweepIntervalNanos = Math.max(1, (long) Math.ceil(1 / tokensPerNano));
+        this.nanoClock = nanoClock;
+        this.lastSweepAt = new AtomicLong(nanoClock.getAsLong() - sweepIntervalNanos);
+    }
+
+    /**
+     * Consome um token da chave.
+     *
+     * @return 0 se passou; senão, nanos até o próximo token
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicReference<Bucket> ref = buckets.get(key);
+        if (ref == null) {
+            if (buckets.size() >= maxKeys) {
+                evictFull(now);
+                if (buckets.size() >= maxKeys) {
+                    // sem espaço: a chave nova espera o tempo de um token, os baldes em uso ficam
+                    rejected.increment();
+                    return sweepIntervalNanos;
+                }
+            }
+            AtomicReference<Bucket> created = new AtomicReference<>(new Bucket(capacity, now));
+            ref = buckets.putIfAbsent(key, created);
+            if (ref == null) {
+                ref = created;
+            }
+        }
+
+        while (true) {
+            Bucket current = ref.get();
+            long refilledAt = Math.max(now, current.refilledAt());
+            double tokens = refill(current, refilledAt);
+            if (tokens < 1) {
+                rejected.increment();
+                return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+            }
+            if (ref.compareAndSet(current, new Bucket(tokens - 1, refilledAt))) {
+                return 0;
+            }
+        }
+    }
+
+    public String scope() {
+        return scope;
+    }
+
+    public int tracked() {
+        return buckets.size();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    public long evicted() {
+        return evicted.sum();
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of("scope", scope);
+        Gauge.builder("wallet.ratelimit.capacity", this, limiter -> limiter.capacity).tags(tags).register(registry);
+        Gauge.builder("wallet.ratelimit.refill_per_second", this, limiter -> limiter.refillPerSecond).tags(tags).register(registry);
+        Gauge.builder("wallet.ratelimit.tracked", this, TokenBucketLimiter::tracked).tags(tags).register(registry);
+        FunctionCounter.builder("wallet.ratelimit.rejected", this, TokenBucketLimiter::rejected).tags(tags).register(registry);
+        FunctionCounter.builder("wallet.ratelimit.evicted", this, TokenBucketLimiter::evicted).tags(tags).register(registry);
+    }
+
+    private double refill(Bucket bucket, long now) {
+        return Math.min(capacity, bucket.tokens() + (now - bucket.refilledAt()) * tokensPerNano);
+    }
+
+    // uma varredura por vez e no máximo uma por intervalo; as outras threads seguem sem esperar
+    private void evictFull(long now) {
+        long last = lastSweepAt.get();
+        if (now - last < sweepIntervalNanos || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            lastSweepAt.set(now);
+            Iterator<Map.Entry<String, AtomicReference<Bucket>>> entries = buckets.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<String, AtomicReference<Bucket>> entry = entries.next();
+                Bucket bucket = entry.getValue().get();
+                if (refill(bucket, Math.max(now, bucket.refilledAt())) >= capacity && buckets.remove(entry.getKey(), entry.getValue())) {
+                    evicted.increment();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
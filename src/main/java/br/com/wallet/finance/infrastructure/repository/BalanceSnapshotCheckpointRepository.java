@@ -0,0 +1,15 @@
+package br.com.wallet.finance.infrastructure.repository;
+
+import br.com.wallet.finance.domain.model.BalanceSnapshotCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface BalanceSnapshotCheckpointRepository extends JpaRepository<BalanceSnapshotCheckpoint, UUID> {
+
+    List<BalanceSnapshotCheckpoint> findBySnapshotDate(LocalDate snapshotDate);
+
+    void deleteBySnapshotDate(LocalDate snapshotDate);
+}
@@ -0,0 +1,23 @@
+package br.com.wallet.finance.infrastructure.repository;
+
+import br.com.wallet.finance.domain.model.IdempotencyRecord;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, UUID> {
+
+    // chaves vencidas, das mais antigas para as mais novas (idx_idempotency_expires)
+    @Query("select r.keyHash from IdempotencyRecord r where r.expiresAt < :now order by r.expiresAt")
+    List<UUID> findExpiredHashes(Instant now, Limit limit);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.keyHash in :hashes and r.expiresAt < :now")
+    int deleteExpired(Collection<UUID> hashes, Instant now);
+}
@@ -0,0 +1,16 @@
+package br.com.wallet.finance.infrastructure.repository;
+
+import br.com.wallet.finance.domain.model.LedgerArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface LedgerArchiveSegmentRepository extends JpaRepository<LedgerArchiveSegment, UUID> {
+
+    Optional<LedgerArchiveSegment> findFirstByOrderByBusinessDateDesc();
+
+    List<LedgerArchiveSegment> findByBusinessDateBetweenOrderByBusinessDate(LocalDate from, LocalDate to);
+}
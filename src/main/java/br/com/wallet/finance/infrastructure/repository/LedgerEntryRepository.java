@@ -1,13 +1,153 @@
 package br.com.wallet.finance.infrastructure.repository;
 
 import br.com.wallet.finance.domain.model.LedgerEntry;
+import br.com.wallet.finance.domain.model.LedgerRow;
+import br.com.wallet.finance.domain.model.StatementEntry;
+import br.com.wallet.finance.domain.model.WalletBalance;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID> {
 
-    List<LedgerEntry> findByWallet_IdAndOccurredAtLessThanEqual(UUID walletId, Instant occurredAt);
+    // saldo até o instante, somado no banco (sem hidratar lançamentos)
+    @Query("""
+            select coalesce(sum(case when e.type = br.com.wallet.finance.domain.enums.LedgerEntryType.CREDIT
+                                     then e.amount else -e.amount end), 0)
+            from LedgerEntry e
+            where e.wallet.id = :walletId
+              and e.occurredAt <= :at
+            """)
+    BigDecimal sumBalanceUpTo(UUID walletId, Instant at);
+
+    // movimento líquido em [from, upTo]; com os dois limites o Postgres lê só as partições mensais do intervalo
+    @Query("""
+            select coalesce(sum(case when e.type = br.com.wallet.finance.domain.enums.LedgerEntryType.CREDIT
+                                     then e.amount else -e.amount end), 0)
+            from LedgerEntry e
+            where e.wallet.id = :walletId
+              and e.occurredAt >= :from
+              and e.occurredAt <= :upTo
+            """)
+    BigDecimal sumBalanceBetween(UUID walletId, Instant from, Instant upTo);
+
+    // saldos históricos de várias carteiras numa única consulta; carteiras sem lançamentos não retornam linha
+    @Query("""
+            select new br.com.wallet.finance.domain.model.WalletBalance(
+                e.wallet.id,
+                sum(case when e.type = br.com.wallet.finance.domain.enums.LedgerEntryType.CREDIT
+                         then e.amount else -e.amount end))
+            from LedgerEntry e
+            where e.wallet.id in :walletIds
+              and e.occurredAt <= :at
+            group by e.wallet.id
+            """)
+    List<WalletBalance> sumBalancesUpTo(Collection<UUID> walletIds, Instant at);
+
+    // lançamentos em (after, upTo], em ordem, para reconstruir uma série de saldos numa única leitura
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new br.com.wallet.finance.domain.model.StatementEntry(
+                e.id, e.type, e.amount, e.endToEndId, e.reason, e.description, e.occurredAt)
+            from LedgerEntry e
+            where e.wallet.id = :walletId
+              and e.occurredAt > :after
+              and e.occurredAt <= :upTo
+            order by e.occurredAt, e.id
+            """)
+    Stream<StatementEntry> streamMovements(UUID walletId, Instant after, Instant upTo);
+
+    // todos os lançamentos da carteira, em ordem, para reconstruir as projeções (saldo e agregados diários)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new br.com.wallet.finance.domain.model.StatementEntry(
+                e.id, e.type, e.amount, e.endToEndId, e.reason, e.description, e.occurredAt)
+            from LedgerEntry e
+            where e.wallet.id = :walletId
+            order by e.occurredAt, e.id
+            """)
+    Stream<StatementEntry> streamAllMovements(UUID walletId);
+
+    // lançamentos de [from, to) agrupados por carteira, para gravar os segmentos do ledger frio
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "2000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new br.com.wallet.finance.domain.model.LedgerRow(
+                e.wallet.id, e.id, e.type, e.amount, e.endToEndId, e.reason, e.description, e.occurredAt)
+            from LedgerEntry e
+            where e.occurredAt >= :from
+              and e.occurredAt < :to
+            order by e.wallet.id, e.occurredAt, e.id
+            """)
+    Stream<LedgerRow> streamForArchive(Instant from, Instant to);
+
+    long countByOccurredAtGreaterThanEqualAndOccurredAtLessThan(Instant from, Instant to);
+
+    @Query("select min(e.occurredAt) from LedgerEntry e")
+    Optional<Instant> findOldestOccurredAt();
+
+    @Modifying
+    @Query("delete from LedgerEntry e where e.occurredAt >= :from and e.occurredAt < :to")
+    int deleteRange(Instant from, Instant to);
+
+    // extrato: primeira página (keyset sobre idx_ledger_wallet_time)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new br.com.wallet.finance.domain.model.StatementEntry(
+                e.id, e.type, e.amount, e.endToEndId, e.reason, e.description, e.occurredAt)
+            from LedgerEntry e
+            where e.wallet.id = :walletId
+              and e.occurredAt >= :from
+              and e.occurredAt < :to
+            order by e.occurredAt, e.id
+            """)
+    Stream<StatementEntry> streamStatement(UUID walletId, Instant from, Instant to, Limit limit);
+
+    // extrato: páginas seguintes, a partir da última posição (occurredAt, id) entregue
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new br.com.wallet.finance.domain.model.StatementEntry(
+                e.id, e.type, e.amount, e.endToEndId, e.reason, e.description, e.occurredAt)
+            from LedgerEntry e
+            where e.wallet.id = :walletId
+              and e.occurredAt < :to
+              and (e.occurredAt > :afterOccurredAt
+                   or (e.occurredAt = :afterOccurredAt and e.id > :afterId))
+              and e.occurredAt >= :from
+            order by e.occurredAt, e.id
+            """)
+    Stream<StatementEntry> streamStatementAfter(UUID walletId,
+                                                Instant from,
+                                                Instant to,
+                                                Instant afterOccurredAt,
+                                                UUID afterId,
+                                                Limit limit);
 }
@@ -0,0 +1,7 @@
+package br.com.wallet.finance.infrastructure.repository;
+
+import br.com.wallet.finance.domain.model.PixSagaReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PixSagaReceiptRepository extends JpaRepository<PixSagaReceipt, String> {
+}
@@ -0,0 +1,31 @@
+package br.com.wallet.finance.infrastructure.repository;
+
+import br.com.wallet.finance.domain.model.PixTransferHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface PixTransferHistoryRepository extends JpaRepository<PixTransferHistory, UUID> {
+
+    Optional<PixTransferHistory> findByEndToEndId(String endToEndId);
+
+    Optional<PixTransferHistory> findByFromWalletIdAndIdempotencyKey(UUID fromWalletId, String idempotencyKey);
+
+    // copia as transferências do lote que continuam liquidadas (rodar antes de PixTransferRepository.deleteSettled)
+    @Modifying
+    @Query(value = """
+            insert into pix_transfers_history (pix_transfer_id, from_wallet_id, to_wallet_id, to_pix_key, amount, status,
+                                               end_to_end_id, idempotency_key, created_at, updated_at, version, retired_at)
+            select t.pix_transfer_id, t.from_wallet_id, t.to_wallet_id, t.to_pix_key, t.amount, t.status,
+                   t.end_to_end_id, t.idempotency_key, t.created_at, t.updated_at, t.version, :retiredAt
+              from pix_transfers t
+             where t.pix_transfer_id in (:ids)
+               and t.status in ('CONFIRMED', 'REJECTED')
+            """, nativeQuery = true)
+    int copySettled(Collection<UUID> ids, Instant retiredAt);
+}
@@ -1,8 +1,14 @@
 package br.com.wallet.finance.infrastructure.repository;
 
 import br.com.wallet.finance.domain.model.PixTransfer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +17,24 @@ public interface PixTransferRepository extends JpaRepository<PixTransfer, UUID>
     Optional<PixTransfer> findByEndToEndId(String endToEndId);
 
     Optional<PixTransfer> findByFromWallet_IdAndIdempotencyKey(UUID fromWalletId, String idempotencyKey);
+
+    // candidatas à aposentadoria, das mais antigas para as mais novas (idx_pix_transfer_settled, parcial)
+    @Query("""
+            select t.id
+              from PixTransfer t
+             where t.status in (br.com.wallet.finance.domain.enums.PixTransferStatus.CONFIRMED,
+                                br.com.wallet.finance.domain.enums.PixTransferStatus.REJECTED)
+               and t.updatedAt < :cutoff
+            order by t.updatedAt, t.id
+            """)
+    List<UUID> findSettledIdsBefore(Instant cutoff, Limit limit);
+
+    @Modifying
+    @Query("""
+            delete from PixTransfer t
+             where t.id in :ids
+               and t.status in (br.com.wallet.finance.domain.enums.PixTransferStatus.CONFIRMED,
+                                br.com.wallet.finance.domain.enums.PixTransferStatus.REJECTED)
+            """)
+    int deleteSettled(Collection<UUID> ids);
 }
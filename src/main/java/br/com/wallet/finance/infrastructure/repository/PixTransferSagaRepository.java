@@ -0,0 +1,30 @@
+package br.com.wallet.finance.infrastructure.repository;
+
+import br.com.wallet.finance.domain.model.PixTransferSaga;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface PixTransferSagaRepository extends JpaRepository<PixTransferSaga, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from PixTransferSaga s where s.endToEndId = :endToEndId")
+    Optional<PixTransferSaga> findByIdForUpdate(String endToEndId);
+
+    // sagas em andamento com tentativa vencida (idx_saga_state_next_attempt)
+    @Query("""
+            select s.endToEndId
+              from PixTransferSaga s
+             where s.state in (br.com.wallet.finance.domain.enums.PixSagaState.CREDITING,
+                               br.com.wallet.finance.domain.enums.PixSagaState.COMPENSATING)
+               and s.nextAttemptAt <= :now
+            order by s.nextAttemptAt
+            """)
+    List<String> findDueIds(Instant now, Limit limit);
+}
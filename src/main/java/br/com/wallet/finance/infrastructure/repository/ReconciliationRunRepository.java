@@ -0,0 +1,12 @@
+package br.com.wallet.finance.infrastructure.repository;
+
+import br.com.wallet.finance.domain.model.ReconciliationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, UUID> {
+
+    Optional<ReconciliationRun> findFirstByOrderByWatermarkDesc();
+}
@@ -0,0 +1,45 @@
+package br.com.wallet.finance.infrastructure.repository;
+
+import br.com.wallet.finance.domain.model.WalletArchivedBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface WalletArchivedBalanceRepository extends JpaRepository<WalletArchivedBalance, UUID> {
+
+    // soma ao acumulado das carteiras que já tinham algo arquivado o movimento de [from, to)
+    @Modifying
+    @Query(value = """
+            update wallet_archived_balances a
+               set amount = a.amount + (select sum(case when e.entry_type = 1 then e.amount else -e.amount end)
+                                          from ledger_entries e
+                                         where e.wallet_id = a.wallet_id
+                                           and e.occurred_at >= :from
+                                           and e.occurred_at < :to),
+                   archived_until = :to
+             where exists (select 1
+                             from ledger_entries e
+                            where e.wallet_id = a.wallet_id
+                              and e.occurred_at >= :from
+                              and e.occurred_at < :to)
+            """, nativeQuery = true)
+    int accumulateRange(Instant from, Instant to);
+
+    // cria o acumulado das carteiras arquivadas pela primeira vez (rodar depois de accumulateRange)
+    @Modifying
+    @Query(value = """
+            insert into wallet_archived_balances (wallet_id, amount, archived_until)
+            select e.wallet_id,
+                   sum(case when e.entry_type = 1 then e.amount else -e.amount end),
+                   :to
+              from ledger_entries e
+             where e.occurred_at >= :from
+               and e.occurred_at < :to
+               and not exists (select 1 from wallet_archived_balances a where a.wallet_id = e.wallet_id)
+             group by e.wallet_id
+            """, nativeQuery = true)
+    int insertRange(Instant from, Instant to);
+}
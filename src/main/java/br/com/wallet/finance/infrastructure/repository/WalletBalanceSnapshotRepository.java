@@ -0,0 +1,67 @@
+package br.com.wallet.finance.infrastructure.repository;
+
+import br.com.wallet.finance.domain.model.WalletBalance;
+import br.com.wallet.finance.domain.model.WalletBalanceSnapshot;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface WalletBalanceSnapshotRepository
+        extends JpaRepository<WalletBalanceSnapshot, WalletBalanceSnapshot.Key> {
+
+    Optional<WalletBalanceSnapshot> findFirstByWalletIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(
+            UUID walletId, LocalDate before);
+
+    @Modifying
+    @Query(value = """
+            delete from wallet_balance_snapshots
+             where snapshot_date = :snapshotDate
+               and wallet_id between :lower and :upper
+            """, nativeQuery = true)
+    int deleteRange(LocalDate snapshotDate, UUID lower, UUID upper);
+
+    // calcula e grava os saldos da faixa inteira numa única instrução, sem trafegar linhas pela aplicação;
+    // o que já foi para o ledger frio entra pelo acumulado arquivado (exige dia posterior ao horizonte)
+    @Modifying
+    @Query(value = """
+            insert into wallet_balance_snapshots (snapshot_date, wallet_id, balance, created_at)
+            select :snapshotDate,
+                   w.wallet_id,
+                   coalesce(sum(case when e.entry_type = 1 then e.amount else -e.amount end), 0)
+                       + coalesce(a.amount, 0),
+                   :createdAt
+              from wallets w
+              left join wallet_archived_balances a
+                on a.wallet_id = w.wallet_id
+              left join ledger_entries e
+                on e.wallet_id = w.wallet_id
+               and e.occurred_at < :endExclusive
+             where w.wallet_id between :lower and :upper
+               and w.created_at < :endExclusive
+             group by w.wallet_id, a.amount
+            """, nativeQuery = true)
+    int insertRange(LocalDate snapshotDate, Instant endExclusive, UUID lower, UUID upper, Instant createdAt);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new br.com.wallet.finance.domain.model.WalletBalance(s.walletId, s.balance)
+            from WalletBalanceSnapshot s
+            where s.snapshotDate = :snapshotDate
+            order by s.walletId
+            """)
+    Stream<WalletBalance> streamBySnapshotDate(LocalDate snapshotDate);
+}
@@ -0,0 +1,74 @@
+package br.com.wallet.finance.infrastructure.repository;
+
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.model.WalletDailyCashFlow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface WalletDailyCashFlowRepository extends JpaRepository<WalletDailyCashFlow, UUID> {
+
+    List<WalletDailyCashFlow> findByWalletIdAndBusinessDateBetweenOrderByBusinessDate(
+            UUID walletId, LocalDate from, LocalDate to);
+
+    Optional<WalletDailyCashFlow> findFirstByWalletIdAndBusinessDateLessThanOrderByBusinessDateDesc(
+            UUID walletId, LocalDate before);
+
+    @Modifying
+    @Query("""
+            update WalletDailyCashFlow c
+               set c.totalCredits = c.totalCredits + :credit,
+                   c.totalDebits = c.totalDebits + :debit,
+                   c.closingBalance = :closingBalance,
+                   c.updatedAt = :updatedAt
+             where c.walletId = :walletId
+               and c.businessDate = :businessDate
+            """)
+    int accumulate(UUID walletId,
+                   LocalDate businessDate,
+                   BigDecimal credit,
+                   BigDecimal debit,
+                   BigDecimal closingBalance,
+                   Instant updatedAt);
+
+    @Modifying
+    @Query("delete from WalletDailyCashFlow c where c.walletId = :walletId and c.businessDate >= :from")
+    int deleteFromDate(UUID walletId, LocalDate from);
+
+    /**
+     * Soma um lançamento ao agregado do dia. Deve ser chamado com a carteira travada
+     * (SELECT FOR UPDATE), o que serializa as escritas do mesmo (wallet, dia).
+     */
+    default void record(UUID walletId,
+                        LedgerEntryType type,
+                        BigDecimal amount,
+                        BigDecimal closingBalance,
+                        Instant occurredAt) {
+
+        LocalDate businessDate = LocalDate.ofInstant(occurredAt, ZoneOffset.UTC);
+        BigDecimal credit = type == LedgerEntryType.CREDIT ? amount : BigDecimal.ZERO;
+        BigDecimal debit = type == LedgerEntryType.DEBIT ? amount : BigDecimal.ZERO;
+        Instant now = Instant.now();
+
+        if (accumulate(walletId, businessDate, credit, debit, closingBalance, now) > 0) {
+            return;
+        }
+
+        save(WalletDailyCashFlow.builder()
+                .walletId(walletId)
+                .businessDate(businessDate)
+                .totalCredits(credit)
+                .totalDebits(debit)
+                .closingBalance(closingBalance)
+                .updatedAt(now)
+                .build());
+    }
+}
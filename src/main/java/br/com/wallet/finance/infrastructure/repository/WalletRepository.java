@@ -1,10 +1,15 @@
 package br.com.wallet.finance.infrastructure.repository;
 
+import br.com.wallet.finance.domain.model.BalanceDrift;
 import br.com.wallet.finance.domain.model.Wallet;
+import br.com.wallet.finance.domain.model.WalletBalance;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,4 +20,42 @@ public interface WalletRepository extends JpaRepository<Wallet, UUID> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select w from Wallet w where w.id = :walletId")
     Optional<Wallet> findByIdForUpdate(UUID walletId);
+
+    @Query("select new br.com.wallet.finance.domain.model.WalletBalance(w.id, w.currentBalance) from Wallet w where w.id in :walletIds")
+    List<WalletBalance> findCurrentBalances(Collection<UUID> walletIds);
+
+    // compara saldo gravado x ledger (banco + acumulado arquivado) de uma faixa inteira; só devolve as divergências
+    @Query("""
+            select new br.com.wallet.finance.domain.model.BalanceDrift(
+                w.id,
+                w.currentBalance,
+                coalesce(sum(case when e.type = br.com.wallet.finance.domain.enums.LedgerEntryType.CREDIT
+                                  then e.amount else -e.amount end), 0) + coalesce(a.amount, 0))
+            from Wallet w
+            left join WalletArchivedBalance a on a.walletId = w.id
+            left join LedgerEntry e on e.wallet = w
+            where w.id between :lower and :upper
+            group by w.id, w.currentBalance, a.amount
+            having w.currentBalance <> coalesce(sum(case when e.type = br.com.wallet.finance.domain.enums.LedgerEntryType.CREDIT
+                                                         then e.amount else -e.amount end), 0) + coalesce(a.amount, 0)
+            """)
+    List<BalanceDrift> findDriftInRange(UUID lower, UUID upper);
+
+    // mesma verificação, restrita às carteiras com lançamentos depois de :since (idx_ledger_occurred_at)
+    @Query("""
+            select new br.com.wallet.finance.domain.model.BalanceDrift(
+                w.id,
+                w.currentBalance,
+                coalesce(sum(case when e.type = br.com.wallet.finance.domain.enums.LedgerEntryType.CREDIT
+                                  then e.amount else -e.amount end), 0) + coalesce(a.amount, 0))
+            from Wallet w
+            left join WalletArchivedBalance a on a.walletId = w.id
+            left join LedgerEntry e on e.wallet = w
+            where w.id between :lower and :upper
+              and w.id in (select le.wallet.id from LedgerEntry le where le.occurredAt > :since)
+            group by w.id, w.currentBalance, a.amount
+            having w.currentBalance <> coalesce(sum(case when e.type = br.com.wallet.finance.domain.enums.LedgerEntryType.CREDIT
+                                                         then e.amount else -e.amount end), 0) + coalesce(a.amount, 0)
+            """)
+    List<BalanceDrift> findDriftInRangeSince(UUID lower, UUID upper, Instant since);
 }
@@ -1,10 +1,24 @@
 package br.com.wallet.finance.infrastructure.repository;
 
 import br.com.wallet.finance.domain.model.WebhookEvent;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface WebhookEventRepository extends JpaRepository<WebhookEvent, UUID> {
     boolean existsByEventId(String eventId);
+
+    // eventos fora da janela de deduplicação, dos mais antigos para os mais novos (idx_webhook_processed)
+    @Query("select e.id from WebhookEvent e where e.processedAt < :cutoff order by e.processedAt")
+    List<UUID> findExpiredIds(Instant cutoff, Limit limit);
+
+    @Modifying
+    @Query("delete from WebhookEvent e where e.id in :ids")
+    int deleteByIds(Collection<UUID> ids);
 }
@@ -0,0 +1,407 @@
+package br.com.wallet.finance.infrastructure.saga;
+
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.enums.LedgerReason;
+import br.com.wallet.finance.domain.enums.PixSagaOutcome;
+import br.com.wallet.finance.domain.enums.PixSagaState;
+import br.com.wallet.finance.domain.enums.PixTransferStatus;
+import br.com.wallet.finance.domain.exception.WalletNotFoundException;
+import br.com.wallet.finance.infrastructure.bulkhead.TrafficClass;
+import br.com.wallet.finance.infrastructure.bulkhead.TrafficClassContext;
+import br.com.wallet.finance.domain.model.LedgerEntry;
+import br.com.wallet.finance.domain.model.PixSagaReceipt;
+import br.com.wallet.finance.domain.model.PixTransfer;
+import br.com.wallet.finance.domain.model.PixTransferSaga;
+import br.com.wallet.finance.domain.model.Wallet;
+import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.PixSagaReceiptRepository;
+import br.com.wallet.finance.infrastructure.repository.PixTransferRepository;
+import br.com.wallet.finance.infrastructure.repository.PixTransferSagaRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletDailyCashFlowRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.ShardContext;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Saga do Pix confirmado cuja carteira de destino está em outro shard.
+ *
+ * A transferência, o débito e a saga ficam no shard de origem; o crédito é uma transação no shard
+ * de destino que grava um recibo (pix_saga_receipts) junto com o lançamento. O recibo, gravado com
+ * a carteira de destino travada, é o que torna os passos idempotentes: o crédito só acontece se não
+ * houver recibo, e a compensação só estorna a origem depois de gravar um recibo VOIDED, que impede
+ * um crédito tardio. Quem chegar primeiro ao destino decide.
+ *
+ * A transferência continua PENDING até a saga terminar: CONFIRMED com o crédito aplicado, REJECTED
+ * com a origem estornada. O primeiro avanço sai logo depois do commit do webhook, numa thread
+ * própria; falhas são repetidas com espera exponencial pela varredura de recuperação, e depois de
+ * {@code max-attempts} tentativas de crédito a saga passa a compensar.
+ */
+@Component
+public class PixTransferSagaCoordinator implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PixTransferSagaCoordinator.class);
+
+    private static final int MAX_ERROR_LENGTH = 200;
+
+    private final PixTransferSagaRepository sagaRepository;
+    private final PixSagaReceiptRepository receiptRepository;
+    private final PixTransferRepository pixTransferRepository;
+    private final WalletRepository walletRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final WalletDailyCashFlowRepository dailyCashFlowRepository;
+    private final WalletShards walletShards;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxBackoff;
+    private final ThreadPoolExecutor dispatcher;
+
+    public PixTransferSagaCoordinator(
+            PixTransferSagaRepository sagaRepository,
+            PixSagaReceiptRepository receiptRepository,
+            PixTransferRepository pixTransferRepository,
+            WalletRepository walletRepository,
+            LedgerEntryRepository ledgerEntryRepository,
+            WalletDailyCashFlowRepository dailyCashFlowRepository,
+            WalletShards walletShards,
+            PlatformTransactionManager transactionManager,
+            @Value("${wallet.pix.saga.max-attempts:8}") int maxAttempts,
+            @Value("${wallet.pix.saga.retry-backoff:PT2S}") Duration retryBackoff,
+            @Value("${wallet.pix.saga.max-backoff:PT5M}") Duration maxBackoff,
+            @Value("${wallet.pix.saga.dispatch-threads:4}") int dispatchThreads,
+            @Value("${wallet.pix.saga.dispatch-queue:1000}") int dispatchQueue
+    ) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("wallet.pix.saga.max-attempts must be positive");
+        }
+        if (retryBackoff.isNegative() || retryBackoff.isZero() || maxBackoff.compareTo(retryBackoff) < 0) {
+            throw new IllegalArgumentException("wallet.pix.saga.retry-backoff must be positive and not above max-backoff");
+        }
+        if (dispatchThreads < 1 || dispatchQueue < 1) {
+            throw new IllegalArgumentException("wallet.pix.saga.dispatch-threads and dispatch-queue must be positive");
+        }
+        this.sagaRepository = sagaRepository;
+        this.receiptRepository = receiptRepository;
+        this.pixTransferRepository = pixTransferRepository;
+        this.walletRepository = walletRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.dailyCashFlowRepository = dailyCashFlowRepository;
+        this.walletShards = walletShards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.maxBackoff = maxBackoff;
+
+        // fila cheia não perde nada: a saga já está gravada e a varredura a encontra
+        AtomicInteger threads = new AtomicInteger();
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(dispatchQueue), runnable -> {
+                    Thread thread = new Thread(runnable, "pix-saga-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.dispatcher.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Abre a saga na transação corrente (a do webhook, no shard de origem) e agenda o primeiro
+     * avanço para depois do commit.
+     */
+    public PixTransferSaga start(PixTransfer transfer) {
+        Instant now = Instant.now();
+        PixTransferSaga saga = sagaRepository.save(PixTransferSaga.builder()
+                .endToEndId(transfer.getEndToEndId())
+                .fromWalletId(transfer.getFromWallet().getId())
+                .toWalletId(transfer.getToWallet().getId())
+                .amount(transfer.getAmount())
+                .state(PixSagaState.CREDITING)
+                .attempts(0)
+                // a varredura só a pega se o disparo depois do commit não acontecer (queda, fila cheia)
+                .nextAttemptAt(now.plus(retryBackoff))
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+
+        String shard = ShardContext.current();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(shard, saga.getEndToEndId());
+                }
+            });
+        }
+
+        log.info("pix_saga_started endToEndId={} fromWalletId={} toWalletId={} amount={}",
+                saga.getEndToEndId(), saga.getFromWalletId(), saga.getToWalletId(), saga.getAmount());
+        return saga;
+    }
+
+    /**
+     * Há saga para a transferência? Enquanto ela não termina, novos eventos do PSP são ignorados.
+     */
+    public boolean exists(String endToEndId) {
+        return sagaRepository.existsById(endToEndId);
+    }
+
+    /**
+     * Avança a saga até um estado final ou até a próxima retentativa.
+     *
+     * @param shard shard da transferência (ignorado sem sharding)
+     * @return estado em que a saga ficou; null se não existe
+     */
+    public PixSagaState advance(String shard, String endToEndId) {
+        PixTransferSaga saga = onSource(shard, () -> sagaRepository.findById(endToEndId).orElse(null));
+        if (saga == null) {
+            return null;
+        }
+        return switch (saga.getState()) {
+            case CREDITING -> credit(shard, saga);
+            case COMPENSATING -> compensate(shard, saga);
+            case COMPLETED, COMPENSATED -> saga.getState();
+        };
+    }
+
+    /**
+     * Avança as sagas com tentativa vencida, em todos os shards.
+     *
+     * @return sagas avançadas
+     */
+    public int recoverDue(int batchSize) {
+        int advanced = 0;
+        for (String shard : walletShards.shards()) {
+            List<String> due = onSource(shard, () -> sagaRepository.findDueIds(Instant.now(), Limit.of(batchSize)));
+            for (String endToEndId : due) {
+                advanceQuietly(shard, endToEndId);
+                advanced++;
+            }
+        }
+        if (advanced > 0) {
+            log.info("pix_saga_recovery_finished advanced={}", advanced);
+        }
+        return advanced;
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdown();
+    }
+
+    private void dispatch(String shard, String endToEndId) {
+        try {
+            dispatcher.execute(TrafficClassContext.wrap(TrafficClass.OTHER, () -> advanceQuietly(shard, endToEndId)));
+        } catch (RejectedExecutionException e) {
+            log.warn("pix_saga_dispatch_rejected endToEndId={} reason=queue_full", endToEndId);
+        }
+    }
+
+    private void advanceQuietly(String shard, String endToEndId) {
+        try {
+            advance(shard, endToEndId);
+        } catch (RuntimeException e) {
+            // o estado durável não mudou: a varredura tenta de novo
+            log.error("pix_saga_advance_failed endToEndId={} shard={} error={}", endToEndId, shard, e.toString());
+        }
+    }
+
+    private PixSagaState credit(String shard, PixTransferSaga saga) {
+        PixSagaOutcome outcome;
+        try {
+            outcome = walletShards.onWallet(saga.getToWalletId(), () -> inTransaction(() -> applyCredit(saga)));
+        } catch (WalletNotFoundException e) {
+            // destino não existe em nenhum shard: repetir não adianta
+            return fail(shard, saga, PixSagaState.CREDITING, e, true);
+        } catch (RuntimeException e) {
+            return fail(shard, saga, PixSagaState.CREDITING, e, false);
+        }
+        // VOIDED: uma compensação anterior fechou a porta e não chegou a estornar
+        return outcome == PixSagaOutcome.CREDITED ? complete(shard, saga) : refund(shard, saga);
+    }
+
+    private PixSagaState compensate(String shard, PixTransferSaga saga) {
+        PixSagaOutcome outcome;
+        try {
+            outcome = walletShards.onWallet(saga.getToWalletId(), () -> inTransaction(() -> voidCredit(saga)));
+        } catch (RuntimeException e) {
+            return fail(shard, saga, PixSagaState.COMPENSATING, e, false);
+        }
+        // o crédito chegou antes da compensação: a transferência se completa
+        return outcome == PixSagaOutcome.CREDITED ? complete(shard, saga) : refund(shard, saga);
+    }
+
+    private PixSagaOutcome applyCredit(PixTransferSaga saga) {
+        Wallet wallet = walletRepository.findByIdForUpdate(saga.getToWalletId())
+                .orElseThrow(() -> new WalletNotFoundException("Wallet not found"));
+        PixSagaReceipt receipt = receiptRepository.findById(saga.getEndToEndId()).orElse(null);
+        if (receipt != null) {
+            return receipt.getOutcome();
+        }
+
+        creditWallet(wallet, saga.getAmount(), saga.getEndToEndId(), LedgerReason.PIX_IN_CONFIRMED);
+        saveReceipt(saga, PixSagaOutcome.CREDITED);
+        log.info("pix_saga_credited endToEndId={} toWalletId={} amount={} newBalance={}",
+                saga.getEndToEndId(), wallet.getId(), saga.getAmount(), wallet.getCurrentBalance());
+        return PixSagaOutcome.CREDITED;
+    }
+
+    private PixSagaOutcome voidCredit(PixTransferSaga saga) {
+        // com a carteira travada (se existir) o recibo não corre com um crédito em andamento
+        walletRepository.findByIdForUpdate(saga.getToWalletId());
+        PixSagaReceipt receipt = receiptRepository.findById(saga.getEndToEndId()).orElse(null);
+        if (receipt != null) {
+            return receipt.getOutcome();
+        }
+        saveReceipt(saga, PixSagaOutcome.VOIDED);
+        return PixSagaOutcome.VOIDED;
+    }
+
+    private PixSagaState complete(String shard, PixTransferSaga saga) {
+        return onSource(shard, () -> {
+            PixTransferSaga current = lockSaga(saga.getEndToEndId());
+            if (current.getState() == PixSagaState.COMPLETED || current.getState() == PixSagaState.COMPENSATED) {
+                return current.getState();
+            }
+            settleTransfer(saga.getEndToEndId(), PixTransferStatus.CONFIRMED);
+            markState(current, PixSagaState.COMPLETED, null);
+            log.info("pix_saga_completed endToEndId={} attempts={}", saga.getEndToEndId(), current.getAttempts());
+            return PixSagaState.COMPLETED;
+        });
+    }
+
+    private PixSagaState refund(String shard, PixTransferSaga saga) {
+        return onSource(shard, () -> {
+            PixTransferSaga current = lockSaga(saga.getEndToEndId());
+            if (current.getState() == PixSagaState.COMPLETED || current.getState() == PixSagaState.COMPENSATED) {
+                return current.getState();
+            }
+            Wallet fromWallet = walletRepository.findByIdForUpdate(saga.getFromWalletId())
+                    .orElseThrow(() -> new WalletNotFoundException("Wallet not found"));
+            creditWallet(fromWallet, saga.getAmount(), saga.getEndToEndId(), LedgerReason.PIX_REFUND_REJECTED);
+            settleTransfer(saga.getEndToEndId(), PixTransferStatus.REJECTED);
+            markState(current, PixSagaState.COMPENSATED, current.getLastError());
+            log.warn("pix_saga_compensated endToEndId={} refundedWalletId={} amount={} attempts={} lastError={}",
+                    saga.getEndToEndId(), fromWallet.getId(), saga.getAmount(), current.getAttempts(), current.getLastError());
+            return PixSagaState.COMPENSATED;
+        });
+    }
+
+    private PixSagaState fail(String shard, PixTransferSaga saga, PixSagaState expected, RuntimeException error, boolean permanent) {
+        PixSagaState state = onSource(shard, () -> {
+            PixTransferSaga current = lockSaga(saga.getEndToEndId());
+            if (current.getState() != expected) {
+                // outro avanço chegou antes
+                return current.getState();
+            }
+            int attempts = current.getAttempts() + 1;
+            current.setAttempts(attempts);
+            current.setLastError(abbreviate(error.toString()));
+            current.setUpdatedAt(Instant.now());
+
+            if (expected == PixSagaState.CREDITING && (permanent || attempts >= maxAttempts)) {
+                current.setState(PixSagaState.COMPENSATING);
+                current.setNextAttemptAt(Instant.now());
+                sagaRepository.save(current);
+                log.warn("pix_saga_compensating endToEndId={} attempts={} error={}", current.getEndToEndId(), attempts, error.toString());
+                return PixSagaState.COMPENSATING;
+            }
+
+            current.setNextAttemptAt(Instant.now().plus(backoff(attempts)));
+            sagaRepository.save(current);
+            if (expected == PixSagaState.COMPENSATING && attempts >= maxAttempts) {
+                log.error("pix_saga_compensation_stuck endToEndId={} attempts={} error={}", current.getEndToEndId(), attempts, error.toString());
+            } else {
+                log.warn("pix_saga_retry_scheduled endToEndId={} state={} attempts={} nextAttemptAt={} error={}",
+                        current.getEndToEndId(), expected, attempts, current.getNextAttemptAt(), error.toString());
+            }
+            return expected;
+        });
+        // falha definitiva do crédito: compensa já, sem esperar a varredura
+        return expected == PixSagaState.CREDITING && state == PixSagaState.COMPENSATING ? compensate(shard, saga) : state;
+    }
+
+    private PixTransferSaga lockSaga(String endToEndId) {
+        return sagaRepository.findByIdForUpdate(endToEndId)
+                .orElseThrow(() -> new IllegalStateException("Pix saga not found: " + endToEndId));
+    }
+
+    private void markState(PixTransferSaga saga, PixSagaState state, String lastError) {
+        saga.setState(state);
+        saga.setLastError(lastError);
+        saga.setUpdatedAt(Instant.now());
+        sagaRepository.save(saga);
+    }
+
+    private void settleTransfer(String endToEndId, PixTransferStatus status) {
+        pixTransferRepository.findByEndToEndId(endToEndId)
+                .filter(transfer -> transfer.getStatus() == PixTransferStatus.PENDING)
+                .ifPresent(transfer -> {
+                    transfer.setStatus(status);
+                    transfer.setUpdatedAt(Instant.now());
+                    pixTransferRepository.save(transfer);
+                });
+    }
+
+    private void creditWallet(Wallet wallet, BigDecimal amount, String endToEndId, LedgerReason reason) {
+        LedgerEntry entry = LedgerEntry.builder()
+                .wallet(wallet)
+                .type(LedgerEntryType.CREDIT)
+                .amount(amount)
+                .endToEndId(endToEndId)
+                .reason(reason)
+                .occurredAt(Instant.now())
+                .build();
+        ledgerEntryRepository.save(entry);
+
+        wallet.setCurrentBalance(wallet.getCurrentBalance().add(amount));
+        walletRepository.save(wallet);
+
+        dailyCashFlowRepository.record(wallet.getId(), entry.getType(), amount, wallet.getCurrentBalance(), entry.getOccurredAt());
+    }
+
+    private void saveReceipt(PixTransferSaga saga, PixSagaOutcome outcome) {
+        receiptRepository.save(PixSagaReceipt.builder()
+                .endToEndId(saga.getEndToEndId())
+                .walletId(saga.getToWalletId())
+                .outcome(outcome)
+                .createdAt(Instant.now())
+                .build());
+    }
+
+    private <T> T onSource(String shard, Supplier<T> action) {
+        return walletShards.onShard(shard, () -> inTransaction(action));
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return transactionTemplate.execute(status -> action.get());
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String abbreviate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.wallet.finance.infrastructure.schema;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Script de migração resolvido no classpath (V&lt;versão&gt;__&lt;descrição&gt;.sql).
+ */
+record SchemaMigration(int version, String description, String script, int checksum, Resource resource) {
+}
@@ -0,0 +1,323 @@
+package br.com.wallet.finance.infrastructure.schema;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Aplica as migrações versionadas do esquema na subida, antes do EntityManagerFactory.
+ *
+ * Os scripts seguem a convenção do Flyway (V&lt;versão&gt;__&lt;descrição&gt;.sql) e ficam nas
+ * locations configuradas; {vendor} é trocado pelo banco da conexão (postgresql, h2), o que permite
+ * scripts só de PostgreSQL (índices com INCLUDE, índices parciais). Cada script roda numa transação
+ * e é registrado em schema_history com o CRC32 do conteúdo.
+ *
+ * A validação na subida é só a comparação dos checksums com o histórico: nenhuma introspecção
+ * do catálogo. Script aplicado e depois alterado, ou ausente do classpath, impede a subida.
+ *
+ * Com carteiras em vários shards, cada banco tem o esquema completo e o próprio schema_history.
+ */
+public class SchemaMigrator implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    static final String HISTORY_TABLE = "schema_history";
+    static final String BASELINE_DESCRIPTION = "<< baseline >>";
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    // tabela que só existe se o esquema já foi criado (pelo antigo ddl-auto ou pela V1)
+    private static final String MARKER_TABLE = "wallets";
+    private static final long ADVISORY_LOCK_KEY = 0x77616c6c65745f73L;
+
+    private final List<DataSource> dataSources;
+    private final ResourcePatternResolver resourceResolver;
+    private final List<String> locations;
+    private final boolean baselineOnMigrate;
+
+    public SchemaMigrator(
+            DataSource dataSource,
+            ResourcePatternResolver resourceResolver,
+            List<String> locations,
+            boolean baselineOnMigrate
+    ) {
+        this(List.of(dataSource), resourceResolver, locations, baselineOnMigrate);
+    }
+
+    public SchemaMigrator(
+            Collection<? extends DataSource> dataSources,
+            ResourcePatternResolver resourceResolver,
+            List<String> locations,
+            boolean baselineOnMigrate
+    ) {
+        if (locations == null || locations.isEmpty()) {
+            throw new IllegalArgumentException("wallet.schema.locations must not be empty");
+        }
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("At least one datasource is required");
+        }
+        this.dataSources = List.copyOf(dataSources);
+        this.resourceResolver = resourceResolver;
+        this.locations = List.copyOf(locations);
+        this.baselineOnMigrate = baselineOnMigrate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        migrate();
+    }
+
+    /**
+     * Valida o histórico e aplica as migrações pendentes, em ordem.
+     *
+     * @return quantidade de scripts aplicados nesta chamada (somada entre os bancos)
+     */
+    public int migrate() {
+        int count = 0;
+        for (DataSource dataSource : dataSources) {
+            count += migrate(dataSource);
+        }
+        return count;
+    }
+
+    private int migrate(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            String vendor = DatabaseDriver.fromJdbcUrl(connection.getMetaData().getURL()).getId();
+            List<SchemaMigration> resolved = resolve(vendor);
+
+            // várias instâncias subindo juntas: só uma migra, as outras esperam e só validam
+            boolean postgres = DatabaseDriver.POSTGRESQL.getId().equals(vendor);
+            if (postgres) {
+                advisoryLock(connection, "select pg_advisory_lock(?)");
+            }
+            try {
+                return migrate(connection, vendor, resolved);
+            } finally {
+                if (postgres) {
+                    advisoryLock(connection, "select pg_advisory_unlock(?)");
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Schema migration failed", e);
+        }
+    }
+
+    private int migrate(Connection connection, String vendor, List<SchemaMigration> resolved) throws SQLException {
+        connection.setAutoCommit(true);
+        if (!tableExists(connection, HISTORY_TABLE)) {
+            createHistory(connection);
+        }
+
+        Map<Integer, Integer> applied = applied(connection);
+        validate(resolved, applied);
+
+        int current = applied.keySet().stream().max(Integer::compare).orElse(0);
+        int count = 0;
+        for (SchemaMigration migration : resolved) {
+            if (applied.containsKey(migration.version())) {
+                continue;
+            }
+            if (migration.version() < current) {
+                throw new IllegalStateException("Migration V" + migration.version()
+                        + " is older than the current schema version V" + current);
+            }
+            apply(connection, migration);
+            current = migration.version();
+            count++;
+        }
+
+        log.info("schema_migration_finished vendor={} version={} applied={}", vendor, current, count);
+        return count;
+    }
+
+    List<SchemaMigration> resolve(String vendor) {
+        Map<Integer, SchemaMigration> byVersion = new TreeMap<>();
+        for (String location : locations) {
+            String root = location.replace("{vendor}", vendor);
+            // location de outro banco (ex.: sem scripts específicos do H2) simplesmente não existe
+            if (!resourceResolver.getResource(root).exists()) {
+                continue;
+            }
+            String pattern = root + "/V*__*.sql";
+            Resource[] resources;
+            try {
+                resources = resourceResolver.getResources(pattern);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read migrations from " + pattern, e);
+            }
+            for (Resource resource : resources) {
+                SchemaMigration migration = read(resource);
+                SchemaMigration duplicate = byVersion.putIfAbsent(migration.version(), migration);
+                if (duplicate != null) {
+                    throw new IllegalStateException("Duplicate migration version V" + migration.version()
+                            + ": " + duplicate.script() + " and " + migration.script());
+                }
+            }
+        }
+        List<SchemaMigration> ordered = new ArrayList<>(byVersion.values());
+        ordered.sort(Comparator.comparingInt(SchemaMigration::version));
+        return ordered;
+    }
+
+    private static SchemaMigration read(Resource resource) {
+        String script = resource.getFilename();
+        Matcher matcher = SCRIPT_NAME.matcher(script == null ? "" : script);
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Invalid migration file name: " + script);
+        }
+        try {
+            // checksum independente de CRLF/LF: o mesmo script no Windows e no Linux
+            byte[] content = new String(resource.getContentAsByteArray(), StandardCharsets.UTF_8)
+                    .replace("\r\n", "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            return new SchemaMigration(
+                    Integer.parseInt(matcher.group(1)),
+                    matcher.group(2).replace('_', ' '),
+                    script,
+                    (int) crc.getValue(),
+                    resource
+            );
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read migration " + script, e);
+        }
+    }
+
+    private static void validate(List<SchemaMigration> resolved, Map<Integer, Integer> applied) {
+        Map<Integer, SchemaMigration> byVersion = new TreeMap<>();
+        resolved.forEach(m -> byVersion.put(m.version(), m));
+
+        applied.forEach((version, checksum) -> {
+            SchemaMigration migration = byVersion.get(version);
+            if (migration == null) {
+                throw new IllegalStateException("Applied migration V" + version + " is missing from the classpath");
+            }
+            // baseline não tem checksum: o esquema veio de fora
+            if (checksum != null && checksum != migration.checksum()) {
+                throw new IllegalStateException("Migration " + migration.script() + " was changed after being applied");
+            }
+        });
+    }
+
+    private void createHistory(Connection connection) throws SQLException {
+        boolean existingSchema = tableExists(connection, MARKER_TABLE);
+        if (existingSchema && !baselineOnMigrate) {
+            throw new IllegalStateException("Schema already has tables but no " + HISTORY_TABLE
+                    + "; enable wallet.schema.baseline-on-migrate to adopt it");
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    create table schema_history (
+                        version      integer                     not null,
+                        description  varchar(200)                not null,
+                        script       varchar(200)                not null,
+                        checksum     integer,
+                        installed_at timestamp(6) with time zone not null,
+                        execution_ms integer                     not null,
+                        primary key (version)
+                    )
+                    """);
+        }
+        if (existingSchema) {
+            // esquema criado pelo ddl-auto equivale à V1: registra sem executar
+            record(connection, 1, BASELINE_DESCRIPTION, BASELINE_DESCRIPTION, null, 0);
+            log.info("schema_migration_baseline version=1");
+        }
+    }
+
+    private static Map<Integer, Integer> applied(Connection connection) throws SQLException {
+        Map<Integer, Integer> applied = new TreeMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select version, checksum from schema_history")) {
+            while (rs.next()) {
+                int version = rs.getInt(1);
+                int checksum = rs.getInt(2);
+                applied.put(version, rs.wasNull() ? null : checksum);
+            }
+        }
+        return applied;
+    }
+
+    private static void apply(Connection connection, SchemaMigration migration) throws SQLException {
+        long start = System.nanoTime();
+        connection.setAutoCommit(false);
+        try {
+            ScriptUtils.executeSqlScript(connection, new EncodedResource(migration.resource(), StandardCharsets.UTF_8));
+            int elapsedMs = (int) ((System.nanoTime() - start) / 1_000_000);
+            record(connection, migration.version(), migration.description(), migration.script(),
+                    migration.checksum(), elapsedMs);
+            connection.commit();
+            log.info("schema_migration_applied version={} script={} elapsed_ms={}",
+                    migration.version(), migration.script(), elapsedMs);
+        } catch (RuntimeException | SQLException e) {
+            connection.rollback();
+            throw new IllegalStateException("Migration " + migration.script() + " failed", e);
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static void record(
+            Connection connection,
+            int version,
+            String description,
+            String script,
+            Integer checksum,
+            int executionMs
+    ) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("""
+                insert into schema_history (version, description, script, checksum, installed_at, execution_ms)
+                values (?, ?, ?, ?, current_timestamp, ?)
+                """)) {
+            insert.setInt(1, version);
+            insert.setString(2, description);
+            insert.setString(3, script);
+            if (checksum == null) {
+                insert.setNull(4, java.sql.Types.INTEGER);
+            } else {
+                insert.setInt(4, checksum);
+            }
+            insert.setInt(5, executionMs);
+            insert.executeUpdate();
+        }
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String name = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase() : table;
+        try (ResultSet rs = metaData.getTables(connection.getCatalog(), connection.getSchema(), name, null)) {
+            return rs.next();
+        }
+    }
+
+    private static void advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, ADVISORY_LOCK_KEY);
+            statement.execute();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.wallet.finance.infrastructure.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Anel de hash consistente: cada shard ocupa {@code virtualNodes} pontos do anel e a carteira
+ * pertence ao primeiro ponto depois do hash do seu id. Ao incluir um shard, só as carteiras que
+ * caem nos pontos novos mudam de dono (cerca de 1/N), em vez de quase todas como em hash % N.
+ *
+ * Imutável; a busca é uma pesquisa binária num array ordenado.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> shards;
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(List<String> shards, int virtualNodes) {
+        if (shards == null || shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        if (new LinkedHashSet<>(shards).size() != shards.size()) {
+            throw new IllegalArgumentException("Shard names must be unique");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        this.shards = List.copyOf(shards);
+
+        int size = shards.size() * virtualNodes;
+        long[] keys = new long[size];
+        int[] order = new int[size];
+        int i = 0;
+        for (int s = 0; s < shards.size(); s++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                keys[i] = pointHash(shards.get(s) + "#" + v);
+                order[i] = s;
+                i++;
+            }
+        }
+
+        // ordena os pontos (com seus donos) pelo valor do hash
+        Integer[] index = new Integer[size];
+        for (int k = 0; k < size; k++) {
+            index[k] = k;
+        }
+        Arrays.sort(index, (a, b) -> Long.compare(keys[a], keys[b]));
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int k = 0; k < size; k++) {
+            points[k] = keys[index[k]];
+            owners[k] = shards.get(order[index[k]]);
+        }
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    public String shardFor(UUID walletId) {
+        long hash = keyHash(walletId);
+        int position = Arrays.binarySearch(points, hash);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        // passou do último ponto: volta ao início do anel
+        return owners[position == points.length ? 0 : position];
+    }
+
+    /**
+     * O UUID da carteira já é aleatório (v4), mas os bits de versão e variante ficam fixos: a mistura
+     * (finalizador do MurmurHash3) espalha os 128 bits por todo o long.
+     */
+    static long keyHash(UUID walletId) {
+        return mix(walletId.getMostSignificantBits() ^ mix(walletId.getLeastSignificantBits()));
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static long pointHash(String name) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(name.getBytes(StandardCharsets.UTF_8));
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = (value << 8) | (digest[i] & 0xff);
+            }
+            return value;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.wallet.finance.infrastructure.sharding;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Diretório global chave Pix -> carteira (pix_key_directory), no shard do diretório. A chave
+ * primária garante a unicidade da chave entre todos os shards; pix_keys continua no shard da
+ * carteira.
+ *
+ * Sem sharding o diretório é o próprio banco e o registro entra na transação corrente. Com
+ * sharding ele é gravado à parte, e desfeito se a transação do shard da carteira não confirmar.
+ */
+@Component
+public class PixKeyDirectory {
+
+    private final WalletShards walletShards;
+    private final JdbcTemplate jdbcTemplate;
+
+    public PixKeyDirectory(WalletShards walletShards) {
+        this.walletShards = walletShards;
+        this.jdbcTemplate = new JdbcTemplate(walletShards.directoryDataSource());
+    }
+
+    /**
+     * @return false se a chave já pertence a alguma carteira
+     */
+    public boolean register(String keyValue, UUID walletId) {
+        try {
+            jdbcTemplate.update("insert into pix_key_directory (key_value, wallet_id, created_at) values (?, ?, ?)",
+                    keyValue, walletId, Timestamp.from(Instant.now()));
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+
+        if (walletShards.isSharded() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        remove(keyValue, walletId);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    public Optional<UUID> findWalletId(String keyValue) {
+        List<UUID> found = jdbcTemplate.queryForList(
+                "select wallet_id from pix_key_directory where key_value = ?", UUID.class, keyValue);
+        return found.stream().findFirst();
+    }
+
+    public void remove(String keyValue, UUID walletId) {
+        jdbcTemplate.update("delete from pix_key_directory where key_value = ? and wallet_id = ?", keyValue, walletId);
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.wallet.finance.infrastructure.sharding;
+
+/**
+ * @param scanned carteiras lidas nos shards
+ * @param moved   carteiras movidas para o dono no anel novo
+ * @param skipped carteiras que precisavam mudar mas ficaram para depois (Pix pendente, ledger arquivado)
+ */
+public record RebalanceResult(long scanned, long moved, long skipped) {
+}
@@ -0,0 +1,44 @@
+package br.com.wallet.finance.infrastructure.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard da thread corrente, lido pelo {@link ShardRoutingDataSource} quando a conexão é pedida.
+ * Precisa estar definido antes de a transação começar: a conexão fica presa à transação.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return shard da thread, ou null fora de {@link #on}
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T on(String shard, Supplier<T> action) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Sufixo para arquivos gerados por shard (snapshot, arquivo do ledger), vazio sem sharding.
+     */
+    public static String fileSuffix() {
+        String shard = CURRENT.get();
+        return shard == null ? "" : "-" + shard;
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.wallet.finance.infrastructure.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca o parâmetro que decide o shard de um caso de uso: o método inteiro (e a transação dele)
+ * roda no shard da carteira. Ver {@link WalletShardAspect}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface ShardKey {
+
+    Kind value() default Kind.WALLET_ID;
+
+    enum Kind {
+        /** UUID da carteira. */
+        WALLET_ID,
+        /** endToEndId de uma transferência Pix: roda no shard em que ela foi criada. */
+        END_TO_END_ID
+    }
+}
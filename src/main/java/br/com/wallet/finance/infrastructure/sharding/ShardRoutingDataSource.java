@@ -0,0 +1,30 @@
+package br.com.wallet.finance.infrastructure.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Entrega a conexão do shard definido em {@link ShardContext}. Sem shard definido, usa o shard do
+ * diretório (tabelas globais e operações que não são de uma carteira).
+ *
+ * Fica atrás de um LazyConnectionDataSourceProxy, como as réplicas: a conexão física só é pedida
+ * no primeiro comando da transação.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ShardRoutingDataSource(Map<String, ? extends DataSource> shards, String directoryShard) {
+        setTargetDataSources(new HashMap<>(shards));
+        setDefaultTargetDataSource(shards.get(directoryShard));
+        // shard desconhecido é erro de configuração, não motivo para cair no diretório
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
@@ -0,0 +1,189 @@
+package br.com.wallet.finance.infrastructure.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Move carteiras entre shards com a aplicação no ar.
+ *
+ * Cada carteira é movida com a linha de wallets travada (FOR UPDATE) no shard de origem: depósitos,
+ * saques e Pix da carteira esperam. As linhas são copiadas para o destino (que confirma primeiro),
+ * o diretório passa a apontar para o destino e só então a origem apaga as suas e confirma,
+ * liberando o lock. Quem esperava o lock não encontra mais a carteira, relê o diretório e repete a
+ * operação no destino ({@link WalletShards#onWallet}).
+ *
+ * Transferências Pix ficam no shard em que foram criadas. Carteiras com Pix PENDING (a liquidação
+ * ainda vai mexer nelas no shard atual) ou com dias de ledger já arquivados (os segmentos são de
+ * cada shard) não são movidas.
+ */
+public class WalletResharder {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletResharder.class);
+
+    // ordem de inserção (pais primeiro); a remoção usa a ordem inversa
+    static final List<String> WALLET_TABLES = List.of(
+            "wallets",
+            "pix_keys",
+            "ledger_entries",
+            "wallet_daily_cashflow",
+            "wallet_balance_snapshots",
+            "idempotency_keys",
+            "pix_saga_receipts"
+    );
+
+    private static final int SCAN_PAGE = 500;
+
+    private final WalletShards walletShards;
+
+    public WalletResharder(WalletShards walletShards) {
+        this.walletShards = walletShards;
+    }
+
+    /**
+     * Move as carteiras cujo dono no {@code targetRing} não é o shard em que estão hoje.
+     */
+    public RebalanceResult rebalance(ConsistentHashRing targetRing, int maxMoves) {
+        if (maxMoves < 1) {
+            throw new IllegalArgumentException("maxMoves must be positive");
+        }
+        long scanned = 0;
+        long moved = 0;
+        long skipped = 0;
+
+        for (String shard : walletShards.shards()) {
+            JdbcTemplate jdbc = new JdbcTemplate(walletShards.dataSource(shard));
+            UUID after = null;
+            List<UUID> page;
+            do {
+                // keyset pela ordem do banco (a de UUID em Java é com sinal e não coincide com a do PostgreSQL)
+                page = after == null
+                        ? jdbc.queryForList("select wallet_id from wallets order by wallet_id limit " + SCAN_PAGE, UUID.class)
+                        : jdbc.queryForList("select wallet_id from wallets where wallet_id > ? order by wallet_id limit "
+                        + SCAN_PAGE, UUID.class, after);
+                for (UUID walletId : page) {
+                    scanned++;
+                    String target = targetRing.shardFor(walletId);
+                    if (target.equals(shard)) {
+                        continue;
+                    }
+                    if (!walletShards.shardOf(walletId).equals(shard)) {
+                        // cópia que sobrou de uma movimentação interrompida: o diretório aponta para outro shard
+                        log.warn("wallet_rebalance_stale_copy walletId={} shard={} owner={}",
+                                walletId, shard, walletShards.shardOf(walletId));
+                        skipped++;
+                        continue;
+                    }
+                    if (move(walletId, target)) {
+                        moved++;
+                    } else {
+                        skipped++;
+                    }
+                    if (moved >= maxMoves) {
+                        return finish(scanned, moved, skipped);
+                    }
+                }
+                if (!page.isEmpty()) {
+                    after = page.get(page.size() - 1);
+                }
+            } while (page.size() == SCAN_PAGE);
+        }
+        return finish(scanned, moved, skipped);
+    }
+
+    /**
+     * @return true se a carteira foi movida; false se já estava no destino ou não pode ser movida agora
+     */
+    public boolean move(UUID walletId, String target) {
+        String source = walletShards.shardOf(walletId);
+        if (source.equals(target)) {
+            return false;
+        }
+        JdbcTemplate sourceJdbc = new JdbcTemplate(walletShards.dataSource(source));
+        JdbcTemplate targetJdbc = new JdbcTemplate(walletShards.dataSource(target));
+        TransactionTemplate sourceTx = new TransactionTemplate(new DataSourceTransactionManager(walletShards.dataSource(source)));
+        TransactionTemplate targetTx = new TransactionTemplate(new DataSourceTransactionManager(walletShards.dataSource(target)));
+
+        Boolean result = sourceTx.execute(status -> {
+            List<UUID> locked = sourceJdbc.queryForList(
+                    "select wallet_id from wallets where wallet_id = ? for update", UUID.class, walletId);
+            if (locked.isEmpty()) {
+                log.warn("wallet_move_skipped walletId={} shard={} reason=not_found", walletId, source);
+                return false;
+            }
+            String blocker = blocker(sourceJdbc, walletId);
+            if (blocker != null) {
+                log.info("wallet_move_skipped walletId={} shard={} reason={}", walletId, source, blocker);
+                return false;
+            }
+
+            Map<String, List<Map<String, Object>>> rows = new LinkedHashMap<>();
+            for (String table : WALLET_TABLES) {
+                rows.put(table, sourceJdbc.queryForList("select * from " + table + " where wallet_id = ?", walletId));
+            }
+            targetTx.executeWithoutResult(targetStatus -> rows.forEach((table, tableRows) -> insert(targetJdbc, table, tableRows)));
+
+            try {
+                walletShards.pin(walletId, target);
+            } catch (RuntimeException e) {
+                // a origem ainda vale: desfaz a cópia e deixa a transação da origem voltar
+                targetTx.executeWithoutResult(targetStatus -> delete(targetJdbc, walletId));
+                throw e;
+            }
+
+            delete(sourceJdbc, walletId);
+            log.info("wallet_moved walletId={} from={} to={} ledgerRows={}",
+                    walletId, source, target, rows.get("ledger_entries").size());
+            return true;
+        });
+        return Boolean.TRUE.equals(result);
+    }
+
+    private String blocker(JdbcTemplate jdbc, UUID walletId) {
+        Integer pending = jdbc.queryForObject(
+                "select count(*) from pix_transfers where status = 'PENDING' and (from_wallet_id = ? or to_wallet_id = ?)",
+                Integer.class, walletId, walletId);
+        if (pending != null && pending > 0) {
+            return "pending_pix";
+        }
+        Integer archived = jdbc.queryForObject(
+                "select count(*) from wallet_archived_balances where wallet_id = ?", Integer.class, walletId);
+        if (archived != null && archived > 0) {
+            return "archived_ledger";
+        }
+        return null;
+    }
+
+    private void insert(JdbcTemplate jdbc, String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String sql = "insert into " + table + " (" + String.join(", ", columns) + ") values ("
+                + String.join(", ", columns.stream().map(column -> "?").toList()) + ")";
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            args.add(columns.stream().map(row::get).toArray());
+        }
+        jdbc.batchUpdate(sql, args);
+    }
+
+    private void delete(JdbcTemplate jdbc, UUID walletId) {
+        for (int i = WALLET_TABLES.size() - 1; i >= 0; i--) {
+            jdbc.update("delete from " + WALLET_TABLES.get(i) + " where wallet_id = ?", walletId);
+        }
+    }
+
+    private RebalanceResult finish(long scanned, long moved, long skipped) {
+        log.info("wallet_rebalance_finished scanned={} moved={} skipped={}", scanned, moved, skipped);
+        return new RebalanceResult(scanned, moved, skipped);
+    }
+}
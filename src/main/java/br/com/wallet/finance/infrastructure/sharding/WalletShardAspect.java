@@ -0,0 +1,78 @@
+package br.com.wallet.finance.infrastructure.sharding;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.UUID;
+
+/**
+ * Define o shard antes da transação dos métodos com parâmetro {@link ShardKey}. Roda por fora do
+ * interceptor de {@code @Transactional} (ordem mais alta), então a conexão da transação já sai do
+ * shard certo. Só é registrado com wallet.sharding.enabled.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WalletShardAspect {
+
+    private final WalletShards walletShards;
+
+    public WalletShardAspect(WalletShards walletShards) {
+        this.walletShards = walletShards;
+    }
+
+    @Around("execution(* br.com.wallet.finance.application..*(.., @br.com.wallet.finance.infrastructure.sharding.ShardKey (*), ..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Method target = AopUtils.getMostSpecificMethod(method, joinPoint.getTarget().getClass());
+        Annotation[][] annotations = target.getParameterAnnotations();
+        Object[] args = joinPoint.getArgs();
+
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof ShardKey key) {
+                    return proceed(joinPoint, key.value(), args[i]);
+                }
+            }
+        }
+        return joinPoint.proceed();
+    }
+
+    private Object proceed(ProceedingJoinPoint joinPoint, ShardKey.Kind kind, Object value) throws Throwable {
+        try {
+            return switch (kind) {
+                case WALLET_ID -> value == null
+                        ? joinPoint.proceed()
+                        : walletShards.onWallet((UUID) value, () -> unchecked(joinPoint));
+                case END_TO_END_ID -> ShardContext.current() != null
+                        ? joinPoint.proceed()
+                        : walletShards.onShard(walletShards.shardOfTransfer((String) value), () -> unchecked(joinPoint));
+            };
+        } catch (CheckedException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object unchecked(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new CheckedException(e);
+        }
+    }
+
+    private static final class CheckedException extends RuntimeException {
+
+        private CheckedException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
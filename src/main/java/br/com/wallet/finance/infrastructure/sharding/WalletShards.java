@@ -0,0 +1,388 @@
+package br.com.wallet.finance.infrastructure.sharding;
+
+import br.com.wallet.finance.domain.exception.WalletNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Topologia de shards das carteiras.
+ *
+ * O dono de uma carteira é o shard do anel de hash consistente, a não ser que o rebalanceamento a
+ * tenha movido: aí vale a linha de wallet_shard_overrides no shard do diretório (o primeiro da
+ * lista). Os overrides ficam em memória; uma instância que ainda não soube de uma mudança procura
+ * a carteira no shard antigo, não acha, relê o diretório e repete a operação uma vez no shard novo.
+ *
+ * Sem sharding ({@link #single}) existe um único banco e nenhuma das operações troca de conexão.
+ */
+public class WalletShards implements SmartInitializingSingleton, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletShards.class);
+
+    public static final String SINGLE = "single";
+
+    private final boolean sharded;
+    private final Map<String, DataSource> dataSources;
+    private final String directoryShard;
+    private final ConsistentHashRing ring;
+    private final JdbcTemplate directory;
+    private final Map<UUID, String> overrides = new ConcurrentHashMap<>();
+
+    /**
+     * @param dataSources pools de cada shard, em ordem; o primeiro guarda as tabelas de diretório
+     * @param ring        anel que decide o dono das carteiras sem override (pode cobrir só parte dos shards)
+     */
+    public WalletShards(Map<String, ? extends DataSource> dataSources, ConsistentHashRing ring) {
+        this(true, dataSources, ring);
+        if (!dataSources.keySet().containsAll(ring.shards())) {
+            throw new IllegalArgumentException("Ring shards " + ring.shards() + " must be configured datasources");
+        }
+    }
+
+    private WalletShards(boolean sharded, Map<String, ? extends DataSource> dataSources, ConsistentHashRing ring) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.sharded = sharded;
+        this.dataSources = new LinkedHashMap<>(dataSources);
+        this.directoryShard = this.dataSources.keySet().iterator().next();
+        this.ring = ring;
+        this.directory = new JdbcTemplate(this.dataSources.get(directoryShard));
+    }
+
+    /**
+     * Um único banco: o diretório de chaves Pix fica nele e participa da transação corrente.
+     */
+    public static WalletShards single(DataSource dataSource) {
+        return new WalletShards(false, Map.of(SINGLE, dataSource), new ConsistentHashRing(List.of(SINGLE), 1));
+    }
+
+    /**
+     * Carrega os overrides depois das migrações (wallet_shard_overrides é criada por elas).
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (sharded) {
+            reloadOverrides();
+        }
+    }
+
+    /**
+     * Fecha os pools dos shards; o banco único é do Spring Boot e não é fechado aqui.
+     */
+    @Override
+    public void close() throws Exception {
+        if (!sharded) {
+            return;
+        }
+        for (DataSource dataSource : dataSources.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    public boolean isSharded() {
+        return sharded;
+    }
+
+    public List<String> shards() {
+        return List.copyOf(dataSources.keySet());
+    }
+
+    public Map<String, DataSource> dataSources() {
+        return dataSources;
+    }
+
+    public DataSource dataSource(String shard) {
+        DataSource dataSource = dataSources.get(shard);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard: " + shard);
+        }
+        return dataSource;
+    }
+
+    public String directoryShard() {
+        return directoryShard;
+    }
+
+    public DataSource directoryDataSource() {
+        return dataSources.get(directoryShard);
+    }
+
+    public ConsistentHashRing ring() {
+        return ring;
+    }
+
+    public String shardOf(UUID walletId) {
+        if (!sharded) {
+            return SINGLE;
+        }
+        String moved = overrides.get(walletId);
+        return moved != null ? moved : ring.shardFor(walletId);
+    }
+
+    /**
+     * A carteira é do shard em que a operação corrente está (sempre, sem sharding)?
+     */
+    public boolean isLocal(UUID walletId) {
+        return !sharded || shardOf(walletId).equals(ShardContext.current());
+    }
+
+    /**
+     * Executa a ação no shard da carteira. Se ela falhar e o diretório disser que a carteira mudou
+     * de shard nesse meio tempo, repete uma vez no shard novo (a transação no antigo já voltou).
+     */
+    public <T> T onWallet(UUID walletId, Supplier<T> action) {
+        if (!sharded) {
+            return action.get();
+        }
+        String shard = shardOf(walletId);
+        String active = ShardContext.current();
+        if (active != null) {
+            if (!active.equals(shard)) {
+                throw new IllegalStateException("Wallet " + walletId + " belongs to shard " + shard
+                        + " but the current operation runs on " + active);
+            }
+            return action.get();
+        }
+
+        try {
+            return ShardContext.on(shard, action);
+        } catch (RuntimeException e) {
+            if (!isWalletNotFound(e)) {
+                throw e;
+            }
+            String current;
+            try {
+                current = reloadOverride(walletId);
+            } catch (RuntimeException reload) {
+                // o diretório fora do ar não pode esconder a falha original
+                e.addSuppressed(reload);
+                throw e;
+            }
+            if (current.equals(shard)) {
+                throw e;
+            }
+            log.info("wallet_shard_moved_retry walletId={} from={} to={}", walletId, shard, current);
+            return ShardContext.on(current, action);
+        }
+    }
+
+    /**
+     * Só "carteira não encontrada" indica um override que esta instância ainda não conhece; saldo
+     * insuficiente, conflito de versão ou banco fora do ar não mudam de resposta em outro shard.
+     */
+    private static boolean isWalletNotFound(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WalletNotFoundException
+                    || (cause instanceof IllegalArgumentException && "Wallet not found".equals(cause.getMessage()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public <T> T onShard(String shard, Supplier<T> action) {
+        if (!sharded) {
+            return action.get();
+        }
+        dataSource(shard);
+        return ShardContext.on(shard, action);
+    }
+
+    /**
+     * Roda a ação uma vez por shard (jobs de manutenção); sem sharding, roda uma vez.
+     */
+    public void forEachShard(Runnable action) {
+        if (!sharded) {
+            action.run();
+            return;
+        }
+        for (String shard : dataSources.keySet()) {
+            ShardContext.on(shard, () -> {
+                action.run();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Agrupa as carteiras pelo shard dono, preservando a ordem recebida dentro de cada grupo.
+     */
+    public Map<String, Set<UUID>> partition(Collection<UUID> walletIds) {
+        Map<String, Set<UUID>> groups = new LinkedHashMap<>();
+        for (UUID walletId : walletIds) {
+            groups.computeIfAbsent(shardOf(walletId), shard -> new LinkedHashSet<>()).add(walletId);
+        }
+        return groups;
+    }
+
+    /**
+     * Relê do diretório o shard das carteiras que não foram encontradas onde se esperava.
+     *
+     * @return carteiras que mudaram de shard
+     */
+    public Set<UUID> reloadOverrides(Collection<UUID> walletIds) {
+        if (!sharded) {
+            return Set.of();
+        }
+        Set<UUID> moved = new HashSet<>();
+        for (UUID walletId : walletIds) {
+            String before = shardOf(walletId);
+            if (!reloadOverride(walletId).equals(before)) {
+                moved.add(walletId);
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Shard em que a transferência foi criada; sem sharding (ou se nenhum shard a tem), o do diretório.
+     *
+     * Uma leitura em pix_transfer_directory. Transferências criadas antes do diretório são
+     * procuradas nos shards (tabela quente em todos antes do histórico) e registradas no achado.
+     */
+    public String shardOfTransfer(String endToEndId) {
+        if (!sharded || endToEndId == null) {
+            return directoryShard;
+        }
+        List<String> registered = directory.queryForList(
+                "select shard from pix_transfer_directory where end_to_end_id = ?", String.class, endToEndId);
+        if (!registered.isEmpty()) {
+            return registered.get(0);
+        }
+
+        String found = findTransfer("pix_transfers", endToEndId);
+        if (found == null) {
+            found = findTransfer("pix_transfers_history", endToEndId);
+        }
+        if (found == null) {
+            return directoryShard;
+        }
+        log.info("pix_transfer_directory_backfilled endToEndId={} shard={}", endToEndId, found);
+        try {
+            insertTransfer(endToEndId, found);
+        } catch (DuplicateKeyException e) {
+            // outra instância registrou primeiro; o shard é o mesmo
+        }
+        return found;
+    }
+
+    /**
+     * Registra no diretório que a transferência é criada no shard da operação corrente. Sem
+     * sharding não faz nada; com sharding, é desfeito se a transação do shard não confirmar.
+     */
+    public void registerTransfer(String endToEndId) {
+        if (!sharded) {
+            return;
+        }
+        String shard = ShardContext.current();
+        if (shard == null) {
+            throw new IllegalStateException("Transfer " + endToEndId + " must be created inside a shard operation");
+        }
+        insertTransfer(endToEndId, shard);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        directory.update("delete from pix_transfer_directory where end_to_end_id = ? and shard = ?",
+                                endToEndId, shard);
+                    }
+                }
+            });
+        }
+    }
+
+    private void insertTransfer(String endToEndId, String shard) {
+        directory.update("insert into pix_transfer_directory (end_to_end_id, shard, created_at) values (?, ?, ?)",
+                endToEndId, shard, Timestamp.from(Instant.now()));
+    }
+
+    private String findTransfer(String table, String endToEndId) {
+        for (Map.Entry<String, DataSource> shard : dataSources.entrySet()) {
+            List<Integer> found = new JdbcTemplate(shard.getValue()).queryForList(
+                    "select 1 from " + table + " where end_to_end_id = ?", Integer.class, endToEndId);
+            if (!found.isEmpty()) {
+                return shard.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Registra no diretório que a carteira passa a morar em {@code shard}. Quando o shard é o próprio
+     * dono pelo anel, o override é só removido.
+     */
+    public void pin(UUID walletId, String shard) {
+        dataSource(shard);
+        directory.update("delete from wallet_shard_overrides where wallet_id = ?", walletId);
+        if (shard.equals(ring.shardFor(walletId))) {
+            overrides.remove(walletId);
+            return;
+        }
+        directory.update("insert into wallet_shard_overrides (wallet_id, shard, moved_at) values (?, ?, ?)",
+                walletId, shard, Timestamp.from(Instant.now()));
+        overrides.put(walletId, shard);
+    }
+
+    public void reloadOverrides() {
+        Map<UUID, String> loaded = new ConcurrentHashMap<>();
+        directory.query("select wallet_id, shard from wallet_shard_overrides",
+                (RowCallbackHandler) rs -> loaded.put(rs.getObject("wallet_id", UUID.class), rs.getString("shard")));
+        overrides.keySet().retainAll(loaded.keySet());
+        overrides.putAll(loaded);
+        log.info("wallet_shard_overrides_loaded count={}", loaded.size());
+    }
+
+    /**
+     * Remove do diretório os overrides que hoje coincidem com o anel (depois de trocar o anel
+     * configurado pelo usado no rebalanceamento).
+     *
+     * @return overrides removidos
+     */
+    public int compactOverrides() {
+        int removed = 0;
+        for (Map.Entry<UUID, String> entry : List.copyOf(overrides.entrySet())) {
+            if (entry.getValue().equals(ring.shardFor(entry.getKey()))) {
+                directory.update("delete from wallet_shard_overrides where wallet_id = ? and shard = ?",
+                        entry.getKey(), entry.getValue());
+                overrides.remove(entry.getKey());
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private String reloadOverride(UUID walletId) {
+        List<String> found = directory.queryForList(
+                "select shard from wallet_shard_overrides where wallet_id = ?", String.class, walletId);
+        if (found.isEmpty()) {
+            overrides.remove(walletId);
+        } else {
+            overrides.put(walletId, found.get(0));
+        }
+        return shardOf(walletId);
+    }
+}
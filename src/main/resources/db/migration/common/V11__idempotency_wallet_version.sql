@@ -0,0 +1,3 @@
+-- versão da carteira depois do depósito ou saque, devolvida de novo no replay (X-Wallet-Version).
+-- Chaves gravadas antes desta coluna ficam sem versão e o replay responde sem o header.
+alter table idempotency_keys add column wallet_version bigint;
@@ -0,0 +1,9 @@
+-- Diretório global transferência -> shard em que foi criada, só usado no primeiro shard da lista.
+-- O webhook do PSP traz apenas o endToEndId: uma leitura pela chave primária aqui substitui a
+-- procura em todos os shards. Transferências anteriores entram na primeira vez que são procuradas.
+create table pix_transfer_directory (
+    end_to_end_id varchar(64)                 not null,
+    shard         varchar(64)                 not null,
+    created_at    timestamp(6) with time zone not null,
+    primary key (end_to_end_id)
+);
@@ -0,0 +1,70 @@
+-- Esquema inicial: só as tabelas que o ddl-auto já criava antes das migrações. Roda em PostgreSQL e H2.
+-- Bancos já existentes recebem só o registro de baseline (wallet.schema.baseline-on-migrate), então
+-- tabelas novas vão sempre em scripts posteriores, nunca aqui.
+
+create table wallets (
+    wallet_id       uuid                        not null,
+    owner_name      varchar(120)                not null,
+    current_balance numeric(19, 2)              not null,
+    created_at      timestamp(6) with time zone not null,
+    version         bigint                      not null,
+    primary key (wallet_id)
+);
+
+create table pix_keys (
+    pix_key_id uuid                        not null,
+    wallet_id  uuid                        not null,
+    key_type   varchar(20)                 not null,
+    key_value  varchar(140)                not null,
+    created_at timestamp(6) with time zone not null,
+    primary key (pix_key_id),
+    constraint uk_pix_key_value unique (key_value),
+    constraint fk_pix_key_wallet foreign key (wallet_id) references wallets (wallet_id)
+);
+
+create table ledger_entries (
+    ledger_entry_id uuid                        not null,
+    wallet_id       uuid                        not null,
+    entry_type      varchar(20)                 not null check (entry_type in ('DEBIT', 'CREDIT')),
+    amount          numeric(19, 2)              not null,
+    end_to_end_id   varchar(64),
+    description     varchar(120),
+    occurred_at     timestamp(6) with time zone not null,
+    primary key (ledger_entry_id),
+    constraint fk_ledger_wallet foreign key (wallet_id) references wallets (wallet_id)
+);
+
+create index idx_ledger_wallet_time on ledger_entries (wallet_id, occurred_at);
+create index idx_ledger_endtoend on ledger_entries (end_to_end_id);
+
+create table pix_transfers (
+    pix_transfer_id uuid                        not null,
+    from_wallet_id  uuid                        not null,
+    to_wallet_id    uuid,
+    to_pix_key      varchar(140)                not null,
+    amount          numeric(19, 2)              not null,
+    status          varchar(20)                 not null check (status in ('PENDING', 'CONFIRMED', 'REJECTED')),
+    end_to_end_id   varchar(64)                 not null,
+    idempotency_key varchar(64)                 not null,
+    created_at      timestamp(6) with time zone not null,
+    updated_at      timestamp(6) with time zone not null,
+    version         bigint                      not null,
+    primary key (pix_transfer_id),
+    constraint uk_transfer_fromwallet_idem unique (from_wallet_id, idempotency_key),
+    constraint uk_transfer_endtoend unique (end_to_end_id),
+    constraint fk_transfer_from_wallet foreign key (from_wallet_id) references wallets (wallet_id),
+    constraint fk_transfer_to_wallet foreign key (to_wallet_id) references wallets (wallet_id)
+);
+
+create table webhook_events (
+    webhook_event_pk uuid                        not null,
+    event_id         varchar(64)                 not null,
+    end_to_end_id    varchar(64)                 not null,
+    event_type       varchar(20)                 not null,
+    occurred_at      timestamp(6) with time zone not null,
+    processed_at     timestamp(6) with time zone not null,
+    primary key (webhook_event_pk),
+    constraint uk_webhook_event_id unique (event_id)
+);
+
+create index idx_webhook_endtoend on webhook_events (end_to_end_id);
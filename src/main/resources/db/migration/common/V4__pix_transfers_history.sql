@@ -0,0 +1,22 @@
+-- Transferências liquidadas saem de pix_transfers depois de wallet.pix.retirement.retain-days
+-- e ficam aqui; as buscas por idempotência e endToEndId só chegam a esta tabela quando a quente
+-- não encontra nada.
+create table pix_transfers_history (
+    pix_transfer_id uuid                        not null,
+    from_wallet_id  uuid                        not null,
+    to_wallet_id    uuid,
+    to_pix_key      varchar(140)                not null,
+    amount          numeric(19, 2)              not null,
+    status          varchar(20)                 not null check (status in ('PENDING', 'CONFIRMED', 'REJECTED')),
+    end_to_end_id   varchar(64)                 not null,
+    idempotency_key varchar(64)                 not null,
+    created_at      timestamp(6) with time zone not null,
+    updated_at      timestamp(6) with time zone not null,
+    version         bigint                      not null,
+    retired_at      timestamp(6) with time zone not null,
+    primary key (pix_transfer_id),
+    constraint uk_transfer_history_fromwallet_idem unique (from_wallet_id, idempotency_key),
+    constraint uk_transfer_history_endtoend unique (end_to_end_id)
+);
+
+-- o índice da varredura do job de aposentadoria é parcial e só existe no PostgreSQL (postgresql/V10)
@@ -0,0 +1,6 @@
+-- webhook_events passa a guardar só a janela de deduplicação (wallet.webhook.dedupe-window).
+-- Nenhuma consulta usa end_to_end_id nesta tabela: o índice só pesava nas inserções. O expurgo
+-- varre por processed_at.
+drop index idx_webhook_endtoend;
+
+create index idx_webhook_processed on webhook_events (processed_at);
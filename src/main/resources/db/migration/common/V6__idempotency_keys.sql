@@ -0,0 +1,14 @@
+-- Chaves de idempotência atendidas, com validade. key_hash são os 128 primeiros bits do SHA-256 de
+-- (escopo, carteira, chave) numa coluna uuid: índice primário de largura fixa, sem a chave original.
+create table idempotency_keys (
+    key_hash    uuid                        not null,
+    scope       smallint                    not null,
+    resource_id uuid                        not null,
+    reference   varchar(64),
+    created_at  timestamp(6) with time zone not null,
+    expires_at  timestamp(6) with time zone not null,
+    primary key (key_hash)
+);
+
+-- expurgo das chaves vencidas
+create index idx_idempotency_expires on idempotency_keys (expires_at);
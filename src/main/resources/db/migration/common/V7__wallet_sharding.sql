@@ -0,0 +1,33 @@
+-- Suporte a carteiras distribuídas em shards (wallet.sharding). Todos os bancos recebem o mesmo
+-- esquema; as tabelas de diretório só são usadas no primeiro shard da lista.
+
+-- diretório global de chaves Pix: chave -> carteira, único entre todos os shards
+create table pix_key_directory (
+    key_value  varchar(140)                not null,
+    wallet_id  uuid                        not null,
+    created_at timestamp(6) with time zone not null,
+    primary key (key_value)
+);
+
+insert into pix_key_directory (key_value, wallet_id, created_at)
+select key_value, wallet_id, created_at from pix_keys;
+
+-- carteiras movidas pelo rebalanceamento para fora do shard do anel de hash
+create table wallet_shard_overrides (
+    wallet_id uuid                        not null,
+    shard     varchar(64)                 not null,
+    moved_at  timestamp(6) with time zone not null,
+    primary key (wallet_id)
+);
+
+-- a chave de idempotência acompanha a carteira quando ela muda de shard
+alter table idempotency_keys add column wallet_id uuid;
+create index idx_idempotency_wallet on idempotency_keys (wallet_id);
+
+-- transferências ficam no shard em que foram criadas; a carteira pode ter saído dele.
+-- Bancos criados pela V1 têm os nomes dela; bancos adotados (baseline sobre o antigo ddl-auto)
+-- têm os que o Hibernate gera, hash fixo de (tabela, tabela referenciada, coluna).
+alter table pix_transfers drop constraint if exists fk_transfer_from_wallet;
+alter table pix_transfers drop constraint if exists fk_transfer_to_wallet;
+alter table pix_transfers drop constraint if exists FKlcoqwgcylkcucenmmhmip6eja;
+alter table pix_transfers drop constraint if exists FK8eorvy7esddaoehuyufvbr337;
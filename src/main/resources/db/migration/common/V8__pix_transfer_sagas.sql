@@ -0,0 +1,33 @@
+-- Pix entre carteiras de shards diferentes: o débito e a transferência ficam no shard de origem,
+-- o crédito é aplicado no shard de destino por uma saga com estado durável.
+
+-- estado da saga, no shard da transferência (origem)
+create table pix_transfer_sagas (
+    end_to_end_id   varchar(64)                 not null,
+    from_wallet_id  uuid                        not null,
+    to_wallet_id    uuid                        not null,
+    amount          numeric(19, 2)              not null,
+    state           varchar(20)                 not null check (state in ('CREDITING', 'COMPENSATING', 'COMPLETED', 'COMPENSATED')),
+    attempts        integer                     not null,
+    next_attempt_at timestamp(6) with time zone not null,
+    last_error      varchar(200),
+    created_at      timestamp(6) with time zone not null,
+    updated_at      timestamp(6) with time zone not null,
+    version         bigint                      not null,
+    primary key (end_to_end_id)
+);
+
+-- varredura de recuperação: sagas em andamento com tentativa vencida
+create index idx_saga_state_next_attempt on pix_transfer_sagas (state, next_attempt_at);
+
+-- recibo do passo de crédito, no shard da carteira de destino (acompanha a carteira no rebalanceamento).
+-- CREDITED: crédito aplicado; VOIDED: a compensação fechou a porta antes do crédito
+create table pix_saga_receipts (
+    end_to_end_id varchar(64)                 not null,
+    wallet_id     uuid                        not null,
+    outcome       varchar(20)                 not null check (outcome in ('CREDITED', 'VOIDED')),
+    created_at    timestamp(6) with time zone not null,
+    primary key (end_to_end_id)
+);
+
+create index idx_saga_receipt_wallet on pix_saga_receipts (wallet_id);
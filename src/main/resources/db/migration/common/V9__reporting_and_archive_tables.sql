@@ -0,0 +1,71 @@
+-- Tabelas de fluxo de caixa, snapshot, reconciliação e ledger frio. Ficam fora da V1 porque um banco
+-- adotado por baseline não roda a V1. "if not exists": bancos que passaram por ddl-auto update com
+-- essas entidades já podem tê-las.
+
+create index if not exists idx_ledger_occurred_at on ledger_entries (occurred_at);
+
+create table if not exists wallet_daily_cashflow (
+    cashflow_id     uuid                        not null,
+    wallet_id       uuid                        not null,
+    business_date   date                        not null,
+    total_credits   numeric(19, 2)              not null,
+    total_debits    numeric(19, 2)              not null,
+    closing_balance numeric(19, 2)              not null,
+    updated_at      timestamp(6) with time zone not null,
+    primary key (cashflow_id),
+    constraint uk_cashflow_wallet_date unique (wallet_id, business_date)
+);
+
+create table if not exists wallet_balance_snapshots (
+    snapshot_date date                        not null,
+    wallet_id     uuid                        not null,
+    balance       numeric(19, 2)              not null,
+    created_at    timestamp(6) with time zone not null,
+    primary key (snapshot_date, wallet_id)
+);
+
+create index if not exists idx_snapshot_wallet_date on wallet_balance_snapshots (wallet_id, snapshot_date);
+
+create table if not exists balance_snapshot_checkpoints (
+    checkpoint_id   uuid                        not null,
+    snapshot_date   date                        not null,
+    partition_index integer                     not null,
+    partition_count integer                     not null,
+    wallet_count    integer                     not null,
+    completed_at    timestamp(6) with time zone not null,
+    primary key (checkpoint_id),
+    constraint uk_snapshot_checkpoint_partition unique (snapshot_date, partition_index)
+);
+
+create table if not exists reconciliation_runs (
+    run_id         uuid                        not null,
+    full_pass      boolean                     not null,
+    since          timestamp(6) with time zone,
+    watermark      timestamp(6) with time zone not null,
+    drift_count    integer                     not null,
+    repaired_count integer                     not null,
+    started_at     timestamp(6) with time zone not null,
+    finished_at    timestamp(6) with time zone not null,
+    primary key (run_id)
+);
+
+create index if not exists idx_reconciliation_watermark on reconciliation_runs (watermark);
+
+create table if not exists ledger_archive_segments (
+    segment_id    uuid                        not null,
+    business_date date                        not null,
+    file_name     varchar(200)                not null,
+    row_count     bigint                      not null,
+    wallet_count  integer                     not null,
+    size_bytes    bigint                      not null,
+    archived_at   timestamp(6) with time zone not null,
+    primary key (segment_id),
+    constraint uk_archive_segment_date unique (business_date)
+);
+
+create table if not exists wallet_archived_balances (
+    wallet_id      uuid                        not null,
+    amount         numeric(19, 2)              not null,
+    archived_until timestamp(6) with time zone not null,
+    primary key (wallet_id)
+);
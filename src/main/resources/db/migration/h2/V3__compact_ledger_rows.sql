@@ -0,0 +1,38 @@
+-- Mesma linha compacta da V3 do PostgreSQL (ver db/migration/postgresql). O H2 não tem
+-- ALTER ... TYPE ... USING: colunas novas, cópia e troca. end_to_end_id existente é empacotado como
+-- no PostgreSQL: UUID em minúsculas vira 0x01 + 16 bytes, o resto texto (0x00).
+
+alter table ledger_entries add column reason_code smallint;
+alter table ledger_entries add column entry_type_code smallint;
+alter table ledger_entries add column end_to_end_bin varbinary(65);
+
+update ledger_entries
+   set reason_code = case
+           when description = 'PIX OUT PENDING' then 3
+           when description = 'PIX IN CONFIRMED' then 4
+           when description = 'PIX REFUND REJECTED' then 5
+           when entry_type = 'CREDIT' then 1
+           else 2
+       end,
+       entry_type_code = case entry_type when 'CREDIT' then 1 else 2 end,
+       end_to_end_bin = case
+           when end_to_end_id is null then null
+           when regexp_like(end_to_end_id, '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$', 'c')
+               then X'01' || cast(cast(end_to_end_id as uuid) as varbinary)
+           else X'00' || cast(end_to_end_id as varbinary)
+       end,
+       description = case
+           when description in ('DEPOSIT', 'WITHDRAW', 'PIX OUT PENDING', 'PIX IN CONFIRMED',
+                                'PIX REFUND REJECTED') then null
+           else description
+       end;
+
+drop index idx_ledger_endtoend;
+alter table ledger_entries drop column entry_type;
+alter table ledger_entries drop column end_to_end_id;
+alter table ledger_entries alter column entry_type_code rename to entry_type;
+alter table ledger_entries alter column end_to_end_bin rename to end_to_end_id;
+alter table ledger_entries alter column entry_type set not null;
+alter table ledger_entries alter column reason_code set not null;
+alter table ledger_entries add constraint ck_ledger_entry_type check (entry_type in (1, 2));
+create index idx_ledger_endtoend on ledger_entries (end_to_end_id);
@@ -0,0 +1,7 @@
+-- Varredura do job de aposentadoria (findSettledIdsBefore): só as linhas CONFIRMED/REJECTED entram
+-- no índice, na ordem da consulta. Criação e atualizações de transferências PENDING não tocam nele
+-- (elas têm o próprio índice parcial, V2); a liquidação insere a linha uma única vez. Sem CONCURRENTLY: em bancos populados, aplicar na janela de
+-- manutenção.
+drop index if exists idx_pix_transfer_updated;
+create index idx_pix_transfer_settled on pix_transfers (updated_at, pix_transfer_id)
+    where status in ('CONFIRMED', 'REJECTED');
@@ -0,0 +1,12 @@
+-- Índices que só existem no PostgreSQL. Sem CONCURRENTLY (a migração roda numa transação):
+-- em bancos já populados, aplicar na janela de manutenção.
+--
+-- idx_ledger_wallet_time passa a carregar entry_type e amount: as somas de saldo histórico
+-- (por carteira e até um instante) viram index-only scan, sem visitar o heap de ledger_entries.
+-- Em ledger_entries particionada o índice é criado em cada partição automaticamente.
+drop index if exists idx_ledger_wallet_time;
+create index idx_ledger_wallet_time on ledger_entries (wallet_id, occurred_at) include (entry_type, amount);
+
+-- Só as transferências PENDING (fração pequena e transitória da tabela) entram no índice:
+-- busca de pendentes antigas sem indexar o histórico de CONFIRMED/REJECTED.
+create index idx_pix_transfer_pending on pix_transfers (created_at) where status = 'PENDING';
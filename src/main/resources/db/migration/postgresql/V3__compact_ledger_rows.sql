@@ -0,0 +1,42 @@
+-- Linha compacta em ledger_entries:
+--   entry_type     varchar -> smallint (1 = CREDIT, 2 = DEBIT)
+--   reason_code    novo smallint com o motivo de sistema (1 DEPOSIT, 2 WITHDRAW, 3 PIX OUT PENDING,
+--                  4 PIX IN CONFIRMED, 5 PIX REFUND REJECTED)
+--   description    só o texto informado pelo usuário (os textos padrão viram null)
+--   end_to_end_id  varchar -> bytea com 1 byte de tipo (0x01 + 16 bytes para UUID, 0x00 + UTF-8 para
+--                  o resto); ids no layout BACEN gravados pela aplicação usam 0x02 (EndToEndIdConverter)
+--
+-- O UPDATE do reason_code deixa versões mortas; o ALTER ... TYPE logo depois reescreve a tabela
+-- (e os índices) uma única vez, já sem elas. Rodar em janela de manutenção em bases grandes.
+
+alter table ledger_entries add column reason_code smallint;
+
+update ledger_entries
+   set reason_code = case
+           when description = 'PIX OUT PENDING' then 3
+           when description = 'PIX IN CONFIRMED' then 4
+           when description = 'PIX REFUND REJECTED' then 5
+           when entry_type = 'CREDIT' then 1
+           else 2
+       end;
+
+alter table ledger_entries drop constraint if exists ledger_entries_entry_type_check;
+
+alter table ledger_entries
+    alter column entry_type type smallint
+        using (case entry_type when 'CREDIT' then 1 else 2 end),
+    alter column description type varchar(120)
+        using (case
+                   when description in ('DEPOSIT', 'WITHDRAW', 'PIX OUT PENDING', 'PIX IN CONFIRMED',
+                                        'PIX REFUND REJECTED') then null
+                   else description
+               end),
+    alter column end_to_end_id type bytea
+        using (case
+                   when end_to_end_id is null then null
+                   when end_to_end_id ~ '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$'
+                       then decode('01' || replace(end_to_end_id, '-', ''), 'hex')
+                   else decode('00', 'hex') || convert_to(end_to_end_id, 'UTF8')
+               end),
+    alter column reason_code set not null,
+    add constraint ck_ledger_entry_type check (entry_type in (1, 2));
@@ -0,0 +1,55 @@
+-- Converte ledger_entries em tabela particionada por mês (RANGE em occurred_at).
+-- Pressupõe o esquema já na migração V3 (linha compacta).
+--
+-- Os dados existentes viram uma única partição (ledger_entries_legacy) que cobre tudo até o
+-- início do mês corrente; a partir dele as partições mensais são criadas pelo
+-- LedgerPartitionManager (wallet.ledger.partitioning.enabled=true).
+--
+-- Passo 1 (fora de transação): índice único exigido pela PK da tabela particionada.
+-- Criado antes, com CONCURRENTLY, para o ATTACH não precisar construí-lo com a tabela travada.
+create unique index concurrently if not exists ledger_entries_legacy_pk
+    on ledger_entries (ledger_entry_id, occurred_at);
+
+-- Passo 2 (numa transação, em janela de manutenção curta):
+begin;
+
+alter table ledger_entries rename to ledger_entries_legacy;
+alter index idx_ledger_wallet_time rename to idx_ledger_legacy_wallet_time;
+alter index idx_ledger_endtoend rename to idx_ledger_legacy_endtoend;
+alter index if exists idx_ledger_occurred_at rename to idx_ledger_legacy_occurred_at;
+
+-- a PK de uma tabela particionada precisa incluir a chave de partição
+create table ledger_entries (
+    ledger_entry_id uuid                        not null,
+    wallet_id       uuid                        not null references wallets (wallet_id),
+    entry_type      smallint                    not null constraint ck_ledger_entry_type check (entry_type in (1, 2)),
+    amount          numeric(19, 2)              not null,
+    end_to_end_id   bytea,
+    reason_code     smallint                    not null,
+    description     varchar(120),
+    occurred_at     timestamp(6) with time zone not null,
+    primary key (ledger_entry_id, occurred_at)
+) partition by range (occurred_at);
+
+-- mesma definição da migração V2 (índice de cobertura para as somas de saldo)
+create index idx_ledger_wallet_time on ledger_entries (wallet_id, occurred_at) include (entry_type, amount);
+create index idx_ledger_endtoend on ledger_entries (end_to_end_id);
+create index idx_ledger_occurred_at on ledger_entries (occurred_at);
+
+-- sem partição DEFAULT: ela impediria o DETACH ... CONCURRENTLY das partições antigas
+do $$
+declare
+    month_start date := date_trunc('month', now() at time zone 'UTC')::date;
+begin
+    -- a CHECK validada evita que o ATTACH varra a tabela antiga com lock exclusivo
+    execute format('alter table ledger_entries_legacy add constraint ledger_entries_legacy_bound '
+                   'check (occurred_at < %L) not valid', month_start);
+    execute 'alter table ledger_entries_legacy validate constraint ledger_entries_legacy_bound';
+    execute format('alter table ledger_entries attach partition ledger_entries_legacy '
+                   'for values from (minvalue) to (%L)', month_start);
+    execute format('create table ledger_entries_p%s partition of ledger_entries for values from (%L) to (%L)',
+                   to_char(month_start, 'YYYYMM'), month_start, (month_start + interval '1 month')::date);
+end
+$$;
+
+commit;
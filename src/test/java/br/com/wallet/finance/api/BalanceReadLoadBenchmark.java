@@ -0,0 +1,105 @@
+package br.com.wallet.finance.api;
+
+import br.com.wallet.finance.application.usecase.CreateWalletUseCase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * GET /wallets/{id}/balance (thread do Tomcat presa durante a consulta) x GET /wallets/{id}/balance/async
+ * (requisição em espera, pool pequeno de leitura e polls idênticos coalescidos) sob muitos clientes
+ * simultâneos consultando poucas carteiras. Bulkhead e limitador ficam desligados para comparar só o
+ * modelo de execução:
+ * <pre>mvn test -Dtest=BalanceReadLoadBenchmark -Dbenchmark=true [-Dbenchmark.requests=20000]
+ *     [-Dbenchmark.concurrency=1000] [-Dbenchmark.wallets=50]</pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "wallet.bulkhead.enabled=false",
+        "wallet.limiter.enabled=false"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BalanceReadLoadBenchmark {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CreateWalletUseCase createWalletUseCase;
+
+    @Test
+    void blockingVersusAsyncBalanceReads() {
+        int requests = Integer.getInteger("benchmark.requests", 20_000);
+        int concurrency = Integer.getInteger("benchmark.concurrency", 1000);
+        int walletCount = Integer.getInteger("benchmark.wallets", 50);
+
+        List<UUID> wallets = new ArrayList<>(walletCount);
+        for (int i = 0; i < walletCount; i++) {
+            wallets.add(createWalletUseCase.execute("benchmark-" + i).getId());
+        }
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+        // aquecimento dos dois modos antes das rodadas medidas
+        List<String> paths = List.of("/balance", "/balance/async");
+        paths.forEach(path -> run(client, path, wallets, requests / 4, concurrency, false));
+        paths.forEach(path -> run(client, path, wallets, requests, concurrency, true));
+    }
+
+    private void run(HttpClient client, String path, List<UUID> wallets, int requests, int concurrency, boolean report) {
+        long[] latencies = new long[requests];
+        AtomicInteger failures = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[requests];
+        Semaphore inFlight = new Semaphore(concurrency);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquireUninterruptibly();
+            int index = i;
+            UUID walletId = wallets.get(i % wallets.size());
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/wallets/" + walletId + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            long submitted = System.nanoTime();
+            futures[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        if (error != null || response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                        latencies[index] = System.nanoTime() - submitted;
+                        inFlight.release();
+                        return null;
+                    });
+        }
+        CompletableFuture.allOf(futures).join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (!report) {
+            return;
+        }
+
+        Arrays.sort(latencies);
+        System.out.printf("balance_benchmark mode=%s requests=%d concurrency=%d rps=%.0f p50_ms=%.1f p99_ms=%.1f failures=%d%n",
+                path.endsWith("async") ? "async" : "blocking", requests, concurrency, requests / seconds,
+                millis(latencies, 0.50), millis(latencies, 0.99), failures.get());
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))] / 1e6;
+    }
+}
@@ -1,11 +1,21 @@
 package br.com.wallet.finance.api;
 
+import br.com.wallet.finance.api.dto.request.BatchBalanceRequest;
 import br.com.wallet.finance.api.dto.request.DepositRequest;
 import br.com.wallet.finance.api.dto.request.WithdrawRequest;
 import br.com.wallet.finance.application.usecase.DepositUseCase;
+import br.com.wallet.finance.application.usecase.GetBalanceAsyncUseCase;
+import br.com.wallet.finance.application.usecase.GetBalanceSeriesUseCase;
+import br.com.wallet.finance.application.usecase.GetCashFlowReportUseCase;
 import br.com.wallet.finance.application.usecase.GetBalanceUseCase;
+import br.com.wallet.finance.application.usecase.GetBalancesUseCase;
 import br.com.wallet.finance.application.usecase.GetHistoricalBalanceUseCase;
 import br.com.wallet.finance.application.usecase.WithdrawUseCase;
+import br.com.wallet.finance.api.error.GlobalExceptionHandler;
+import br.com.wallet.finance.domain.enums.CashFlowGranularity;
+import br.com.wallet.finance.domain.model.BalancePoint;
+import br.com.wallet.finance.domain.model.CashFlowBucket;
+import br.com.wallet.finance.domain.model.WalletBalance;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,18 +27,29 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(controllers = WalletBalanceController.class)
+@WebMvcTest(controllers = { WalletBalanceController.class, GlobalExceptionHandler.class })
 class WalletBalanceControllerTest {
 
     @Autowired
@@ -44,12 +65,24 @@ class WalletBalanceControllerTest {
     @MockBean
     private GetHistoricalBalanceUseCase getHistoricalBalanceUseCase;
 
+    @MockBean
+    private GetBalanceAsyncUseCase getBalanceAsyncUseCase;
+
     @MockBean
     private DepositUseCase depositUseCase;
 
     @MockBean
     private WithdrawUseCase withdrawUseCase;
 
+    @MockBean
+    private GetCashFlowReportUseCase getCashFlowReportUseCase;
+
+    @MockBean
+    private GetBalanceSeriesUseCase getBalanceSeriesUseCase;
+
+    @MockBean
+    private GetBalancesUseCase getBalancesUseCase;
+
     // mocks para satisfazer beans globais que a aplicação principal cria
     @MockBean
     private RestTemplateBuilder restTemplateBuilder;
@@ -68,7 +101,7 @@ class WalletBalanceControllerTest {
         UUID walletId = UUID.randomUUID();
         BigDecimal balance = new BigDecimal("123.45");
 
-        Mockito.when(getBalanceUseCase.execute(walletId))
+        Mockito.when(getBalanceUseCase.execute(walletId, null))
                 .thenReturn(balance);
 
         mockMvc.perform(
@@ -82,7 +115,7 @@ class WalletBalanceControllerTest {
                 .andExpect(jsonPath("$.walletId", is(walletId.toString())))
                 .andExpect(jsonPath("$.balance", is(123.45)));
 
-        Mockito.verify(getBalanceUseCase).execute(walletId);
+        Mockito.verify(getBalanceUseCase).execute(walletId, null);
         Mockito.verifyNoInteractions(getHistoricalBalanceUseCase);
     }
 
@@ -95,7 +128,7 @@ class WalletBalanceControllerTest {
         // usamos um timestamp determinístico
         Instant atInstant = Instant.parse("2025-10-09T15:00:00Z");
 
-        Mockito.when(getHistoricalBalanceUseCase.execute(walletId, atInstant))
+        Mockito.when(getHistoricalBalanceUseCase.execute(walletId, atInstant, null))
                 .thenReturn(historicalBalance);
 
         mockMvc.perform(
@@ -110,10 +143,73 @@ class WalletBalanceControllerTest {
                 .andExpect(jsonPath("$.walletId", is(walletId.toString())))
                 .andExpect(jsonPath("$.balance", is(88.00)));
 
-        Mockito.verify(getHistoricalBalanceUseCase).execute(walletId, atInstant);
+        Mockito.verify(getHistoricalBalanceUseCase).execute(walletId, atInstant, null);
         Mockito.verifyNoInteractions(getBalanceUseCase);
     }
 
+    @Test
+    @DisplayName("GET /wallets/{id}/balance/async deve responder o saldo depois que a leitura completar")
+    void shouldReturnBalanceAsynchronously() throws Exception {
+        UUID walletId = UUID.randomUUID();
+        Instant atInstant = Instant.parse("2025-10-09T15:00:00Z");
+
+        Mockito.when(getBalanceAsyncUseCase.execute(walletId, atInstant, 3L))
+                .thenReturn(CompletableFuture.completedFuture(new BigDecimal("42.50")));
+
+        MvcResult started = mockMvc.perform(
+                        get("/wallets/{walletId}/balance/async", walletId.toString())
+                                .param("at", atInstant.toString())
+                                .header("X-Min-Wallet-Version", "3")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.walletId", is(walletId.toString())))
+                .andExpect(jsonPath("$.balance", is(42.50)));
+
+        Mockito.verifyNoInteractions(getBalanceUseCase, getHistoricalBalanceUseCase);
+    }
+
+    @Test
+    @DisplayName("GET /wallets/{id}/balance/async com a fila de leitura cheia deve responder 503")
+    void shouldRejectAsyncBalanceWhenReadersAreSaturated() throws Exception {
+        UUID walletId = UUID.randomUUID();
+
+        Mockito.when(getBalanceAsyncUseCase.execute(walletId, null, null))
+                .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("full")));
+
+        MvcResult started = mockMvc.perform(get("/wallets/{walletId}/balance/async", walletId.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error", is("SERVICE_UNAVAILABLE")));
+    }
+
+    @Test
+    @DisplayName("GET /wallets/{id}/balance deve repassar o header X-Min-Wallet-Version")
+    void shouldPassMinWalletVersionOnBalance() throws Exception {
+        UUID walletId = UUID.randomUUID();
+
+        Mockito.when(getBalanceUseCase.execute(walletId, 7L))
+                .thenReturn(new BigDecimal("10.00"));
+
+        mockMvc.perform(
+                        get("/wallets/{walletId}/balance", walletId.toString())
+                                .header("X-Min-Wallet-Version", "7")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance", is(10.00)));
+
+        Mockito.verify(getBalanceUseCase).execute(walletId, 7L);
+    }
+
     @Test
     @DisplayName("POST /wallets/{id}/deposit deve chamar o caso de uso de depósito e retornar 201")
     void shouldDeposit() throws Exception {
@@ -124,18 +220,20 @@ class WalletBalanceControllerTest {
                 "Initial funding"
         );
 
-        // não precisamos stubbar depositUseCase porque ele retorna void,
-        // então só vamos verificar depois se ele foi chamado
+        // a versão da carteira depois do crédito volta no header X-Wallet-Version
+        Mockito.when(depositUseCase.execute(null, walletId, new BigDecimal("250.00"), "Initial funding"))
+                .thenReturn(7L);
 
         mockMvc.perform(
                         post("/wallets/{walletId}/deposit", walletId.toString())
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(requestBody))
                 )
-                .andExpect(status().isCreated());
+                .andExpect(status().isCreated())
+                .andExpect(header().string("X-Wallet-Version", "7"));
 
         Mockito.verify(depositUseCase)
-                .execute(walletId, new BigDecimal("250.00"), "Initial funding");
+                .execute(null, walletId, new BigDecimal("250.00"), "Initial funding");
     }
 
     @Test
@@ -156,6 +254,171 @@ class WalletBalanceControllerTest {
                 .andExpect(status().isCreated());
 
         Mockito.verify(withdrawUseCase)
-                .execute(walletId, new BigDecimal("50.00"), "ATM cash out");
+                .execute(null, walletId, new BigDecimal("50.00"), "ATM cash out");
+    }
+
+    @Test
+    @DisplayName("POST /wallets/{id}/deposit deve repassar o header Idempotency-Key")
+    void shouldPassIdempotencyKeyOnDeposit() throws Exception {
+        UUID walletId = UUID.randomUUID();
+
+        mockMvc.perform(
+                        post("/wallets/{walletId}/deposit", walletId.toString())
+                                .header("Idempotency-Key", "dep-123")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new DepositRequest(new BigDecimal("10.00"), null)))
+                )
+                .andExpect(status().isCreated());
+
+        Mockito.verify(depositUseCase)
+                .execute("dep-123", walletId, new BigDecimal("10.00"), null);
+    }
+
+    @Test
+    @DisplayName("POST /wallets/{id}/withdraw repetido com a mesma Idempotency-Key devolve a versão original")
+    void shouldReturnOriginalWalletVersionOnIdempotentReplay() throws Exception {
+        UUID walletId = UUID.randomUUID();
+        String body = objectMapper.writeValueAsString(new WithdrawRequest(new BigDecimal("50.00"), null));
+
+        // a repetição não é aplicada de novo, mas o caso de uso devolve a versão gravada com a chave
+        Mockito.when(withdrawUseCase.execute("saque-1", walletId, new BigDecimal("50.00"), null))
+                .thenReturn(9L);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(
+                            post("/wallets/{walletId}/withdraw", walletId.toString())
+                                    .header("Idempotency-Key", "saque-1")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body)
+                    )
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string("X-Wallet-Version", "9"));
+        }
+    }
+
+    @Test
+    @DisplayName("GET /wallets/{id}/cashflow deve retornar os períodos agregados na granularidade pedida")
+    void shouldReturnCashFlowReport() throws Exception {
+        UUID walletId = UUID.randomUUID();
+        LocalDate from = LocalDate.parse("2025-10-01");
+        LocalDate to = LocalDate.parse("2025-11-30");
+
+        Mockito.when(getCashFlowReportUseCase.execute(walletId, from, to, CashFlowGranularity.MONTH))
+                .thenReturn(List.of(
+                        new CashFlowBucket(from, new BigDecimal("100.00"), new BigDecimal("30.00"), new BigDecimal("70.00")),
+                        new CashFlowBucket(LocalDate.parse("2025-11-01"), BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal("70.00"))
+                ));
+
+        mockMvc.perform(
+                        get("/wallets/{walletId}/cashflow", walletId.toString())
+                                .param("from", "2025-10-01")
+                                .param("to", "2025-11-30")
+                                .param("granularity", "month")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.walletId", is(walletId.toString())))
+                .andExpect(jsonPath("$.granularity", is("MONTH")))
+                .andExpect(jsonPath("$.buckets[0].periodStart", is("2025-10-01")))
+                .andExpect(jsonPath("$.buckets[0].totalCredits", is(100.00)))
+                .andExpect(jsonPath("$.buckets[0].totalDebits", is(30.00)))
+                .andExpect(jsonPath("$.buckets[1].closingBalance", is(70.00)));
+    }
+
+    @Test
+    @DisplayName("GET /wallets/{id}/cashflow deve retornar 400 para granularidade inválida ou intervalo ausente")
+    void shouldRejectInvalidCashFlowParameters() throws Exception {
+        UUID walletId = UUID.randomUUID();
+
+        mockMvc.perform(
+                        get("/wallets/{walletId}/cashflow", walletId.toString())
+                                .param("from", "2025-10-01")
+                                .param("to", "2025-10-31")
+                                .param("granularity", "week")
+                )
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/wallets/{walletId}/cashflow", walletId.toString()))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(getCashFlowReportUseCase);
+    }
+
+    @Test
+    @DisplayName("GET /wallets/{id}/balance/series deve escrever os pontos da série em streaming")
+    @SuppressWarnings("unchecked")
+    void shouldStreamBalanceSeries() throws Exception {
+        UUID walletId = UUID.randomUUID();
+        Instant from = Instant.parse("2025-10-09T00:00:00Z");
+        Instant to = Instant.parse("2025-10-09T01:00:00Z");
+
+        Mockito.doAnswer(inv -> {
+            Consumer<BalancePoint> sink = (Consumer<BalancePoint>) inv.getArgument(4);
+            sink.accept(new BalancePoint(from, new BigDecimal("10.00")));
+            sink.accept(new BalancePoint(to, new BigDecimal("25.50")));
+            return null;
+        }).when(getBalanceSeriesUseCase).execute(eq(walletId), eq(from), eq(to), eq(Duration.ofHours(1)), any());
+
+        mockMvc.perform(
+                        get("/wallets/{walletId}/balance/series", walletId.toString())
+                                .param("from", from.toString())
+                                .param("to", to.toString())
+                                .param("step", "PT1H")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.walletId", is(walletId.toString())))
+                .andExpect(jsonPath("$.step", is("PT1H")))
+                .andExpect(jsonPath("$.points", hasSize(2)))
+                .andExpect(jsonPath("$.points[0].at", is("2025-10-09T00:00:00Z")))
+                .andExpect(jsonPath("$.points[1].balance", is(25.50)));
+    }
+
+    @Test
+    @DisplayName("GET /wallets/{id}/balance/series deve retornar 400 para step inválido")
+    void shouldRejectInvalidStep() throws Exception {
+        mockMvc.perform(
+                        get("/wallets/{walletId}/balance/series", UUID.randomUUID().toString())
+                                .param("from", "2025-10-09T00:00:00Z")
+                                .param("to", "2025-10-09T01:00:00Z")
+                                .param("step", "1 hora")
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("BAD_REQUEST")));
+
+        Mockito.verifyNoInteractions(getBalanceSeriesUseCase);
+    }
+
+    @Test
+    @DisplayName("POST /wallets/balances deve retornar saldos encontrados e IDs inexistentes")
+    void shouldReturnBatchBalances() throws Exception {
+        UUID w1 = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        Instant at = Instant.parse("2025-10-09T15:00:00Z");
+
+        Mockito.when(getBalancesUseCase.execute(List.of(w1, missing), at))
+                .thenReturn(List.of(new WalletBalance(w1, new BigDecimal("42.00"))));
+
+        mockMvc.perform(
+                        post("/wallets/balances")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new BatchBalanceRequest(List.of(w1, missing), at)))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balances", hasSize(1)))
+                .andExpect(jsonPath("$.balances[0].walletId", is(w1.toString())))
+                .andExpect(jsonPath("$.balances[0].balance", is(42.00)))
+                .andExpect(jsonPath("$.notFound[0]", is(missing.toString())));
+    }
+
+    @Test
+    @DisplayName("POST /wallets/balances deve retornar 400 para lista vazia")
+    void shouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(
+                        post("/wallets/balances")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"walletIds\": []}")
+                )
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(getBalancesUseCase);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,213 @@
+package br.com.wallet.finance.api;
+
+import br.com.wallet.finance.api.error.GlobalExceptionHandler;
+import br.com.wallet.finance.application.usecase.ExportStatementUseCase;
+import br.com.wallet.finance.application.usecase.GetStatementUseCase;
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.exception.WalletNotFoundException;
+import br.com.wallet.finance.domain.model.StatementCursor;
+import br.com.wallet.finance.domain.model.StatementEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = { WalletStatementController.class, GlobalExceptionHandler.class })
+class WalletStatementControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private GetStatementUseCase getStatementUseCase;
+
+    @MockBean
+    private ExportStatementUseCase exportStatementUseCase;
+
+    // mocks para satisfazer beans globais que a aplicação principal cria
+    @MockBean
+    private RestTemplateBuilder restTemplateBuilder;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setupRestTemplateBuilder() {
+        Mockito.when(restTemplateBuilder.build()).thenReturn(restTemplate);
+    }
+
+    @Test
+    @DisplayName("GET /wallets/{id}/statement deve escrever a página em streaming com nextCursor")
+    @SuppressWarnings("unchecked")
+    void shouldStreamStatementPage() throws Exception {
+        UUID walletId = UUID.randomUUID();
+        StatementEntry entry = new StatementEntry(
+                UUID.randomUUID(),
+                LedgerEntryType.DEBIT,
+                new BigDecimal("40.00"),
+                "e2e-1",
+                "PIX OUT PENDING",
+                Instant.parse("2025-10-09T14:00:00Z")
+        );
+        StatementCursor next = StatementCursor.of(entry);
+
+        Mockito.when(getStatementUseCase.execute(eq(walletId), any(), any(), isNull(), eq(1), any()))
+                .thenAnswer(inv -> {
+                    ((Consumer<StatementEntry>) inv.getArgument(5)).accept(entry);
+                    return next;
+                });
+
+        mockMvc.perform(
+                        get("/wallets/{walletId}/statement", walletId.toString())
+                                .param("limit", "1")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.walletId", is(walletId.toString())))
+                .andExpect(jsonPath("$.entries", hasSize(1)))
+                .andExpect(jsonPath("$.entries[0].type", is("DEBIT")))
+                .andExpect(jsonPath("$.entries[0].amount", is(40.00)))
+                .andExpect(jsonPath("$.entries[0].occurredAt", is("2025-10-09T14:00:00Z")))
+                .andExpect(jsonPath("$.nextCursor", is(next.encode())));
+    }
+
+    @Test
+    @DisplayName("GET /wallets/{id}/statement deve repassar o cursor decodificado e devolver página vazia")
+    void shouldDecodeCursorAndWriteEmptyPage() throws Exception {
+        UUID walletId = UUID.randomUUID();
+        StatementCursor cursor = new StatementCursor(Instant.parse("2025-10-09T14:00:00Z"), UUID.randomUUID());
+
+        Mockito.when(getStatementUseCase.execute(eq(walletId), any(), any(), eq(cursor), eq(100), any()))
+                .thenReturn(null);
+
+        mockMvc.perform(
+                        get("/wallets/{walletId}/statement", walletId.toString())
+                                .param("cursor", cursor.encode())
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries", hasSize(0)))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    @DisplayName("GET /wallets/{id}/statement deve retornar 400 para cursor inválido e 404 para carteira inexistente")
+    void shouldMapErrors() throws Exception {
+        UUID walletId = UUID.randomUUID();
+
+        mockMvc.perform(get("/wallets/{walletId}/statement", walletId.toString()).param("cursor", "%%%"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("BAD_REQUEST")));
+
+        Mockito.when(getStatementUseCase.execute(eq(walletId), any(), any(), any(), anyInt(), any()))
+                .thenThrow(new WalletNotFoundException("Wallet not found"));
+
+        mockMvc.perform(get("/wallets/{walletId}/statement", walletId.toString()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("WALLET_NOT_FOUND")));
+    }
+
+    @Test
+    @DisplayName("GET /wallets/{id}/statement/export deve gerar CSV com cabeçalho e campos escapados")
+    @SuppressWarnings("unchecked")
+    void shouldExportCsv() throws Exception {
+        UUID walletId = UUID.randomUUID();
+        StatementEntry entry = sampleEntry("Pagamento, \"aluguel\"");
+
+        Mockito.when(exportStatementUseCase.execute(eq(walletId), any(), any(), any()))
+                .thenAnswer(inv -> {
+                    ((Consumer<StatementEntry>) inv.getArgument(3)).accept(entry);
+                    return 1L;
+                });
+
+        String body = mockMvc.perform(get("/wallets/{walletId}/statement/export", walletId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("statement-" + walletId + ".csv")))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(
+                "id,occurred_at,type,amount,end_to_end_id,description\n"
+                        + entry.id() + ",2025-10-09T14:00:00Z,CREDIT,40.00,,\"Pagamento, \"\"aluguel\"\"\"\n",
+                body
+        );
+    }
+
+    @Test
+    @DisplayName("GET /wallets/{id}/statement/export?format=ndjson&gzip=true deve gerar NDJSON comprimido")
+    @SuppressWarnings("unchecked")
+    void shouldExportGzippedNdjson() throws Exception {
+        UUID walletId = UUID.randomUUID();
+        StatementEntry entry = sampleEntry("DEPOSIT");
+
+        Mockito.when(exportStatementUseCase.execute(eq(walletId), any(), any(), any()))
+                .thenAnswer(inv -> {
+                    Consumer<StatementEntry> sink = (Consumer<StatementEntry>) inv.getArgument(3);
+                    sink.accept(entry);
+                    sink.accept(entry);
+                    return 2L;
+                });
+
+        byte[] gz = mockMvc.perform(
+                        get("/wallets/{walletId}/statement/export", walletId.toString())
+                                .param("format", "ndjson")
+                                .param("gzip", "true")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString(".ndjson.gz")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        String body;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gz))) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertThat(lines[0], containsString("\"description\":\"DEPOSIT\""));
+    }
+
+    @Test
+    @DisplayName("GET /wallets/{id}/statement/export deve retornar 400 para formato desconhecido")
+    void shouldRejectUnknownFormat() throws Exception {
+        mockMvc.perform(get("/wallets/{walletId}/statement/export", UUID.randomUUID().toString())
+                        .param("format", "xlsx"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("BAD_REQUEST")));
+
+        Mockito.verifyNoInteractions(exportStatementUseCase);
+    }
+
+    private StatementEntry sampleEntry(String description) {
+        return new StatementEntry(
+                UUID.randomUUID(),
+                LedgerEntryType.CREDIT,
+                new BigDecimal("40.00"),
+                null,
+                description,
+                Instant.parse("2025-10-09T14:00:00Z")
+        );
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.model.LedgerArchiveResult;
+import br.com.wallet.finance.domain.model.LedgerArchiveSegment;
+import br.com.wallet.finance.domain.model.LedgerRow;
+import br.com.wallet.finance.infrastructure.archive.LedgerArchive;
+import br.com.wallet.finance.infrastructure.repository.LedgerArchiveSegmentRepository;
+import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletArchivedBalanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ArchiveLedgerUseCaseImplTest {
+
+    @TempDir
+    Path archiveDir;
+
+    private LedgerEntryRepository ledgerEntryRepository;
+    private LedgerArchiveSegmentRepository segmentRepository;
+    private WalletArchivedBalanceRepository archivedBalanceRepository;
+    private ArchiveLedgerUseCaseImpl useCase;
+
+    private final Instant dayStart = Instant.parse("2023-01-10T00:00:00Z");
+    private final Instant dayEnd = Instant.parse("2023-01-11T00:00:00Z");
+
+    @BeforeEach
+    void setup() {
+        ledgerEntryRepository = mock(LedgerEntryRepository.class);
+        segmentRepository = mock(LedgerArchiveSegmentRepository.class);
+        archivedBalanceRepository = mock(WalletArchivedBalanceRepository.class);
+        LedgerArchive ledgerArchive = new LedgerArchive(segmentRepository, archivedBalanceRepository, archiveDir.toString());
+        useCase = new ArchiveLedgerUseCaseImpl(
+                ledgerEntryRepository,
+                segmentRepository,
+                archivedBalanceRepository,
+                ledgerArchive,
+                mock(PlatformTransactionManager.class),
+                30,
+                1
+        );
+    }
+
+    @Test
+    void shouldWriteSegmentThenMoveCarryAndDeleteRowsForOldestDay() throws Exception {
+        when(ledgerEntryRepository.findOldestOccurredAt()).thenReturn(Optional.of(dayStart.plusSeconds(3600)));
+        when(ledgerEntryRepository.streamForArchive(dayStart, dayEnd)).thenReturn(Stream.of(
+                new LedgerRow(UUID.randomUUID(), UUID.randomUUID(), LedgerEntryType.CREDIT,
+                        new BigDecimal("10.00"), null, "DEPOSIT", dayStart.plusSeconds(3600))
+        ));
+        when(ledgerEntryRepository.countByOccurredAtGreaterThanEqualAndOccurredAtLessThan(dayStart, dayEnd))
+                .thenReturn(1L);
+
+        LedgerArchiveResult result = useCase.execute();
+
+        assertEquals(1, result.days());
+        assertEquals(1, result.rows());
+        assertTrue(Files.exists(archiveDir.resolve("2023-01").resolve("ledger-2023-01-10.seg")));
+
+        // acumulado antes de apagar: as duas instruções leem as linhas do dia
+        InOrder order = inOrder(archivedBalanceRepository, ledgerEntryRepository, segmentRepository);
+        order.verify(archivedBalanceRepository).accumulateRange(dayStart, dayEnd);
+        order.verify(archivedBalanceRepository).insertRange(dayStart, dayEnd);
+        order.verify(ledgerEntryRepository).deleteRange(dayStart, dayEnd);
+
+        ArgumentCaptor<LedgerArchiveSegment> segment = ArgumentCaptor.forClass(LedgerArchiveSegment.class);
+        order.verify(segmentRepository).save(segment.capture());
+        assertEquals(LocalDate.parse("2023-01-10"), segment.getValue().getBusinessDate());
+        assertEquals(Path.of("2023-01", "ledger-2023-01-10.seg").toString(), segment.getValue().getFileName());
+        assertEquals(1L, segment.getValue().getRowCount());
+    }
+
+    @Test
+    void shouldNotDeleteAnythingWhenRowsChangedWhileWritingSegment() {
+        when(ledgerEntryRepository.findOldestOccurredAt()).thenReturn(Optional.of(dayStart));
+        when(ledgerEntryRepository.streamForArchive(dayStart, dayEnd)).thenReturn(Stream.empty());
+        when(ledgerEntryRepository.countByOccurredAtGreaterThanEqualAndOccurredAtLessThan(dayStart, dayEnd))
+                .thenReturn(2L);
+
+        assertThrows(IllegalStateException.class, () -> useCase.execute());
+
+        verify(ledgerEntryRepository, never()).deleteRange(any(), any());
+        verify(segmentRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldStopAtRetentionHorizon() {
+        when(ledgerEntryRepository.findOldestOccurredAt()).thenReturn(Optional.of(Instant.now()));
+
+        LedgerArchiveResult result = useCase.execute();
+
+        assertEquals(0, result.days());
+        verify(ledgerEntryRepository, never()).streamForArchive(any(), any());
+    }
+}
@@ -1,15 +1,23 @@
 package br.com.wallet.finance.application.usecase.impl;
 
+import br.com.wallet.finance.domain.enums.IdempotencyScope;
+import br.com.wallet.finance.domain.enums.LedgerReason;
 import br.com.wallet.finance.domain.enums.PixTransferStatus;
 import br.com.wallet.finance.domain.exception.BusinessException;
+import br.com.wallet.finance.domain.model.IdempotentResponse;
 import br.com.wallet.finance.domain.model.LedgerEntry;
-import br.com.wallet.finance.domain.model.PixKey;
 import br.com.wallet.finance.domain.model.PixTransfer;
+import br.com.wallet.finance.domain.model.PixTransferHistory;
 import br.com.wallet.finance.domain.model.Wallet;
+import br.com.wallet.finance.infrastructure.id.EndToEndIdGenerator;
+import br.com.wallet.finance.infrastructure.idempotency.IdempotencyStore;
 import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
-import br.com.wallet.finance.infrastructure.repository.PixKeyRepository;
+import br.com.wallet.finance.infrastructure.repository.PixTransferHistoryRepository;
 import br.com.wallet.finance.infrastructure.repository.PixTransferRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletDailyCashFlowRepository;
 import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.PixKeyDirectory;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -25,27 +33,88 @@ import static org.mockito.Mockito.*;
 class CreatePixTransferUseCaseImplTest {
 
     private WalletRepository walletRepository;
-    private PixKeyRepository pixKeyRepository;
+    private PixKeyDirectory pixKeyDirectory;
     private PixTransferRepository pixTransferRepository;
     private LedgerEntryRepository ledgerEntryRepository;
+    private WalletDailyCashFlowRepository dailyCashFlowRepository;
+    private PixTransferHistoryRepository pixTransferHistoryRepository;
+    private IdempotencyStore idempotencyStore;
+    private WalletShards walletShards;
 
     private CreatePixTransferUseCaseImpl useCase;
 
     @BeforeEach
     void setup() {
         walletRepository = mock(WalletRepository.class);
-        pixKeyRepository = mock(PixKeyRepository.class);
+        pixKeyDirectory = mock(PixKeyDirectory.class);
         pixTransferRepository = mock(PixTransferRepository.class);
         ledgerEntryRepository = mock(LedgerEntryRepository.class);
+        dailyCashFlowRepository = mock(WalletDailyCashFlowRepository.class);
+        pixTransferHistoryRepository = mock(PixTransferHistoryRepository.class);
+        idempotencyStore = mock(IdempotencyStore.class);
+        when(idempotencyStore.find(any(), any(), any())).thenReturn(Optional.empty());
+        walletShards = mock(WalletShards.class);
 
         useCase = new CreatePixTransferUseCaseImpl(
                 walletRepository,
-                pixKeyRepository,
+                pixKeyDirectory,
                 pixTransferRepository,
-                ledgerEntryRepository
+                ledgerEntryRepository,
+                dailyCashFlowRepository,
+                new EndToEndIdGenerator("12345678"),
+                pixTransferHistoryRepository,
+                idempotencyStore,
+                walletShards
         );
     }
 
+    @Test
+    void shouldAnswerReplayWithCurrentStatusLoadedByIdWithoutLocking() {
+        UUID fromWalletId = UUID.randomUUID();
+        UUID transferId = UUID.randomUUID();
+        String idempotencyKey = "abc-idem";
+        PixTransfer settled = PixTransfer.builder()
+                .id(transferId)
+                .fromWallet(Wallet.builder().id(fromWalletId).build())
+                .endToEndId("E12345678202510091500ABCDEFGHIJK")
+                .idempotencyKey(idempotencyKey)
+                .status(PixTransferStatus.CONFIRMED)
+                .build();
+
+        when(idempotencyStore.find(IdempotencyScope.PIX_TRANSFER, fromWalletId, idempotencyKey))
+                .thenReturn(Optional.of(new IdempotentResponse(transferId, "E12345678202510091500ABCDEFGHIJK")));
+        when(pixTransferRepository.findById(transferId)).thenReturn(Optional.of(settled));
+
+        PixTransfer result = useCase.execute(idempotencyKey, fromWalletId, "user@pix.com", new BigDecimal("50.00"));
+
+        // mesmo status que a busca na tabela daria depois da validade da chave
+        assertEquals(PixTransferStatus.CONFIRMED, result.getStatus());
+        assertEquals(transferId, result.getId());
+
+        verify(pixTransferRepository, never()).findByFromWallet_IdAndIdempotencyKey(any(), any());
+        verifyNoInteractions(pixTransferHistoryRepository, walletRepository, pixKeyDirectory, ledgerEntryRepository);
+        verify(idempotencyStore, never()).remember(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldAnswerReplayOfRetiredTransferFromHistory() {
+        UUID fromWalletId = UUID.randomUUID();
+        UUID transferId = UUID.randomUUID();
+        PixTransferHistory retired = mock(PixTransferHistory.class);
+        PixTransfer rejected = PixTransfer.builder().id(transferId).status(PixTransferStatus.REJECTED).build();
+
+        when(idempotencyStore.find(IdempotencyScope.PIX_TRANSFER, fromWalletId, "abc-idem"))
+                .thenReturn(Optional.of(new IdempotentResponse(transferId, "e2e")));
+        when(pixTransferRepository.findById(transferId)).thenReturn(Optional.empty());
+        when(pixTransferHistoryRepository.findById(transferId)).thenReturn(Optional.of(retired));
+        when(retired.toTransfer()).thenReturn(rejected);
+
+        PixTransfer result = useCase.execute("abc-idem", fromWalletId, "user@pix.com", new BigDecimal("50.00"));
+
+        assertEquals(PixTransferStatus.REJECTED, result.getStatus());
+        verifyNoInteractions(walletRepository, ledgerEntryRepository);
+    }
+
     @Test
     void shouldReturnExistingTransferWhenIdempotencyMatch() {
         UUID fromWalletId = UUID.randomUUID();
@@ -77,7 +146,38 @@ class CreatePixTransferUseCaseImplTest {
         assertSame(existing, result);
 
         // garantimos que o resto do fluxo NÃO rodou
-        verifyNoInteractions(walletRepository, pixKeyRepository, ledgerEntryRepository);
+        verifyNoInteractions(walletRepository, pixKeyDirectory, ledgerEntryRepository);
+        verify(pixTransferRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldReturnRetiredTransferFromHistoryWhenHotTableMisses() {
+        UUID fromWalletId = UUID.randomUUID();
+        UUID transferId = UUID.randomUUID();
+        String idempotencyKey = "old-idem";
+
+        when(pixTransferRepository.findByFromWallet_IdAndIdempotencyKey(fromWalletId, idempotencyKey))
+                .thenReturn(Optional.empty());
+        when(pixTransferHistoryRepository.findByFromWalletIdAndIdempotencyKey(fromWalletId, idempotencyKey))
+                .thenReturn(Optional.of(PixTransferHistory.builder()
+                        .id(transferId)
+                        .fromWalletId(fromWalletId)
+                        .toPixKey("user@pix.com")
+                        .amount(new BigDecimal("50.00"))
+                        .endToEndId("e2e-old")
+                        .idempotencyKey(idempotencyKey)
+                        .status(PixTransferStatus.CONFIRMED)
+                        .build()));
+
+        PixTransfer result = useCase.execute(idempotencyKey, fromWalletId, "user@pix.com", new BigDecimal("50.00"));
+
+        assertEquals(transferId, result.getId());
+        assertEquals(fromWalletId, result.getFromWallet().getId());
+        assertNull(result.getToWallet());
+        assertEquals(PixTransferStatus.CONFIRMED, result.getStatus());
+        assertEquals("e2e-old", result.getEndToEndId());
+
+        verifyNoInteractions(walletRepository, pixKeyDirectory, ledgerEntryRepository);
         verify(pixTransferRepository, never()).save(any());
     }
 
@@ -97,18 +197,16 @@ class CreatePixTransferUseCaseImplTest {
                 .id(UUID.randomUUID())
                 .build();
 
-        PixKey pixKey = PixKey.builder()
-                .wallet(toWallet)
-                .build();
-
         when(pixTransferRepository.findByFromWallet_IdAndIdempotencyKey(fromWalletId, idempotencyKey))
                 .thenReturn(Optional.empty());
 
         when(walletRepository.findByIdForUpdate(fromWalletId))
                 .thenReturn(Optional.of(fromWallet));
 
-        when(pixKeyRepository.findByKeyValue(toPixKeyValue))
-                .thenReturn(Optional.of(pixKey));
+        when(pixKeyDirectory.findWalletId(toPixKeyValue))
+                .thenReturn(Optional.of(toWallet.getId()));
+        when(walletRepository.findById(toWallet.getId()))
+                .thenReturn(Optional.of(toWallet));
 
         BusinessException ex = assertThrows(
                 BusinessException.class,
@@ -141,18 +239,16 @@ class CreatePixTransferUseCaseImplTest {
                 .currentBalance(new BigDecimal("0.00"))
                 .build();
 
-        PixKey toPixKey = PixKey.builder()
-                .wallet(toWallet)
-                .build();
-
         when(pixTransferRepository.findByFromWallet_IdAndIdempotencyKey(fromWalletId, idempotencyKey))
                 .thenReturn(Optional.empty());
 
         when(walletRepository.findByIdForUpdate(fromWalletId))
                 .thenReturn(Optional.of(fromWallet));
 
-        when(pixKeyRepository.findByKeyValue(toPixKeyValue))
-                .thenReturn(Optional.of(toPixKey));
+        when(pixKeyDirectory.findWalletId(toPixKeyValue))
+                .thenReturn(Optional.of(toWallet.getId()));
+        when(walletRepository.findById(toWallet.getId()))
+                .thenReturn(Optional.of(toWallet));
 
         // precisamos simular o save do PixTransfer gerando um objeto "persistido"
         when(pixTransferRepository.save(any(PixTransfer.class))).thenAnswer(invocation -> {
@@ -172,7 +268,7 @@ class CreatePixTransferUseCaseImplTest {
         assertEquals(toPixKeyValue, result.getToPixKey());
         assertEquals(fromWalletId, result.getFromWallet().getId());
         assertEquals(toWalletId, result.getToWallet().getId());
-        assertNotNull(result.getEndToEndId());
+        assertTrue(result.getEndToEndId().matches("E12345678\\d{12}[0-9A-Z]{11}"));
         assertNotNull(result.getCreatedAt());
         assertNotNull(result.getUpdatedAt());
 
@@ -184,11 +280,14 @@ class CreatePixTransferUseCaseImplTest {
 
         assertEquals(fromWallet, savedEntry.getWallet());
         assertEquals(amount, savedEntry.getAmount());
-        assertEquals("PIX OUT PENDING", savedEntry.getDescription());
+        assertEquals(LedgerReason.PIX_OUT_PENDING, savedEntry.getReason());
+        assertNull(savedEntry.getDescription());
         assertNotNull(savedEntry.getEndToEndId());
         assertNotNull(savedEntry.getOccurredAt());
 
         verify(walletRepository).save(fromWallet);
+        verify(idempotencyStore).remember(IdempotencyScope.PIX_TRANSFER, fromWalletId, idempotencyKey,
+                new IdempotentResponse(result.getId(), result.getEndToEndId()));
     }
 
     @Test
@@ -203,18 +302,16 @@ class CreatePixTransferUseCaseImplTest {
                 .currentBalance(new BigDecimal("100.00"))
                 .build();
 
-        PixKey pixKey = PixKey.builder()
-                .wallet(sameWallet)
-                .build();
-
         when(pixTransferRepository.findByFromWallet_IdAndIdempotencyKey(walletId, idempotencyKey))
                 .thenReturn(Optional.empty());
 
         when(walletRepository.findByIdForUpdate(walletId))
                 .thenReturn(Optional.of(sameWallet));
 
-        when(pixKeyRepository.findByKeyValue(toPixKeyValue))
-                .thenReturn(Optional.of(pixKey));
+        when(pixKeyDirectory.findWalletId(toPixKeyValue))
+                .thenReturn(Optional.of(sameWallet.getId()));
+        when(walletRepository.findById(sameWallet.getId()))
+                .thenReturn(Optional.of(sameWallet));
 
         IllegalStateException ex = assertThrows(
                 IllegalStateException.class,
@@ -226,6 +323,45 @@ class CreatePixTransferUseCaseImplTest {
         verify(ledgerEntryRepository, never()).save(any());
     }
 
+    @Test
+    void shouldCreateTransferToWalletOnAnotherShard() {
+        UUID fromWalletId = UUID.randomUUID();
+        UUID toWalletId = UUID.randomUUID();
+        String idempotencyKey = "idem";
+        String toPixKeyValue = "other@pix.com";
+
+        Wallet fromWallet = Wallet.builder()
+                .id(fromWalletId)
+                .currentBalance(new BigDecimal("100.00"))
+                .build();
+
+        when(pixTransferRepository.findByFromWallet_IdAndIdempotencyKey(fromWalletId, idempotencyKey))
+                .thenReturn(Optional.empty());
+        when(walletRepository.findByIdForUpdate(fromWalletId))
+                .thenReturn(Optional.of(fromWallet));
+
+        // a chave existe no diretório global, mas a carteira não está no shard da origem
+        when(pixKeyDirectory.findWalletId(toPixKeyValue))
+                .thenReturn(Optional.of(toWalletId));
+        when(walletRepository.findById(toWalletId))
+                .thenReturn(Optional.empty());
+        when(walletRepository.getReferenceById(toWalletId))
+                .thenReturn(Wallet.builder().id(toWalletId).build());
+        when(pixTransferRepository.save(any(PixTransfer.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        useCase.execute(idempotencyKey, fromWalletId, toPixKeyValue, new BigDecimal("10.00"));
+
+        // o débito acontece aqui; o crédito fica para a saga quando o PSP confirmar
+        ArgumentCaptor<PixTransfer> transferCaptor = ArgumentCaptor.forClass(PixTransfer.class);
+        verify(pixTransferRepository).save(transferCaptor.capture());
+        assertEquals(toWalletId, transferCaptor.getValue().getToWallet().getId());
+        assertEquals(PixTransferStatus.PENDING, transferCaptor.getValue().getStatus());
+        assertEquals(new BigDecimal("90.00"), fromWallet.getCurrentBalance());
+        // o shard da transferência fica no diretório para o webhook
+        verify(walletShards).registerTransfer(transferCaptor.getValue().getEndToEndId());
+    }
+
     @Test
     void shouldFailWhenIdempotencyKeyMissing() {
         UUID fromWalletId = UUID.randomUUID();
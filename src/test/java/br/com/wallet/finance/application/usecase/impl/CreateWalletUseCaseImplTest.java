@@ -2,10 +2,12 @@ package br.com.wallet.finance.application.usecase.impl;
 
 import br.com.wallet.finance.domain.model.Wallet;
 import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import javax.sql.DataSource;
 import java.math.BigDecimal;
 import java.time.Instant;
 
@@ -20,7 +22,7 @@ class CreateWalletUseCaseImplTest {
     @BeforeEach
     void setUp() {
         walletRepository = mock(WalletRepository.class);
-        useCase = new CreateWalletUseCaseImpl(walletRepository);
+        useCase = new CreateWalletUseCaseImpl(walletRepository, WalletShards.single(mock(DataSource.class)));
     }
 
     @Test
@@ -56,6 +58,9 @@ class CreateWalletUseCaseImplTest {
         assertEquals(ownerName, walletToSave.getOwnerName());
         assertEquals(BigDecimal.ZERO, walletToSave.getCurrentBalance());
         assertNotNull(walletToSave.getCreatedAt());
+        // id gerado na aplicação e version nula: o Spring Data trata como carteira nova
+        assertNotNull(walletToSave.getId());
+        assertNull(walletToSave.getVersion());
     }
 
     @Test
@@ -1,10 +1,15 @@
 package br.com.wallet.finance.application.usecase.impl;
 
+import br.com.wallet.finance.domain.enums.IdempotencyScope;
 import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.enums.LedgerReason;
 import br.com.wallet.finance.domain.exception.WalletNotFoundException;
+import br.com.wallet.finance.domain.model.IdempotentResponse;
 import br.com.wallet.finance.domain.model.LedgerEntry;
 import br.com.wallet.finance.domain.model.Wallet;
+import br.com.wallet.finance.infrastructure.idempotency.IdempotencyStore;
 import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletDailyCashFlowRepository;
 import br.com.wallet.finance.infrastructure.repository.WalletRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,13 +27,18 @@ class DepositUseCaseImplTest {
 
     private WalletRepository walletRepository;
     private LedgerEntryRepository ledgerEntryRepository;
+    private WalletDailyCashFlowRepository dailyCashFlowRepository;
+    private IdempotencyStore idempotencyStore;
     private DepositUseCaseImpl depositUseCase;
 
     @BeforeEach
     void setup() {
         walletRepository = mock(WalletRepository.class);
         ledgerEntryRepository = mock(LedgerEntryRepository.class);
-        depositUseCase = new DepositUseCaseImpl(walletRepository, ledgerEntryRepository);
+        dailyCashFlowRepository = mock(WalletDailyCashFlowRepository.class);
+        idempotencyStore = mock(IdempotencyStore.class);
+        when(idempotencyStore.find(any(), any(), any())).thenReturn(Optional.empty());
+        depositUseCase = new DepositUseCaseImpl(walletRepository, ledgerEntryRepository, dailyCashFlowRepository, idempotencyStore);
     }
 
     @Test
@@ -48,7 +58,7 @@ class DepositUseCaseImplTest {
         when(walletRepository.findByIdForUpdate(walletId)).thenReturn(Optional.of(carteira));
 
         // Act
-        depositUseCase.execute(walletId, valorDeposito, "Initial funding");
+        depositUseCase.execute(null, walletId, valorDeposito, "Initial funding");
 
         // Assert
         // 1. LedgerEntry salvo corretamente
@@ -65,7 +75,7 @@ class DepositUseCaseImplTest {
 
         // 2. Saldo atualizado da carteira
         ArgumentCaptor<Wallet> walletCaptor = ArgumentCaptor.forClass(Wallet.class);
-        verify(walletRepository, times(1)).save(walletCaptor.capture());
+        verify(walletRepository, times(1)).saveAndFlush(walletCaptor.capture());
 
         Wallet savedWallet = walletCaptor.getValue();
         assertNotNull(savedWallet);
@@ -74,10 +84,59 @@ class DepositUseCaseImplTest {
         // 3. Também garante que buscamos a wallet com lock
         verify(walletRepository, times(1)).findByIdForUpdate(walletId);
 
+        // 4. Agregado diário de fluxo de caixa atualizado com o novo saldo
+        verify(dailyCashFlowRepository, times(1)).record(
+                walletId,
+                LedgerEntryType.CREDIT,
+                new BigDecimal("150.00"),
+                new BigDecimal("1150.00"),
+                savedEntry.getOccurredAt()
+        );
+
         // >>> Removemos verifyNoMoreInteractions(...) aqui <<<
         // porque internamente podem existir futuras interações legítimas
     }
 
+    @Test
+    void deve_lembrar_a_chave_de_idempotencia_depois_de_aplicar_o_deposito() {
+        UUID walletId = UUID.randomUUID();
+        Wallet carteira = Wallet.builder()
+                .id(walletId)
+                .currentBalance(new BigDecimal("0.00"))
+                .version(3L)
+                .build();
+        when(walletRepository.findByIdForUpdate(walletId)).thenReturn(Optional.of(carteira));
+
+        depositUseCase.execute("dep-1", walletId, new BigDecimal("10.00"), null);
+
+        // consulta antes e depois do lock, grava uma vez, junto com a versão devolvida
+        verify(idempotencyStore, times(2)).find(IdempotencyScope.DEPOSIT, walletId, "dep-1");
+        verify(idempotencyStore).remember(eq(IdempotencyScope.DEPOSIT), eq(walletId), eq("dep-1"),
+                argThat(response -> Long.valueOf(3L).equals(response.walletVersion())));
+        assertEquals(new BigDecimal("10.00"), carteira.getCurrentBalance());
+    }
+
+    @Test
+    void deve_responder_repeticao_sem_travar_a_carteira() {
+        UUID walletId = UUID.randomUUID();
+        when(idempotencyStore.find(IdempotencyScope.DEPOSIT, walletId, "dep-1"))
+                .thenReturn(Optional.of(new IdempotentResponse(UUID.randomUUID(), null, 7L)));
+
+        Long version = depositUseCase.execute("dep-1", walletId, new BigDecimal("10.00"), null);
+
+        // a repetição devolve a versão gravada com a chave
+        assertEquals(7L, version);
+        verifyNoInteractions(walletRepository, ledgerEntryRepository, dailyCashFlowRepository);
+        verify(idempotencyStore, never()).remember(any(), any(), any(), any());
+    }
+
+    @Test
+    void deve_rejeitar_chave_de_idempotencia_em_branco() {
+        assertThrows(IllegalArgumentException.class,
+                () -> depositUseCase.execute(" ", UUID.randomUUID(), new BigDecimal("10.00"), null));
+        verifyNoInteractions(walletRepository, idempotencyStore);
+    }
+
     @Test
     void deve_usar_descricao_padrao_quando_description_for_nula_ou_vazia() {
         // Arrange
@@ -95,17 +154,20 @@ class DepositUseCaseImplTest {
         when(walletRepository.findByIdForUpdate(walletId)).thenReturn(Optional.of(carteira));
 
         // Act
-        depositUseCase.execute(walletId, valorDeposito, null);
+        depositUseCase.execute(null, walletId, valorDeposito, null);
 
         // Assert
         ArgumentCaptor<LedgerEntry> ledgerCaptor = ArgumentCaptor.forClass(LedgerEntry.class);
         verify(ledgerEntryRepository, times(1)).save(ledgerCaptor.capture());
 
         LedgerEntry savedEntry = ledgerCaptor.getValue();
-        assertEquals("DEPOSIT", savedEntry.getDescription(), "Descrição padrão deveria ser 'DEPOSIT'");
+        // o texto padrão não é gravado: vem do motivo na leitura
+        assertEquals(LedgerReason.DEPOSIT, savedEntry.getReason());
+        assertNull(savedEntry.getDescription(), "Sem descrição do usuário, nada de texto na linha");
+        assertEquals("DEPOSIT", savedEntry.getReason().describe(savedEntry.getDescription()));
 
         verify(walletRepository, times(1)).findByIdForUpdate(walletId);
-        verify(walletRepository, times(1)).save(any(Wallet.class));
+        verify(walletRepository, times(1)).saveAndFlush(any(Wallet.class));
     }
 
     @Test
@@ -115,21 +177,21 @@ class DepositUseCaseImplTest {
         // amount null
         IllegalArgumentException ex1 = assertThrows(
                 IllegalArgumentException.class,
-                () -> depositUseCase.execute(walletId, null, "x")
+                () -> depositUseCase.execute(null, walletId, null, "x")
         );
         assertEquals("Amount must be positive", ex1.getMessage());
 
         // amount negativo
         IllegalArgumentException ex2 = assertThrows(
                 IllegalArgumentException.class,
-                () -> depositUseCase.execute(walletId, new BigDecimal("-1.00"), "x")
+                () -> depositUseCase.execute(null, walletId, new BigDecimal("-1.00"), "x")
         );
         assertEquals("Amount must be positive", ex2.getMessage());
 
         // amount zero
         IllegalArgumentException ex3 = assertThrows(
                 IllegalArgumentException.class,
-                () -> depositUseCase.execute(walletId, BigDecimal.ZERO, "x")
+                () -> depositUseCase.execute(null, walletId, BigDecimal.ZERO, "x")
         );
         assertEquals("Amount must be positive", ex3.getMessage());
 
@@ -148,7 +210,7 @@ class DepositUseCaseImplTest {
         // Act
         WalletNotFoundException thrown = assertThrows(
                 WalletNotFoundException.class,
-                () -> depositUseCase.execute(walletId, valorDeposito, "Funding")
+                () -> depositUseCase.execute(null, walletId, valorDeposito, "Funding")
         );
 
         // Assert
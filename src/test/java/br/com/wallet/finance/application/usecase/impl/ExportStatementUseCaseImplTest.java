@@ -0,0 +1,146 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.exception.WalletNotFoundException;
+import br.com.wallet.finance.domain.model.StatementEntry;
+import br.com.wallet.finance.infrastructure.archive.LedgerArchive;
+import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExportStatementUseCaseImplTest {
+
+    private WalletRepository walletRepository;
+    private LedgerEntryRepository ledgerEntryRepository;
+    private LedgerArchive ledgerArchive;
+    private PlatformTransactionManager transactionManager;
+    private ExportStatementUseCaseImpl useCase;
+
+    private final UUID walletId = UUID.randomUUID();
+    private final Instant from = Instant.parse("2025-01-01T00:00:00Z");
+    private final Instant to = Instant.parse("2026-01-01T00:00:00Z");
+
+    @BeforeEach
+    void setup() {
+        walletRepository = mock(WalletRepository.class);
+        ledgerEntryRepository = mock(LedgerEntryRepository.class);
+        ledgerArchive = mock(LedgerArchive.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        // chunk de 2 linhas para forçar mais de uma transação
+        useCase = new ExportStatementUseCaseImpl(walletRepository, ledgerEntryRepository, ledgerArchive, transactionManager, 2);
+    }
+
+    @Test
+    void shouldExportAllRowsInChunksContinuingFromLastKey() {
+        when(walletRepository.existsById(walletId)).thenReturn(true);
+
+        StatementEntry e1 = entry("2025-02-01T10:00:00Z");
+        StatementEntry e2 = entry("2025-03-01T10:00:00Z");
+        StatementEntry e3 = entry("2025-04-01T10:00:00Z");
+
+        when(ledgerEntryRepository.streamStatement(walletId, from, to, Limit.of(2)))
+                .thenReturn(Stream.of(e1, e2));
+        when(ledgerEntryRepository.streamStatementAfter(walletId, from, to, e2.occurredAt(), e2.id(), Limit.of(2)))
+                .thenReturn(Stream.of(e3));
+
+        List<StatementEntry> exported = new ArrayList<>();
+        long count = useCase.execute(walletId, from, to, exported::add);
+
+        assertEquals(3, count);
+        assertEquals(List.of(e1, e2, e3), exported);
+        // validar a carteira + uma por chunk
+        verify(transactionManager, times(3)).getTransaction(any());
+    }
+
+    @Test
+    void shouldWriteRowsOnlyAfterTheChunkTransactionCloses() {
+        when(walletRepository.existsById(walletId)).thenReturn(true);
+        StatementEntry e1 = entry("2025-02-01T10:00:00Z");
+        when(ledgerEntryRepository.streamStatement(walletId, from, to, Limit.of(2))).thenReturn(Stream.of(e1));
+
+        useCase.execute(walletId, from, to, e -> {
+            long opened = mockingDetails(transactionManager).getInvocations().stream()
+                    .filter(i -> i.getMethod().getName().equals("getTransaction")).count();
+            long committed = mockingDetails(transactionManager).getInvocations().stream()
+                    .filter(i -> i.getMethod().getName().equals("commit")).count();
+            assertEquals(opened, committed, "linha escrita com transação aberta");
+        });
+    }
+
+    @Test
+    void shouldReadRowsArchivedDuringTheExportFromTheArchive() {
+        when(walletRepository.existsById(walletId)).thenReturn(true);
+
+        StatementEntry e1 = entry("2025-02-01T10:00:00Z");
+        StatementEntry e2 = entry("2025-03-01T10:00:00Z");
+        StatementEntry e3 = entry("2025-04-01T10:00:00Z");
+        StatementEntry e4 = entry("2025-05-01T10:00:00Z");
+        Instant newHorizon = Instant.parse("2025-04-02T00:00:00Z");
+
+        // primeiro bloco ainda todo no banco; antes do segundo, o arquivamento leva e3 para o arquivo
+        when(ledgerArchive.horizon()).thenReturn(null, null, newHorizon);
+        when(ledgerEntryRepository.streamStatement(walletId, from, to, Limit.of(2)))
+                .thenReturn(Stream.of(e1, e2));
+        when(ledgerArchive.forEach(eq(walletId), eq(e2.occurredAt()), eq(to.minusNanos(1)), any(), eq(2), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<StatementEntry> sink = invocation.getArgument(5);
+                    sink.accept(e3);
+                    return 1;
+                });
+        when(ledgerEntryRepository.streamStatementAfter(walletId, from, to, e3.occurredAt(), e3.id(), Limit.of(1)))
+                .thenReturn(Stream.of(e4));
+        when(ledgerEntryRepository.streamStatementAfter(walletId, from, to, e4.occurredAt(), e4.id(), Limit.of(2)))
+                .thenReturn(Stream.empty());
+
+        List<StatementEntry> exported = new ArrayList<>();
+        long count = useCase.execute(walletId, from, to, exported::add);
+
+        assertEquals(4, count);
+        assertEquals(List.of(e1, e2, e3, e4), exported);
+    }
+
+    @Test
+    void shouldThrowWhenWalletDoesNotExist() {
+        when(walletRepository.existsById(walletId)).thenReturn(false);
+
+        assertThrows(WalletNotFoundException.class,
+                () -> useCase.execute(walletId, from, to, e -> fail("nada deve ser exportado")));
+
+        verifyNoInteractions(ledgerEntryRepository);
+    }
+
+    @Test
+    void shouldRejectInvalidRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> useCase.execute(walletId, to, from, e -> { }));
+
+        verifyNoInteractions(walletRepository, ledgerEntryRepository);
+    }
+
+    private StatementEntry entry(String occurredAt) {
+        return new StatementEntry(
+                UUID.randomUUID(),
+                LedgerEntryType.DEBIT,
+                new BigDecimal("5.00"),
+                "e2e",
+                "PIX OUT PENDING",
+                Instant.parse(occurredAt)
+        );
+    }
+}
@@ -0,0 +1,160 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.domain.model.BalanceSnapshotCheckpoint;
+import br.com.wallet.finance.domain.model.BalanceSnapshotResult;
+import br.com.wallet.finance.domain.model.UuidRange;
+import br.com.wallet.finance.domain.model.WalletBalance;
+import br.com.wallet.finance.infrastructure.archive.LedgerArchive;
+import br.com.wallet.finance.infrastructure.repository.BalanceSnapshotCheckpointRepository;
+import br.com.wallet.finance.infrastructure.job.BalanceSnapshotJob;
+import br.com.wallet.finance.infrastructure.repository.WalletBalanceSnapshotRepository;
+import br.com.wallet.finance.infrastructure.sharding.ConsistentHashRing;
+import br.com.wallet.finance.infrastructure.sharding.ShardContext;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class GenerateBalanceSnapshotUseCaseImplTest {
+
+    @TempDir
+    Path outputDir;
+
+    private WalletBalanceSnapshotRepository snapshotRepository;
+    private BalanceSnapshotCheckpointRepository checkpointRepository;
+    private GenerateBalanceSnapshotUseCaseImpl useCase;
+
+    private final LocalDate date = LocalDate.parse("2025-06-30");
+    private final Instant endExclusive = Instant.parse("2025-07-01T00:00:00Z");
+
+    @BeforeEach
+    void setup() {
+        snapshotRepository = mock(WalletBalanceSnapshotRepository.class);
+        checkpointRepository = mock(BalanceSnapshotCheckpointRepository.class);
+        useCase = new GenerateBalanceSnapshotUseCaseImpl(
+                snapshotRepository,
+                checkpointRepository,
+                mock(LedgerArchive.class),
+                mock(PlatformTransactionManager.class),
+                4, 2, 0, outputDir.toString()
+        );
+    }
+
+    @Test
+    void shouldProcessOnlyPendingPartitionsAndWriteFile() throws Exception {
+        List<UuidRange> ranges = UuidRange.split(4);
+        when(checkpointRepository.findBySnapshotDate(date)).thenReturn(List.of(checkpoint(1, 4)));
+        when(snapshotRepository.insertRange(eq(date), eq(endExclusive), any(), any(), any())).thenReturn(3);
+
+        UUID walletId = UUID.randomUUID();
+        when(snapshotRepository.streamBySnapshotDate(date))
+                .thenReturn(Stream.of(new WalletBalance(walletId, new BigDecimal("12.50"))));
+
+        BalanceSnapshotResult result = useCase.execute(date);
+
+        assertEquals(1, result.resumedPartitions());
+        assertEquals(1, result.wallets());
+        for (UuidRange range : ranges) {
+            int expected = range.index() == 1 ? 0 : 1;
+            verify(snapshotRepository, times(expected)).deleteRange(date, range.lower(), range.upper());
+            verify(snapshotRepository, times(expected))
+                    .insertRange(eq(date), eq(endExclusive), eq(range.lower()), eq(range.upper()), any());
+        }
+        verify(checkpointRepository, times(3)).save(any(BalanceSnapshotCheckpoint.class));
+
+        assertEquals(
+                "wallet_id,balance\n" + walletId + ",12.50\n",
+                Files.readString(outputDir.resolve("wallet-balances-2025-06-30.csv"))
+        );
+    }
+
+    @Test
+    void shouldRunEveryPartitionOnTheShardOfTheJob() {
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        when(checkpointRepository.findBySnapshotDate(any())).thenReturn(List.of());
+        when(snapshotRepository.insertRange(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            seen.add(ShardContext.current());
+            return 0;
+        });
+        when(snapshotRepository.streamBySnapshotDate(any())).thenAnswer(invocation -> Stream.empty());
+
+        new BalanceSnapshotJob(useCase, twoShards()).run();
+
+        // as faixas rodam nas threads do pool, mas cada uma no shard da execução do job
+        assertEquals(8, seen.size());
+        assertEquals(4, Collections.frequency(seen, "s0"));
+        assertEquals(4, Collections.frequency(seen, "s1"));
+    }
+
+    @Test
+    void shouldDiscardCheckpointsWhenPartitionLayoutChanged() {
+        when(checkpointRepository.findBySnapshotDate(date)).thenReturn(List.of(checkpoint(0, 8)));
+        when(snapshotRepository.streamBySnapshotDate(date)).thenReturn(Stream.empty());
+
+        BalanceSnapshotResult result = useCase.execute(date);
+
+        assertEquals(0, result.resumedPartitions());
+        verify(checkpointRepository).deleteBySnapshotDate(date);
+        verify(snapshotRepository, times(4)).insertRange(eq(date), eq(endExclusive), any(), any(), any());
+    }
+
+    @Test
+    void shouldRejectDayThatIsNotClosedYet() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> useCase.execute(LocalDate.now(ZoneOffset.UTC)));
+
+        assertEquals("Snapshot date must be a closed day", ex.getMessage());
+        verifyNoInteractions(snapshotRepository, checkpointRepository);
+    }
+
+    @Test
+    void shouldSplitUuidSpaceIntoContiguousRanges() {
+        List<UuidRange> ranges = UuidRange.split(3);
+
+        assertEquals(new UUID(0L, 0L), ranges.get(0).lower());
+        assertEquals(new UUID(-1L, -1L), ranges.get(2).upper());
+        for (int i = 1; i < ranges.size(); i++) {
+            long previousUpper = ranges.get(i - 1).upper().getMostSignificantBits();
+            assertEquals(previousUpper + 1, ranges.get(i).lower().getMostSignificantBits());
+        }
+    }
+
+    private BalanceSnapshotCheckpoint checkpoint(int index, int count) {
+        return BalanceSnapshotCheckpoint.builder()
+                .snapshotDate(date)
+                .partitionIndex(index)
+                .partitionCount(count)
+                .walletCount(0)
+                .completedAt(Instant.now())
+                .build();
+    }
+
+    private WalletShards twoShards() {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        dataSources.put("s0", mock(DataSource.class));
+        dataSources.put("s1", mock(DataSource.class));
+        return new WalletShards(dataSources, new ConsistentHashRing(List.of("s0", "s1"), 16));
+    }
+}
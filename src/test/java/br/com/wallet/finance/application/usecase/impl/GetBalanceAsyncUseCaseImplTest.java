@@ -0,0 +1,127 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.application.usecase.GetBalanceUseCase;
+import br.com.wallet.finance.application.usecase.GetHistoricalBalanceUseCase;
+import br.com.wallet.finance.infrastructure.bulkhead.TrafficClass;
+import br.com.wallet.finance.infrastructure.bulkhead.TrafficClassContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GetBalanceAsyncUseCaseImplTest {
+
+    private final GetBalanceUseCase getBalanceUseCase = mock(GetBalanceUseCase.class);
+    private final GetHistoricalBalanceUseCase getHistoricalBalanceUseCase = mock(GetHistoricalBalanceUseCase.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private GetBalanceAsyncUseCaseImpl useCase;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        useCase.destroy();
+    }
+
+    @Test
+    void shouldShareOneReadBetweenConcurrentIdenticalPolls() throws Exception {
+        useCase = new GetBalanceAsyncUseCaseImpl(getBalanceUseCase, getHistoricalBalanceUseCase, 2, 10, Duration.ofSeconds(5));
+        UUID walletId = UUID.randomUUID();
+        when(getBalanceUseCase.execute(walletId, null)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new BigDecimal("10.00");
+        });
+
+        CompletableFuture<BigDecimal> first = useCase.execute(walletId, null, null);
+        CompletableFuture<BigDecimal> second = useCase.execute(walletId, null, null);
+        release.countDown();
+
+        assertEquals(new BigDecimal("10.00"), first.get(5, TimeUnit.SECONDS));
+        assertEquals(new BigDecimal("10.00"), second.get(5, TimeUnit.SECONDS));
+        verify(getBalanceUseCase, times(1)).execute(walletId, null);
+
+        // leitura terminada sai do mapa: o próximo poll consulta de novo
+        useCase.execute(walletId, null, null).get(5, TimeUnit.SECONDS);
+        verify(getBalanceUseCase, times(2)).execute(walletId, null);
+    }
+
+    @Test
+    void shouldDelegateHistoricalReads() throws Exception {
+        useCase = new GetBalanceAsyncUseCaseImpl(getBalanceUseCase, getHistoricalBalanceUseCase, 1, 10, Duration.ofSeconds(5));
+        UUID walletId = UUID.randomUUID();
+        Instant at = Instant.parse("2025-10-09T15:00:00Z");
+        when(getHistoricalBalanceUseCase.execute(walletId, at, 4L)).thenReturn(new BigDecimal("7.00"));
+
+        assertEquals(new BigDecimal("7.00"), useCase.execute(walletId, at, 4L).get(5, TimeUnit.SECONDS));
+        verifyNoInteractions(getBalanceUseCase);
+    }
+
+    @Test
+    void shouldFailFastWhenQueueIsFullAndTimeOutSlowReads() throws Exception {
+        useCase = new GetBalanceAsyncUseCaseImpl(getBalanceUseCase, getHistoricalBalanceUseCase, 1, 1, Duration.ofMillis(200));
+        when(getBalanceUseCase.execute(any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return BigDecimal.ONE;
+        });
+
+        // uma leitura ocupa a thread, outra ocupa a fila, a terceira é recusada na hora
+        CompletableFuture<BigDecimal> running = useCase.execute(UUID.randomUUID(), null, null);
+        useCase.execute(UUID.randomUUID(), null, null);
+        CompletableFuture<BigDecimal> rejected = useCase.execute(UUID.randomUUID(), null, null);
+
+        ExecutionException refused = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, refused.getCause());
+
+        ExecutionException timedOut = assertThrows(ExecutionException.class, () -> running.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, timedOut.getCause());
+    }
+
+    @Test
+    void shouldDropQueuedReadWhoseCallersAlreadyTimedOut() throws Exception {
+        useCase = new GetBalanceAsyncUseCaseImpl(getBalanceUseCase, getHistoricalBalanceUseCase, 1, 10, Duration.ofMillis(100));
+        UUID busy = UUID.randomUUID();
+        UUID queued = UUID.randomUUID();
+        when(getBalanceUseCase.execute(busy, null)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return BigDecimal.ONE;
+        });
+
+        useCase.execute(busy, null, null);
+        CompletableFuture<BigDecimal> late = useCase.execute(queued, null, null);
+        ExecutionException timedOut = assertThrows(ExecutionException.class, () -> late.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, timedOut.getCause());
+        release.countDown();
+
+        // a thread chega à leitura depois do prazo: ninguém espera por ela, o banco não é consultado
+        useCase.execute(busy, null, null).get(5, TimeUnit.SECONDS);
+        verify(getBalanceUseCase, never()).execute(queued, null);
+    }
+
+    @Test
+    void shouldReadWithinTheReadConnectionQuota() throws Exception {
+        useCase = new GetBalanceAsyncUseCaseImpl(getBalanceUseCase, getHistoricalBalanceUseCase, 1, 10, Duration.ofSeconds(5));
+        UUID walletId = UUID.randomUUID();
+        AtomicReference<TrafficClass> seen = new AtomicReference<>();
+        when(getBalanceUseCase.execute(walletId, null)).thenAnswer(invocation -> {
+            seen.set(TrafficClassContext.current());
+            return BigDecimal.ONE;
+        });
+
+        useCase.execute(walletId, null, null).get(5, TimeUnit.SECONDS);
+
+        assertEquals(TrafficClass.READ, seen.get());
+    }
+}
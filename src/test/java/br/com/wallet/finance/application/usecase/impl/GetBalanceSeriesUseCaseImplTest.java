@@ -0,0 +1,96 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.exception.WalletNotFoundException;
+import br.com.wallet.finance.domain.model.BalancePoint;
+import br.com.wallet.finance.domain.model.StatementEntry;
+import br.com.wallet.finance.infrastructure.archive.LedgerArchive;
+import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GetBalanceSeriesUseCaseImplTest {
+
+    private WalletRepository walletRepository;
+    private LedgerEntryRepository ledgerEntryRepository;
+    private LedgerArchive ledgerArchive;
+    private GetBalanceSeriesUseCaseImpl useCase;
+
+    private final UUID walletId = UUID.randomUUID();
+    private final Instant from = Instant.parse("2025-10-09T00:00:00Z");
+    private final Instant to = Instant.parse("2025-10-09T03:00:00Z");
+    private final Duration step = Duration.ofHours(1);
+
+    @BeforeEach
+    void setup() {
+        walletRepository = mock(WalletRepository.class);
+        ledgerEntryRepository = mock(LedgerEntryRepository.class);
+        ledgerArchive = mock(LedgerArchive.class);
+        when(ledgerArchive.sum(any(), any(), any())).thenReturn(BigDecimal.ZERO);
+        useCase = new GetBalanceSeriesUseCaseImpl(walletRepository, ledgerEntryRepository, ledgerArchive);
+    }
+
+    @Test
+    void shouldEmitOnePointPerStepFromASingleOrderedScan() {
+        when(walletRepository.existsById(walletId)).thenReturn(true);
+        when(ledgerEntryRepository.sumBalanceUpTo(walletId, from)).thenReturn(new BigDecimal("100.00"));
+        when(ledgerEntryRepository.streamMovements(walletId, from, to)).thenReturn(Stream.of(
+                entry(LedgerEntryType.CREDIT, "50.00", "2025-10-09T00:30:00Z"),
+                // exatamente na fronteira: entra no ponto de 01:00
+                entry(LedgerEntryType.DEBIT, "20.00", "2025-10-09T01:00:00Z"),
+                entry(LedgerEntryType.CREDIT, "5.00", "2025-10-09T02:59:59Z")
+        ));
+
+        List<BalancePoint> points = new ArrayList<>();
+        useCase.execute(walletId, from, to, step, points::add);
+
+        assertEquals(List.of(
+                new BalancePoint(from, new BigDecimal("100.00")),
+                new BalancePoint(Instant.parse("2025-10-09T01:00:00Z"), new BigDecimal("130.00")),
+                new BalancePoint(Instant.parse("2025-10-09T02:00:00Z"), new BigDecimal("130.00")),
+                new BalancePoint(to, new BigDecimal("135.00"))
+        ), points);
+
+        verify(ledgerEntryRepository, times(1)).streamMovements(walletId, from, to);
+        verify(ledgerEntryRepository, times(1)).sumBalanceUpTo(walletId, from);
+        verifyNoMoreInteractions(ledgerEntryRepository);
+    }
+
+    @Test
+    void shouldThrowWhenWalletDoesNotExist() {
+        when(walletRepository.existsById(walletId)).thenReturn(false);
+
+        assertThrows(WalletNotFoundException.class,
+                () -> useCase.execute(walletId, from, to, step, p -> fail("nenhum ponto esperado")));
+
+        verifyNoInteractions(ledgerEntryRepository);
+    }
+
+    @Test
+    void shouldRejectInvalidStepAndTooManyPoints() {
+        assertThrows(IllegalArgumentException.class,
+                () -> useCase.execute(walletId, from, to, Duration.ZERO, p -> { }));
+        assertThrows(IllegalArgumentException.class,
+                () -> useCase.execute(walletId, to, from, step, p -> { }));
+        assertThrows(IllegalArgumentException.class,
+                () -> useCase.execute(walletId, from, from.plus(Duration.ofDays(2)), Duration.ofMinutes(1), p -> { }));
+
+        verifyNoInteractions(walletRepository, ledgerEntryRepository);
+    }
+
+    private StatementEntry entry(LedgerEntryType type, String amount, String occurredAt) {
+        return new StatementEntry(UUID.randomUUID(), type, new BigDecimal(amount), null, null, Instant.parse(occurredAt));
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -21,6 +22,9 @@ class GetBalanceUseCaseImplTest {
     @Mock
     private WalletRepository walletRepository;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private GetBalanceUseCaseImpl getBalanceUseCase;
 
@@ -46,13 +50,45 @@ class GetBalanceUseCaseImplTest {
         when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
 
         // Act
-        BigDecimal balance = getBalanceUseCase.execute(walletId);
+        BigDecimal balance = getBalanceUseCase.execute(walletId, null);
 
         // Assert
         assertEquals(new BigDecimal("1500.00"), balance);
         verify(walletRepository, times(1)).findById(walletId);
     }
 
+    @Test
+    void shouldRereadOnPrimary_whenReplicaIsBehindClientVersion() {
+        // Arrange: a primeira leitura (réplica) ainda não tem o depósito de versão 4
+        Wallet stale = wallet(3L, "100.00");
+        Wallet fresh = wallet(4L, "150.00");
+        when(walletRepository.findById(walletId)).thenReturn(Optional.of(stale), Optional.of(fresh));
+
+        // Act
+        BigDecimal balance = getBalanceUseCase.execute(walletId, 4L);
+
+        // Assert
+        assertEquals(new BigDecimal("150.00"), balance);
+        verify(walletRepository, times(2)).findById(walletId);
+    }
+
+    @Test
+    void shouldRereadOnPrimary_whenReplicaDoesNotHaveTheWalletYet() {
+        // carteira criada e creditada há pouco: a réplica ainda não recebeu nem a linha
+        when(walletRepository.findById(walletId)).thenReturn(Optional.empty(), Optional.of(wallet(1L, "50.00")));
+
+        assertEquals(new BigDecimal("50.00"), getBalanceUseCase.execute(walletId, 1L));
+        verify(walletRepository, times(2)).findById(walletId);
+    }
+
+    @Test
+    void shouldNotRereadWhenReplicaAlreadyHasClientVersion() {
+        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet(5L, "150.00")));
+
+        assertEquals(new BigDecimal("150.00"), getBalanceUseCase.execute(walletId, 4L));
+        verify(walletRepository, times(1)).findById(walletId);
+    }
+
     @Test
     void shouldThrowException_whenWalletNotFound() {
         // Arrange
@@ -61,10 +97,20 @@ class GetBalanceUseCaseImplTest {
         // Act & Assert
         IllegalArgumentException ex = assertThrows(
                 IllegalArgumentException.class,
-                () -> getBalanceUseCase.execute(walletId)
+                () -> getBalanceUseCase.execute(walletId, null)
         );
 
         assertEquals("Wallet not found", ex.getMessage());
         verify(walletRepository, times(1)).findById(walletId);
     }
-}
\ No newline at end of file
+
+    private Wallet wallet(long version, String balance) {
+        return Wallet.builder()
+                .id(walletId)
+                .ownerName("Carlos Henrique")
+                .currentBalance(new BigDecimal(balance))
+                .createdAt(Instant.now())
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.domain.model.WalletBalance;
+import br.com.wallet.finance.infrastructure.archive.LedgerArchive;
+import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GetBalancesUseCaseImplTest {
+
+    private WalletRepository walletRepository;
+    private LedgerEntryRepository ledgerEntryRepository;
+    private LedgerArchive ledgerArchive;
+    private GetBalancesUseCaseImpl useCase;
+
+    private final UUID w1 = UUID.randomUUID();
+    private final UUID w2 = UUID.randomUUID();
+    private final UUID missing = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        walletRepository = mock(WalletRepository.class);
+        ledgerEntryRepository = mock(LedgerEntryRepository.class);
+        ledgerArchive = mock(LedgerArchive.class);
+        useCase = new GetBalancesUseCaseImpl(walletRepository, ledgerEntryRepository, ledgerArchive,
+                WalletShards.single(mock(DataSource.class)), mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void shouldReturnCurrentBalancesInRequestOrderWithSingleQuery() {
+        when(walletRepository.findCurrentBalances(any())).thenReturn(List.of(
+                new WalletBalance(w1, new BigDecimal("10.00")),
+                new WalletBalance(w2, new BigDecimal("20.00"))
+        ));
+
+        List<WalletBalance> result = useCase.execute(List.of(w2, missing, w1, w2), null);
+
+        assertEquals(List.of(
+                new WalletBalance(w2, new BigDecimal("20.00")),
+                new WalletBalance(w1, new BigDecimal("10.00"))
+        ), result);
+        verify(walletRepository, times(1)).findCurrentBalances(Set.of(w2, missing, w1));
+        verifyNoInteractions(ledgerEntryRepository);
+    }
+
+    @Test
+    void shouldReturnHistoricalBalancesAndZeroForWalletsWithoutEntries() {
+        Instant at = Instant.parse("2025-10-09T15:00:00Z");
+
+        when(walletRepository.findCurrentBalances(any())).thenReturn(List.of(
+                new WalletBalance(w1, new BigDecimal("10.00")),
+                new WalletBalance(w2, new BigDecimal("20.00"))
+        ));
+        when(ledgerEntryRepository.sumBalancesUpTo(Set.of(w1, w2), at)).thenReturn(List.of(
+                new WalletBalance(w1, new BigDecimal("4.00"))
+        ));
+
+        List<WalletBalance> result = useCase.execute(List.of(w1, w2), at);
+
+        assertEquals(List.of(
+                new WalletBalance(w1, new BigDecimal("4.00")),
+                new WalletBalance(w2, BigDecimal.ZERO)
+        ), result);
+    }
+
+    @Test
+    void shouldRejectEmptyOrOversizedRequests() {
+        assertThrows(IllegalArgumentException.class, () -> useCase.execute(List.of(), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> useCase.execute(Collections.singletonList(null), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> useCase.execute(Stream.generate(UUID::randomUUID).limit(501).toList(), null));
+
+        verifyNoInteractions(walletRepository, ledgerEntryRepository);
+    }
+}
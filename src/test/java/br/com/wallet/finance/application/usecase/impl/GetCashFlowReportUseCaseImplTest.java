@@ -0,0 +1,108 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.domain.enums.CashFlowGranularity;
+import br.com.wallet.finance.domain.exception.WalletNotFoundException;
+import br.com.wallet.finance.domain.model.CashFlowBucket;
+import br.com.wallet.finance.domain.model.WalletDailyCashFlow;
+import br.com.wallet.finance.infrastructure.repository.WalletDailyCashFlowRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GetCashFlowReportUseCaseImplTest {
+
+    private WalletRepository walletRepository;
+    private WalletDailyCashFlowRepository dailyCashFlowRepository;
+    private GetCashFlowReportUseCaseImpl useCase;
+
+    private final UUID walletId = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        walletRepository = mock(WalletRepository.class);
+        dailyCashFlowRepository = mock(WalletDailyCashFlowRepository.class);
+        useCase = new GetCashFlowReportUseCaseImpl(walletRepository, dailyCashFlowRepository);
+    }
+
+    @Test
+    void shouldBuildDailyBucketsCarryingClosingBalanceOverEmptyDays() {
+        LocalDate from = LocalDate.parse("2025-10-01");
+        LocalDate to = LocalDate.parse("2025-10-03");
+
+        when(walletRepository.existsById(walletId)).thenReturn(true);
+        when(dailyCashFlowRepository.findFirstByWalletIdAndBusinessDateLessThanOrderByBusinessDateDesc(walletId, from))
+                .thenReturn(Optional.of(day("2025-09-28", "0", "0", "100.00")));
+        when(dailyCashFlowRepository.findByWalletIdAndBusinessDateBetweenOrderByBusinessDate(walletId, from, to))
+                .thenReturn(List.of(day("2025-10-02", "50.00", "20.00", "130.00")));
+
+        List<CashFlowBucket> buckets = useCase.execute(walletId, from, to, CashFlowGranularity.DAY);
+
+        assertEquals(3, buckets.size());
+        assertEquals(new CashFlowBucket(from, BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal("100.00")), buckets.get(0));
+        assertEquals(new CashFlowBucket(LocalDate.parse("2025-10-02"),
+                new BigDecimal("50.00"), new BigDecimal("20.00"), new BigDecimal("130.00")), buckets.get(1));
+        assertEquals(new BigDecimal("130.00"), buckets.get(2).closingBalance());
+    }
+
+    @Test
+    void shouldRollDailyRowsUpIntoMonths() {
+        LocalDate start = LocalDate.parse("2025-10-01");
+        LocalDate end = LocalDate.parse("2025-11-30");
+
+        when(walletRepository.existsById(walletId)).thenReturn(true);
+        when(dailyCashFlowRepository.findFirstByWalletIdAndBusinessDateLessThanOrderByBusinessDateDesc(walletId, start))
+                .thenReturn(Optional.empty());
+        when(dailyCashFlowRepository.findByWalletIdAndBusinessDateBetweenOrderByBusinessDate(walletId, start, end))
+                .thenReturn(List.of(
+                        day("2025-10-05", "100.00", "0", "100.00"),
+                        day("2025-10-20", "0", "30.00", "70.00"),
+                        day("2025-11-02", "10.00", "5.00", "75.00")
+                ));
+
+        // from/to no meio do mês são normalizados para o mês inteiro
+        List<CashFlowBucket> buckets = useCase.execute(
+                walletId, LocalDate.parse("2025-10-15"), LocalDate.parse("2025-11-10"), CashFlowGranularity.MONTH);
+
+        assertEquals(List.of(
+                new CashFlowBucket(start, new BigDecimal("100.00"), new BigDecimal("30.00"), new BigDecimal("70.00")),
+                new CashFlowBucket(LocalDate.parse("2025-11-01"), new BigDecimal("10.00"), new BigDecimal("5.00"), new BigDecimal("75.00"))
+        ), buckets);
+    }
+
+    @Test
+    void shouldValidateRangeAndWallet() {
+        LocalDate day = LocalDate.parse("2025-10-01");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> useCase.execute(walletId, day, day.minusDays(1), CashFlowGranularity.DAY));
+        assertThrows(IllegalArgumentException.class,
+                () -> useCase.execute(walletId, day, day.plusYears(2), CashFlowGranularity.DAY));
+
+        when(walletRepository.existsById(walletId)).thenReturn(false);
+        assertThrows(WalletNotFoundException.class,
+                () -> useCase.execute(walletId, day, day, CashFlowGranularity.DAY));
+
+        verifyNoInteractions(dailyCashFlowRepository);
+    }
+
+    private WalletDailyCashFlow day(String date, String credits, String debits, String closing) {
+        return WalletDailyCashFlow.builder()
+                .walletId(walletId)
+                .businessDate(LocalDate.parse(date))
+                .totalCredits(new BigDecimal(credits))
+                .totalDebits(new BigDecimal(debits))
+                .closingBalance(new BigDecimal(closing))
+                .updatedAt(Instant.now())
+                .build();
+    }
+}
@@ -1,18 +1,19 @@
 package br.com.wallet.finance.application.usecase.impl;
 
-import br.com.wallet.finance.domain.enums.LedgerEntryType;
-import br.com.wallet.finance.domain.model.LedgerEntry;
 import br.com.wallet.finance.domain.model.Wallet;
+import br.com.wallet.finance.domain.model.WalletBalanceSnapshot;
+import br.com.wallet.finance.infrastructure.archive.LedgerArchive;
 import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletBalanceSnapshotRepository;
 import br.com.wallet.finance.infrastructure.repository.WalletRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.Arrays;
-import java.util.List;
+import java.time.LocalDate;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -23,13 +24,19 @@ class GetHistoricalBalanceUseCaseImplTest {
 
     private WalletRepository walletRepository;
     private LedgerEntryRepository ledgerEntryRepository;
+    private WalletBalanceSnapshotRepository snapshotRepository;
+    private LedgerArchive ledgerArchive;
     private GetHistoricalBalanceUseCaseImpl useCase;
 
     @BeforeEach
     void setup() {
         walletRepository = mock(WalletRepository.class);
         ledgerEntryRepository = mock(LedgerEntryRepository.class);
-        useCase = new GetHistoricalBalanceUseCaseImpl(walletRepository, ledgerEntryRepository);
+        snapshotRepository = mock(WalletBalanceSnapshotRepository.class);
+        ledgerArchive = mock(LedgerArchive.class);
+        when(ledgerArchive.sum(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(BigDecimal.ZERO);
+        useCase = new GetHistoricalBalanceUseCaseImpl(
+                walletRepository, ledgerEntryRepository, snapshotRepository, ledgerArchive, mock(PlatformTransactionManager.class));
     }
 
     @Test
@@ -39,58 +46,63 @@ class GetHistoricalBalanceUseCaseImplTest {
         Instant atInstant = Instant.parse("2025-10-09T15:00:00Z");
 
         // a carteira existe
-        Wallet wallet = Wallet.builder()
-                .id(walletId)
-                .ownerName("Carlos")
-                .currentBalance(new BigDecimal("500.00"))
-                .createdAt(Instant.now())
-                .version(0L)
-                .build();
+        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet(walletId)));
 
-        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
+        // sem fechamento diário anterior: soma o ledger inteiro até o instante (+100.00 -30.00 +10.00)
+        when(snapshotRepository.findFirstByWalletIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(
+                walletId, LocalDate.parse("2025-10-09"))).thenReturn(Optional.empty());
+        when(ledgerEntryRepository.sumBalanceUpTo(walletId, atInstant)).thenReturn(new BigDecimal("80.00"));
 
-        // ledger_entries até aquele timestamp
-        LedgerEntry credit100 = LedgerEntry.builder()
-                .wallet(wallet)
-                .type(LedgerEntryType.CREDIT)
-                .amount(new BigDecimal("100.00"))
-                .occurredAt(Instant.parse("2025-10-09T14:00:00Z"))
-                .build();
+        // when
+        BigDecimal result = useCase.execute(walletId, atInstant, null);
 
-        LedgerEntry debit30 = LedgerEntry.builder()
-                .wallet(wallet)
-                .type(LedgerEntryType.DEBIT)
-                .amount(new BigDecimal("30.00"))
-                .occurredAt(Instant.parse("2025-10-09T14:30:00Z"))
-                .build();
+        // then
+        assertEquals(new BigDecimal("80.00"), result);
 
-        LedgerEntry credit10 = LedgerEntry.builder()
-                .wallet(wallet)
-                .type(LedgerEntryType.CREDIT)
-                .amount(new BigDecimal("10.00"))
-                .occurredAt(Instant.parse("2025-10-09T15:00:00Z"))
-                .build();
+        // garante que buscamos a carteira e as entradas corretas
+        verify(walletRepository).findById(walletId);
+        verify(ledgerEntryRepository).sumBalanceUpTo(walletId, atInstant);
+        verifyNoMoreInteractions(walletRepository, ledgerEntryRepository);
+    }
 
-        List<LedgerEntry> ledgerEntries = Arrays.asList(
-                credit100,
-                debit30,
-                credit10
-        );
+    @Test
+    void shouldStartFromLatestDailySnapshotAndSumOnlyLaterEntries() {
+        // given
+        UUID walletId = UUID.randomUUID();
+        Instant atInstant = Instant.parse("2025-10-09T15:00:00Z");
 
-        when(ledgerEntryRepository.findByWallet_IdAndOccurredAtLessThanEqual(walletId, atInstant))
-                .thenReturn(ledgerEntries);
+        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet(walletId)));
+        when(snapshotRepository.findFirstByWalletIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(
+                walletId, LocalDate.parse("2025-10-09")))
+                .thenReturn(Optional.of(WalletBalanceSnapshot.builder()
+                        .walletId(walletId)
+                        .snapshotDate(LocalDate.parse("2025-10-07"))
+                        .balance(new BigDecimal("500.00"))
+                        .build()));
+        when(ledgerEntryRepository.sumBalanceBetween(
+                walletId, Instant.parse("2025-10-08T00:00:00Z"), atInstant))
+                .thenReturn(new BigDecimal("-20.00"));
 
         // when
-        BigDecimal result = useCase.execute(walletId, atInstant);
+        BigDecimal result = useCase.execute(walletId, atInstant, null);
 
         // then
-        // saldo esperado = +100.00 -30.00 +10.00 = 80.00
-        assertEquals(new BigDecimal("80.00"), result);
+        assertEquals(new BigDecimal("480.00"), result);
+        verify(ledgerEntryRepository, never()).sumBalanceUpTo(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
 
-        // garante que buscamos a carteira e as entradas corretas
-        verify(walletRepository).findById(walletId);
-        verify(ledgerEntryRepository).findByWallet_IdAndOccurredAtLessThanEqual(walletId, atInstant);
-        verifyNoMoreInteractions(walletRepository, ledgerEntryRepository);
+    @Test
+    void shouldRecomputeOnPrimaryWhenReplicaDoesNotHaveTheWalletYet() {
+        UUID walletId = UUID.randomUUID();
+        Instant atInstant = Instant.parse("2025-10-09T15:00:00Z");
+        when(walletRepository.findById(walletId)).thenReturn(Optional.empty(), Optional.of(wallet(walletId)));
+        when(snapshotRepository.findFirstByWalletIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(
+                walletId, LocalDate.parse("2025-10-09"))).thenReturn(Optional.empty());
+        when(ledgerEntryRepository.sumBalanceUpTo(walletId, atInstant)).thenReturn(new BigDecimal("80.00"));
+
+        // com minVersion, a ausência na réplica não é 404: o primário responde
+        assertEquals(new BigDecimal("80.00"), useCase.execute(walletId, atInstant, 1L));
+        verify(walletRepository, times(2)).findById(walletId);
     }
 
     @Test
@@ -104,17 +116,24 @@ class GetHistoricalBalanceUseCaseImplTest {
         // when / then
         IllegalArgumentException ex = assertThrows(
                 IllegalArgumentException.class,
-                () -> useCase.execute(walletId, atInstant)
+                () -> useCase.execute(walletId, atInstant, null)
         );
 
         assertEquals("Wallet not found", ex.getMessage());
 
         // ledger NUNCA deve ser consultado se a carteira não existe
         verify(walletRepository).findById(walletId);
-        verify(ledgerEntryRepository, never())
-                .findByWallet_IdAndOccurredAtLessThanEqual(
-                        ArgumentMatchers.any(), ArgumentMatchers.any()
-                );
-        verifyNoMoreInteractions(walletRepository, ledgerEntryRepository);
+        verifyNoInteractions(ledgerEntryRepository, snapshotRepository);
+        verifyNoMoreInteractions(walletRepository);
+    }
+
+    private Wallet wallet(UUID walletId) {
+        return Wallet.builder()
+                .id(walletId)
+                .ownerName("Carlos")
+                .currentBalance(new BigDecimal("500.00"))
+                .createdAt(Instant.now())
+                .version(0L)
+                .build();
     }
-}
\ No newline at end of file
+}
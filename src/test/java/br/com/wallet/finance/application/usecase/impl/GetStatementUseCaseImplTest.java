@@ -0,0 +1,152 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.exception.WalletNotFoundException;
+import br.com.wallet.finance.domain.model.StatementCursor;
+import br.com.wallet.finance.domain.model.StatementEntry;
+import br.com.wallet.finance.infrastructure.archive.LedgerArchive;
+import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class GetStatementUseCaseImplTest {
+
+    private WalletRepository walletRepository;
+    private LedgerEntryRepository ledgerEntryRepository;
+    private LedgerArchive ledgerArchive;
+    private GetStatementUseCaseImpl useCase;
+
+    private final UUID walletId = UUID.randomUUID();
+    private final Instant from = Instant.parse("2025-10-01T00:00:00Z");
+    private final Instant to = Instant.parse("2025-11-01T00:00:00Z");
+
+    @BeforeEach
+    void setup() {
+        walletRepository = mock(WalletRepository.class);
+        ledgerEntryRepository = mock(LedgerEntryRepository.class);
+        ledgerArchive = mock(LedgerArchive.class);
+        useCase = new GetStatementUseCaseImpl(walletRepository, ledgerEntryRepository, ledgerArchive);
+    }
+
+    @Test
+    void shouldServeArchivedRowsFirstAndCompleteThePageFromDatabase() {
+        when(walletRepository.existsById(walletId)).thenReturn(true);
+
+        StatementEntry archived = entry("2025-10-02T10:00:00Z");
+        StatementEntry hot1 = entry("2025-10-20T10:00:00Z");
+        StatementEntry hot2 = entry("2025-10-21T10:00:00Z");
+
+        when(ledgerArchive.forEach(eq(walletId), eq(from), eq(to.minusNanos(1)), isNull(), eq(3), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<StatementEntry> sink = invocation.getArgument(5);
+                    sink.accept(archived);
+                    return 1;
+                });
+        // o banco só precisa completar o que faltou da página (limit + 1 - arquivados)
+        when(ledgerEntryRepository.streamStatement(walletId, from, to, Limit.of(2)))
+                .thenReturn(Stream.of(hot1, hot2));
+
+        List<StatementEntry> emitted = new ArrayList<>();
+        StatementCursor next = useCase.execute(walletId, from, to, null, 2, emitted::add);
+
+        assertEquals(List.of(archived, hot1), emitted);
+        assertEquals(StatementCursor.of(hot1), next);
+    }
+
+    @Test
+    void shouldEmitPageAndReturnCursorWhenThereAreMoreRows() {
+        when(walletRepository.existsById(walletId)).thenReturn(true);
+
+        StatementEntry e1 = entry("2025-10-02T10:00:00Z");
+        StatementEntry e2 = entry("2025-10-03T10:00:00Z");
+        StatementEntry e3 = entry("2025-10-04T10:00:00Z");
+
+        // limit 2 -> repositório é consultado com limit + 1
+        when(ledgerEntryRepository.streamStatement(walletId, from, to, Limit.of(3)))
+                .thenReturn(Stream.of(e1, e2, e3));
+
+        List<StatementEntry> emitted = new ArrayList<>();
+        StatementCursor next = useCase.execute(walletId, from, to, null, 2, emitted::add);
+
+        assertEquals(List.of(e1, e2), emitted);
+        assertEquals(new StatementCursor(e2.occurredAt(), e2.id()), next);
+    }
+
+    @Test
+    void shouldReturnNullCursorOnLastPage() {
+        when(walletRepository.existsById(walletId)).thenReturn(true);
+
+        StatementEntry e1 = entry("2025-10-05T10:00:00Z");
+        StatementCursor after = new StatementCursor(Instant.parse("2025-10-04T10:00:00Z"), UUID.randomUUID());
+
+        when(ledgerEntryRepository.streamStatementAfter(
+                walletId, from, to, after.occurredAt(), after.id(), Limit.of(3)))
+                .thenReturn(Stream.of(e1));
+
+        List<StatementEntry> emitted = new ArrayList<>();
+        StatementCursor next = useCase.execute(walletId, from, to, after, 2, emitted::add);
+
+        assertEquals(List.of(e1), emitted);
+        assertNull(next);
+        verify(ledgerEntryRepository, never()).streamStatement(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldThrowWhenWalletDoesNotExist() {
+        when(walletRepository.existsById(walletId)).thenReturn(false);
+
+        assertThrows(
+                WalletNotFoundException.class,
+                () -> useCase.execute(walletId, from, to, null, 10, e -> fail("nada deve ser emitido"))
+        );
+
+        verifyNoInteractions(ledgerEntryRepository);
+    }
+
+    @Test
+    void shouldRejectInvalidLimitAndRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> useCase.execute(walletId, from, to, null, 0, e -> { }));
+        assertThrows(IllegalArgumentException.class,
+                () -> useCase.execute(walletId, from, to, null, 1001, e -> { }));
+        assertThrows(IllegalArgumentException.class,
+                () -> useCase.execute(walletId, to, from, null, 10, e -> { }));
+
+        verifyNoInteractions(walletRepository, ledgerEntryRepository);
+    }
+
+    @Test
+    void cursorShouldRoundTripAndRejectGarbage() {
+        StatementCursor cursor = new StatementCursor(Instant.parse("2025-10-02T10:00:00.123456Z"), UUID.randomUUID());
+
+        assertEquals(cursor, StatementCursor.decode(cursor.encode()));
+        assertThrows(IllegalArgumentException.class, () -> StatementCursor.decode("not-a-cursor"));
+    }
+
+    private StatementEntry entry(String occurredAt) {
+        return new StatementEntry(
+                UUID.randomUUID(),
+                LedgerEntryType.CREDIT,
+                new BigDecimal("10.00"),
+                null,
+                "DEPOSIT",
+                Instant.parse(occurredAt)
+        );
+    }
+}
@@ -1,22 +1,34 @@
 package br.com.wallet.finance.application.usecase.impl;
 
 import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.enums.LedgerReason;
 import br.com.wallet.finance.domain.enums.PixTransferStatus;
 import br.com.wallet.finance.domain.exception.PixTransferNotFoundException;
 import br.com.wallet.finance.domain.model.LedgerEntry;
 import br.com.wallet.finance.domain.model.PixTransfer;
+import br.com.wallet.finance.domain.model.PixTransferHistory;
 import br.com.wallet.finance.domain.model.Wallet;
 import br.com.wallet.finance.domain.model.WebhookEvent;
 import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.PixTransferHistoryRepository;
 import br.com.wallet.finance.infrastructure.repository.PixTransferRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletDailyCashFlowRepository;
 import br.com.wallet.finance.infrastructure.repository.WalletRepository;
 import br.com.wallet.finance.infrastructure.repository.WebhookEventRepository;
+import br.com.wallet.finance.infrastructure.saga.PixTransferSagaCoordinator;
+import br.com.wallet.finance.infrastructure.sharding.ConsistentHashRing;
+import br.com.wallet.finance.infrastructure.sharding.ShardContext;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import javax.sql.DataSource;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,6 +42,9 @@ class ProcessWebhookUseCaseImplTest {
     private PixTransferRepository pixTransferRepository;
     private WalletRepository walletRepository;
     private LedgerEntryRepository ledgerEntryRepository;
+    private WalletDailyCashFlowRepository dailyCashFlowRepository;
+    private PixTransferHistoryRepository pixTransferHistoryRepository;
+    private PixTransferSagaCoordinator sagaCoordinator;
 
     private ProcessWebhookUseCaseImpl useCase;
 
@@ -39,12 +54,20 @@ class ProcessWebhookUseCaseImplTest {
         pixTransferRepository = mock(PixTransferRepository.class);
         walletRepository = mock(WalletRepository.class);
         ledgerEntryRepository = mock(LedgerEntryRepository.class);
+        dailyCashFlowRepository = mock(WalletDailyCashFlowRepository.class);
+        pixTransferHistoryRepository = mock(PixTransferHistoryRepository.class);
+        sagaCoordinator = mock(PixTransferSagaCoordinator.class);
 
         useCase = new ProcessWebhookUseCaseImpl(
                 webhookEventRepository,
                 pixTransferRepository,
                 walletRepository,
-                ledgerEntryRepository
+                ledgerEntryRepository,
+                dailyCashFlowRepository,
+                pixTransferHistoryRepository,
+                WalletShards.single(mock(DataSource.class)),
+                sagaCoordinator,
+                Duration.ofDays(7)
         );
     }
 
@@ -115,7 +138,8 @@ class ProcessWebhookUseCaseImplTest {
         assertEquals(LedgerEntryType.CREDIT, savedLedger.getType());
         assertEquals(new BigDecimal("30.00"), savedLedger.getAmount());
         assertEquals(endToEndId, savedLedger.getEndToEndId());
-        assertEquals("PIX IN CONFIRMED", savedLedger.getDescription());
+        assertEquals(LedgerReason.PIX_IN_CONFIRMED, savedLedger.getReason());
+        assertNull(savedLedger.getDescription());
         assertNotNull(savedLedger.getOccurredAt(), "occurredAt deve ser preenchido");
 
         // 3. Deve atualizar o saldo da carteira destino
@@ -225,7 +249,8 @@ class ProcessWebhookUseCaseImplTest {
 
         assertEquals(LedgerEntryType.CREDIT, refundLedger.getType(), "estorno deve ser CREDIT na origem");
         assertEquals(new BigDecimal("40.00"), refundLedger.getAmount());
-        assertEquals("PIX REFUND REJECTED", refundLedger.getDescription());
+        assertEquals(LedgerReason.PIX_REFUND_REJECTED, refundLedger.getReason());
+        assertNull(refundLedger.getDescription());
         assertEquals(endToEndId, refundLedger.getEndToEndId());
         assertNotNull(refundLedger.getOccurredAt());
 
@@ -306,4 +331,125 @@ class ProcessWebhookUseCaseImplTest {
         verify(walletRepository, never()).save(any());
         verify(ledgerEntryRepository, never()).save(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_ignore_event_for_transfer_already_retired_to_history() {
+        // Given
+        String eventId = "evt-late";
+        String endToEndId = "e2e-retired";
+
+        when(webhookEventRepository.existsByEventId(eventId)).thenReturn(false);
+        when(pixTransferRepository.findByEndToEndId(endToEndId)).thenReturn(Optional.empty());
+        when(pixTransferHistoryRepository.findByEndToEndId(endToEndId)).thenReturn(Optional.of(
+                PixTransferHistory.builder()
+                        .id(UUID.randomUUID())
+                        .fromWalletId(UUID.randomUUID())
+                        .toWalletId(UUID.randomUUID())
+                        .amount(new BigDecimal("10.00"))
+                        .endToEndId(endToEndId)
+                        .status(PixTransferStatus.CONFIRMED)
+                        .build()
+        ));
+
+        // When
+        useCase.execute(eventId, endToEndId, "REJECTED", Instant.now());
+
+        // Then: o evento fica registrado, mas nada muda
+        verify(webhookEventRepository).save(any(WebhookEvent.class));
+        verify(pixTransferRepository, never()).save(any());
+        verify(walletRepository, never()).findByIdForUpdate(any());
+        verify(ledgerEntryRepository, never()).save(any());
+    }
+
+    @Test
+    void should_ignore_stale_replay_of_settled_transfer_without_recording_it() {
+        // Given: eventId já expurgado (fora da janela) e transferência liquidada
+        String eventId = "evt-purged";
+        String endToEndId = "e2e-settled";
+
+        when(webhookEventRepository.existsByEventId(eventId)).thenReturn(false);
+        when(pixTransferRepository.findByEndToEndId(endToEndId)).thenReturn(Optional.of(
+                PixTransfer.builder()
+                        .fromWallet(Wallet.builder().id(UUID.randomUUID()).build())
+                        .toWallet(Wallet.builder().id(UUID.randomUUID()).build())
+                        .amount(new BigDecimal("10.00"))
+                        .endToEndId(endToEndId)
+                        .status(PixTransferStatus.CONFIRMED)
+                        .build()
+        ));
+
+        // When
+        useCase.execute(eventId, endToEndId, "CONFIRMED", Instant.now().minus(Duration.ofDays(8)));
+
+        // Then: o replay não volta para webhook_events e não mexe em nada
+        verify(webhookEventRepository, never()).save(any());
+        verify(pixTransferRepository, never()).save(any());
+        verify(walletRepository, never()).findByIdForUpdate(any());
+        verify(ledgerEntryRepository, never()).save(any());
+    }
+
+    @Test
+    void should_reject_invalid_dedupe_window() {
+        assertThrows(IllegalArgumentException.class, () -> new ProcessWebhookUseCaseImpl(
+                webhookEventRepository,
+                pixTransferRepository,
+                walletRepository,
+                ledgerEntryRepository,
+                dailyCashFlowRepository,
+                pixTransferHistoryRepository,
+                WalletShards.single(mock(DataSource.class)),
+                sagaCoordinator,
+                Duration.ZERO
+        ));
+    }
+
+    @Test
+    void should_start_saga_when_destination_wallet_is_on_another_shard() {
+        WalletShards shards = new WalletShards(Map.of("s0", mock(DataSource.class), "s1", mock(DataSource.class)),
+                new ConsistentHashRing(List.of("s0", "s1"), 64));
+        ProcessWebhookUseCaseImpl shardedUseCase = new ProcessWebhookUseCaseImpl(webhookEventRepository, pixTransferRepository,
+                walletRepository, ledgerEntryRepository, dailyCashFlowRepository, pixTransferHistoryRepository,
+                shards, sagaCoordinator, Duration.ofDays(7));
+
+        UUID fromWalletId = walletOn(shards, "s0");
+        UUID toWalletId = walletOn(shards, "s1");
+        PixTransfer transfer = PixTransfer.builder()
+                .endToEndId("e2e-saga")
+                .fromWallet(Wallet.builder().id(fromWalletId).build())
+                .toWallet(Wallet.builder().id(toWalletId).build())
+                .amount(new BigDecimal("20.00"))
+                .status(PixTransferStatus.PENDING)
+                .build();
+        when(pixTransferRepository.findByEndToEndId("e2e-saga")).thenReturn(Optional.of(transfer));
+
+        // o webhook roda no shard da transferência (o da origem)
+        ShardContext.on("s0", () -> {
+            shardedUseCase.execute("evt-saga-1", "e2e-saga", "CONFIRMED", Instant.now());
+            return null;
+        });
+
+        // crédito fica com a saga: nada travado nem lançado aqui e a transferência segue PENDING
+        verify(sagaCoordinator).start(transfer);
+        verify(walletRepository, never()).findByIdForUpdate(any());
+        verifyNoInteractions(ledgerEntryRepository, dailyCashFlowRepository);
+        assertEquals(PixTransferStatus.PENDING, transfer.getStatus());
+
+        // evento seguinte (mesmo um REJECTED) é ignorado enquanto a saga não termina
+        when(sagaCoordinator.exists("e2e-saga")).thenReturn(true);
+        ShardContext.on("s0", () -> {
+            shardedUseCase.execute("evt-saga-2", "e2e-saga", "REJECTED", Instant.now());
+            return null;
+        });
+        verify(sagaCoordinator, times(1)).start(any());
+        verify(walletRepository, never()).findByIdForUpdate(any());
+        assertEquals(PixTransferStatus.PENDING, transfer.getStatus());
+    }
+
+    private UUID walletOn(WalletShards shards, String shard) {
+        UUID walletId;
+        do {
+            walletId = UUID.randomUUID();
+        } while (!shards.shardOf(walletId).equals(shard));
+        return walletId;
+    }
+}
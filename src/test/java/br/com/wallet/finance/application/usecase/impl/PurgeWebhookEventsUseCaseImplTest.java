@@ -0,0 +1,70 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.domain.model.WebhookEventPurgeResult;
+import br.com.wallet.finance.infrastructure.repository.WebhookEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PurgeWebhookEventsUseCaseImplTest {
+
+    private WebhookEventRepository webhookEventRepository;
+    private PurgeWebhookEventsUseCaseImpl useCase;
+
+    @BeforeEach
+    void setup() {
+        webhookEventRepository = mock(WebhookEventRepository.class);
+        useCase = new PurgeWebhookEventsUseCaseImpl(
+                webhookEventRepository,
+                mock(PlatformTransactionManager.class),
+                Duration.ofDays(7),
+                2,
+                2,
+                0
+        );
+    }
+
+    @Test
+    void shouldDeleteExpiredEventsInBatchesUpToTheRunLimit() {
+        List<UUID> first = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> second = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(webhookEventRepository.findExpiredIds(any(), eq(Limit.of(2)))).thenReturn(first, second);
+        when(webhookEventRepository.deleteByIds(any())).thenReturn(2);
+
+        Instant before = Instant.now().minus(Duration.ofDays(7));
+        WebhookEventPurgeResult result = useCase.execute();
+
+        assertEquals(2, result.batches());
+        assertEquals(4, result.deleted());
+        assertFalse(result.cutoff().isBefore(before));
+
+        // lotes cheios, mas o limite por execução encerra sem terceira consulta
+        verify(webhookEventRepository, times(2)).findExpiredIds(any(), any());
+        verify(webhookEventRepository).deleteByIds(first);
+        verify(webhookEventRepository).deleteByIds(second);
+    }
+
+    @Test
+    void shouldUseTheDedupeWindowAsCutoffAndStopWhenNothingExpired() {
+        when(webhookEventRepository.findExpiredIds(any(), any())).thenReturn(List.of());
+
+        WebhookEventPurgeResult result = useCase.execute();
+
+        ArgumentCaptor<Instant> cutoff = ArgumentCaptor.forClass(Instant.class);
+        verify(webhookEventRepository).findExpiredIds(cutoff.capture(), any());
+        assertEquals(result.cutoff(), cutoff.getValue());
+        assertEquals(0, result.batches());
+        verify(webhookEventRepository, never()).deleteByIds(any());
+    }
+}
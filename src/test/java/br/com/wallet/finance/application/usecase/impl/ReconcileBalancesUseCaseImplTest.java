@@ -0,0 +1,172 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.model.BalanceDrift;
+import br.com.wallet.finance.domain.model.ReconciliationResult;
+import br.com.wallet.finance.domain.model.ReconciliationRun;
+import br.com.wallet.finance.domain.model.StatementEntry;
+import br.com.wallet.finance.domain.model.WalletDailyCashFlow;
+import br.com.wallet.finance.domain.model.Wallet;
+import br.com.wallet.finance.infrastructure.job.BalanceReconciliationJob;
+import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.ReconciliationRunRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletArchivedBalanceRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletDailyCashFlowRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.ConsistentHashRing;
+import br.com.wallet.finance.infrastructure.sharding.ShardContext;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReconcileBalancesUseCaseImplTest {
+
+    private WalletRepository walletRepository;
+    private LedgerEntryRepository ledgerEntryRepository;
+    private WalletDailyCashFlowRepository dailyCashFlowRepository;
+    private ReconciliationRunRepository runRepository;
+    private WalletArchivedBalanceRepository archivedBalanceRepository;
+    private ReconcileBalancesUseCaseImpl useCase;
+
+    @BeforeEach
+    void setup() {
+        walletRepository = mock(WalletRepository.class);
+        ledgerEntryRepository = mock(LedgerEntryRepository.class);
+        dailyCashFlowRepository = mock(WalletDailyCashFlowRepository.class);
+        runRepository = mock(ReconciliationRunRepository.class);
+        archivedBalanceRepository = mock(WalletArchivedBalanceRepository.class);
+        useCase = new ReconcileBalancesUseCaseImpl(
+                walletRepository,
+                ledgerEntryRepository,
+                dailyCashFlowRepository,
+                runRepository,
+                archivedBalanceRepository,
+                mock(PlatformTransactionManager.class),
+                4, 2, Duration.ofMinutes(5)
+        );
+    }
+
+    @Test
+    void shouldRunFullPassWhenThereIsNoPreviousWatermark() {
+        UUID walletId = UUID.randomUUID();
+        BalanceDrift drift = new BalanceDrift(walletId, new BigDecimal("99.00"), new BigDecimal("7.00"));
+        when(runRepository.findFirstByOrderByWatermarkDesc()).thenReturn(Optional.empty());
+        when(walletRepository.findDriftInRange(any(), any())).thenReturn(List.of(drift)).thenReturn(List.of());
+
+        ReconciliationResult result = useCase.execute(false, false);
+
+        assertTrue(result.fullPass());
+        assertNull(result.since());
+        assertEquals(List.of(drift), result.drifts());
+        assertEquals(0, result.repaired());
+        verify(walletRepository, times(4)).findDriftInRange(any(), any());
+        verify(walletRepository, never()).findDriftInRangeSince(any(), any(), any());
+        verify(walletRepository, never()).findByIdForUpdate(any());
+
+        ArgumentCaptor<ReconciliationRun> run = ArgumentCaptor.forClass(ReconciliationRun.class);
+        verify(runRepository).save(run.capture());
+        assertEquals(1, run.getValue().getDriftCount());
+        assertEquals(result.watermark(), run.getValue().getWatermark());
+    }
+
+    @Test
+    void shouldReadEveryRangeOnTheShardOfTheJob() {
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        when(runRepository.findFirstByOrderByWatermarkDesc()).thenReturn(Optional.empty());
+        when(walletRepository.findDriftInRange(any(), any())).thenAnswer(invocation -> {
+            seen.add(ShardContext.current());
+            return List.of();
+        });
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        dataSources.put("s0", mock(DataSource.class));
+        dataSources.put("s1", mock(DataSource.class));
+        WalletShards walletShards = new WalletShards(dataSources, new ConsistentHashRing(List.of("s0", "s1"), 16));
+
+        new BalanceReconciliationJob(useCase, walletShards, false).full();
+
+        // as faixas rodam nas threads do pool, mas cada uma no shard da execução do job
+        assertEquals(8, seen.size());
+        assertEquals(4, Collections.frequency(seen, "s0"));
+        assertEquals(4, Collections.frequency(seen, "s1"));
+    }
+
+    @Test
+    void shouldOnlyCheckWalletsWithActivitySinceLastWatermark() {
+        Instant previous = Instant.parse("2025-06-01T10:00:00Z");
+        when(runRepository.findFirstByOrderByWatermarkDesc())
+                .thenReturn(Optional.of(ReconciliationRun.builder().watermark(previous).build()));
+        when(walletRepository.findDriftInRangeSince(any(), any(), eq(previous))).thenReturn(List.of());
+
+        Instant before = Instant.now();
+        ReconciliationResult result = useCase.execute(false, false);
+
+        assertFalse(result.fullPass());
+        assertEquals(previous, result.since());
+        assertTrue(result.drifts().isEmpty());
+        // marca d'água recuada para cobrir transações que ainda não tinham commitado
+        assertFalse(result.watermark().isAfter(before.minus(Duration.ofMinutes(5)).plusSeconds(1)));
+        verify(walletRepository, times(4)).findDriftInRangeSince(any(), any(), eq(previous));
+        verify(walletRepository, never()).findDriftInRange(any(), any());
+    }
+
+    @Test
+    void shouldRebuildBalanceAndDailyAggregatesInRepairMode() {
+        UUID walletId = UUID.randomUUID();
+        Wallet wallet = Wallet.builder().id(walletId).currentBalance(new BigDecimal("99.00")).build();
+        when(walletRepository.findDriftInRange(any(), any()))
+                .thenReturn(List.of(new BalanceDrift(walletId, new BigDecimal("99.00"), new BigDecimal("7.00"))))
+                .thenReturn(List.of());
+        when(walletRepository.findByIdForUpdate(walletId)).thenReturn(Optional.of(wallet));
+        when(ledgerEntryRepository.streamAllMovements(walletId)).thenReturn(Stream.of(
+                movement(LedgerEntryType.CREDIT, "10.00", "2025-01-01T10:00:00Z"),
+                movement(LedgerEntryType.DEBIT, "2.00", "2025-01-01T11:00:00Z"),
+                movement(LedgerEntryType.DEBIT, "1.00", "2025-01-03T09:00:00Z")
+        ));
+        List<WalletDailyCashFlow> rebuilt = new ArrayList<>();
+        when(dailyCashFlowRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            Iterable<WalletDailyCashFlow> rows = invocation.getArgument(0);
+            rows.forEach(rebuilt::add);
+            return rebuilt;
+        });
+
+        ReconciliationResult result = useCase.execute(true, true);
+
+        assertEquals(1, result.repaired());
+        assertEquals(new BigDecimal("7.00"), wallet.getCurrentBalance());
+        verify(walletRepository).save(wallet);
+        verify(dailyCashFlowRepository).deleteFromDate(walletId, LocalDate.EPOCH);
+
+        assertEquals(2, rebuilt.size());
+        assertEquals(new BigDecimal("10.00"), rebuilt.get(0).getTotalCredits());
+        assertEquals(new BigDecimal("2.00"), rebuilt.get(0).getTotalDebits());
+        assertEquals(new BigDecimal("8.00"), rebuilt.get(0).getClosingBalance());
+        assertEquals(new BigDecimal("7.00"), rebuilt.get(1).getClosingBalance());
+    }
+
+    private StatementEntry movement(LedgerEntryType type, String amount, String at) {
+        return new StatementEntry(UUID.randomUUID(), type, new BigDecimal(amount), null, "x", Instant.parse(at));
+    }
+}
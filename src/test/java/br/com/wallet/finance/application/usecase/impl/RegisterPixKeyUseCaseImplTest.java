@@ -6,6 +6,7 @@ import br.com.wallet.finance.domain.model.PixKey;
 import br.com.wallet.finance.domain.model.Wallet;
 import br.com.wallet.finance.infrastructure.repository.PixKeyRepository;
 import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.PixKeyDirectory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -22,13 +23,15 @@ class RegisterPixKeyUseCaseImplTest {
 
     private WalletRepository walletRepository;
     private PixKeyRepository pixKeyRepository;
+    private PixKeyDirectory pixKeyDirectory;
     private RegisterPixKeyUseCaseImpl useCase;
 
     @BeforeEach
     void setUp() {
         walletRepository = mock(WalletRepository.class);
         pixKeyRepository = mock(PixKeyRepository.class);
-        useCase = new RegisterPixKeyUseCaseImpl(walletRepository, pixKeyRepository);
+        pixKeyDirectory = mock(PixKeyDirectory.class);
+        useCase = new RegisterPixKeyUseCaseImpl(walletRepository, pixKeyRepository, pixKeyDirectory);
     }
 
     @Test
@@ -47,7 +50,7 @@ class RegisterPixKeyUseCaseImplTest {
                 .build();
 
         when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
-        when(pixKeyRepository.existsByKeyValue(keyValue)).thenReturn(false);
+        when(pixKeyDirectory.register(keyValue, walletId)).thenReturn(true);
 
         // capturar o PixKey salvo
         ArgumentCaptor<PixKey> pixKeyCaptor = ArgumentCaptor.forClass(PixKey.class);
@@ -67,7 +70,7 @@ class RegisterPixKeyUseCaseImplTest {
 
         // garante que chamou os repositórios corretos
         verify(walletRepository, times(1)).findById(walletId);
-        verify(pixKeyRepository, times(1)).existsByKeyValue(keyValue);
+        verify(pixKeyDirectory, times(1)).register(keyValue, walletId);
         verify(pixKeyRepository, times(1)).save(any(PixKey.class));
 
         // valida o objeto realmente passado pro save
@@ -98,7 +101,7 @@ class RegisterPixKeyUseCaseImplTest {
 
         verify(walletRepository, times(1)).findById(walletId);
         verifyNoMoreInteractions(walletRepository);
-        verifyNoInteractions(pixKeyRepository); // nem tenta checar chave
+        verifyNoInteractions(pixKeyRepository, pixKeyDirectory); // nem tenta checar chave
     }
 
     @Test
@@ -117,7 +120,7 @@ class RegisterPixKeyUseCaseImplTest {
                 .build();
 
         when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
-        when(pixKeyRepository.existsByKeyValue(keyValue)).thenReturn(true);
+        when(pixKeyDirectory.register(keyValue, walletId)).thenReturn(false);
 
         // when + then
         PixKeyAlreadyExistsException ex = assertThrows(
@@ -129,7 +132,7 @@ class RegisterPixKeyUseCaseImplTest {
         assertEquals("Pix key already registered", ex.getMessage());
 
         verify(walletRepository, times(1)).findById(walletId);
-        verify(pixKeyRepository, times(1)).existsByKeyValue(keyValue);
+        verify(pixKeyDirectory, times(1)).register(keyValue, walletId);
         verify(pixKeyRepository, never()).save(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package br.com.wallet.finance.application.usecase.impl;
+
+import br.com.wallet.finance.domain.model.PixTransferRetirementResult;
+import br.com.wallet.finance.infrastructure.repository.PixTransferHistoryRepository;
+import br.com.wallet.finance.infrastructure.repository.PixTransferRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RetireSettledTransfersUseCaseImplTest {
+
+    private PixTransferRepository pixTransferRepository;
+    private PixTransferHistoryRepository historyRepository;
+    private RetireSettledTransfersUseCaseImpl useCase;
+
+    @BeforeEach
+    void setup() {
+        pixTransferRepository = mock(PixTransferRepository.class);
+        historyRepository = mock(PixTransferHistoryRepository.class);
+        useCase = new RetireSettledTransfersUseCaseImpl(
+                pixTransferRepository,
+                historyRepository,
+                mock(PlatformTransactionManager.class),
+                30,
+                2,
+                10,
+                0
+        );
+    }
+
+    @Test
+    void shouldCopyThenDeleteBatchesUntilAShortOne() {
+        List<UUID> first = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> second = List.of(UUID.randomUUID());
+        when(pixTransferRepository.findSettledIdsBefore(any(), eq(Limit.of(2)))).thenReturn(first, second);
+        when(historyRepository.copySettled(eq(first), any())).thenReturn(2);
+        when(pixTransferRepository.deleteSettled(first)).thenReturn(2);
+        when(historyRepository.copySettled(eq(second), any())).thenReturn(1);
+        when(pixTransferRepository.deleteSettled(second)).thenReturn(1);
+
+        Instant before = Instant.now().minus(Duration.ofDays(30));
+        PixTransferRetirementResult result = useCase.execute();
+
+        assertEquals(2, result.batches());
+        assertEquals(3, result.moved());
+        assertFalse(result.cutoff().isBefore(before));
+
+        // cópia antes da exclusão, lote a lote; o lote curto encerra sem nova consulta
+        InOrder order = inOrder(pixTransferRepository, historyRepository);
+        order.verify(historyRepository).copySettled(eq(first), any());
+        order.verify(pixTransferRepository).deleteSettled(first);
+        order.verify(historyRepository).copySettled(eq(second), any());
+        order.verify(pixTransferRepository).deleteSettled(second);
+        verify(pixTransferRepository, times(2)).findSettledIdsBefore(any(), any());
+    }
+
+    @Test
+    void shouldFailBatchWhenCopyAndDeleteDisagree() {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(pixTransferRepository.findSettledIdsBefore(any(), any())).thenReturn(ids);
+        when(historyRepository.copySettled(eq(ids), any())).thenReturn(2);
+        when(pixTransferRepository.deleteSettled(ids)).thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> useCase.execute());
+    }
+
+    @Test
+    void shouldDoNothingWhenNoSettledTransferIsOldEnough() {
+        when(pixTransferRepository.findSettledIdsBefore(any(), any())).thenReturn(List.of());
+
+        PixTransferRetirementResult result = useCase.execute();
+
+        assertEquals(0, result.batches());
+        assertEquals(0, result.moved());
+        verifyNoInteractions(historyRepository);
+        verify(pixTransferRepository, never()).deleteSettled(any());
+    }
+}
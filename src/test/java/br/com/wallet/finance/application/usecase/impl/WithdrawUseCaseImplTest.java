@@ -1,11 +1,16 @@
 package br.com.wallet.finance.application.usecase.impl;
 
+import br.com.wallet.finance.domain.enums.IdempotencyScope;
 import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.enums.LedgerReason;
 import br.com.wallet.finance.domain.exception.InsufficientFundsException;
 import br.com.wallet.finance.domain.exception.WalletNotFoundException;
+import br.com.wallet.finance.domain.model.IdempotentResponse;
 import br.com.wallet.finance.domain.model.LedgerEntry;
 import br.com.wallet.finance.domain.model.Wallet;
+import br.com.wallet.finance.infrastructure.idempotency.IdempotencyStore;
 import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletDailyCashFlowRepository;
 import br.com.wallet.finance.infrastructure.repository.WalletRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,6 +31,12 @@ class WithdrawUseCaseImplTest {
     @Mock
     private LedgerEntryRepository ledgerEntryRepository;
 
+    @Mock
+    private WalletDailyCashFlowRepository dailyCashFlowRepository;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
     @InjectMocks
     private WithdrawUseCaseImpl withdrawUseCase;
 
@@ -61,12 +72,12 @@ class WithdrawUseCaseImplTest {
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
         // mock: salvar wallet atualizada ok
-        when(walletRepository.save(any(Wallet.class)))
+        when(walletRepository.saveAndFlush(any(Wallet.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
         // when
         assertDoesNotThrow(() ->
-                withdrawUseCase.execute(walletId, amount, description)
+                withdrawUseCase.execute(null, walletId, amount, description)
         );
 
         // then
@@ -78,12 +89,13 @@ class WithdrawUseCaseImplTest {
         assertEquals(wallet, savedEntry.getWallet());
         assertEquals(LedgerEntryType.DEBIT, savedEntry.getType());
         assertEquals(new BigDecimal("100.00"), savedEntry.getAmount());
+        assertEquals(LedgerReason.WITHDRAW, savedEntry.getReason());
         assertEquals("ATM WITHDRAW", savedEntry.getDescription());
         assertNotNull(savedEntry.getOccurredAt());
 
         // valida que o saldo da wallet foi atualizado
         ArgumentCaptor<Wallet> walletCaptor = ArgumentCaptor.forClass(Wallet.class);
-        verify(walletRepository, times(1)).save(walletCaptor.capture());
+        verify(walletRepository, times(1)).saveAndFlush(walletCaptor.capture());
 
         Wallet updatedWallet = walletCaptor.getValue();
         assertEquals(new BigDecimal("400.00"), updatedWallet.getCurrentBalance());
@@ -93,26 +105,58 @@ class WithdrawUseCaseImplTest {
         verifyNoMoreInteractions(walletRepository);
     }
 
+    @Test
+    void deve_ignorar_saque_repetido_com_a_mesma_chave() {
+        // given: a chave já foi atendida
+        when(idempotencyStore.find(IdempotencyScope.WITHDRAW, walletId, "saque-1"))
+                .thenReturn(Optional.of(new IdempotentResponse(UUID.randomUUID(), null, 4L)));
+
+        // when
+        Long version = withdrawUseCase.execute("saque-1", walletId, new BigDecimal("100.00"), "ATM WITHDRAW");
+
+        // then: nem lock, nem débito, e a versão da resposta original
+        assertEquals(4L, version);
+        verifyNoInteractions(walletRepository, ledgerEntryRepository, dailyCashFlowRepository);
+        verify(idempotencyStore, never()).remember(any(), any(), any(), any());
+    }
+
+    @Test
+    void deve_nao_aplicar_quando_a_chave_foi_atendida_enquanto_esperava_o_lock() {
+        // given: a primeira consulta não encontra, a segunda (já com lock) encontra
+        when(idempotencyStore.find(IdempotencyScope.WITHDRAW, walletId, "saque-1"))
+                .thenReturn(Optional.empty(), Optional.of(new IdempotentResponse(UUID.randomUUID(), null, 4L)));
+        when(walletRepository.findByIdForUpdate(walletId)).thenReturn(Optional.of(wallet));
+
+        // when
+        Long version = withdrawUseCase.execute("saque-1", walletId, new BigDecimal("100.00"), "ATM WITHDRAW");
+
+        // then
+        assertEquals(4L, version);
+        verifyNoInteractions(ledgerEntryRepository);
+        verify(walletRepository, never()).saveAndFlush(any());
+        assertEquals(new BigDecimal("500.00"), wallet.getCurrentBalance());
+    }
+
     @Test
     void deve_lancar_erro_quando_amount_for_nulo_ou_negativo() {
         // amount nulo
         IllegalArgumentException ex1 = assertThrows(
                 IllegalArgumentException.class,
-                () -> withdrawUseCase.execute(walletId, null, "teste")
+                () -> withdrawUseCase.execute(null, walletId, null, "teste")
         );
         assertEquals("Amount must be positive", ex1.getMessage());
 
         // amount zero
         IllegalArgumentException ex2 = assertThrows(
                 IllegalArgumentException.class,
-                () -> withdrawUseCase.execute(walletId, BigDecimal.ZERO, "teste")
+                () -> withdrawUseCase.execute(null, walletId, BigDecimal.ZERO, "teste")
         );
         assertEquals("Amount must be positive", ex2.getMessage());
 
         // amount negativo
         IllegalArgumentException ex3 = assertThrows(
                 IllegalArgumentException.class,
-                () -> withdrawUseCase.execute(walletId, new BigDecimal("-5.00"), "teste")
+                () -> withdrawUseCase.execute(null, walletId, new BigDecimal("-5.00"), "teste")
         );
         assertEquals("Amount must be positive", ex3.getMessage());
 
@@ -132,7 +176,7 @@ class WithdrawUseCaseImplTest {
         // when
         WalletNotFoundException ex = assertThrows(
                 WalletNotFoundException.class,
-                () -> withdrawUseCase.execute(walletId, amount, "WITHDRAW")
+                () -> withdrawUseCase.execute(null, walletId, amount, "WITHDRAW")
         );
 
         // then
@@ -154,7 +198,7 @@ class WithdrawUseCaseImplTest {
         // when
         InsufficientFundsException ex = assertThrows(
                 InsufficientFundsException.class,
-                () -> withdrawUseCase.execute(walletId, amount, "WITHDRAW")
+                () -> withdrawUseCase.execute(null, walletId, amount, "WITHDRAW")
         );
 
         // then
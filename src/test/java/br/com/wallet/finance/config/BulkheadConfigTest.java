@@ -0,0 +1,79 @@
+package br.com.wallet.finance.config;
+
+import br.com.wallet.finance.infrastructure.bulkhead.Bulkheads;
+import br.com.wallet.finance.infrastructure.bulkhead.TrafficClass;
+import br.com.wallet.finance.infrastructure.bulkhead.TrafficClassContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadConfigTest {
+
+    private final BulkheadConfig config = new BulkheadConfig();
+
+    @Test
+    void shouldReserveConnectionsForEveryClassButSettlement() {
+        Bulkheads bulkheads = config.bulkheads(environment(6, 3, 4, 14), noMeters());
+
+        assertNull(bulkheads.connections(TrafficClass.SETTLEMENT));
+        assertEquals(6, bulkheads.connections(TrafficClass.MONEY_MOVEMENT).limit());
+        assertEquals(3, bulkheads.connections(TrafficClass.READ).limit());
+        assertEquals(4, bulkheads.connections(TrafficClass.OTHER).limit());
+    }
+
+    @Test
+    void shouldFailWhenOtherConsumersLeaveNoConnectionForSettlement() {
+        // 6 + 3 cabiam num pool de 10; com sagas e jobs não sobra nada
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> config.bulkheads(environment(6, 3, 1, 10), noMeters()));
+
+        assertTrue(e.getMessage().contains("max-connections must stay below"));
+    }
+
+    @Test
+    void shouldFailWhenAClassHasNoConnectionQuota() {
+        MockEnvironment environment = environment(6, 3, 4, 14);
+        environment.setProperty("wallet.bulkhead.classes.read.max-connections", "0");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> config.bulkheads(environment, noMeters()));
+
+        assertEquals("wallet.bulkhead.classes.read.max-connections must be positive", e.getMessage());
+    }
+
+    @Test
+    void shouldRunScheduledJobsAsOtherTraffic() throws Exception {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        config.otherTrafficTaskSchedulerCustomizer().customize(scheduler);
+        scheduler.initialize();
+        try {
+            CompletableFuture<TrafficClass> seen = new CompletableFuture<>();
+            scheduler.schedule(() -> seen.complete(TrafficClassContext.current()), Instant.now());
+
+            assertEquals(TrafficClass.OTHER, seen.get(5, TimeUnit.SECONDS));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private static MockEnvironment environment(int moneyMovement, int read, int other, int poolSize) {
+        return new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", String.valueOf(poolSize))
+                .withProperty("wallet.bulkhead.classes.money-movement.max-connections", String.valueOf(moneyMovement))
+                .withProperty("wallet.bulkhead.classes.read.max-connections", String.valueOf(read))
+                .withProperty("wallet.bulkhead.classes.other.max-connections", String.valueOf(other));
+    }
+
+    private static ObjectProvider<MeterRegistry> noMeters() {
+        return new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class);
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.wallet.finance.config;
+
+import br.com.wallet.finance.infrastructure.bulkhead.Bulkhead;
+import br.com.wallet.finance.infrastructure.bulkhead.BulkheadDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadConfigTest {
+
+    private final VirtualThreadConfig config = new VirtualThreadConfig();
+
+    @Test
+    void shouldWrapOnlyThePrimaryDataSourceWithThePermits() {
+        Bulkhead permits = new Bulkhead("all", "jdbc", 4, Duration.ZERO);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("jdbcPermits", permits);
+        BeanPostProcessor postProcessor = VirtualThreadConfig.jdbcPermitsDataSourcePostProcessor(
+                beanFactory.getBeanProvider(Bulkhead.class));
+        DataSource primary = new DriverManagerDataSource();
+        DataSource shard = new DriverManagerDataSource();
+
+        Object wrapped = postProcessor.postProcessAfterInitialization(primary, "dataSource");
+
+        BulkheadDataSource bulkheadDataSource = assertInstanceOf(BulkheadDataSource.class, wrapped);
+        assertSame(primary, bulkheadDataSource.getTargetDataSource());
+        // pools dos shards e das réplicas ficam atrás do principal: um semáforo só
+        assertSame(shard, postProcessor.postProcessAfterInitialization(shard, "shardDataSource"));
+        assertSame("x", postProcessor.postProcessAfterInitialization("x", "dataSource"));
+    }
+
+    @Test
+    void shouldSizePermitsToTheSinglePool() {
+        assertEquals(10, permits(new MockEnvironment()));
+        assertEquals(8, permits(new MockEnvironment().withProperty("wallet.virtual-threads.jdbc-permits", "8")));
+    }
+
+    @Test
+    void shouldSizePermitsToEveryShardPool() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "6")
+                .withProperty("wallet.sharding.enabled", "true")
+                .withProperty("wallet.sharding.shards[0].name", "s0")
+                .withProperty("wallet.sharding.shards[0].url", "jdbc:h2:mem:s0")
+                .withProperty("wallet.sharding.shards[1].name", "s1")
+                .withProperty("wallet.sharding.shards[1].url", "jdbc:h2:mem:s1")
+                .withProperty("wallet.sharding.shards[2].name", "s2")
+                .withProperty("wallet.sharding.shards[2].url", "jdbc:h2:mem:s2");
+
+        assertEquals(18, permits(environment));
+    }
+
+    @Test
+    void shouldSizePermitsToPrimaryPlusReplicaPools() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "6")
+                .withProperty("wallet.datasource.replica.enabled", "true")
+                .withProperty("wallet.datasource.replica.urls", "jdbc:postgresql://r1/db,jdbc:postgresql://r2/db");
+
+        // réplica sem tamanho próprio usa o do primário
+        assertEquals(18, permits(environment));
+
+        environment.setProperty("wallet.datasource.replica.maximum-pool-size", "2");
+        assertEquals(10, permits(environment));
+    }
+
+    private int permits(MockEnvironment environment) {
+        int jdbcPermits = Integer.parseInt(environment.getProperty("wallet.virtual-threads.jdbc-permits", "0"));
+        return config.jdbcPermits(environment, noMeters(), jdbcPermits).limit();
+    }
+
+    private static ObjectProvider<MeterRegistry> noMeters() {
+        return new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class);
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.wallet.finance.infrastructure.archive;
+
+import br.com.wallet.finance.domain.enums.LedgerEntryType;
+import br.com.wallet.finance.domain.model.LedgerRow;
+import br.com.wallet.finance.domain.model.StatementEntry;
+import br.com.wallet.finance.infrastructure.archive.LedgerSegmentWriter.SegmentStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerSegmentTest {
+
+    @TempDir
+    Path dir;
+
+    // ordem do banco (sem sinal): o segundo uuid tem o bit mais alto ligado
+    private final UUID walletA = UUID.fromString("10000000-0000-0000-0000-000000000001");
+    private final UUID walletB = UUID.fromString("f0000000-0000-0000-0000-000000000002");
+
+    @Test
+    void shouldRoundTripRowsAndIndexEachWalletInFooter() {
+        LedgerRow a1 = row(walletA, LedgerEntryType.CREDIT, "100.00", "2024-03-01T10:00:00.123456Z", "E123", "PIX IN");
+        LedgerRow a2 = row(walletA, LedgerEntryType.DEBIT, "30.50", "2024-03-01T18:30:00Z", null, "");
+        LedgerRow b1 = row(walletB, LedgerEntryType.DEBIT, "5.00", "2024-03-01T12:00:00Z", null, "ATM");
+
+        Path file = dir.resolve("ledger-2024-03-01.seg");
+        SegmentStats stats = write(file, List.of(a1, a2, b1));
+
+        assertEquals(3, stats.rows());
+        assertEquals(2, stats.wallets());
+
+        LedgerSegment segment = LedgerSegment.open(file);
+
+        LedgerSegment.Block blockA = segment.find(walletA);
+        assertEquals(2, blockA.rows());
+        assertEquals(new BigDecimal("69.50"), blockA.net());
+        assertEquals(a1.occurredAt(), blockA.minOccurredAt());
+        assertEquals(a2.occurredAt(), blockA.maxOccurredAt());
+        assertEquals(List.of(a1.toStatementEntry(), a2.toStatementEntry()), segment.read(blockA));
+
+        LedgerSegment.Block blockB = segment.find(walletB);
+        assertEquals(new BigDecimal("-5.00"), blockB.net());
+        List<StatementEntry> rowsB = segment.read(blockB);
+        assertEquals(List.of(b1.toStatementEntry()), rowsB);
+
+        assertNull(segment.find(UUID.randomUUID()));
+    }
+
+    @Test
+    void shouldRejectFilesThatAreNotSegments() throws Exception {
+        Path file = dir.resolve("garbage.seg");
+        Files.write(file, new byte[64]);
+
+        assertThrows(IllegalStateException.class, () -> LedgerSegment.open(file));
+    }
+
+    private SegmentStats write(Path file, List<LedgerRow> rows) {
+        try {
+            return LedgerSegmentWriter.write(file, rows.iterator());
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private LedgerRow row(UUID walletId, LedgerEntryType type, String amount, String at, String e2e, String description) {
+        return new LedgerRow(walletId, UUID.randomUUID(), type, new BigDecimal(amount), e2e, description, Instant.parse(at));
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.wallet.finance.infrastructure.bulkhead;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadDataSourceTest {
+
+    private final Bulkhead reads = new Bulkhead(TrafficClass.READ, Bulkheads.CONNECTIONS, 1, Duration.ofMillis(20));
+    private final BulkheadDataSource dataSource = new BulkheadDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:bulkhead-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""),
+            new Bulkheads(Map.of(), Map.of(TrafficClass.READ, reads)));
+
+    @AfterEach
+    void tearDown() {
+        TrafficClassContext.clear();
+    }
+
+    @Test
+    void shouldHoldQuotaUntilConnectionIsClosed() throws Exception {
+        TrafficClassContext.set(TrafficClass.READ);
+
+        Connection connection = dataSource.getConnection();
+        assertEquals(1, reads.active());
+
+        // outra thread da mesma classe não passa da cota
+        Thread other = new Thread(() -> {
+            TrafficClassContext.set(TrafficClass.READ);
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        });
+        other.start();
+        other.join();
+        assertEquals(1, reads.rejected());
+
+        connection.close();
+        connection.close();
+        assertEquals(0, reads.active());
+        try (Connection again = dataSource.getConnection()) {
+            assertTrue(again.isValid(1));
+        }
+    }
+
+    @Test
+    void shouldNotDeadlockOnNestedConnectionInSameThread() throws Exception {
+        TrafficClassContext.set(TrafficClass.READ);
+
+        try (Connection outer = dataSource.getConnection(); Connection inner = dataSource.getConnection()) {
+            assertNotNull(outer);
+            assertNotNull(inner);
+            assertEquals(1, reads.active());
+        }
+        assertEquals(0, reads.active());
+    }
+
+    @Test
+    void shouldPassThroughOutsideClassifiedRequests() throws Exception {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertNotNull(first);
+            assertNotNull(second);
+        }
+        assertEquals(0, reads.active());
+        assertEquals(0, reads.rejected());
+    }
+}
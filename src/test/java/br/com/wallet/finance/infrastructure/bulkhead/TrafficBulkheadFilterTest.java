@@ -0,0 +1,79 @@
+package br.com.wallet.finance.infrastructure.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrafficBulkheadFilterTest {
+
+    private final Bulkhead settlement = new Bulkhead(TrafficClass.SETTLEMENT, Bulkheads.REQUESTS, 2, Duration.ZERO);
+    private final Bulkhead moneyMovement = new Bulkhead(TrafficClass.MONEY_MOVEMENT, Bulkheads.REQUESTS, 1, Duration.ZERO);
+    private final TrafficBulkheadFilter filter = new TrafficBulkheadFilter(
+            new Bulkheads(Map.of(TrafficClass.SETTLEMENT, settlement, TrafficClass.MONEY_MOVEMENT, moneyMovement), Map.of()),
+            new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    void shouldClassifyEndpoints() {
+        assertEquals(TrafficClass.SETTLEMENT, TrafficBulkheadFilter.classify("POST", "/pix/webhook"));
+        assertEquals(TrafficClass.MONEY_MOVEMENT, TrafficBulkheadFilter.classify("POST", "/pix/transfers"));
+        assertEquals(TrafficClass.MONEY_MOVEMENT, TrafficBulkheadFilter.classify("POST", "/wallets/123/deposit"));
+        assertEquals(TrafficClass.MONEY_MOVEMENT, TrafficBulkheadFilter.classify("POST", "/wallets/123/withdraw"));
+        assertEquals(TrafficClass.READ, TrafficBulkheadFilter.classify("GET", "/wallets/123/balance"));
+        assertEquals(TrafficClass.READ, TrafficBulkheadFilter.classify("POST", "/wallets/balances"));
+        assertEquals(TrafficClass.OTHER, TrafficBulkheadFilter.classify("POST", "/wallets"));
+        assertEquals(TrafficClass.OTHER, TrafficBulkheadFilter.classify("POST", "/wallets/123/pix-keys"));
+        assertNull(TrafficBulkheadFilter.classify("GET", "/actuator/health"));
+    }
+
+    @Test
+    void shouldRunRequestInsideItsClassAndReleaseAfterwards() throws Exception {
+        AtomicReference<TrafficClass> seen = new AtomicReference<>();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest request, jakarta.servlet.ServletResponse response) {
+                seen.set(TrafficClassContext.current());
+                assertEquals(1, settlement.active());
+            }
+        };
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/pix/webhook"), new MockHttpServletResponse(), chain);
+
+        assertEquals(TrafficClass.SETTLEMENT, seen.get());
+        assertNull(TrafficClassContext.current());
+        assertEquals(0, settlement.active());
+    }
+
+    @Test
+    void shouldShedWhenClassIsFullWithoutTouchingOtherClasses() throws Exception {
+        // outra requisição de Pix ocupa a única vaga (em outra thread)
+        Thread holder = new Thread(moneyMovement::tryAcquire);
+        holder.start();
+        holder.join();
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain rejectedChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("POST", "/pix/transfers"), rejected, rejectedChain);
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("SERVICE_UNAVAILABLE"));
+        assertNull(rejectedChain.getRequest());
+        assertEquals(1, moneyMovement.rejected());
+
+        // o webhook continua passando
+        MockHttpServletResponse accepted = new MockHttpServletResponse();
+        MockFilterChain acceptedChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("POST", "/pix/webhook"), accepted, acceptedChain);
+        assertEquals(200, accepted.getStatus());
+        assertNotNull(acceptedChain.getRequest());
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.wallet.finance.infrastructure.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vazão e p99 do modelo atual (pool de 200 threads de plataforma, como o Tomcat) x virtual thread
+ * por requisição com o semáforo de JDBC do {@code VirtualThreadConfig}, numa rajada de requisições
+ * que passam parte do tempo fora do banco (PSP, serialização) e parte segurando uma conexão.
+ * O modo virtual só roda em Java 21+:
+ * <pre>mvn test -Dtest=VirtualThreadLoadBenchmark -Dbenchmark=true [-Dbenchmark.requests=20000]
+ *     [-Dbenchmark.io-ms=20] [-Dbenchmark.db-ms=2] [-Dbenchmark.pool=10]</pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadLoadBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+
+    @Test
+    void platformPoolVersusVirtualThreads() throws Exception {
+        int requests = Integer.getInteger("benchmark.requests", 20_000);
+        long ioMillis = Long.getLong("benchmark.io-ms", 20);
+        long dbMillis = Long.getLong("benchmark.db-ms", 2);
+        int poolSize = Integer.getInteger("benchmark.pool", 10);
+
+        try (HikariDataSource pool = pool(poolSize)) {
+            // mesmo semáforo do modo virtual: do tamanho do pool, espera até o connection-timeout
+            DataSource permits = new BulkheadDataSource(pool, new Bulkhead("all", "jdbc", poolSize, Duration.ofSeconds(30)));
+
+            // primeira rodada de cada modo é aquecimento
+            ExecutorService platform = Executors.newFixedThreadPool(PLATFORM_THREADS);
+            try {
+                run("platform", platform, permits, requests / 4, ioMillis, dbMillis);
+                run("platform", platform, permits, requests, ioMillis, dbMillis);
+            } finally {
+                platform.shutdownNow();
+            }
+
+            ExecutorService virtual = virtualThreadPerTask();
+            Assumptions.assumeTrue(virtual != null, "virtual threads require Java 21+");
+            try {
+                run("virtual", virtual, permits, requests / 4, ioMillis, dbMillis);
+                run("virtual", virtual, permits, requests, ioMillis, dbMillis);
+            } finally {
+                virtual.shutdownNow();
+            }
+        }
+    }
+
+    private static void run(String mode, ExecutorService executor, DataSource dataSource, int requests,
+                            long ioMillis, long dbMillis) {
+        long[] latencies = new long[requests];
+        AtomicInteger failures = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[requests];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int index = i;
+            long submitted = System.nanoTime();
+            futures[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    handle(dataSource, ioMillis, dbMillis);
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+                latencies[index] = System.nanoTime() - submitted;
+            }, executor);
+        }
+        CompletableFuture.allOf(futures).join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("vt_benchmark mode=%s requests=%d rps=%.0f p50_ms=%.1f p99_ms=%.1f failures=%d%n",
+                mode, requests, requests / seconds, millis(latencies, 0.50), millis(latencies, 0.99), failures.get());
+    }
+
+    // uma requisição: espera fora do banco e depois uma transação curta segurando a conexão
+    private static void handle(DataSource dataSource, long ioMillis, long dbMillis) throws Exception {
+        Thread.sleep(ioMillis);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("select 1");
+            Thread.sleep(dbMillis);
+        }
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))] / 1e6;
+    }
+
+    private static HikariDataSource pool(int size) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:vt-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(size);
+        pool.setConnectionTimeout(TimeUnit.SECONDS.toMillis(30));
+        return pool;
+    }
+
+    // compilado para Java 17: a fábrica de virtual threads só existe a partir do 21
+    private static ExecutorService virtualThreadPerTask() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
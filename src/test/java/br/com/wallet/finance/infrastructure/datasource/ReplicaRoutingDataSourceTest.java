@@ -0,0 +1,102 @@
+package br.com.wallet.finance.infrastructure.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final String UNREACHABLE = "jdbc:h2:file:./target/missing-replica/db;IFEXISTS=TRUE";
+
+    private final String testId = UUID.randomUUID().toString();
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setup() {
+        // dois bancos em memória com o mesmo esquema e origens diferentes, para saber quem respondeu
+        primary = database("primary");
+        replica = database("replica");
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica), Duration.ZERO);
+
+        // como na configuração real: a conexão só é pedida depois que o flag read-only está definido
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        routing.close();
+    }
+
+    @Test
+    void shouldSendReadOnlyTransactionsToReplicaAndWritesToPrimary() {
+        assertEquals("replica", readOnly.execute(status -> origin()));
+        assertEquals("primary", readWrite.execute(status -> origin()));
+
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update origin set name = 'primary-updated'"));
+        assertEquals("primary-updated", new JdbcTemplate(primary).queryForObject("select name from origin", String.class));
+        assertEquals("replica", new JdbcTemplate(replica).queryForObject("select name from origin", String.class));
+    }
+
+    @Test
+    void shouldReadFromPrimaryWhenForced() {
+        assertEquals("primary", ReplicaRoutingDataSource.onPrimary(() -> readOnly.execute(status -> origin())));
+        assertEquals("replica", readOnly.execute(status -> origin()));
+    }
+
+    @Test
+    void shouldFallBackToPrimaryAndRejoinReplicaAfterHealthCheck() {
+        replica.setUrl(UNREACHABLE);
+
+        // réplica fora: a leitura segue no primário e a réplica sai do rodízio
+        assertEquals("primary", readOnly.execute(status -> origin()));
+        assertEquals(0, routing.healthyReplicas());
+
+        routing.checkHealth();
+        assertEquals(0, routing.healthyReplicas());
+
+        // réplica de volta: só retorna ao rodízio depois da verificação
+        replica.setUrl(url("replica"));
+        assertEquals("primary", readOnly.execute(status -> origin()));
+        routing.checkHealth();
+        assertEquals(1, routing.healthyReplicas());
+        assertEquals("replica", readOnly.execute(status -> origin()));
+    }
+
+    private String origin() {
+        return jdbcTemplate.queryForObject("select name from origin", String.class);
+    }
+
+    private DriverManagerDataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url(name), "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table origin (name varchar(32))");
+        jdbc.update("insert into origin (name) values (?)", name);
+        return dataSource;
+    }
+
+    private String url(String name) {
+        return "jdbc:h2:mem:" + name + "-" + testId + ";DB_CLOSE_DELAY=-1";
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.wallet.finance.infrastructure.id;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Vazão (ids/s com N threads) e bytes alocados por id: UUID.randomUUID().toString() x
+ * {@link EndToEndIdGenerator}. Não roda no build:
+ * <pre>mvn test -Dtest=EndToEndIdBenchmark -Dbenchmark=true [-Dbenchmark.threads=8] [-Dbenchmark.seconds=5]</pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EndToEndIdBenchmark {
+
+    private static volatile Object sink;
+
+    @Test
+    void randomUuidVersusEndToEndGenerator() throws Exception {
+        int threads = Integer.getInteger("benchmark.threads", Runtime.getRuntime().availableProcessors());
+        int seconds = Integer.getInteger("benchmark.seconds", 5);
+        EndToEndIdGenerator generator = new EndToEndIdGenerator("12345678");
+
+        // aquecimento do JIT antes das medições
+        measure("warmup_uuid", threads, 2, () -> UUID.randomUUID().toString());
+        measure("warmup_e2e", threads, 2, generator::next);
+
+        measure("uuid_random", threads, seconds, () -> UUID.randomUUID().toString());
+        measure("e2e_generator", threads, seconds, generator::next);
+    }
+
+    private static void measure(String name, int threads, int seconds, Supplier<String> ids) throws Exception {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        LongAdder count = new LongAdder();
+        LongAdder allocated = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long before = mx.getCurrentThreadAllocatedBytes();
+                long local = 0;
+                while ((local & 1023) != 0 || System.nanoTime() < deadline) {
+                    sink = ids.get();
+                    local++;
+                }
+                allocated.add(mx.getCurrentThreadAllocatedBytes() - before);
+                count.add(local);
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        System.out.printf("e2e_benchmark variant=%s threads=%d ids_per_s=%.0f bytes_per_id=%.1f%n",
+                name, threads, count.sum() / (double) seconds, allocated.sum() / (double) count.sum());
+    }
+}
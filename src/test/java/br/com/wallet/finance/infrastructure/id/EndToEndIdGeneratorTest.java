@@ -0,0 +1,77 @@
+package br.com.wallet.finance.infrastructure.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndToEndIdGeneratorTest {
+
+    private static final DateTimeFormatter MINUTE = DateTimeFormatter.ofPattern("yyyyMMddHHmm").withZone(ZoneOffset.UTC);
+
+    @Test
+    void shouldFollowBacenLayout() {
+        Instant now = Instant.parse("2025-10-09T23:59:30Z");
+        EndToEndIdGenerator generator = new EndToEndIdGenerator("12345678", Clock.fixed(now, ZoneOffset.UTC));
+
+        String id = generator.next();
+
+        assertEquals(EndToEndIdGenerator.LENGTH, id.length());
+        assertTrue(id.matches("E12345678202510092359[0-9A-Z]{11}"), id);
+    }
+
+    @Test
+    void shouldSortInGenerationOrderWithinTheMinute() {
+        EndToEndIdGenerator generator = new EndToEndIdGenerator(
+                "12345678", Clock.fixed(Instant.parse("2025-10-09T12:00:00Z"), ZoneOffset.UTC));
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.next());
+        }
+
+        List<String> sorted = new ArrayList<>(ids);
+        sorted.sort(null);
+        assertEquals(ids, sorted);
+    }
+
+    @Test
+    void shouldWriteSameMinuteAsJavaTime() {
+        byte[] buffer = new byte[12];
+        for (int i = 0; i < 10_000; i++) {
+            // de 1970 a 2400: cobre anos bissextos, viradas de século e de 400 anos
+            long epochMinute = ThreadLocalRandom.current().nextLong(0, 13_569_465_600L / 60);
+            EndToEndIdGenerator.writeMinute(buffer, 0, epochMinute);
+
+            assertEquals(MINUTE.format(Instant.ofEpochSecond(epochMinute * 60)),
+                    new String(buffer, StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    void shouldBeUniqueUnderContention() {
+        EndToEndIdGenerator generator = new EndToEndIdGenerator("12345678");
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 200_000).parallel().forEach(i -> ids.add(generator.next()));
+
+        assertEquals(200_000, ids.size());
+    }
+
+    @Test
+    void shouldRejectInvalidIspb() {
+        assertThrows(IllegalArgumentException.class, () -> new EndToEndIdGenerator("1234"));
+        assertThrows(IllegalArgumentException.class, () -> new EndToEndIdGenerator("ABCDEFGH"));
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.wallet.finance.infrastructure.id;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Vazão de INSERT e tamanho do índice da PK com UUIDv4 aleatório x UUIDv7.
+ *
+ * Não roda no build. Em H2 (arquivo em target/uuid-benchmark, tamanho = arquivo do banco):
+ * <pre>mvn test -Dtest=UuidInsertBenchmark -Dbenchmark=true [-Dbenchmark.rows=1000000]</pre>
+ * Em PostgreSQL (tamanho = pg_relation_size do índice da PK):
+ * <pre>mvn test -Dtest=UuidInsertBenchmark -Dbenchmark=true -Dbenchmark.url=jdbc:postgresql://localhost:5432/postgres -Dbenchmark.user=postgres -Dbenchmark.password=...</pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UuidInsertBenchmark {
+
+    private static final int BATCH = 1_000;
+
+    @Test
+    void randomVersusTimeOrdered() throws Exception {
+        int rows = Integer.getInteger("benchmark.rows", 500_000);
+        run("uuid_v4", rows, UUID::randomUUID);
+        run("uuid_v7", rows, UuidV7Generator.shared()::next);
+    }
+
+    private void run(String name, int rows, Supplier<UUID> ids) throws Exception {
+        String url = System.getProperty("benchmark.url");
+        boolean postgres = url != null && url.startsWith("jdbc:postgresql:");
+        Path h2File = null;
+        if (url == null) {
+            Path dir = Files.createDirectories(Path.of("target", "uuid-benchmark"));
+            h2File = dir.resolve(name + ".mv.db");
+            Files.deleteIfExists(h2File);
+            url = "jdbc:h2:file:" + dir.toAbsolutePath().resolve(name);
+        }
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                url, System.getProperty("benchmark.user", "sa"), System.getProperty("benchmark.password", ""), true);
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.execute("drop table if exists " + name);
+            jdbc.execute("create table " + name + " (id uuid not null, amount numeric(19, 2) not null, "
+                    + "constraint " + name + "_pk primary key (id))");
+
+            long start = System.nanoTime();
+            insert(dataSource.getConnection(), name, rows, ids);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long sizeBytes;
+            if (postgres) {
+                sizeBytes = jdbc.queryForObject("select pg_relation_size('" + name + "_pk')", Long.class);
+            } else {
+                jdbc.execute("checkpoint sync");
+                jdbc.execute("shutdown");
+                sizeBytes = h2File == null ? -1 : Files.size(h2File);
+            }
+
+            System.out.printf("uuid_benchmark variant=%s rows=%d seconds=%.2f rows_per_s=%.0f %s_bytes=%d%n",
+                    name, rows, seconds, rows / seconds, postgres ? "pk_index" : "h2_file", sizeBytes);
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private static void insert(Connection connection, String table, int rows, Supplier<UUID> ids) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into " + table + " (id, amount) values (?, 10.00)")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setObject(1, ids.get());
+                insert.addBatch();
+                if (i % BATCH == 0 || i == rows) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+}
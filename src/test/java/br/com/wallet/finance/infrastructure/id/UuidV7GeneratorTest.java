@@ -0,0 +1,126 @@
+package br.com.wallet.finance.infrastructure.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void shouldEncodeVersionVariantAndTimestamp() {
+        Instant now = Instant.parse("2025-10-09T12:00:00.123Z");
+        UuidV7Generator generator = new UuidV7Generator(Clock.fixed(now, ZoneOffset.UTC));
+
+        UUID id = generator.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(now.toEpochMilli(), UuidV7Generator.timestampMillis(id));
+    }
+
+    @Test
+    void shouldStayMonotonicWithinSameMillisecondAndWhenClockGoesBack() {
+        AtomicLong millis = new AtomicLong(1_760_000_000_000L);
+        UuidV7Generator generator = new UuidV7Generator(new MillisClock(millis));
+
+        List<UUID> ids = new ArrayList<>();
+        // mais ids no mesmo ms do que cabem no contador de 12 bits
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.next());
+        }
+        millis.addAndGet(-5_000);
+        for (int i = 0; i < 100; i++) {
+            ids.add(generator.next());
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).getMostSignificantBits() < ids.get(i).getMostSignificantBits(),
+                    "id " + i + " fora de ordem");
+        }
+        // estouro do contador empurra o timestamp só alguns ms adiante
+        assertTrue(UuidV7Generator.timestampMillis(ids.get(ids.size() - 1)) - 1_760_000_000_000L < 10);
+    }
+
+    @Test
+    void shouldGenerateUniqueOrderedIdsPerThreadUnderContention() throws Exception {
+        UuidV7Generator generator = UuidV7Generator.shared();
+        Set<UUID> all = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    long previous = Long.MIN_VALUE;
+                    boolean ordered = true;
+                    for (int i = 0; i < perThread; i++) {
+                        UUID id = generator.next();
+                        ordered &= id.getMostSignificantBits() > previous;
+                        previous = id.getMostSignificantBits();
+                        all.add(id);
+                    }
+                    return ordered;
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(threads * perThread, all.size());
+    }
+
+    @Test
+    void shouldRejectTimestampOfRandomUuid() {
+        assertThrows(IllegalArgumentException.class, () -> UuidV7Generator.timestampMillis(UUID.randomUUID()));
+    }
+
+    private static final class MillisClock extends Clock {
+
+        private final AtomicLong millis;
+
+        MillisClock(AtomicLong millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis.get());
+        }
+
+        @Override
+        public java.time.ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}
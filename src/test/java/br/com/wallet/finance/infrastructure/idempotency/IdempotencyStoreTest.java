@@ -0,0 +1,121 @@
+package br.com.wallet.finance.infrastructure.idempotency;
+
+import br.com.wallet.finance.domain.enums.IdempotencyScope;
+import br.com.wallet.finance.domain.model.IdempotencyRecord;
+import br.com.wallet.finance.domain.model.IdempotentResponse;
+import br.com.wallet.finance.infrastructure.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class IdempotencyStoreTest {
+
+    private final Instant now = Instant.parse("2025-10-09T15:00:00Z");
+    private final UUID walletId = UUID.randomUUID();
+
+    private IdempotencyRecordRepository repository;
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setup() {
+        repository = mock(IdempotencyRecordRepository.class);
+        store = new IdempotencyStore(repository, mock(PlatformTransactionManager.class),
+                Duration.ofHours(24), 100, 2, 10, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldHashToFixedWidthAndSeparateScopeWalletAndKey() {
+        UUID hash = IdempotencyStore.hash(IdempotencyScope.PIX_TRANSFER, walletId, "k".repeat(500));
+
+        assertEquals(hash, IdempotencyStore.hash(IdempotencyScope.PIX_TRANSFER, walletId, "k".repeat(500)));
+        assertNotEquals(hash, IdempotencyStore.hash(IdempotencyScope.PIX_TRANSFER, UUID.randomUUID(), "k".repeat(500)));
+        assertNotEquals(hash, IdempotencyStore.hash(IdempotencyScope.PIX_TRANSFER, walletId, "k".repeat(499)));
+    }
+
+    @Test
+    void shouldServeRememberedKeyFromMemoryWithoutDatabase() {
+        IdempotentResponse response = new IdempotentResponse(UUID.randomUUID(), "e2e");
+
+        store.remember(IdempotencyScope.PIX_TRANSFER, walletId, "idem", response);
+
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).save(saved.capture());
+        assertEquals(IdempotencyStore.hash(IdempotencyScope.PIX_TRANSFER, walletId, "idem"), saved.getValue().getKeyHash());
+        assertEquals(now.plus(Duration.ofHours(24)), saved.getValue().getExpiresAt());
+
+        assertEquals(Optional.of(response), store.find(IdempotencyScope.PIX_TRANSFER, walletId, "idem"));
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void shouldFallBackToDatabaseAndIgnoreExpiredRows() {
+        UUID live = IdempotencyStore.hash(IdempotencyScope.PIX_TRANSFER, walletId, "live");
+        UUID expired = IdempotencyStore.hash(IdempotencyScope.PIX_TRANSFER, walletId, "expired");
+        UUID resourceId = UUID.randomUUID();
+        when(repository.findById(live)).thenReturn(Optional.of(record(live, resourceId, now.plusSeconds(60))));
+        when(repository.findById(expired)).thenReturn(Optional.of(record(expired, UUID.randomUUID(), now.minusSeconds(1))));
+
+        assertEquals(Optional.of(new IdempotentResponse(resourceId, "e2e")),
+                store.find(IdempotencyScope.PIX_TRANSFER, walletId, "live"));
+        assertTrue(store.find(IdempotencyScope.PIX_TRANSFER, walletId, "expired").isEmpty());
+
+        // a segunda leitura da chave válida já vem da memória
+        store.find(IdempotencyScope.PIX_TRANSFER, walletId, "live");
+        verify(repository, times(1)).findById(live);
+    }
+
+    @Test
+    void shouldKeepWalletVersionForReplaysAfterRestart() {
+        UUID hash = IdempotencyStore.hash(IdempotencyScope.DEPOSIT, walletId, "dep");
+        IdempotentResponse response = new IdempotentResponse(UUID.randomUUID(), null, 7L);
+
+        store.remember(IdempotencyScope.DEPOSIT, walletId, "dep", response);
+
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).save(saved.capture());
+        assertEquals(7L, saved.getValue().getWalletVersion());
+
+        // outra instância, sem a chave na memória, lê a versão da linha
+        IdempotencyStore restarted = new IdempotencyStore(repository, mock(PlatformTransactionManager.class),
+                Duration.ofHours(24), 100, 2, 10, Clock.fixed(now, ZoneOffset.UTC));
+        when(repository.findById(hash)).thenReturn(Optional.of(saved.getValue()));
+
+        assertEquals(Optional.of(response), restarted.find(IdempotencyScope.DEPOSIT, walletId, "dep"));
+    }
+
+    @Test
+    void shouldPurgeExpiredKeysInBatches() {
+        List<UUID> first = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> second = List.of(UUID.randomUUID());
+        when(repository.findExpiredHashes(eq(now), any())).thenReturn(first, second);
+        when(repository.deleteExpired(first, now)).thenReturn(2);
+        when(repository.deleteExpired(second, now)).thenReturn(1);
+
+        assertEquals(3, store.purgeExpired());
+        verify(repository, times(2)).findExpiredHashes(any(), any());
+    }
+
+    private IdempotencyRecord record(UUID hash, UUID resourceId, Instant expiresAt) {
+        return IdempotencyRecord.builder()
+                .keyHash(hash)
+                .scope(IdempotencyScope.PIX_TRANSFER)
+                .resourceId(resourceId)
+                .reference("e2e")
+                .createdAt(now.minusSeconds(3600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
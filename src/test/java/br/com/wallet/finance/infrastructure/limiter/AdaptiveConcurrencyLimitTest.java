@@ -0,0 +1,90 @@
+package br.com.wallet.finance.infrastructure.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void shouldRejectAboveLimitImmediately() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 1.0, 1000);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(1, limit.rejected());
+
+        limit.releaseWithoutSample();
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void shouldGrowWhileLatencyStaysAtBaselineUnderLoad() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 200, 1.0, 1000);
+
+        for (int i = 0; i < 20; i++) {
+            saturateAndComplete(limit, FAST);
+        }
+
+        assertTrue(limit.limit() > 10, "limit should grow, was " + limit.limit());
+    }
+
+    @Test
+    void shouldShrinkWhenLatencyRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 4, 200, 1.0, 1000);
+        saturateAndComplete(limit, FAST);
+
+        // banco lento: latência 10x a de base, fila estimada ~90% do limite
+        for (int i = 0; i < 30; i++) {
+            saturateAndComplete(limit, FAST * 10);
+        }
+
+        assertTrue(limit.limit() < 50, "limit should shrink, was " + limit.limit());
+        assertTrue(limit.limit() >= 4);
+    }
+
+    @Test
+    void shouldShrinkOnDropsAndNeverGoBelowMinimum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 4, 200, 1.0, 1000);
+        saturateAndComplete(limit, FAST);
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(FAST * 2, true);
+        }
+
+        assertEquals(4, limit.limit());
+    }
+
+    @Test
+    void shouldIgnoreLatencyWhenBarelyLoaded() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200, 1.0, 1000);
+        limit.tryAcquire();
+        limit.release(FAST, false);
+
+        // uma requisição por vez, mesmo lenta, não mexe no limite
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire();
+            limit.release(FAST * 10, false);
+        }
+
+        assertEquals(20, limit.limit());
+    }
+
+    // ocupa todas as vagas e encerra uma com a latência dada (as outras sem amostra)
+    private static void saturateAndComplete(AdaptiveConcurrencyLimit limit, long rttNanos) {
+        int acquired = 0;
+        while (limit.tryAcquire()) {
+            acquired++;
+        }
+        limit.release(rttNanos, false);
+        for (int i = 1; i < acquired; i++) {
+            limit.releaseWithoutSample();
+        }
+    }
+}
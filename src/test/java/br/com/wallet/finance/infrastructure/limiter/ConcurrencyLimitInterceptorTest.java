@@ -0,0 +1,52 @@
+package br.com.wallet.finance.infrastructure.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private static final String ENDPOINT = "GET /wallets/{walletId}/balance";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(
+            () -> new AdaptiveConcurrencyLimit(1, 1, 10, 1.0, 1000),
+            new ObjectMapper().registerModule(new JavaTimeModule()), registry, 2);
+
+    @Test
+    void shouldShedWith503AndRetryAfterWhenEndpointIsAtLimit() throws Exception {
+        HandlerMethod handler = handler();
+        MockHttpServletRequest first = request("/wallets/a/balance");
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(first, firstResponse, handler));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("/wallets/b/balance"), rejected, handler));
+        assertEquals(503, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertEquals(1.0, registry.get("wallet.limiter.rejected").tag("endpoint", ENDPOINT).functionCounter().count());
+
+        // terminada a primeira, a vaga volta
+        interceptor.afterCompletion(first, firstResponse, handler, null);
+        assertEquals(0, interceptor.limit(ENDPOINT).inFlight());
+        assertTrue(interceptor.preHandle(request("/wallets/b/balance"), new MockHttpServletResponse(), handler));
+        assertEquals(1.0, registry.get("wallet.limiter.limit").tag("endpoint", ENDPOINT).gauge().value());
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/wallets/{walletId}/balance");
+        return request;
+    }
+
+    private static HandlerMethod handler() throws NoSuchMethodException {
+        return new HandlerMethod(new Object(), Object.class.getMethod("toString"));
+    }
+}
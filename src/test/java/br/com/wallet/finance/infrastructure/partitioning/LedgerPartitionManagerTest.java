@@ -0,0 +1,72 @@
+package br.com.wallet.finance.infrastructure.partitioning;
+
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LedgerPartitionManagerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private final WalletShards walletShards = WalletShards.single(mock(DataSource.class));
+    private LedgerPartitionManager manager;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        manager = new LedgerPartitionManager(jdbcTemplate, walletShards, 2, 12);
+    }
+
+    @Test
+    void shouldCreateCurrentAndUpcomingMonthlyPartitions() {
+        manager.createAhead(YearMonth.of(2025, 11));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(3)).execute(sql.capture());
+        assertEquals(List.of(
+                "create table if not exists ledger_entries_p202511 partition of ledger_entries"
+                        + " for values from ('2025-11-01') to ('2025-12-01')",
+                "create table if not exists ledger_entries_p202512 partition of ledger_entries"
+                        + " for values from ('2025-12-01') to ('2026-01-01')",
+                "create table if not exists ledger_entries_p202601 partition of ledger_entries"
+                        + " for values from ('2026-01-01') to ('2026-02-01')"
+        ), sql.getAllValues());
+    }
+
+    @Test
+    void shouldDetachOnlyExpiredPartitionsCoveredBySnapshot() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("ledger_entries")))
+                .thenReturn(List.of(
+                        "ledger_entries_legacy",
+                        "ledger_entries_p202409",
+                        "ledger_entries_p202410",
+                        "ledger_entries_p202411",
+                        "ledger_entries_p202511"
+                ));
+        // snapshot completo até 15/10/2024: setembro está coberto, outubro ainda não
+        when(jdbcTemplate.queryForObject(anyString(), eq(Date.class)))
+                .thenReturn(Date.valueOf(LocalDate.parse("2024-10-15")));
+
+        manager.detachExpired(YearMonth.of(2025, 11));
+
+        verify(jdbcTemplate).execute("alter table ledger_entries detach partition ledger_entries_p202409 concurrently");
+        verify(jdbcTemplate, times(1)).execute(anyString());
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new LedgerPartitionManager(jdbcTemplate, walletShards, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new LedgerPartitionManager(jdbcTemplate, walletShards, 1, -1));
+    }
+}
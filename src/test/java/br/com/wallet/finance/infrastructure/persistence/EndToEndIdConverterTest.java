@@ -0,0 +1,105 @@
+package br.com.wallet.finance.infrastructure.persistence;
+
+import br.com.wallet.finance.infrastructure.schema.SchemaMigrator;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndToEndIdConverterTest {
+
+    private final EndToEndIdConverter converter = new EndToEndIdConverter();
+
+    // a busca usa a mesma conversão da aplicação
+    private byte[] stored(JdbcTemplate jdbc, String endToEndId) {
+        return jdbc.queryForObject("select end_to_end_id from ledger_entries where end_to_end_id = ?",
+                byte[].class, (Object) converter.convertToDatabaseColumn(endToEndId));
+    }
+
+    @Test
+    void shouldPackBacenIdsInto17Bytes() {
+        for (String id : new String[]{
+                "E12345678202510091230AbCdEfGhIjK",
+                "E00000000200001010000zzzzzzzzzzz",
+                "D99999999212701010000Z0000000009"}) {
+            byte[] stored = converter.convertToDatabaseColumn(id);
+
+            assertEquals(EndToEndIdConverter.PIX_TAG, stored[0]);
+            assertEquals(17, stored.length);
+            assertEquals(id, converter.convertToEntityAttribute(stored));
+        }
+    }
+
+    @Test
+    void shouldPackCanonicalUuidInto17Bytes() {
+        String id = UUID.randomUUID().toString();
+
+        byte[] stored = converter.convertToDatabaseColumn(id);
+
+        assertEquals(EndToEndIdConverter.UUID_TAG, stored[0]);
+        assertEquals(17, stored.length);
+        assertEquals(id, converter.convertToEntityAttribute(stored));
+    }
+
+    @Test
+    void shouldKeepAnythingElseAsTextSoItRoundTripsExactly() {
+        for (String id : new String[]{
+                "e2e-123",
+                UUID.randomUUID().toString().toUpperCase(),
+                // data inválida e ano fora da faixa de 26 bits
+                "E12345678202513091230AbCdEfGhIjK",
+                "E12345678199912312359AbCdEfGhIjK",
+                ""}) {
+            byte[] stored = converter.convertToDatabaseColumn(id);
+
+            assertEquals(EndToEndIdConverter.RAW, stored[0]);
+            assertEquals(id, converter.convertToEntityAttribute(stored));
+        }
+    }
+
+    @Test
+    void shouldReadLegacyIdsPackedByTheLedgerMigration() throws SQLException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/common/V1__baseline.sql"));
+        }
+
+        // linhas gravadas antes da V3, com end_to_end_id em texto
+        UUID walletId = UUID.randomUUID();
+        String legacyUuid = UUID.randomUUID().toString();
+        String upperUuid = UUID.randomUUID().toString().toUpperCase();
+        jdbc.update("insert into wallets (wallet_id, owner_name, current_balance, created_at, version) values (?, 'x', 0, current_timestamp, 0)", walletId);
+        for (String id : new String[]{legacyUuid, upperUuid, "e2e-123"}) {
+            jdbc.update("insert into ledger_entries (ledger_entry_id, wallet_id, entry_type, amount, end_to_end_id, description, occurred_at) "
+                    + "values (?, ?, 'CREDIT', 1, ?, 'DEPOSIT', current_timestamp)", UUID.randomUUID(), walletId, id);
+        }
+
+        new SchemaMigrator(dataSource, new PathMatchingResourcePatternResolver(),
+                List.of("classpath:db/migration/common", "classpath:db/migration/{vendor}"), true).migrate();
+
+        byte[] packed = stored(jdbc, legacyUuid);
+        assertEquals(EndToEndIdConverter.UUID_TAG, packed[0]);
+        assertArrayEquals(converter.convertToDatabaseColumn(legacyUuid), packed);
+        assertEquals(legacyUuid, converter.convertToEntityAttribute(packed));
+
+        assertEquals(EndToEndIdConverter.RAW, stored(jdbc, upperUuid)[0]);
+        assertEquals(upperUuid, converter.convertToEntityAttribute(stored(jdbc, upperUuid)));
+        assertEquals("e2e-123", converter.convertToEntityAttribute(stored(jdbc, "e2e-123")));
+    }
+
+    @Test
+    void shouldMapNull() {
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
@@ -0,0 +1,243 @@
+package br.com.wallet.finance.infrastructure.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyMovementRateLimitFilterTest {
+
+    private static final String W1 = "6f7c29d1-8c2d-4a17-8f2a-f22c943f7b9c";
+    private static final String W2 = "0b8e6a52-3f0e-4c1b-9a43-2d6f1e7c5a10";
+    private static final String PIX_BODY = "{\"fromWalletId\":\"" + W1 + "\",\"toPixKey\":\"a@b.com\",\"amount\":10}";
+
+    private final TokenBucketLimiter walletLimits = new TokenBucketLimiter("wallet", 2, 0.5, 100);
+    private final TokenBucketLimiter clientLimits = new TokenBucketLimiter("client", 5, 0.5, 100);
+    private final MoneyMovementRateLimitFilter filter = new MoneyMovementRateLimitFilter(
+            walletLimits, clientLimits, "X-Client-Id", Set.of("10.0.0.1"), new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    void shouldLimitWithdrawPerWalletWithRetryAfter() throws Exception {
+        assertEquals(200, send(new MockHttpServletRequest("POST", "/wallets/" + W1 + "/withdraw")).getStatus());
+        assertEquals(200, send(new MockHttpServletRequest("POST", "/wallets/" + W1 + "/deposit")).getStatus());
+
+        MockHttpServletResponse rejected = send(new MockHttpServletRequest("POST", "/wallets/" + W1 + "/withdraw"));
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("TOO_MANY_REQUESTS"));
+
+        // outra carteira do mesmo cliente segue passando
+        assertEquals(200, send(new MockHttpServletRequest("POST", "/wallets/" + W2 + "/withdraw")).getStatus());
+    }
+
+    @Test
+    void shouldShareWalletBucketAcrossSpellingsAndSkipIdsThatAreNotUuids() throws Exception {
+        assertEquals(200, send(new MockHttpServletRequest("POST", "/wallets/" + W1.toUpperCase() + "/withdraw")).getStatus());
+        assertEquals(200, send(pix()).getStatus());
+        assertEquals(429, send(new MockHttpServletRequest("POST", "/wallets/" + W1 + "/deposit")).getStatus());
+        assertEquals(1, walletLimits.tracked());
+
+        // lixo no path não ocupa max-keys: o controller responde 400 (2 para não estourar o balde do cliente)
+        for (int i = 0; i < 2; i++) {
+            assertEquals(200, send(new MockHttpServletRequest("POST", "/wallets/junk-" + i + "/deposit")).getStatus());
+        }
+        assertEquals(1, walletLimits.tracked());
+    }
+
+    @Test
+    void shouldRejectPixBodyAboveTheLimitInsteadOfSkippingTheWalletBucket() throws Exception {
+        // JSON válido, só com espaços para passar de 16 KB
+        MockHttpServletRequest padded = new MockHttpServletRequest("POST", "/pix/transfers");
+        padded.setContentType("application/json");
+        padded.setContent((PIX_BODY.substring(0, PIX_BODY.length() - 1) + " ".repeat(20_000) + "}").getBytes(StandardCharsets.UTF_8));
+        AtomicBoolean forwarded = new AtomicBoolean();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(padded, response, new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                forwarded.set(true);
+            }
+        });
+
+        assertEquals(413, response.getStatus());
+        assertTrue(response.getContentAsString().contains("PAYLOAD_TOO_LARGE"));
+        assertFalse(forwarded.get());
+    }
+
+    @Test
+    void shouldFeedCachedBodyToReadListenerRegisteredOnTheOriginalStream() throws Exception {
+        AtomicReference<ReadListener> registered = new AtomicReference<>();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/pix/transfers") {
+            private final ServletInputStream original = new ServletInputStream() {
+                private final ByteArrayInputStream input = new ByteArrayInputStream(PIX_BODY.getBytes(StandardCharsets.UTF_8));
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    registered.set(listener);
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+            };
+
+            @Override
+            public ServletInputStream getInputStream() {
+                return original;
+            }
+        };
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest forwarded, ServletResponse response) throws IOException {
+                ServletInputStream input = forwarded.getInputStream();
+                input.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        while (input.isReady() && !input.isFinished()) {
+                            received.write(input.read());
+                        }
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        allRead.set(true);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                    }
+                });
+            }
+        });
+
+        // o contêiner vê o stream original já esvaziado pelo filtro e só avisa o fim
+        registered.get().onAllDataRead();
+
+        assertEquals(PIX_BODY, received.toString(StandardCharsets.UTF_8));
+        assertTrue(allRead.get());
+    }
+
+    @Test
+    void shouldLimitPixByFromWalletAndReplayBodyToController() throws Exception {
+        AtomicReference<String> forwardedBody = new AtomicReference<>();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) throws IOException {
+                forwardedBody.set(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            }
+        };
+        filter.doFilter(pix(), new MockHttpServletResponse(), chain);
+        assertEquals(PIX_BODY, forwardedBody.get());
+
+        assertEquals(200, send(pix()).getStatus());
+        assertEquals(429, send(pix()).getStatus());
+        assertEquals(1, walletLimits.rejected());
+    }
+
+    @Test
+    void shouldLimitPerClientAcrossWallets() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send(fromProxy("/wallets/w" + i + "/deposit", "app-1")).getStatus());
+        }
+        assertEquals(429, send(fromProxy("/wallets/other/deposit", "app-1")).getStatus());
+        // outro cliente atrás do mesmo proxy tem balde próprio
+        assertEquals(200, send(fromProxy("/wallets/other/deposit", "app-2")).getStatus());
+        assertEquals(1, clientLimits.rejected());
+    }
+
+    @Test
+    void shouldIgnoreClientHeaderFromUntrustedAddress() throws Exception {
+        // trocar o header a cada requisição não dá balde novo: o cliente é o endereço remoto
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/wallets/w" + i + "/deposit");
+            request.setRemoteAddr("203.0.113.9");
+            request.addHeader("X-Client-Id", "rotated-" + i);
+            assertEquals(200, send(request).getStatus());
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/wallets/other/deposit");
+        request.setRemoteAddr("203.0.113.9");
+        request.addHeader("X-Client-Id", "rotated-new");
+        assertEquals(429, send(request).getStatus());
+        assertEquals(1, clientLimits.tracked());
+    }
+
+    @Test
+    void shouldTakeClientFromPrincipalOrLastValueAddedByTrustedProxy() throws Exception {
+        // lista no estilo X-Forwarded-For: vale o valor que o proxy acrescentou, não o que o cliente mandou
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send(fromProxy("/wallets/w" + i + "/deposit", "spoof-" + i + ", 198.51.100.7")).getStatus());
+        }
+        assertEquals(429, send(fromProxy("/wallets/other/deposit", "198.51.100.7")).getStatus());
+
+        // usuário autenticado: o header não conta
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = fromProxy("/wallets/u" + i + "/deposit", "rotated-" + i);
+            request.setUserPrincipal(() -> "ana");
+            assertEquals(200, send(request).getStatus());
+        }
+        MockHttpServletRequest request = fromProxy("/wallets/other/deposit", "rotated-new");
+        request.setUserPrincipal(() -> "ana");
+        assertEquals(429, send(request).getStatus());
+    }
+
+    @Test
+    void shouldIgnoreRoutesOutsideMoneyMovement() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, send(new MockHttpServletRequest("GET", "/wallets/w1/balance")).getStatus());
+            assertEquals(200, send(new MockHttpServletRequest("POST", "/pix/webhook")).getStatus());
+        }
+        assertEquals(0, walletLimits.tracked());
+        assertEquals(0, clientLimits.tracked());
+    }
+
+    private MockHttpServletRequest fromProxy(String path, String clientHeader) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("X-Client-Id", clientHeader);
+        return request;
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletRequest pix() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/pix/transfers");
+        request.setContentType("application/json");
+        request.setContent(PIX_BODY.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
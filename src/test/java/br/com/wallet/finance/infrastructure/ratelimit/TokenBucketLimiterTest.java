@@ -0,0 +1,85 @@
+package br.com.wallet.finance.infrastructure.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+    @Test
+    void shouldAllowBurstThenRefillAtConfiguredRate() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("wallet", 3, 2, 100, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+
+        // sem token: espera meio segundo pelo próximo (2 por segundo)
+        long wait = limiter.tryAcquire("a");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), wait);
+        assertEquals(1, limiter.rejected());
+
+        // outras chaves têm balde próprio
+        assertEquals(0, limiter.tryAcquire("b"));
+
+        clock.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+    }
+
+    @Test
+    void shouldEvictIdleBucketsBeforeBusyOnesWhenFull() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("client", 2, 1, 10, clock::get);
+
+        // "busy" esvazia o balde; as demais ficam com um token gasto e se recompõem em 1s
+        limiter.tryAcquire("busy");
+        limiter.tryAcquire("busy");
+        for (int i = 0; i < 9; i++) {
+            limiter.tryAcquire("idle-" + i);
+        }
+        assertEquals(10, limiter.tracked());
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1500));
+        limiter.tryAcquire("busy");
+        limiter.tryAcquire("busy");
+
+        // a 11ª chave passa do teto: saem os baldes cheios, o que está vazio continua limitado
+        limiter.tryAcquire("new");
+        assertTrue(limiter.tracked() <= 10);
+        assertTrue(limiter.evicted() >= 9);
+        assertTrue(limiter.tryAcquire("busy") > 0);
+    }
+
+    @Test
+    void shouldRejectNewKeysInsteadOfEvictingBusyBucketsWhenFull() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("wallet", 2, 1, 3, clock::get);
+        for (String key : new String[]{"a", "b", "c"}) {
+            limiter.tryAcquire(key);
+            limiter.tryAcquire(key);
+        }
+
+        // mapa no teto e nenhum balde cheio: a chave nova espera, os baldes em uso não são trocados
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.tryAcquire("flood-1"));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.tryAcquire("flood-2"));
+        assertEquals(3, limiter.tracked());
+        assertEquals(0, limiter.evicted());
+        assertTrue(limiter.tryAcquire("a") > 0);
+
+        // recompostos, os baldes cheios saem e a chave nova entra
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals(0, limiter.tryAcquire("flood-1"));
+        assertEquals(3, limiter.evicted());
+        assertEquals(1, limiter.tracked());
+    }
+
+    @Test
+    void shouldRejectInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter("wallet", 0, 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter("wallet", 1, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter("wallet", 1, 1, 0));
+    }
+}
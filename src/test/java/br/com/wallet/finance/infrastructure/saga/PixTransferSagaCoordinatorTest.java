@@ -0,0 +1,178 @@
+package br.com.wallet.finance.infrastructure.saga;
+
+import br.com.wallet.finance.domain.enums.LedgerReason;
+import br.com.wallet.finance.domain.enums.PixSagaOutcome;
+import br.com.wallet.finance.domain.enums.PixSagaState;
+import br.com.wallet.finance.domain.enums.PixTransferStatus;
+import br.com.wallet.finance.domain.model.LedgerEntry;
+import br.com.wallet.finance.domain.model.PixSagaReceipt;
+import br.com.wallet.finance.domain.model.PixTransfer;
+import br.com.wallet.finance.domain.model.PixTransferSaga;
+import br.com.wallet.finance.domain.model.Wallet;
+import br.com.wallet.finance.infrastructure.repository.LedgerEntryRepository;
+import br.com.wallet.finance.infrastructure.repository.PixSagaReceiptRepository;
+import br.com.wallet.finance.infrastructure.repository.PixTransferRepository;
+import br.com.wallet.finance.infrastructure.repository.PixTransferSagaRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletDailyCashFlowRepository;
+import br.com.wallet.finance.infrastructure.repository.WalletRepository;
+import br.com.wallet.finance.infrastructure.sharding.WalletShards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PixTransferSagaCoordinatorTest {
+
+    private static final String END_TO_END_ID = "E0000000020251009150000000000001";
+
+    private PixTransferSagaRepository sagaRepository;
+    private PixSagaReceiptRepository receiptRepository;
+    private PixTransferRepository pixTransferRepository;
+    private WalletRepository walletRepository;
+    private LedgerEntryRepository ledgerEntryRepository;
+    private PixTransferSagaCoordinator coordinator;
+
+    private Wallet fromWallet;
+    private Wallet toWallet;
+    private PixTransfer transfer;
+    private PixTransferSaga saga;
+
+    @BeforeEach
+    void setup() {
+        sagaRepository = mock(PixTransferSagaRepository.class);
+        receiptRepository = mock(PixSagaReceiptRepository.class);
+        pixTransferRepository = mock(PixTransferRepository.class);
+        walletRepository = mock(WalletRepository.class);
+        ledgerEntryRepository = mock(LedgerEntryRepository.class);
+
+        // um só banco: o que interessa aqui são as transições, não o roteamento
+        coordinator = new PixTransferSagaCoordinator(sagaRepository, receiptRepository, pixTransferRepository,
+                walletRepository, ledgerEntryRepository, mock(WalletDailyCashFlowRepository.class),
+                WalletShards.single(mock(DataSource.class)), mock(PlatformTransactionManager.class),
+                3, Duration.ofSeconds(2), Duration.ofMinutes(5), 1, 10);
+
+        fromWallet = Wallet.builder().id(UUID.randomUUID()).currentBalance(new BigDecimal("80.00")).build();
+        toWallet = Wallet.builder().id(UUID.randomUUID()).currentBalance(new BigDecimal("10.00")).build();
+        transfer = PixTransfer.builder()
+                .endToEndId(END_TO_END_ID)
+                .fromWallet(fromWallet)
+                .toWallet(toWallet)
+                .amount(new BigDecimal("20.00"))
+                .status(PixTransferStatus.PENDING)
+                .build();
+        saga = PixTransferSaga.builder()
+                .endToEndId(END_TO_END_ID)
+                .fromWalletId(fromWallet.getId())
+                .toWalletId(toWallet.getId())
+                .amount(new BigDecimal("20.00"))
+                .state(PixSagaState.CREDITING)
+                .attempts(0)
+                .nextAttemptAt(Instant.now())
+                .build();
+
+        when(sagaRepository.findById(END_TO_END_ID)).thenReturn(Optional.of(saga));
+        when(sagaRepository.findByIdForUpdate(END_TO_END_ID)).thenReturn(Optional.of(saga));
+        when(pixTransferRepository.findByEndToEndId(END_TO_END_ID)).thenReturn(Optional.of(transfer));
+        when(receiptRepository.findById(END_TO_END_ID)).thenReturn(Optional.empty());
+        when(walletRepository.findByIdForUpdate(fromWallet.getId())).thenReturn(Optional.of(fromWallet));
+    }
+
+    @AfterEach
+    void tearDown() {
+        coordinator.destroy();
+    }
+
+    @Test
+    void shouldCreditDestinationAndCompleteTransfer() {
+        when(walletRepository.findByIdForUpdate(toWallet.getId())).thenReturn(Optional.of(toWallet));
+
+        assertEquals(PixSagaState.COMPLETED, coordinator.advance(null, END_TO_END_ID));
+
+        assertEquals(new BigDecimal("30.00"), toWallet.getCurrentBalance());
+        assertEquals(PixTransferStatus.CONFIRMED, transfer.getStatus());
+        assertEquals(PixSagaOutcome.CREDITED, savedReceipt().getOutcome());
+        ArgumentCaptor<LedgerEntry> entry = ArgumentCaptor.forClass(LedgerEntry.class);
+        verify(ledgerEntryRepository).save(entry.capture());
+        assertEquals(LedgerReason.PIX_IN_CONFIRMED, entry.getValue().getReason());
+        assertEquals(new BigDecimal("80.00"), fromWallet.getCurrentBalance());
+    }
+
+    @Test
+    void shouldRefundSourceWhenDestinationWalletDoesNotExist() {
+        when(walletRepository.findByIdForUpdate(toWallet.getId())).thenReturn(Optional.empty());
+
+        assertEquals(PixSagaState.COMPENSATED, coordinator.advance(null, END_TO_END_ID));
+
+        // o recibo VOIDED impede que um crédito atrasado aconteça depois do estorno
+        assertEquals(PixSagaOutcome.VOIDED, savedReceipt().getOutcome());
+        assertEquals(new BigDecimal("100.00"), fromWallet.getCurrentBalance());
+        assertEquals(PixTransferStatus.REJECTED, transfer.getStatus());
+        assertEquals(1, saga.getAttempts());
+    }
+
+    @Test
+    void shouldScheduleRetryOnTransientFailure() {
+        when(walletRepository.findByIdForUpdate(toWallet.getId())).thenThrow(new IllegalStateException("connection refused"));
+
+        Instant before = Instant.now();
+        assertEquals(PixSagaState.CREDITING, coordinator.advance(null, END_TO_END_ID));
+
+        assertEquals(1, saga.getAttempts());
+        assertTrue(saga.getNextAttemptAt().isAfter(before.plusSeconds(1)));
+        assertTrue(saga.getLastError().contains("connection refused"));
+        assertEquals(PixTransferStatus.PENDING, transfer.getStatus());
+        verifyNoInteractions(ledgerEntryRepository);
+    }
+
+    @Test
+    void shouldCompensateAfterMaxAttempts() {
+        saga.setAttempts(2);
+        when(walletRepository.findByIdForUpdate(toWallet.getId()))
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(Optional.of(toWallet));
+
+        assertEquals(PixSagaState.COMPENSATED, coordinator.advance(null, END_TO_END_ID));
+
+        assertEquals(3, saga.getAttempts());
+        assertEquals(new BigDecimal("10.00"), toWallet.getCurrentBalance());
+        assertEquals(new BigDecimal("100.00"), fromWallet.getCurrentBalance());
+        assertEquals(PixTransferStatus.REJECTED, transfer.getStatus());
+    }
+
+    @Test
+    void shouldCompleteInsteadOfRefundWhenCreditAlreadyLanded() {
+        // o crédito foi aplicado, mas a resposta se perdeu e a saga passou a compensar
+        saga.setState(PixSagaState.COMPENSATING);
+        when(walletRepository.findByIdForUpdate(toWallet.getId())).thenReturn(Optional.of(toWallet));
+        when(receiptRepository.findById(END_TO_END_ID)).thenReturn(Optional.of(PixSagaReceipt.builder()
+                .endToEndId(END_TO_END_ID)
+                .walletId(toWallet.getId())
+                .outcome(PixSagaOutcome.CREDITED)
+                .build()));
+
+        assertEquals(PixSagaState.COMPLETED, coordinator.advance(null, END_TO_END_ID));
+
+        assertEquals(new BigDecimal("80.00"), fromWallet.getCurrentBalance());
+        assertEquals(PixTransferStatus.CONFIRMED, transfer.getStatus());
+        verify(receiptRepository, never()).save(any());
+        verifyNoInteractions(ledgerEntryRepository);
+    }
+
+    private PixSagaReceipt savedReceipt() {
+        ArgumentCaptor<PixSagaReceipt> receipt = ArgumentCaptor.forClass(PixSagaReceipt.class);
+        verify(receiptRepository).save(receipt.capture());
+        return receipt.getValue();
+    }
+}
@@ -0,0 +1,180 @@
+package br.com.wallet.finance.infrastructure.schema;
+
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.naming.NamingHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMigratorTest {
+
+    @TempDir
+    Path dir;
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private Path common;
+
+    @BeforeEach
+    void setup() throws IOException {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        common = Files.createDirectories(dir.resolve("common"));
+        Files.writeString(common.resolve("V1__baseline.sql"), "create table wallets (wallet_id uuid primary key);");
+        Files.writeString(common.resolve("V2__add_owner.sql"), """
+                -- comentário ignorado
+                alter table wallets add column owner_name varchar(120);
+                create index idx_wallet_owner on wallets (owner_name);
+                """);
+    }
+
+    @Test
+    void shouldApplyPendingMigrationsInOrderOnlyOnce() {
+        SchemaMigrator migrator = migrator(false);
+
+        assertEquals(2, migrator.migrate());
+        assertEquals(0, migrator.migrate());
+
+        assertEquals(List.of(1, 2), jdbcTemplate.queryForList(
+                "select version from schema_history order by version", Integer.class));
+        assertEquals("add owner", jdbcTemplate.queryForObject(
+                "select description from schema_history where version = 2", String.class));
+        jdbcTemplate.update("insert into wallets (wallet_id, owner_name) values (?, 'x')", UUID.randomUUID());
+    }
+
+    @Test
+    void shouldUseVendorSpecificLocationWhenItExists() throws IOException {
+        Path h2 = Files.createDirectories(dir.resolve("h2"));
+        Files.writeString(h2.resolve("V3__h2_only.sql"), "create table h2_only (id integer);");
+
+        SchemaMigrator migrator = new SchemaMigrator(
+                dataSource,
+                new PathMatchingResourcePatternResolver(),
+                List.of(location(common), dir.toUri() + "{vendor}", dir.toUri() + "missing"),
+                false
+        );
+
+        assertEquals(3, migrator.migrate());
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from h2_only", Integer.class));
+    }
+
+    @Test
+    void shouldRefuseToStartWhenAppliedScriptWasChanged() throws IOException {
+        migrator(false).migrate();
+        Files.writeString(common.resolve("V2__add_owner.sql"), "alter table wallets add column owner_name varchar(200);");
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> migrator(false).migrate());
+        assertEquals("Migration V2__add_owner.sql was changed after being applied", ex.getMessage());
+    }
+
+    @Test
+    void shouldBaselineSchemaCreatedOutsideMigrations() {
+        jdbcTemplate.execute("create table wallets (wallet_id uuid primary key)");
+
+        // V1 não roda (falharia: a tabela já existe); só as posteriores
+        assertEquals(1, migrator(true).migrate());
+
+        assertNull(jdbcTemplate.queryForObject(
+                "select checksum from schema_history where version = 1", Integer.class));
+        assertEquals(SchemaMigrator.BASELINE_DESCRIPTION, jdbcTemplate.queryForObject(
+                "select description from schema_history where version = 1", String.class));
+    }
+
+    @Test
+    void shouldCreateTablesAddedAfterBaselineOnAdoptedSchema() throws SQLException {
+        // banco de produção anterior às migrações: só as tabelas que o ddl-auto criava
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/common/V1__baseline.sql"));
+        }
+
+        SchemaMigrator migrator = new SchemaMigrator(
+                dataSource,
+                new PathMatchingResourcePatternResolver(),
+                List.of("classpath:db/migration/common", "classpath:db/migration/{vendor}"),
+                true
+        );
+        migrator.migrate();
+
+        for (String table : List.of("wallet_daily_cashflow", "wallet_balance_snapshots", "balance_snapshot_checkpoints",
+                "reconciliation_runs", "ledger_archive_segments", "wallet_archived_balances")) {
+            assertEquals(0, jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class), table);
+        }
+        assertNull(jdbcTemplate.queryForObject(
+                "select checksum from schema_history where version = 1", Integer.class));
+    }
+
+    @Test
+    void shouldDropTransferForeignKeysNamedByHibernateOnAdoptedSchema() throws Exception {
+        // esquema do antigo ddl-auto: mesmas tabelas, chaves estrangeiras com os nomes gerados pelo Hibernate
+        String baseline = new ClassPathResource("db/migration/common/V1__baseline.sql")
+                .getContentAsString(StandardCharsets.UTF_8)
+                .replace("fk_transfer_from_wallet", hibernateFkName("pix_transfers", "from_wallet_id"))
+                .replace("fk_transfer_to_wallet", hibernateFkName("pix_transfers", "to_wallet_id"))
+                .replace("fk_pix_key_wallet", hibernateFkName("pix_keys", "wallet_id"))
+                .replace("fk_ledger_wallet", hibernateFkName("ledger_entries", "wallet_id"));
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ByteArrayResource(baseline.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        new SchemaMigrator(
+                dataSource,
+                new PathMatchingResourcePatternResolver(),
+                List.of("classpath:db/migration/common", "classpath:db/migration/{vendor}"),
+                true
+        ).migrate();
+
+        assertEquals(0, jdbcTemplate.queryForObject("""
+                select count(*) from information_schema.table_constraints
+                where table_name = 'PIX_TRANSFERS' and constraint_type = 'FOREIGN KEY'
+                """, Integer.class));
+        // as demais seguem com os nomes do Hibernate
+        assertEquals(1, jdbcTemplate.queryForObject("""
+                select count(*) from information_schema.table_constraints
+                where table_name = 'PIX_KEYS' and constraint_type = 'FOREIGN KEY'
+                """, Integer.class));
+    }
+
+    @Test
+    void shouldRefuseExistingSchemaWithoutBaseline() {
+        jdbcTemplate.execute("create table wallets (wallet_id uuid primary key)");
+
+        assertThrows(IllegalStateException.class, () -> migrator(false).migrate());
+    }
+
+    private static String hibernateFkName(String table, String column) {
+        return NamingHelper.INSTANCE.generateHashedFkName("FK", Identifier.toIdentifier(table),
+                Identifier.toIdentifier("wallets"), Identifier.toIdentifier(column));
+    }
+
+    private SchemaMigrator migrator(boolean baselineOnMigrate) {
+        return new SchemaMigrator(
+                dataSource,
+                new PathMatchingResourcePatternResolver(),
+                List.of(location(common)),
+                baselineOnMigrate
+        );
+    }
+
+    private static String location(Path path) {
+        String uri = path.toUri().toString();
+        return uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.wallet.finance.infrastructure.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int WALLETS = 30_000;
+
+    @Test
+    void shouldSpreadWalletsEvenlyAcrossShards() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("s0", "s1", "s2"), 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (UUID walletId : wallets()) {
+            counts.merge(ring.shardFor(walletId), 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(Math.abs(count - WALLETS / 3) < WALLETS / 3 * 0.15,
+                "unbalanced ring: " + counts));
+    }
+
+    @Test
+    void shouldMoveOnlyWalletsThatLandOnTheNewShard() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("s0", "s1", "s2"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("s0", "s1", "s2", "s3"), 128);
+
+        int moved = 0;
+        for (UUID walletId : wallets()) {
+            String owner = before.shardFor(walletId);
+            String newOwner = after.shardFor(walletId);
+            if (!owner.equals(newOwner)) {
+                // nenhuma carteira troca entre shards antigos
+                assertEquals("s3", newOwner);
+                moved++;
+            }
+        }
+
+        // cerca de 1/4 das carteiras, não quase todas como em hash % N
+        assertTrue(Math.abs(moved - WALLETS / 4) < WALLETS / 4 * 0.2, "moved " + moved);
+    }
+
+    @Test
+    void shouldBeDeterministicAndRejectInvalidConfiguration() {
+        UUID walletId = UUID.randomUUID();
+        assertEquals(new ConsistentHashRing(List.of("a", "b"), 16).shardFor(walletId),
+                new ConsistentHashRing(List.of("a", "b"), 16).shardFor(walletId));
+
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 16));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of("a", "a"), 16));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of("a"), 0));
+    }
+
+    private static List<UUID> wallets() {
+        Random random = new Random(42);
+        return Stream.generate(() -> new UUID(random.nextLong(), random.nextLong()))
+                .limit(WALLETS)
+                .toList();
+    }
+}
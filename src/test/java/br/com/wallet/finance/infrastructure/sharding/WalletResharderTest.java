@@ -0,0 +1,149 @@
+package br.com.wallet.finance.infrastructure.sharding;
+
+import br.com.wallet.finance.domain.exception.WalletNotFoundException;
+import br.com.wallet.finance.infrastructure.schema.SchemaMigrator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalletResharderTest {
+
+    private final String testId = UUID.randomUUID().toString();
+
+    private Map<String, DataSource> shards;
+    private WalletShards walletShards;
+    private WalletResharder resharder;
+
+    @BeforeEach
+    void setup() {
+        // três bancos com o esquema completo; o anel atual só conhece s0 e s1 (s2 acabou de entrar)
+        shards = new LinkedHashMap<>();
+        for (String name : List.of("s0", "s1", "s2")) {
+            shards.put(name, new DriverManagerDataSource("jdbc:h2:mem:" + name + "-" + testId + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        }
+        new SchemaMigrator(shards.values(), new PathMatchingResourcePatternResolver(),
+                List.of("classpath:db/migration/common", "classpath:db/migration/{vendor}"), false).migrate();
+
+        walletShards = shards(List.of("s0", "s1"));
+        resharder = new WalletResharder(walletShards);
+    }
+
+    @Test
+    void shouldMoveWalletWithItsRowsAndRouteToTheNewShard() {
+        UUID walletId = UUID.randomUUID();
+        String source = walletShards.shardOf(walletId);
+        insertWallet(source, walletId, "30.00");
+        insertLedger(source, walletId, "50.00", 1);
+        insertLedger(source, walletId, "20.00", 2);
+        jdbc(source).update("insert into pix_keys (pix_key_id, wallet_id, key_type, key_value, created_at) values (?, ?, 'EMAIL', 'a@pix.com', ?)",
+                UUID.randomUUID(), walletId, now());
+
+        // outra instância que ainda não sabe da mudança
+        WalletShards stale = shards(List.of("s0", "s1"));
+
+        assertTrue(resharder.move(walletId, "s2"));
+
+        assertEquals(0, count(source, "wallets", walletId));
+        assertEquals(0, count(source, "ledger_entries", walletId));
+        assertEquals(1, count("s2", "wallets", walletId));
+        assertEquals(2, count("s2", "ledger_entries", walletId));
+        assertEquals(1, count("s2", "pix_keys", walletId));
+        assertEquals("s2", walletShards.shardOf(walletId));
+        assertEquals("s2", shards(List.of("s0", "s1")).shardOf(walletId));
+
+        // a instância desatualizada não acha a carteira no shard antigo, relê o diretório e repete no novo
+        JdbcTemplate routed = new JdbcTemplate(new ShardRoutingDataSource(stale.dataSources(), stale.directoryShard()));
+        BigDecimal balance = stale.onWallet(walletId, () -> routed.queryForList(
+                        "select current_balance from wallets where wallet_id = ?", BigDecimal.class, walletId)
+                .stream().findFirst().orElseThrow(() -> new WalletNotFoundException("Wallet not found")));
+        assertEquals(0, new BigDecimal("30.00").compareTo(balance));
+        assertEquals("s2", stale.shardOf(walletId));
+    }
+
+    @Test
+    void shouldNotMoveWalletWithPendingPix() {
+        UUID walletId = UUID.randomUUID();
+        String source = walletShards.shardOf(walletId);
+        insertWallet(source, walletId, "10.00");
+        jdbc(source).update("""
+                insert into pix_transfers (pix_transfer_id, from_wallet_id, to_wallet_id, to_pix_key, amount, status,
+                                           end_to_end_id, idempotency_key, created_at, updated_at, version)
+                values (?, ?, null, 'x@pix.com', 5.00, 'PENDING', 'E1', 'k1', ?, ?, 0)
+                """, UUID.randomUUID(), walletId, now(), now());
+
+        assertFalse(resharder.move(walletId, "s2"));
+
+        assertEquals(1, count(source, "wallets", walletId));
+        assertEquals(0, count("s2", "wallets", walletId));
+        assertEquals(source, walletShards.shardOf(walletId));
+        assertEquals(0, jdbc("s0").queryForObject("select count(*) from wallet_shard_overrides", Integer.class));
+    }
+
+    @Test
+    void shouldRebalanceOnlyWalletsOwnedByTheNewShard() {
+        List<UUID> wallets = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            UUID walletId = UUID.randomUUID();
+            insertWallet(walletShards.shardOf(walletId), walletId, "1.00");
+            wallets.add(walletId);
+        }
+        ConsistentHashRing target = new ConsistentHashRing(List.of("s0", "s1", "s2"), 128);
+        long expected = wallets.stream().filter(id -> target.shardFor(id).equals("s2")).count();
+
+        RebalanceResult result = resharder.rebalance(target, 1000);
+
+        // s2 é varrido por último e já contém as carteiras que acabaram de chegar
+        assertEquals(60 + expected, result.scanned());
+        assertEquals(expected, result.moved());
+        for (UUID walletId : wallets) {
+            assertEquals(target.shardFor(walletId), walletShards.shardOf(walletId));
+            assertEquals(1, count(target.shardFor(walletId), "wallets", walletId));
+        }
+        // nada mais a mover
+        assertEquals(0, resharder.rebalance(target, 1000).moved());
+    }
+
+    private WalletShards shards(List<String> ring) {
+        WalletShards instance = new WalletShards(shards, new ConsistentHashRing(ring, 128));
+        instance.afterSingletonsInstantiated();
+        return instance;
+    }
+
+    private JdbcTemplate jdbc(String shard) {
+        return new JdbcTemplate(shards.get(shard));
+    }
+
+    private void insertWallet(String shard, UUID walletId, String balance) {
+        jdbc(shard).update("insert into wallets (wallet_id, owner_name, current_balance, created_at, version) values (?, 'Ana', ?, ?, 0)",
+                walletId, new BigDecimal(balance), now());
+    }
+
+    private void insertLedger(String shard, UUID walletId, String amount, int entryType) {
+        jdbc(shard).update("""
+                insert into ledger_entries (ledger_entry_id, wallet_id, entry_type, reason_code, amount, occurred_at)
+                values (?, ?, ?, ?, ?, ?)
+                """, UUID.randomUUID(), walletId, entryType, entryType, new BigDecimal(amount), now());
+    }
+
+    private int count(String shard, String table, UUID walletId) {
+        return jdbc(shard).queryForObject("select count(*) from " + table + " where wallet_id = ?", Integer.class, walletId);
+    }
+
+    private static Timestamp now() {
+        return Timestamp.from(Instant.now());
+    }
+}
@@ -0,0 +1,153 @@
+package br.com.wallet.finance.infrastructure.sharding;
+
+import br.com.wallet.finance.domain.exception.WalletNotFoundException;
+import br.com.wallet.finance.infrastructure.schema.SchemaMigrator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalletShardsTest {
+
+    private final String testId = UUID.randomUUID().toString();
+
+    private Map<String, DataSource> shards;
+    private WalletShards walletShards;
+
+    @BeforeEach
+    void setup() {
+        shards = new LinkedHashMap<>();
+        for (String name : List.of("s0", "s1")) {
+            shards.put(name, new DriverManagerDataSource("jdbc:h2:mem:" + name + "-" + testId + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        }
+        new SchemaMigrator(shards.values(), new PathMatchingResourcePatternResolver(),
+                List.of("classpath:db/migration/common", "classpath:db/migration/{vendor}"), false).migrate();
+
+        walletShards = new WalletShards(shards, new ConsistentHashRing(List.of("s0", "s1"), 128));
+        walletShards.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void shouldResolveTransferShardFromTheDirectoryRegisteredAtCreation() {
+        ShardContext.on("s1", () -> {
+            walletShards.registerTransfer("E1");
+            return null;
+        });
+
+        // nenhuma linha em pix_transfers: a resposta vem só do diretório
+        assertEquals("s1", walletShards.shardOfTransfer("E1"));
+    }
+
+    @Test
+    void shouldUndoTransferRegistrationWhenTheShardTransactionRollsBack() {
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(shards.get("s1")));
+
+        tx.executeWithoutResult(status -> {
+            ShardContext.on("s1", () -> {
+                walletShards.registerTransfer("E1");
+                return null;
+            });
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, directoryCount("E1"));
+    }
+
+    @Test
+    void shouldFindTransferCreatedBeforeTheDirectoryAndRecordIt() {
+        insertTransfer("s1", "pix_transfers", "E-hot");
+        insertTransfer("s1", "pix_transfers_history", "E-old");
+
+        assertEquals("s1", walletShards.shardOfTransfer("E-hot"));
+        assertEquals("s1", walletShards.shardOfTransfer("E-old"));
+        assertEquals(1, directoryCount("E-hot"));
+        assertEquals(1, directoryCount("E-old"));
+        // desconhecida: shard do diretório, sem registro
+        assertEquals("s0", walletShards.shardOfTransfer("E-unknown"));
+        assertEquals(0, directoryCount("E-unknown"));
+    }
+
+    @Test
+    void shouldRetryOnTheNewShardOnlyWhenTheWalletIsNotFound() {
+        UUID walletId = UUID.randomUUID();
+        String ringShard = walletShards.shardOf(walletId);
+        String movedTo = ringShard.equals("s0") ? "s1" : "s0";
+        // outra instância moveu a carteira; esta ainda não soube
+        moveWallet(walletId, movedTo);
+        AtomicInteger calls = new AtomicInteger();
+
+        IllegalStateException conflict = new IllegalStateException("Insufficient balance");
+        assertSame(conflict, assertThrows(IllegalStateException.class, () -> walletShards.onWallet(walletId, () -> {
+            calls.incrementAndGet();
+            throw conflict;
+        })));
+        assertEquals(1, calls.get());
+        assertEquals(ringShard, walletShards.shardOf(walletId));
+
+        String ranOn = walletShards.onWallet(walletId, () -> {
+            if (ShardContext.current().equals(ringShard)) {
+                throw new WalletNotFoundException("Wallet not found");
+            }
+            return ShardContext.current();
+        });
+        assertEquals(movedTo, ranOn);
+    }
+
+    @Test
+    void shouldKeepTheOriginalFailureWhenTheDirectoryCannotBeReread() {
+        UUID walletId = UUID.randomUUID();
+        new JdbcTemplate(shards.get("s0")).execute("drop table wallet_shard_overrides");
+        WalletNotFoundException notFound = new WalletNotFoundException("Wallet not found");
+
+        WalletNotFoundException thrown = assertThrows(WalletNotFoundException.class,
+                () -> walletShards.onWallet(walletId, () -> {
+                    throw notFound;
+                }));
+
+        assertSame(notFound, thrown);
+        assertEquals(1, thrown.getSuppressed().length);
+    }
+
+    private void moveWallet(UUID walletId, String shard) {
+        new JdbcTemplate(shards.get("s0")).update(
+                "insert into wallet_shard_overrides (wallet_id, shard, moved_at) values (?, ?, ?)",
+                walletId, shard, Timestamp.from(Instant.now()));
+    }
+
+    private int directoryCount(String endToEndId) {
+        return new JdbcTemplate(shards.get("s0")).queryForObject(
+                "select count(*) from pix_transfer_directory where end_to_end_id = ?", Integer.class, endToEndId);
+    }
+
+    private void insertTransfer(String shard, String table, String endToEndId) {
+        Timestamp now = Timestamp.from(Instant.now());
+        JdbcTemplate jdbc = new JdbcTemplate(shards.get(shard));
+        jdbc.update("""
+                insert into pix_transfers (pix_transfer_id, from_wallet_id, to_wallet_id, to_pix_key, amount, status,
+                                           end_to_end_id, idempotency_key, created_at, updated_at, version)
+                values (?, ?, null, 'x@pix.com', 5.00, 'CONFIRMED', ?, ?, ?, ?, 0)
+                """, UUID.randomUUID(), UUID.randomUUID(), endToEndId, endToEndId, now, now);
+        if (table.equals("pix_transfers_history")) {
+            // aposentada: sai da tabela quente
+            jdbc.update("""
+                    insert into pix_transfers_history
+                    select t.*, ? from pix_transfers t where end_to_end_id = ?
+                    """, now, endToEndId);
+            jdbc.update("delete from pix_transfers where end_to_end_id = ?", endToEndId);
+        }
+    }
+}